@@ -0,0 +1,176 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * A {@link ClientInterceptor} that rejects calls locally, without sending them, when the
+ * backend has been rejecting calls. It counts the calls made and the calls accepted by
+ * the backend over a sliding window (counting each call when it completes, so calls in
+ * flight do not skew the ratio), and rejects each new call with probability
+ * {@code max(0, (requests - multiplier * accepts) / (requests + 1))}. A call is accepted
+ * unless it fails with one of the rejection codes ({@code RESOURCE_EXHAUSTED} and
+ * {@code UNAVAILABLE} by default), and calls rejected locally count as requests, so the
+ * rejection rate follows the backend as it recovers.
+ * <p>
+ * The multiplier controls how aggressive the throttling is: with the default of 2 the
+ * client sends up to twice as many calls as the backend accepts. Use one instance per
+ * channel (or per backend), since the statistics are shared by all calls through it.
+ * Locally rejected calls fail with {@link Status#UNAVAILABLE}.
+ *
+ * @author Dave Syer
+ */
+public class AdaptiveThrottlingInterceptor implements ClientInterceptor {
+
+	private static final int BUCKETS = 10;
+
+	private final double multiplier;
+
+	private final long bucketMillis;
+
+	private final Bucket[] buckets = new Bucket[BUCKETS];
+
+	private Set<Status.Code> rejectionCodes = EnumSet.of(Status.Code.RESOURCE_EXHAUSTED, Status.Code.UNAVAILABLE);
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Create a new interceptor with a multiplier of 2 and a window of 2 minutes.
+	 */
+	public AdaptiveThrottlingInterceptor() {
+		this(2.0, Duration.ofMinutes(2));
+	}
+
+	/**
+	 * Create a new interceptor.
+	 * @param multiplier the ratio of requests to accepts above which calls are rejected
+	 * @param window the period over which requests and accepts are counted
+	 */
+	public AdaptiveThrottlingInterceptor(double multiplier, Duration window) {
+		Assert.isTrue(multiplier >= 1, "multiplier must be at least 1");
+		Assert.isTrue(window.toMillis() >= BUCKETS, "window must be at least " + BUCKETS + "ms");
+		this.multiplier = multiplier;
+		this.bucketMillis = window.toMillis() / BUCKETS;
+		for (int i = 0; i < BUCKETS; i++) {
+			this.buckets[i] = new Bucket();
+		}
+	}
+
+	/**
+	 * Set the status codes that count as a rejection by the backend. Defaults to
+	 * {@code RESOURCE_EXHAUSTED} and {@code UNAVAILABLE}.
+	 * @param rejectionCodes the rejection codes
+	 */
+	public void setRejectionCodes(Set<Status.Code> rejectionCodes) {
+		Assert.notEmpty(rejectionCodes, "rejectionCodes cannot be empty");
+		this.rejectionCodes = EnumSet.copyOf(rejectionCodes);
+	}
+
+	/**
+	 * Set the clock used to move the window. Defaults to the system clock.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	@Override
+	public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+			CallOptions callOptions, Channel next) {
+		if (ThreadLocalRandom.current().nextDouble() < getRejectionProbability()) {
+			current().requests.incrementAndGet();
+			return new FailedClientCall<>(Status.UNAVAILABLE.withDescription("Call throttled by client"), callOptions);
+		}
+		return new SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+			@Override
+			public void start(Listener<RespT> responseListener, Metadata headers) {
+				super.start(new SimpleForwardingClientCallListener<>(responseListener) {
+					@Override
+					public void onClose(Status status, Metadata trailers) {
+						Bucket bucket = current();
+						bucket.requests.incrementAndGet();
+						if (!AdaptiveThrottlingInterceptor.this.rejectionCodes.contains(status.getCode())) {
+							bucket.accepts.incrementAndGet();
+						}
+						super.onClose(status, trailers);
+					}
+				}, headers);
+			}
+		};
+	}
+
+	/**
+	 * Get the probability that the next call will be rejected locally.
+	 * @return the rejection probability (between 0 and 1)
+	 */
+	public double getRejectionProbability() {
+		long epoch = this.clock.millis() / this.bucketMillis;
+		long requests = 0;
+		long accepts = 0;
+		for (Bucket bucket : this.buckets) {
+			if (epoch - bucket.epoch < BUCKETS) {
+				requests += bucket.requests.get();
+				accepts += bucket.accepts.get();
+			}
+		}
+		return Math.max(0, (requests - this.multiplier * accepts) / (requests + 1));
+	}
+
+	private Bucket current() {
+		long epoch = this.clock.millis() / this.bucketMillis;
+		Bucket bucket = this.buckets[(int) (epoch % BUCKETS)];
+		if (bucket.epoch != epoch) {
+			synchronized (bucket) {
+				if (bucket.epoch != epoch) {
+					bucket.requests.set(0);
+					bucket.accepts.set(0);
+					bucket.epoch = epoch;
+				}
+			}
+		}
+		return bucket;
+	}
+
+	private static class Bucket {
+
+		private volatile long epoch = -1;
+
+		private final AtomicLong requests = new AtomicLong();
+
+		private final AtomicLong accepts = new AtomicLong();
+
+	}
+
+}
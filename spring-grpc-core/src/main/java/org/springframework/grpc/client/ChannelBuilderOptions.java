@@ -18,6 +18,7 @@ package org.springframework.grpc.client;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.util.Assert;
 
@@ -30,6 +31,9 @@ import io.grpc.ManagedChannelBuilder;
  * Provides functionality beyond what is available with the native channel builders (e.g.
  * {@code shutdownGracePeriod}) and overrides some native channel builder behavior (e.g.
  * {@code interceptors}.
+ * <p>
+ * Options are compared by value (with interceptors and customizers compared by identity)
+ * so that channels created with equal options can be shared.
  *
  * @author Chris Bono
  */
@@ -148,4 +152,25 @@ public final class ChannelBuilderOptions {
 				customizer);
 	}
 
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		ChannelBuilderOptions other = (ChannelBuilderOptions) obj;
+		return this.mergeWithGlobalInterceptors == other.mergeWithGlobalInterceptors
+				&& this.interceptors.equals(other.interceptors)
+				&& Objects.equals(this.shutdownGracePeriod, other.shutdownGracePeriod)
+				&& Objects.equals(this.customizer, other.customizer);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.interceptors, this.mergeWithGlobalInterceptors, this.shutdownGracePeriod,
+				this.customizer);
+	}
+
 }
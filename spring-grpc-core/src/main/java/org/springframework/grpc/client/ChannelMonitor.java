@@ -0,0 +1,247 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ConnectivityState;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * Keeps track of the connectivity state of the channels for a target and of the calls
+ * made through them. The {@link DefaultGrpcChannelFactory} creates one for each target if
+ * it has {@link Listener listeners}, {@link #watch(ManagedChannel) watches} every channel
+ * that it builds for the target (including the ones in a pool), and adds the monitor as
+ * an interceptor so that it counts the calls.
+ * <p>
+ * The state is observed with {@link ManagedChannel#notifyWhenStateChanged}, so watching a
+ * channel does not make it connect.
+ *
+ * @author Dave Syer
+ */
+public class ChannelMonitor implements ClientInterceptor {
+
+	private final String target;
+
+	private final Map<ManagedChannel, Connectivity> channels = new ConcurrentHashMap<>();
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+	private final AtomicLong transitions = new AtomicLong();
+
+	private final AtomicInteger activeCalls = new AtomicInteger();
+
+	private final AtomicLong startedCalls = new AtomicLong();
+
+	private final AtomicLong succeededCalls = new AtomicLong();
+
+	private final AtomicLong failedCalls = new AtomicLong();
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Create a new monitor for the given target.
+	 * @param target the target of the channels
+	 */
+	public ChannelMonitor(String target) {
+		this.target = target;
+	}
+
+	/**
+	 * Set the clock used to measure the age of connections. Defaults to the system clock.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Add a listener that is notified when the state of a channel changes.
+	 * @param listener the listener to add
+	 */
+	public void addListener(Listener listener) {
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Start watching the state of a channel, until it is shut down.
+	 * @param channel the channel to watch
+	 */
+	public void watch(ManagedChannel channel) {
+		update(channel, channel.getState(false));
+	}
+
+	private void update(ManagedChannel channel, ConnectivityState state) {
+		Connectivity previous = this.channels.get(channel);
+		if (previous == null || previous.state() != state) {
+			if (state == ConnectivityState.SHUTDOWN) {
+				this.channels.remove(channel);
+			}
+			else {
+				this.channels.put(channel, new Connectivity(state, this.clock.instant()));
+			}
+			if (previous != null) {
+				this.transitions.incrementAndGet();
+				for (Listener listener : this.listeners) {
+					listener.stateChanged(this, previous.state(), state);
+				}
+			}
+		}
+		if (state != ConnectivityState.SHUTDOWN) {
+			channel.notifyWhenStateChanged(state, () -> update(channel, channel.getState(false)));
+		}
+	}
+
+	/**
+	 * Get the target of the channels.
+	 * @return the target
+	 */
+	public String getTarget() {
+		return this.target;
+	}
+
+	/**
+	 * Get the number of channels (that are not shut down) in the given state.
+	 * @param state the connectivity state
+	 * @return the number of channels in the state
+	 */
+	public int getChannelCount(ConnectivityState state) {
+		return (int) this.channels.values().stream().filter((channel) -> channel.state() == state).count();
+	}
+
+	/**
+	 * Get the number of times that a channel has changed state.
+	 * @return the number of transitions
+	 */
+	public long getTransitions() {
+		return this.transitions.get();
+	}
+
+	/**
+	 * Get the time since the longest-lived of the channels became ready, or zero if none
+	 * is ready.
+	 * @return the connection age
+	 */
+	public Duration getConnectionAge() {
+		Instant now = this.clock.instant();
+		return this.channels.values()
+			.stream()
+			.filter((channel) -> channel.state() == ConnectivityState.READY)
+			.map((channel) -> Duration.between(channel.since(), now))
+			.max(Duration::compareTo)
+			.orElse(Duration.ZERO);
+	}
+
+	/**
+	 * Get the number of calls that have started and not yet completed.
+	 * @return the number of active calls
+	 */
+	public int getActiveCalls() {
+		return this.activeCalls.get();
+	}
+
+	/**
+	 * Get the number of calls that have started.
+	 * @return the number of started calls
+	 */
+	public long getStartedCalls() {
+		return this.startedCalls.get();
+	}
+
+	/**
+	 * Get the number of calls that completed with {@link Status#OK}.
+	 * @return the number of succeeded calls
+	 */
+	public long getSucceededCalls() {
+		return this.succeededCalls.get();
+	}
+
+	/**
+	 * Get the number of calls that completed with any other status.
+	 * @return the number of failed calls
+	 */
+	public long getFailedCalls() {
+		return this.failedCalls.get();
+	}
+
+	@Override
+	public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+			CallOptions callOptions, Channel next) {
+		return new SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+			@Override
+			public void start(Listener<RespT> responseListener, Metadata headers) {
+				ChannelMonitor.this.startedCalls.incrementAndGet();
+				ChannelMonitor.this.activeCalls.incrementAndGet();
+				super.start(new SimpleForwardingClientCallListener<>(responseListener) {
+					@Override
+					public void onClose(Status status, Metadata trailers) {
+						ChannelMonitor.this.activeCalls.decrementAndGet();
+						(status.isOk() ? ChannelMonitor.this.succeededCalls : ChannelMonitor.this.failedCalls)
+							.incrementAndGet();
+						super.onClose(status, trailers);
+					}
+				}, headers);
+			}
+		};
+	}
+
+	/**
+	 * A listener for the monitors of a channel factory.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called when a monitor is created for a target.
+		 * @param monitor the new monitor
+		 */
+		default void created(ChannelMonitor monitor) {
+		}
+
+		/**
+		 * Called when one of the channels of a monitor changes state.
+		 * @param monitor the monitor
+		 * @param previous the previous state of the channel
+		 * @param current the current state of the channel
+		 */
+		default void stateChanged(ChannelMonitor monitor, ConnectivityState previous, ConnectivityState current) {
+		}
+
+	}
+
+	private record Connectivity(ConnectivityState state, Instant since) {
+	}
+
+}
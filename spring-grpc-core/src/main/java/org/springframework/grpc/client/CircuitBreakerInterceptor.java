@@ -0,0 +1,564 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.util.Assert;
+
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * A {@link ClientInterceptor} that keeps a {@link CircuitBreaker} for each method called
+ * through it, and fails calls fast with {@link Status#UNAVAILABLE} while the breaker for
+ * the method is open. Each breaker records the outcomes of the last calls in a sliding
+ * window, and opens when the rate of failed calls (calls that end with one of the failure
+ * codes) or of slow calls reaches its threshold. After a wait it lets a few trial calls
+ * through, and closes again if they all succeed.
+ * <p>
+ * The breakers are lock-free, so they add little overhead to calls when they are closed.
+ * Use one instance per channel target, since the breakers are shared by all calls through
+ * it.
+ *
+ * @author Dave Syer
+ */
+public class CircuitBreakerInterceptor implements ClientInterceptor {
+
+	private static final int SUCCESS = 1;
+
+	private static final int FAILURE = 2;
+
+	private static final int SLOW = 4;
+
+	private final String target;
+
+	private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+	private Set<Status.Code> failureCodes = EnumSet.of(Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED,
+			Status.Code.INTERNAL, Status.Code.UNKNOWN, Status.Code.RESOURCE_EXHAUSTED);
+
+	private double failureRateThreshold = 0.5;
+
+	private double slowCallRateThreshold = 1.0;
+
+	private Duration slowCallDuration = Duration.ofSeconds(60);
+
+	private int slidingWindowSize = 100;
+
+	private int minimumNumberOfCalls = 20;
+
+	private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+	private int permittedCallsInHalfOpenState = 5;
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * Create a new interceptor for the given target.
+	 * @param target the target of the channel (used to identify the breakers)
+	 */
+	public CircuitBreakerInterceptor(String target) {
+		this.target = target;
+	}
+
+	/**
+	 * Set the status codes that count as a failed call. Defaults to {@code UNAVAILABLE},
+	 * {@code DEADLINE_EXCEEDED}, {@code INTERNAL}, {@code UNKNOWN} and
+	 * {@code RESOURCE_EXHAUSTED}.
+	 * @param failureCodes the failure codes
+	 */
+	public void setFailureCodes(Set<Status.Code> failureCodes) {
+		Assert.notEmpty(failureCodes, "failureCodes cannot be empty");
+		this.failureCodes = EnumSet.copyOf(failureCodes);
+	}
+
+	/**
+	 * Set the rate of failed calls (between 0 and 1) at which a breaker opens. Defaults
+	 * to 0.5.
+	 * @param failureRateThreshold the failure rate threshold
+	 */
+	public void setFailureRateThreshold(double failureRateThreshold) {
+		Assert.isTrue(failureRateThreshold > 0 && failureRateThreshold <= 1,
+				"failureRateThreshold must be greater than 0 and at most 1");
+		this.failureRateThreshold = failureRateThreshold;
+	}
+
+	/**
+	 * Set the rate of slow calls (between 0 and 1) at which a breaker opens. Defaults to
+	 * 1 (i.e. only when all calls are slow).
+	 * @param slowCallRateThreshold the slow call rate threshold
+	 */
+	public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+		Assert.isTrue(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1,
+				"slowCallRateThreshold must be greater than 0 and at most 1");
+		this.slowCallRateThreshold = slowCallRateThreshold;
+	}
+
+	/**
+	 * Set the duration above which a call counts as slow. Defaults to 60 seconds.
+	 * @param slowCallDuration the slow call duration
+	 */
+	public void setSlowCallDuration(Duration slowCallDuration) {
+		Assert.notNull(slowCallDuration, "slowCallDuration cannot be null");
+		this.slowCallDuration = slowCallDuration;
+	}
+
+	/**
+	 * Set the number of calls recorded in the sliding window. Defaults to 100.
+	 * @param slidingWindowSize the size of the sliding window
+	 */
+	public void setSlidingWindowSize(int slidingWindowSize) {
+		Assert.isTrue(slidingWindowSize > 0, "slidingWindowSize must be positive");
+		this.slidingWindowSize = slidingWindowSize;
+	}
+
+	/**
+	 * Set the number of calls that have to be recorded before the failure and slow call
+	 * rates are checked. Defaults to 20.
+	 * @param minimumNumberOfCalls the minimum number of calls
+	 */
+	public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+		Assert.isTrue(minimumNumberOfCalls > 0, "minimumNumberOfCalls must be positive");
+		this.minimumNumberOfCalls = minimumNumberOfCalls;
+	}
+
+	/**
+	 * Set the time a breaker stays open before it lets trial calls through. Defaults to
+	 * 30 seconds.
+	 * @param waitDurationInOpenState the wait duration
+	 */
+	public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+		Assert.notNull(waitDurationInOpenState, "waitDurationInOpenState cannot be null");
+		this.waitDurationInOpenState = waitDurationInOpenState;
+	}
+
+	/**
+	 * Set the number of trial calls let through when a breaker is half open. Defaults to
+	 * 5.
+	 * @param permittedCallsInHalfOpenState the number of trial calls
+	 */
+	public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+		Assert.isTrue(permittedCallsInHalfOpenState > 0, "permittedCallsInHalfOpenState must be positive");
+		this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+	}
+
+	/**
+	 * Set the clock used to measure calls and open durations. Defaults to the system
+	 * clock.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Add a listener that is notified when a breaker is created or changes state.
+	 * @param listener the listener to add
+	 */
+	public void addListener(Listener listener) {
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Get the target of the channel.
+	 * @return the target
+	 */
+	public String getTarget() {
+		return this.target;
+	}
+
+	/**
+	 * Get the breakers created so far.
+	 * @return the breakers
+	 */
+	public Collection<CircuitBreaker> getCircuitBreakers() {
+		return Collections.unmodifiableCollection(this.breakers.values());
+	}
+
+	@Override
+	public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+			CallOptions callOptions, Channel next) {
+		CircuitBreaker breaker = this.breakers.get(method.getFullMethodName());
+		if (breaker == null) {
+			breaker = this.breakers.computeIfAbsent(method.getFullMethodName(), CircuitBreaker::new);
+		}
+		return new CircuitBreakerCall<>(breaker, method, callOptions, next);
+	}
+
+	/**
+	 * The state of a {@link CircuitBreaker}.
+	 */
+	public enum State {
+
+		/**
+		 * Calls are allowed and their outcomes are recorded.
+		 */
+		CLOSED,
+
+		/**
+		 * Calls fail fast without being sent.
+		 */
+		OPEN,
+
+		/**
+		 * A limited number of trial calls are allowed.
+		 */
+		HALF_OPEN
+
+	}
+
+	/**
+	 * A listener for changes to the breakers of an interceptor.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called when a breaker is created for a method.
+		 * @param breaker the new breaker
+		 */
+		default void created(CircuitBreaker breaker) {
+		}
+
+		/**
+		 * Called when a breaker changes state.
+		 * @param breaker the breaker
+		 * @param previous the previous state
+		 */
+		default void stateChanged(CircuitBreaker breaker, State previous) {
+		}
+
+	}
+
+	/**
+	 * A state of a breaker. The trial counters are only used in the half-open state, and
+	 * a new transition starts with fresh counters, so they cannot be reset under the feet
+	 * of calls that are counted in another transition.
+	 */
+	private record Transition(State state, long since, AtomicInteger trials, AtomicInteger trialSuccesses) {
+
+		Transition(State state, long since) {
+			this(state, since, new AtomicInteger(), new AtomicInteger());
+		}
+
+	}
+
+	/**
+	 * A call that takes a permit from the breaker when it is started, and gives it back
+	 * when it completes (recording the outcome) or is cancelled by the client.
+	 */
+	private final class CircuitBreakerCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+		private final CircuitBreaker breaker;
+
+		private final MethodDescriptor<ReqT, RespT> method;
+
+		private final CallOptions callOptions;
+
+		private final Channel next;
+
+		private ClientCall<ReqT, RespT> delegate;
+
+		private volatile boolean cancelled;
+
+		CircuitBreakerCall(CircuitBreaker breaker, MethodDescriptor<ReqT, RespT> method, CallOptions callOptions,
+				Channel next) {
+			this.breaker = breaker;
+			this.method = method;
+			this.callOptions = callOptions;
+			this.next = next;
+		}
+
+		@Override
+		public void start(Listener<RespT> responseListener, Metadata headers) {
+			Transition permit = this.breaker.tryAcquire();
+			if (permit == null) {
+				this.delegate = new FailedClientCall<>(
+						Status.UNAVAILABLE.withDescription("Circuit breaker is open for "
+								+ this.method.getFullMethodName() + " on " + CircuitBreakerInterceptor.this.target),
+						this.callOptions);
+				this.delegate.start(responseListener, headers);
+				return;
+			}
+			long start = CircuitBreakerInterceptor.this.clock.millis();
+			this.delegate = this.next.newCall(this.method, this.callOptions);
+			this.delegate.start(new SimpleForwardingClientCallListener<>(responseListener) {
+				@Override
+				public void onClose(Status status, Metadata trailers) {
+					if (CircuitBreakerCall.this.cancelled) {
+						CircuitBreakerCall.this.breaker.release(permit);
+					}
+					else {
+						CircuitBreakerCall.this.breaker.record(permit, status,
+								CircuitBreakerInterceptor.this.clock.millis() - start);
+					}
+					super.onClose(status, trailers);
+				}
+			}, headers);
+		}
+
+		@Override
+		public void request(int numMessages) {
+			this.delegate.request(numMessages);
+		}
+
+		@Override
+		public void cancel(String message, Throwable cause) {
+			if (this.delegate != null) {
+				this.cancelled = true;
+				this.delegate.cancel(message, cause);
+			}
+		}
+
+		@Override
+		public void halfClose() {
+			this.delegate.halfClose();
+		}
+
+		@Override
+		public void sendMessage(ReqT message) {
+			this.delegate.sendMessage(message);
+		}
+
+		@Override
+		public boolean isReady() {
+			return this.delegate.isReady();
+		}
+
+		@Override
+		public void setMessageCompression(boolean enabled) {
+			this.delegate.setMessageCompression(enabled);
+		}
+
+		@Override
+		public Attributes getAttributes() {
+			return this.delegate.getAttributes();
+		}
+
+	}
+
+	/**
+	 * The circuit breaker for a single method.
+	 */
+	public final class CircuitBreaker {
+
+		private final String method;
+
+		private final AtomicReference<Transition> transition;
+
+		private final AtomicIntegerArray outcomes = new AtomicIntegerArray(
+				CircuitBreakerInterceptor.this.slidingWindowSize);
+
+		private final AtomicInteger index = new AtomicInteger();
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private final AtomicInteger failures = new AtomicInteger();
+
+		private final AtomicInteger slowCalls = new AtomicInteger();
+
+		private final AtomicLong notPermittedCalls = new AtomicLong();
+
+		private CircuitBreaker(String method) {
+			this.method = method;
+			this.transition = new AtomicReference<>(
+					new Transition(State.CLOSED, CircuitBreakerInterceptor.this.clock.millis()));
+			for (Listener listener : CircuitBreakerInterceptor.this.listeners) {
+				listener.created(this);
+			}
+		}
+
+		/**
+		 * Get the target of the channel.
+		 * @return the target
+		 */
+		public String getTarget() {
+			return CircuitBreakerInterceptor.this.target;
+		}
+
+		/**
+		 * Get the full name of the method.
+		 * @return the method name
+		 */
+		public String getMethod() {
+			return this.method;
+		}
+
+		/**
+		 * Get the current state.
+		 * @return the state
+		 */
+		public State getState() {
+			return this.transition.get().state();
+		}
+
+		/**
+		 * Get the rate of failed calls in the sliding window.
+		 * @return the failure rate (between 0 and 1)
+		 */
+		public double getFailureRate() {
+			int calls = this.calls.get();
+			return calls == 0 ? 0 : (double) this.failures.get() / calls;
+		}
+
+		/**
+		 * Get the rate of slow calls in the sliding window.
+		 * @return the slow call rate (between 0 and 1)
+		 */
+		public double getSlowCallRate() {
+			int calls = this.calls.get();
+			return calls == 0 ? 0 : (double) this.slowCalls.get() / calls;
+		}
+
+		/**
+		 * Get the number of calls that failed fast because the breaker was not closed.
+		 * @return the number of calls not permitted
+		 */
+		public long getNotPermittedCalls() {
+			return this.notPermittedCalls.get();
+		}
+
+		// Returns the transition that the permit belongs to, or null if not permitted
+		Transition tryAcquire() {
+			Transition current = this.transition.get();
+			if (current.state() == State.CLOSED) {
+				return current;
+			}
+			if (current.state() == State.OPEN) {
+				long now = CircuitBreakerInterceptor.this.clock.millis();
+				if (now - current.since() < CircuitBreakerInterceptor.this.waitDurationInOpenState.toMillis()) {
+					this.notPermittedCalls.incrementAndGet();
+					return null;
+				}
+				transition(current, State.HALF_OPEN, now);
+				current = this.transition.get();
+				if (current.state() == State.CLOSED) {
+					return current;
+				}
+			}
+			if (current.state() == State.HALF_OPEN) {
+				if (current.trials()
+					.incrementAndGet() <= CircuitBreakerInterceptor.this.permittedCallsInHalfOpenState) {
+					return current;
+				}
+				current.trials().decrementAndGet();
+			}
+			this.notPermittedCalls.incrementAndGet();
+			return null;
+		}
+
+		void release(Transition permit) {
+			if (permit.state() == State.HALF_OPEN) {
+				permit.trials().decrementAndGet();
+			}
+		}
+
+		void record(Transition permit, Status status, long millis) {
+			int outcome = SUCCESS;
+			if (CircuitBreakerInterceptor.this.failureCodes.contains(status.getCode())) {
+				outcome |= FAILURE;
+			}
+			if (millis >= CircuitBreakerInterceptor.this.slowCallDuration.toMillis()) {
+				outcome |= SLOW;
+			}
+			Transition current = this.transition.get();
+			long now = CircuitBreakerInterceptor.this.clock.millis();
+			if (current.state() == State.HALF_OPEN) {
+				if (permit != current) {
+					// Not a trial call (it started before the breaker opened)
+					return;
+				}
+				if (outcome != SUCCESS) {
+					transition(current, State.OPEN, now);
+				}
+				else if (current.trialSuccesses()
+					.incrementAndGet() >= CircuitBreakerInterceptor.this.permittedCallsInHalfOpenState) {
+					reset();
+					transition(current, State.CLOSED, now);
+				}
+				return;
+			}
+			if (current.state() == State.OPEN) {
+				// A call that started before the breaker opened
+				return;
+			}
+			add(outcome);
+			int calls = this.calls.get();
+			if (calls >= CircuitBreakerInterceptor.this.minimumNumberOfCalls
+					&& (getFailureRate() >= CircuitBreakerInterceptor.this.failureRateThreshold
+							|| getSlowCallRate() >= CircuitBreakerInterceptor.this.slowCallRateThreshold)) {
+				transition(current, State.OPEN, now);
+			}
+		}
+
+		private void add(int outcome) {
+			int slot = Math.floorMod(this.index.getAndIncrement(), this.outcomes.length());
+			int previous = this.outcomes.getAndSet(slot, outcome);
+			if (previous == 0) {
+				this.calls.incrementAndGet();
+			}
+			this.failures.addAndGet(((outcome & FAILURE) - (previous & FAILURE)) / FAILURE);
+			this.slowCalls.addAndGet(((outcome & SLOW) - (previous & SLOW)) / SLOW);
+		}
+
+		private void reset() {
+			for (int i = 0; i < this.outcomes.length(); i++) {
+				this.outcomes.set(i, 0);
+			}
+			this.calls.set(0);
+			this.failures.set(0);
+			this.slowCalls.set(0);
+		}
+
+		private void transition(Transition current, State state, long now) {
+			if (this.transition.compareAndSet(current, new Transition(state, now))) {
+				for (Listener listener : CircuitBreakerInterceptor.this.listeners) {
+					listener.stateChanged(this, current.state());
+				}
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "CircuitBreaker[" + getTarget() + ", " + this.method + ", " + getState() + "]";
+		}
+
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
+
+/**
+ * A {@link ClientInterceptor} that applies default {@link CallOptions} (deadline,
+ * wait-for-ready, maximum outbound message size and compression) to calls, based on the
+ * method being called. Defaults are registered by method pattern: a fully qualified
+ * service name optionally followed by {@code /} and a method name, or {@code *} for all
+ * methods. The settings of the matching patterns are merged field by field, with the most
+ * specific pattern taking precedence (so a method can override the timeout of its service
+ * and still inherit the compression set for {@code *}), and the result is computed once
+ * per method.
+ * <p>
+ * Options that are already set on the call (e.g. a deadline set on the stub) are not
+ * overridden.
+ *
+ * @author Dave Syer
+ */
+public class DefaultCallOptionsInterceptor implements ClientInterceptor {
+
+	private static final Defaults NONE = new Defaults(null, null, null, null);
+
+	private final Map<String, Defaults> defaults;
+
+	private final Map<MethodDescriptor<?, ?>, Defaults> resolved = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a new interceptor with the given defaults.
+	 * @param defaults the defaults keyed by method pattern
+	 */
+	public DefaultCallOptionsInterceptor(Map<String, Defaults> defaults) {
+		this.defaults = new HashMap<>();
+		defaults.forEach((pattern, value) -> this.defaults.put(normalize(pattern), value));
+	}
+
+	@Override
+	public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+			CallOptions callOptions, Channel next) {
+		Defaults defaults = this.resolved.computeIfAbsent(method, this::resolve);
+		return next.newCall(method, defaults == NONE ? callOptions : defaults.apply(callOptions));
+	}
+
+	private Defaults resolve(MethodDescriptor<?, ?> method) {
+		Defaults result = NONE;
+		result = result.orElse(this.defaults.get(method.getFullMethodName()));
+		if (method.getServiceName() != null) {
+			result = result.orElse(this.defaults.get(method.getServiceName()));
+		}
+		result = result.orElse(this.defaults.get("*"));
+		return result.equals(NONE) ? NONE : result;
+	}
+
+	private static String normalize(String pattern) {
+		if (pattern.endsWith("/*")) {
+			return pattern.substring(0, pattern.length() - 2);
+		}
+		if (pattern.endsWith("/")) {
+			return pattern.substring(0, pattern.length() - 1);
+		}
+		return pattern;
+	}
+
+	/**
+	 * Default call options for a method.
+	 *
+	 * @param timeout the deadline for the call, relative to its start (or null)
+	 * @param waitForReady whether to wait for the channel to be ready (or null)
+	 * @param maxOutboundMessageSize the maximum size of a request message (or null)
+	 * @param compression the name of the compressor to use (or null)
+	 */
+	public record Defaults(Duration timeout, Boolean waitForReady, Integer maxOutboundMessageSize, String compression) {
+
+		Defaults orElse(Defaults other) {
+			if (other == null) {
+				return this;
+			}
+			return new Defaults((this.timeout != null) ? this.timeout : other.timeout,
+					(this.waitForReady != null) ? this.waitForReady : other.waitForReady,
+					(this.maxOutboundMessageSize != null) ? this.maxOutboundMessageSize : other.maxOutboundMessageSize,
+					(this.compression != null) ? this.compression : other.compression);
+		}
+
+		CallOptions apply(CallOptions options) {
+			if (this.timeout != null && options.getDeadline() == null) {
+				options = options.withDeadlineAfter(this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+			}
+			if (this.waitForReady != null && this.waitForReady && !options.isWaitForReady()) {
+				options = options.withWaitForReady();
+			}
+			if (this.maxOutboundMessageSize != null && options.getMaxOutboundMessageSize() == null) {
+				options = options.withMaxOutboundMessageSize(this.maxOutboundMessageSize);
+			}
+			if (this.compression != null && options.getCompressor() == null) {
+				options = options.withCompression(this.compression);
+			}
+			return options;
+		}
+
+	}
+
+}
@@ -18,23 +18,52 @@ package org.springframework.grpc.client;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.log.LogAccessor;
 import org.springframework.util.Assert;
 
+import io.grpc.CallOptions;
 import io.grpc.ChannelCredentials;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
 import io.grpc.Grpc;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
 
 /**
  * Default implementation of {@link GrpcChannelFactory} for creating and managing gRPC
  * channels.
  * <p>
+ * Channels created for the same target with equal {@link ChannelBuilderOptions options}
+ * share a single underlying channel (and hence a single connection). Each call to
+ * {@link #createChannel(String, ChannelBuilderOptions)} returns a separate lease on the
+ * shared channel, and shutting down a lease only shuts down the shared channel when it is
+ * the last one.
+ * <p>
+ * If a {@link #setPoolSizes(ToIntFunction) pool size} greater than one is configured for
+ * a target, the shared channel is a pool of that many channels, each with its own
+ * connection, and calls are sent to the one with the fewest outstanding calls.
+ * <p>
+ * If any {@link #addChannelListener(ChannelMonitor.Listener) channel listeners} are
+ * added, the channels for each target are watched by a {@link ChannelMonitor}, which
+ * tracks their connectivity state and counts the calls made through them.
+ * <p>
+ * The channels can be {@link #suspend() suspended} and {@link #resume() resumed}, for
+ * instance to close all connections before a checkpoint (with CRaC) is taken and open
+ * them again when it is restored. The leases that have been handed out stay valid, and
+ * use the new channels after the factory is resumed.
+ * <p>
  * Implements {@link DisposableBean} to shut down channels when no longer needed.
  *
  * @param <T> concrete type of channel builder used to create the channels
@@ -48,14 +77,24 @@ public class DefaultGrpcChannelFactory<T extends ManagedChannelBuilder<T>>
 
 	private final List<ManagedChannelWithShutdown> channels = new ArrayList<>();
 
+	private final Map<ChannelKey, SharedChannel> shared = new HashMap<>();
+
 	private final List<GrpcChannelBuilderCustomizer<T>> globalCustomizers = new ArrayList<>();
 
 	private final ClientInterceptorsConfigurer interceptorsConfigurer;
 
+	private final List<ChannelMonitor.Listener> monitorListeners = new ArrayList<>();
+
+	private final Map<String, ChannelMonitor> monitors = new LinkedHashMap<>();
+
 	private ChannelCredentialsProvider credentials = ChannelCredentialsProvider.INSECURE;
 
 	private VirtualTargets targets = VirtualTargets.DEFAULT;
 
+	private ToIntFunction<String> poolSizes = (target) -> 1;
+
+	private boolean suspended;
+
 	/**
 	 * Construct a channel factory instance.
 	 * @param globalCustomizers the global customizers to apply to all created channels
@@ -78,8 +117,77 @@ public class DefaultGrpcChannelFactory<T extends ManagedChannelBuilder<T>>
 		this.credentials = credentials;
 	}
 
+	/**
+	 * Set the strategy for deciding how many connections to open for a target. The
+	 * default is a single connection for every target.
+	 * @param poolSizes a function that returns the pool size for a target name
+	 */
+	public void setPoolSizes(ToIntFunction<String> poolSizes) {
+		Assert.notNull(poolSizes, () -> "poolSizes must not be null");
+		this.poolSizes = poolSizes;
+	}
+
+	/**
+	 * Add a listener for the {@link ChannelMonitor monitors} of the channels. If there
+	 * are any listeners, a monitor is created for each target, and it watches all the
+	 * channels for the target.
+	 * @param listener the listener to add
+	 */
+	public void addChannelListener(ChannelMonitor.Listener listener) {
+		Assert.notNull(listener, () -> "listener must not be null");
+		synchronized (this.shared) {
+			this.monitorListeners.add(listener);
+		}
+	}
+
+	/**
+	 * Get the monitors of the channels created so far (empty if there are no
+	 * {@link #addChannelListener(ChannelMonitor.Listener) listeners}).
+	 * @return the channel monitors
+	 */
+	public Collection<ChannelMonitor> getChannelMonitors() {
+		synchronized (this.shared) {
+			return List.copyOf(this.monitors.values());
+		}
+	}
+
 	@Override
 	public ManagedChannel createChannel(String target, ChannelBuilderOptions options) {
+		ChannelKey key = new ChannelKey(target, options);
+		synchronized (this.shared) {
+			SharedChannel shared = this.shared.get(key);
+			if (shared == null && this.suspended) {
+				// Nothing is built until the factory is resumed
+				shared = new SharedChannel(new SuspendedChannel(target));
+				this.shared.put(key, shared);
+			}
+			else if (shared == null || (shared.channel().isShutdown() && !this.suspended)) {
+				shared = new SharedChannel(buildChannel(target, options));
+				this.shared.put(key, shared);
+			}
+			SharedChannel channel = shared;
+			return shared.lease(() -> release(key, channel));
+		}
+	}
+
+	private ManagedChannel buildChannel(String target, ChannelBuilderOptions options) {
+		int poolSize = this.poolSizes.applyAsInt(target);
+		ManagedChannel channel;
+		if (poolSize > 1) {
+			List<ManagedChannel> pool = new ArrayList<>();
+			for (int i = 0; i < poolSize; i++) {
+				pool.add(newChannel(target, options));
+			}
+			channel = new PooledManagedChannel(pool);
+		}
+		else {
+			channel = newChannel(target, options);
+		}
+		this.channels.add(new ManagedChannelWithShutdown(channel, options.shutdownGracePeriod()));
+		return channel;
+	}
+
+	private ManagedChannel newChannel(String target, ChannelBuilderOptions options) {
 		var targetUri = this.targets.getTarget(target);
 		T builder = newChannelBuilder(targetUri, this.credentials.getChannelCredentials(target));
 		// Handle interceptors
@@ -91,12 +199,89 @@ public class DefaultGrpcChannelFactory<T extends ManagedChannelBuilder<T>>
 		if (customizer != null) {
 			customizer.customize(target, builder);
 		}
-		var channel = builder.build();
-		var shutdownGracePeriod = options.shutdownGracePeriod();
-		this.channels.add(new ManagedChannelWithShutdown(channel, shutdownGracePeriod));
+		ChannelMonitor monitor = monitor(target);
+		if (monitor == null) {
+			return builder.build();
+		}
+		// Added last so it runs first and counts all the calls
+		builder.intercept(monitor);
+		ManagedChannel channel = builder.build();
+		monitor.watch(channel);
 		return channel;
 	}
 
+	private ChannelMonitor monitor(String target) {
+		if (this.monitorListeners.isEmpty()) {
+			return null;
+		}
+		return this.monitors.computeIfAbsent(target, (key) -> {
+			ChannelMonitor monitor = new ChannelMonitor(key);
+			for (ChannelMonitor.Listener listener : this.monitorListeners) {
+				monitor.addListener(listener);
+				listener.created(monitor);
+			}
+			return monitor;
+		});
+	}
+
+	private void release(ChannelKey key, SharedChannel shared) {
+		synchronized (this.shared) {
+			if (this.shared.get(key) == shared && shared.release()) {
+				this.shared.remove(key);
+				this.channels.removeIf((channel) -> channel.channel() == shared.channel());
+				shared.channel().shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Shut down all the channels (and hence close their connections), but keep track of
+	 * them so they can be rebuilt by {@link #resume()}. Calls made while the factory is
+	 * suspended fail with status {@code UNAVAILABLE}.
+	 */
+	public void suspend() {
+		List<ManagedChannelWithShutdown> channels;
+		synchronized (this.shared) {
+			if (this.suspended) {
+				return;
+			}
+			this.suspended = true;
+			channels = new ArrayList<>(this.channels);
+			this.channels.clear();
+		}
+		this.log.debug(() -> "Suspending " + channels.size() + " channels");
+		shutdown(channels);
+	}
+
+	/**
+	 * Rebuild the channels that were shut down by {@link #suspend()}. The channels are
+	 * built from scratch, so they pick up the current credentials (e.g. from a reloaded
+	 * SSL bundle) and open new connections.
+	 */
+	public void resume() {
+		synchronized (this.shared) {
+			if (!this.suspended) {
+				return;
+			}
+			this.suspended = false;
+			this.shared.forEach((key, shared) -> {
+				if (shared.channel().isShutdown()) {
+					shared.replace(buildChannel(key.target(), key.options()));
+				}
+			});
+		}
+	}
+
+	/**
+	 * Whether the channels are currently {@link #suspend() suspended}.
+	 * @return true if the channels are suspended
+	 */
+	public boolean isSuspended() {
+		synchronized (this.shared) {
+			return this.suspended;
+		}
+	}
+
 	/**
 	 * Creates a new {@link ManagedChannelBuilder} instance for the given target and
 	 * credentials. The {@code target} is a valid nameresolver-compliant URI or an
@@ -124,11 +309,21 @@ public class DefaultGrpcChannelFactory<T extends ManagedChannelBuilder<T>>
 	 */
 	@Override
 	public void destroy() {
-		this.channels.stream().map(ManagedChannelWithShutdown::channel).forEach(ManagedChannel::shutdown);
-		this.channels.sort(Comparator.comparingLong((t) -> t.shutdownGracePeriod().toMillis()));
+		List<ManagedChannelWithShutdown> channels;
+		synchronized (this.shared) {
+			this.shared.clear();
+			channels = new ArrayList<>(this.channels);
+			this.channels.clear();
+		}
+		shutdown(channels);
+	}
+
+	private void shutdown(List<ManagedChannelWithShutdown> channels) {
+		channels.stream().map(ManagedChannelWithShutdown::channel).forEach(ManagedChannel::shutdown);
+		channels.sort(Comparator.comparingLong((t) -> t.shutdownGracePeriod().toMillis()));
 		try {
 			long start = System.currentTimeMillis();
-			this.channels.forEach((channelWithShutdown) -> {
+			channels.forEach((channelWithShutdown) -> {
 				var channel = channelWithShutdown.channel();
 				var gracePeriod = channelWithShutdown.shutdownGracePeriod();
 				if (!channel.isTerminated()) {
@@ -141,7 +336,7 @@ public class DefaultGrpcChannelFactory<T extends ManagedChannelBuilder<T>>
 			});
 		}
 		finally {
-			this.channels.stream().map(ManagedChannelWithShutdown::channel).forEach((channel) -> {
+			channels.stream().map(ManagedChannelWithShutdown::channel).forEach((channel) -> {
 				if (!channel.isTerminated()) {
 					this.log.debug(() -> "Channel not terminated yet - forcing shutdown: " + channel.authority());
 					channel.shutdownNow();
@@ -165,4 +360,97 @@ public class DefaultGrpcChannelFactory<T extends ManagedChannelBuilder<T>>
 	record ManagedChannelWithShutdown(ManagedChannel channel, Duration shutdownGracePeriod) {
 	}
 
+	private record ChannelKey(String target, ChannelBuilderOptions options) {
+	}
+
+	private static final class SharedChannel {
+
+		private volatile ManagedChannel channel;
+
+		private int leases;
+
+		SharedChannel(ManagedChannel channel) {
+			this.channel = channel;
+		}
+
+		ManagedChannel channel() {
+			return this.channel;
+		}
+
+		void replace(ManagedChannel channel) {
+			this.channel = channel;
+		}
+
+		ManagedChannel lease(Runnable release) {
+			this.leases++;
+			return new SharedManagedChannel(this::channel, release);
+		}
+
+		boolean release() {
+			return --this.leases == 0;
+		}
+
+	}
+
+	/**
+	 * Stands in for a channel that is created while the factory is suspended, until the
+	 * real one is built by {@link #resume()}. Calls fail in the same way as on a channel
+	 * that was shut down by {@link #suspend()}.
+	 */
+	private static final class SuspendedChannel extends ManagedChannel {
+
+		private final String target;
+
+		SuspendedChannel(String target) {
+			this.target = target;
+		}
+
+		@Override
+		public ManagedChannel shutdown() {
+			return this;
+		}
+
+		@Override
+		public ManagedChannel shutdownNow() {
+			return this;
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return true;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return true;
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) {
+			return true;
+		}
+
+		@Override
+		public ConnectivityState getState(boolean requestConnection) {
+			return ConnectivityState.SHUTDOWN;
+		}
+
+		@Override
+		public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+		}
+
+		@Override
+		public <RequestT, ResponseT> ClientCall<RequestT, ResponseT> newCall(
+				MethodDescriptor<RequestT, ResponseT> methodDescriptor, CallOptions callOptions) {
+			return new FailedClientCall<>(Status.UNAVAILABLE.withDescription("Channel factory is suspended"),
+					callOptions);
+		}
+
+		@Override
+		public String authority() {
+			return this.target;
+		}
+
+	}
+
 }
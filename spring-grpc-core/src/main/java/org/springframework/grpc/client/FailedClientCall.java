@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import java.util.concurrent.Executor;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+/**
+ * A {@link ClientCall} that fails with a fixed status as soon as it is started, without
+ * sending anything. The listener is closed on the executor of the call options, like a
+ * real call, or directly if there is none.
+ *
+ * @param <ReqT> the type of the request
+ * @param <RespT> the type of the response
+ * @author Dave Syer
+ */
+class FailedClientCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+	private final Status status;
+
+	private final Executor executor;
+
+	FailedClientCall(Status status, CallOptions callOptions) {
+		this.status = status;
+		this.executor = callOptions.getExecutor();
+	}
+
+	@Override
+	public void start(Listener<RespT> listener, Metadata headers) {
+		if (this.executor == null) {
+			listener.onClose(this.status, new Metadata());
+		}
+		else {
+			this.executor.execute(() -> listener.onClose(this.status, new Metadata()));
+		}
+	}
+
+	@Override
+	public void request(int numMessages) {
+	}
+
+	@Override
+	public void cancel(String message, Throwable cause) {
+	}
+
+	@Override
+	public void halfClose() {
+	}
+
+	@Override
+	public void sendMessage(ReqT message) {
+	}
+
+}
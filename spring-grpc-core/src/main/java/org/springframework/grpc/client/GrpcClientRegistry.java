@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -45,6 +46,9 @@ import io.grpc.stub.AbstractStub;
  */
 public class GrpcClientRegistry {
 
+	private static final Set<Class<?>> BUILT_IN_FACTORIES = Set.of(BlockingStubFactory.class, FutureStubFactory.class,
+			ReactorStubFactory.class, SimpleStubFactory.class);
+
 	private List<StubFactory<?>> factories = new ArrayList<>();
 
 	private Map<Class<?>, StubFactory<?>> factoriesByClass = new HashMap<>();
@@ -67,17 +71,21 @@ public class GrpcClientRegistry {
 	 */
 	void close() {
 		for (Map.Entry<String, DeferredBeanDefinition<?>> entry : this.beans.entrySet()) {
-			registerBean(entry.getKey(), entry.getValue().type(), entry.getValue().supplier());
+			registerBean(entry.getKey(), entry.getValue().type(), entry.getValue().supplier(),
+					entry.getValue().method());
 		}
 	}
 
 	@SuppressWarnings("unchecked")
-	private <T> void registerBean(String key, Class<?> type, Supplier<?> supplier) {
+	private <T> void registerBean(String key, Class<?> type, Supplier<?> supplier, String method) {
 		Supplier<T> real = (Supplier<T>) supplier;
 		Class<T> stub = (Class<T>) type;
 		this.context.registerBean(key, stub, real, bd -> {
 			bd.setLazyInit(true);
 			bd.setAttribute(BeanRegistrationAotProcessor.IGNORE_REGISTRATION_ATTRIBUTE, true);
+			if (method != null) {
+				bd.setAttribute(StubFunctions.METHOD_ATTRIBUTE, method);
+			}
 		});
 	}
 
@@ -126,7 +134,7 @@ public class GrpcClientRegistry {
 
 	private <T extends AbstractStub<?>> void preRegisterBean(String beanName, Class<T> type,
 			Supplier<T> clientFactory) {
-		this.beans.put(beanName, new DeferredBeanDefinition<>(type, clientFactory));
+		this.beans.put(beanName, new DeferredBeanDefinition<>(type, clientFactory, null));
 	}
 
 	private <T extends AbstractStub<?>> void preRegisterType(String beanName, Supplier<ManagedChannel> channel,
@@ -148,18 +156,37 @@ public class GrpcClientRegistry {
 			}
 		}
 		if (factory != null) {
+			// Only the built-in factories are known to call the static factory method
+			String method = BUILT_IN_FACTORIES.contains(factory.getClass())
+					? ((AbstractStubFactory<?>) factory).methodName() : null;
+			Function<Channel, T> function = (method != null) ? stubFunction(type) : null;
+			if (function != null) {
+				// Generated ahead of time, so no need for reflection
+				this.beans.put(beanName,
+						new DeferredBeanDefinition<>(type, () -> function.apply(channel.get()), method));
+				return;
+			}
 			StubFactory<? extends AbstractStub<?>> value = factory;
-			this.beans.put(beanName, new DeferredBeanDefinition<>(type, () -> type.cast(value.create(channel, type))));
+			this.beans.put(beanName,
+					new DeferredBeanDefinition<>(type, () -> type.cast(value.create(channel, type)), method));
 			return;
 		}
 		// Ignore unsupported types
 	}
 
+	private <T> Function<Channel, T> stubFunction(Class<T> type) {
+		if (!this.context.getBeanFactory().containsSingleton(StubFunctions.BEAN_NAME)) {
+			return null;
+		}
+		return this.context.getBeanFactory().getBean(StubFunctions.BEAN_NAME, StubFunctions.class).get(type);
+	}
+
 	private GrpcChannelFactory channels() {
 		return this.context.getBean(GrpcChannelFactory.class);
 	}
 
-	private static record DeferredBeanDefinition<T extends AbstractStub<?>>(Class<T> type, Supplier<T> supplier) {
+	private static record DeferredBeanDefinition<T extends AbstractStub<?>>(Class<T> type, Supplier<T> supplier,
+			String method) {
 	}
 
 	/**
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * A {@link ManagedChannel} that spreads calls over a pool of underlying channels (each
+ * with its own connection), picking the one with the fewest outstanding calls. Useful
+ * when a single connection is limited by the server's maximum number of concurrent
+ * streams or by its flow-control window.
+ *
+ * @author Dave Syer
+ */
+class PooledManagedChannel extends ManagedChannel {
+
+	private final ManagedChannel[] channels;
+
+	private final AtomicInteger[] outstanding;
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	PooledManagedChannel(List<ManagedChannel> channels) {
+		this.channels = channels.toArray(new ManagedChannel[0]);
+		this.outstanding = new AtomicInteger[this.channels.length];
+		for (int i = 0; i < this.outstanding.length; i++) {
+			this.outstanding[i] = new AtomicInteger();
+		}
+	}
+
+	int size() {
+		return this.channels.length;
+	}
+
+	@Override
+	public <RequestT, ResponseT> ClientCall<RequestT, ResponseT> newCall(
+			MethodDescriptor<RequestT, ResponseT> methodDescriptor, CallOptions callOptions) {
+		int index = select();
+		return new CountingClientCall<>(this.channels[index].newCall(methodDescriptor, callOptions),
+				this.outstanding[index]);
+	}
+
+	private int select() {
+		// Rotate the starting point so that ties are spread evenly
+		int length = this.channels.length;
+		int start = Math.floorMod(this.next.getAndIncrement(), length);
+		int best = start;
+		int min = this.outstanding[start].get();
+		for (int i = 1; i < length && min > 0; i++) {
+			int index = (start + i) % length;
+			int count = this.outstanding[index].get();
+			if (count < min) {
+				min = count;
+				best = index;
+			}
+		}
+		return best;
+	}
+
+	@Override
+	public String authority() {
+		return this.channels[0].authority();
+	}
+
+	@Override
+	public ManagedChannel shutdown() {
+		for (ManagedChannel channel : this.channels) {
+			channel.shutdown();
+		}
+		return this;
+	}
+
+	@Override
+	public ManagedChannel shutdownNow() {
+		for (ManagedChannel channel : this.channels) {
+			channel.shutdownNow();
+		}
+		return this;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		for (ManagedChannel channel : this.channels) {
+			if (!channel.isShutdown()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		for (ManagedChannel channel : this.channels) {
+			if (!channel.isTerminated()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		for (ManagedChannel channel : this.channels) {
+			long remaining = deadline - System.nanoTime();
+			if (!channel.awaitTermination(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public ConnectivityState getState(boolean requestConnection) {
+		ConnectivityState result = ConnectivityState.SHUTDOWN;
+		for (ManagedChannel channel : this.channels) {
+			ConnectivityState state = channel.getState(requestConnection);
+			if (rank(state) < rank(result)) {
+				result = state;
+			}
+		}
+		return result;
+	}
+
+	private static int rank(ConnectivityState state) {
+		return switch (state) {
+			case READY -> 0;
+			case CONNECTING -> 1;
+			case IDLE -> 2;
+			case TRANSIENT_FAILURE -> 3;
+			case SHUTDOWN -> 4;
+		};
+	}
+
+	@Override
+	public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+		AtomicBoolean done = new AtomicBoolean();
+		if (getState(false) != source) {
+			done.set(true);
+			callback.run();
+			return;
+		}
+		for (ManagedChannel channel : this.channels) {
+			watch(channel, source, callback, done);
+		}
+	}
+
+	private void watch(ManagedChannel channel, ConnectivityState source, Runnable callback, AtomicBoolean done) {
+		channel.notifyWhenStateChanged(channel.getState(false), () -> {
+			if (done.get()) {
+				return;
+			}
+			if (getState(false) != source) {
+				if (done.compareAndSet(false, true)) {
+					callback.run();
+				}
+			}
+			else {
+				watch(channel, source, callback, done);
+			}
+		});
+	}
+
+	@Override
+	public void resetConnectBackoff() {
+		for (ManagedChannel channel : this.channels) {
+			channel.resetConnectBackoff();
+		}
+	}
+
+	@Override
+	public void enterIdle() {
+		for (ManagedChannel channel : this.channels) {
+			channel.enterIdle();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "PooledManagedChannel[size=" + this.channels.length + ", authority=" + authority() + "]";
+	}
+
+	private static class CountingClientCall<RequestT, ResponseT>
+			extends SimpleForwardingClientCall<RequestT, ResponseT> {
+
+		private final AtomicInteger outstanding;
+
+		CountingClientCall(ClientCall<RequestT, ResponseT> delegate, AtomicInteger outstanding) {
+			super(delegate);
+			this.outstanding = outstanding;
+		}
+
+		@Override
+		public void start(Listener<ResponseT> responseListener, Metadata headers) {
+			AtomicBoolean closed = new AtomicBoolean();
+			this.outstanding.incrementAndGet();
+			try {
+				super.start(new SimpleForwardingClientCallListener<>(responseListener) {
+					@Override
+					public void onClose(Status status, Metadata trailers) {
+						if (closed.compareAndSet(false, true)) {
+							CountingClientCall.this.outstanding.decrementAndGet();
+						}
+						super.onClose(status, trailers);
+					}
+				}, headers);
+			}
+			catch (RuntimeException | Error ex) {
+				if (closed.compareAndSet(false, true)) {
+					this.outstanding.decrementAndGet();
+				}
+				throw ex;
+			}
+		}
+
+	}
+
+}
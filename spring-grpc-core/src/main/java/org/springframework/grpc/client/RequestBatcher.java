@@ -0,0 +1,274 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Collects individual requests into batches and sends each batch with a single call,
+ * completing the future for each request with the corresponding result from the batch. A
+ * batch is sent when it reaches the {@link #setMaxBatchSize(int) maximum size} or when
+ * the oldest request in it has waited for the {@link #setMaxDelay(Duration) maximum
+ * delay}, whichever comes first. Useful when a client makes a large number of small
+ * concurrent calls and the per-call overhead dominates.
+ * <p>
+ * The batch call can be anything that accepts a list of requests and returns a future
+ * list of results, in the same order. Typically it is a unary RPC with a repeated field
+ * in the request and the response, called with a future stub. For a client-streaming RPC
+ * you can use {@link #clientStreaming(Function, Function)} to create the batch call.
+ * <p>
+ * Example:<pre class="code">
+ * RequestBatcher&lt;String, Item&gt; batcher = new RequestBatcher&lt;&gt;(
+ * 		RequestBatcher.clientStreaming(stub::lookupAll, LookupResponse::getItemsList));
+ * CompletableFuture&lt;Item&gt; item = batcher.submit("foo");
+ * </pre>
+ *
+ * @param <T> the type of the individual requests
+ * @param <R> the type of the individual results
+ * @author Dave Syer
+ */
+public class RequestBatcher<T, R> implements AutoCloseable {
+
+	private final Function<List<T>, CompletableFuture<List<R>>> batchCall;
+
+	private final Object lock = new Object();
+
+	private List<Pending<T, R>> pending = new ArrayList<>();
+
+	private ScheduledFuture<?> flush;
+
+	private int maxBatchSize = 100;
+
+	private Duration maxDelay = Duration.ofMillis(5);
+
+	private ScheduledExecutorService scheduler;
+
+	private boolean ownScheduler;
+
+	private boolean closed;
+
+	/**
+	 * Create a new batcher that sends batches with the given call.
+	 * @param batchCall a function that sends a batch of requests and returns a future
+	 * list of results in the same order
+	 */
+	public RequestBatcher(Function<List<T>, CompletableFuture<List<R>>> batchCall) {
+		Assert.notNull(batchCall, "batchCall must not be null");
+		this.batchCall = batchCall;
+	}
+
+	/**
+	 * Set the maximum number of requests in a batch (default 100).
+	 * @param maxBatchSize the maximum batch size
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be positive");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Set the maximum time that a request waits for a batch to fill up (default 5ms).
+	 * @param maxDelay the maximum delay
+	 */
+	public void setMaxDelay(Duration maxDelay) {
+		Assert.notNull(maxDelay, "maxDelay must not be null");
+		this.maxDelay = maxDelay;
+	}
+
+	/**
+	 * Set the scheduler used to send partial batches when the delay expires. By default a
+	 * single daemon thread is created (and shut down when the batcher is closed).
+	 * @param scheduler the scheduler
+	 */
+	public void setScheduler(ScheduledExecutorService scheduler) {
+		Assert.notNull(scheduler, "scheduler must not be null");
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Submit a request to be sent with the next batch.
+	 * @param request the request
+	 * @return a future that completes with the result for this request
+	 */
+	public CompletableFuture<R> submit(T request) {
+		CompletableFuture<R> result = new CompletableFuture<>();
+		List<Pending<T, R>> batch = null;
+		synchronized (this.lock) {
+			if (this.closed) {
+				result.completeExceptionally(new IllegalStateException("Batcher is closed"));
+				return result;
+			}
+			this.pending.add(new Pending<>(request, result));
+			if (this.pending.size() >= this.maxBatchSize) {
+				batch = drain();
+			}
+			else if (this.pending.size() == 1) {
+				this.flush = scheduler().schedule(this::flush, this.maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+			}
+		}
+		if (batch != null) {
+			send(batch);
+		}
+		return result;
+	}
+
+	/**
+	 * Send any pending requests immediately.
+	 */
+	public void flush() {
+		List<Pending<T, R>> batch;
+		synchronized (this.lock) {
+			batch = drain();
+		}
+		send(batch);
+	}
+
+	/**
+	 * Send any pending requests and stop accepting new ones.
+	 */
+	@Override
+	public void close() {
+		List<Pending<T, R>> batch;
+		synchronized (this.lock) {
+			this.closed = true;
+			batch = drain();
+		}
+		send(batch);
+		if (this.ownScheduler) {
+			this.scheduler.shutdown();
+		}
+	}
+
+	private ScheduledExecutorService scheduler() {
+		if (this.scheduler == null) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("grpc-batch-");
+			threadFactory.setDaemon(true);
+			this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			this.ownScheduler = true;
+		}
+		return this.scheduler;
+	}
+
+	private List<Pending<T, R>> drain() {
+		List<Pending<T, R>> batch = this.pending;
+		this.pending = new ArrayList<>();
+		if (this.flush != null) {
+			this.flush.cancel(false);
+			this.flush = null;
+		}
+		return batch;
+	}
+
+	private void send(List<Pending<T, R>> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		List<T> requests = new ArrayList<>(batch.size());
+		for (Pending<T, R> item : batch) {
+			requests.add(item.request());
+		}
+		CompletableFuture<List<R>> results;
+		try {
+			results = this.batchCall.apply(requests);
+			if (results == null) {
+				throw new IllegalStateException("Batch call returned null");
+			}
+		}
+		catch (Throwable ex) {
+			fail(batch, ex);
+			return;
+		}
+		results.whenComplete((values, ex) -> {
+			if (ex == null && values == null) {
+				ex = new IllegalStateException("Expected " + batch.size() + " results for batch but got null");
+			}
+			else if (ex == null && values.size() != batch.size()) {
+				ex = new IllegalStateException(
+						"Expected " + batch.size() + " results for batch but got " + values.size());
+			}
+			if (ex != null) {
+				fail(batch, ex);
+				return;
+			}
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).result().complete(values.get(i));
+			}
+		});
+	}
+
+	private void fail(List<Pending<T, R>> batch, Throwable ex) {
+		for (Pending<T, R> item : batch) {
+			item.result().completeExceptionally(ex);
+		}
+	}
+
+	/**
+	 * Create a batch call that sends each request in a batch as a message on a
+	 * client-streaming RPC.
+	 * @param <T> the type of the individual requests
+	 * @param <B> the type of the response to the whole batch
+	 * @param <R> the type of the individual results
+	 * @param call the client-streaming call (e.g. a method reference on an async stub)
+	 * @param results a function that extracts the individual results from the response
+	 * @return a batch call
+	 */
+	public static <T, B, R> Function<List<T>, CompletableFuture<List<R>>> clientStreaming(
+			Function<StreamObserver<B>, StreamObserver<T>> call, Function<B, List<R>> results) {
+		return (requests) -> {
+			CompletableFuture<List<R>> future = new CompletableFuture<>();
+			StreamObserver<T> observer = call.apply(new StreamObserver<>() {
+
+				@Override
+				public void onNext(B value) {
+					future.complete(results.apply(value));
+				}
+
+				@Override
+				public void onError(Throwable t) {
+					future.completeExceptionally(t);
+				}
+
+				@Override
+				public void onCompleted() {
+					future.completeExceptionally(new IllegalStateException("No response received for batch"));
+				}
+
+			});
+			for (T request : requests) {
+				observer.onNext(request);
+			}
+			observer.onCompleted();
+			return future;
+		};
+	}
+
+	private record Pending<T, R>(T request, CompletableFuture<R> result) {
+	}
+
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.util.Assert;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status;
+
+/**
+ * A {@link ClientInterceptor} that caches the responses of unary calls, keyed on the
+ * method, the serialized request and the values of the {@link Policy#vary() vary} headers
+ * of the policy. Only use it for methods that are idempotent and whose responses can
+ * safely be shared between callers. Calls that carry credentials (call credentials, or an
+ * {@code authorization} or {@code cookie} header that is not one of the vary headers) are
+ * never cached, so that one caller's response is not served to another. Caches are
+ * registered by method pattern: a fully qualified service name optionally followed by
+ * {@code /} and a method name, or {@code *} for all methods. The most specific pattern
+ * wins, and each pattern has its own cache, bounded in size and evicting the least
+ * recently used entries.
+ * <p>
+ * Servers control caching with a {@link #CACHE_CONTROL cache-control} header (or trailer)
+ * on the response: {@code max-age=<seconds>} sets the time to live of the entry, and
+ * {@code no-store} or {@code no-cache} prevent it from being cached. Responses without
+ * the header are cached for the default time to live of the policy, if it has one. A
+ * client can skip the cache lookup for a single call by sending a
+ * {@code cache-control: no-cache} header with the request.
+ * <p>
+ * A cached response is delivered, with the headers and trailers of the original response,
+ * to the listener of the call with the executor of the call (from the
+ * {@link CallOptions}) once the caller has requested a message. If the call has no
+ * executor it is delivered with the {@link #setExecutor(Executor) fallback executor},
+ * which by default runs it directly in the thread that requested the message or
+ * half-closed the call.
+ *
+ * @author Dave Syer
+ */
+public class ResponseCacheInterceptor implements ClientInterceptor {
+
+	/**
+	 * The metadata key for cache directives on requests and responses.
+	 */
+	public static final Metadata.Key<String> CACHE_CONTROL = Metadata.Key.of("cache-control",
+			Metadata.ASCII_STRING_MARSHALLER);
+
+	private static final ResponseCache NONE = new ResponseCache(new Policy(null, 0));
+
+	private static final Set<String> CREDENTIALS = Set.of("authorization", "cookie");
+
+	private final Map<String, ResponseCache> caches;
+
+	private final Map<MethodDescriptor<?, ?>, ResponseCache> resolved = new ConcurrentHashMap<>();
+
+	private Clock clock = Clock.systemUTC();
+
+	private Executor executor = Runnable::run;
+
+	/**
+	 * Create a new interceptor with the given cache policies.
+	 * @param policies the policies keyed by method pattern
+	 */
+	public ResponseCacheInterceptor(Map<String, Policy> policies) {
+		this.caches = new HashMap<>();
+		policies.forEach((pattern, policy) -> this.caches.put(normalize(pattern), new ResponseCache(policy)));
+	}
+
+	/**
+	 * Set the clock used to expire cache entries. Defaults to the system clock.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Set the executor used to deliver cached responses to calls that do not have an
+	 * executor in their {@link CallOptions}, e.g. the executor of the channel. Defaults
+	 * to running them directly.
+	 * @param executor the executor to use
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		this.executor = executor;
+	}
+
+	@Override
+	public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+			CallOptions callOptions, Channel next) {
+		if (method.getType() != MethodType.UNARY) {
+			return next.newCall(method, callOptions);
+		}
+		ResponseCache cache = this.resolved.computeIfAbsent(method, this::resolve);
+		if (cache == NONE) {
+			return next.newCall(method, callOptions);
+		}
+		return new CachingClientCall<>(cache, method, callOptions, next);
+	}
+
+	private ResponseCache resolve(MethodDescriptor<?, ?> method) {
+		ResponseCache result = this.caches.get(method.getFullMethodName());
+		if (result == null && method.getServiceName() != null) {
+			result = this.caches.get(method.getServiceName());
+		}
+		if (result == null) {
+			result = this.caches.get("*");
+		}
+		return result != null ? result : NONE;
+	}
+
+	private static String normalize(String pattern) {
+		if (pattern.endsWith("/*")) {
+			return pattern.substring(0, pattern.length() - 2);
+		}
+		if (pattern.endsWith("/")) {
+			return pattern.substring(0, pattern.length() - 1);
+		}
+		return pattern;
+	}
+
+	/**
+	 * Compute the time to live of a response from its cache directives.
+	 * @param directives the value of the cache-control header (may be null)
+	 * @param defaultTimeToLive the time to live if there are no directives (may be null)
+	 * @return the time to live, or null if the response should not be cached
+	 */
+	static Duration timeToLive(String directives, Duration defaultTimeToLive) {
+		if (directives == null) {
+			return defaultTimeToLive;
+		}
+		Duration result = defaultTimeToLive;
+		for (String directive : directives.split(",")) {
+			directive = directive.trim().toLowerCase(Locale.ROOT);
+			if (directive.equals("no-store") || directive.equals("no-cache")) {
+				return null;
+			}
+			if (directive.startsWith("max-age=")) {
+				try {
+					result = Duration.ofSeconds(Long.parseLong(directive.substring("max-age=".length()).trim()));
+				}
+				catch (NumberFormatException ex) {
+					return null;
+				}
+			}
+		}
+		return (result != null && result.isZero()) ? null : result;
+	}
+
+	private static boolean shareable(Policy policy, Metadata headers, CallOptions callOptions) {
+		if (callOptions.getCredentials() != null) {
+			return false;
+		}
+		for (String name : CREDENTIALS) {
+			if (headers.containsKey(Metadata.Key.of(name, Metadata.ASCII_STRING_MARSHALLER))
+					&& !policy.vary().contains(name)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static List<Object> vary(Policy policy, Metadata headers) {
+		List<Object> values = new ArrayList<>();
+		for (String name : policy.vary()) {
+			Iterable<?> value = name.endsWith(Metadata.BINARY_HEADER_SUFFIX)
+					? headers.getAll(Metadata.Key.of(name, Metadata.BINARY_BYTE_MARSHALLER))
+					: headers.getAll(Metadata.Key.of(name, Metadata.ASCII_STRING_MARSHALLER));
+			List<Object> list = new ArrayList<>();
+			if (value != null) {
+				// Byte arrays do not have value equality, so wrap them
+				value.forEach((item) -> list.add(item instanceof byte[] bytes ? ByteBuffer.wrap(bytes) : item));
+			}
+			values.add(list);
+		}
+		return values;
+	}
+
+	private static Metadata copy(Metadata metadata) {
+		Metadata copy = new Metadata();
+		copy.merge(metadata);
+		return copy;
+	}
+
+	private static boolean noCache(Metadata headers) {
+		String directives = headers.get(CACHE_CONTROL);
+		return directives != null && directives.toLowerCase(Locale.ROOT).contains("no-cache");
+	}
+
+	private static <T> ByteBuffer serialize(MethodDescriptor.Marshaller<T> marshaller, T message) {
+		try (InputStream stream = marshaller.stream(message)) {
+			return ByteBuffer.wrap(stream.readAllBytes());
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * A cache policy for a set of methods.
+	 *
+	 * @param timeToLive the time to live of responses without cache directives (or null
+	 * to only cache responses that have a max-age)
+	 * @param maxSize the maximum number of responses to keep
+	 * @param vary the names of the request headers whose values are part of the cache key
+	 */
+	public record Policy(Duration timeToLive, int maxSize, Collection<String> vary) {
+
+		public Policy {
+			Set<String> names = new LinkedHashSet<>();
+			if (vary != null) {
+				vary.forEach((name) -> names.add(name.toLowerCase(Locale.ROOT)));
+			}
+			vary = Set.copyOf(names);
+		}
+
+		/**
+		 * Create a policy without vary headers.
+		 * @param timeToLive the time to live of responses without cache directives (or
+		 * null to only cache responses that have a max-age)
+		 * @param maxSize the maximum number of responses to keep
+		 */
+		public Policy(Duration timeToLive, int maxSize) {
+			this(timeToLive, maxSize, Set.of());
+		}
+
+	}
+
+	private record Key(String method, ByteBuffer request, List<Object> vary) {
+	}
+
+	private record Entry(Object response, Metadata headers, Metadata trailers, long expires) {
+	}
+
+	private static class ResponseCache {
+
+		private final Policy policy;
+
+		private final Map<Key, Entry> entries;
+
+		ResponseCache(Policy policy) {
+			this.policy = policy;
+			this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+					return size() > policy.maxSize();
+				}
+			};
+		}
+
+		synchronized Entry get(Key key, long now) {
+			Entry entry = this.entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.expires() <= now) {
+				this.entries.remove(key);
+				return null;
+			}
+			return entry;
+		}
+
+		synchronized void put(Key key, Entry entry) {
+			this.entries.put(key, entry);
+		}
+
+	}
+
+	private class CachingClientCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+		private final ResponseCache cache;
+
+		private final MethodDescriptor<ReqT, RespT> method;
+
+		private final CallOptions callOptions;
+
+		private final Channel next;
+
+		private Listener<RespT> listener;
+
+		private Metadata headers;
+
+		private int requested;
+
+		private Boolean compression;
+
+		private Entry cached;
+
+		private ClientCall<ReqT, RespT> delegate;
+
+		private boolean halfClosed;
+
+		private boolean delivered;
+
+		// Only the task that sets this calls the listener, so the callbacks never overlap
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private final Executor executor;
+
+		CachingClientCall(ResponseCache cache, MethodDescriptor<ReqT, RespT> method, CallOptions callOptions,
+				Channel next) {
+			this.cache = cache;
+			this.method = method;
+			this.callOptions = callOptions;
+			this.next = next;
+			this.executor = (callOptions.getExecutor() != null) ? callOptions.getExecutor()
+					: ResponseCacheInterceptor.this.executor;
+		}
+
+		@Override
+		public void start(Listener<RespT> listener, Metadata headers) {
+			this.listener = listener;
+			this.headers = headers;
+		}
+
+		@Override
+		public void request(int numMessages) {
+			if (this.delegate != null) {
+				this.delegate.request(numMessages);
+			}
+			else {
+				this.requested += numMessages;
+				deliver();
+			}
+		}
+
+		@Override
+		public void sendMessage(ReqT message) {
+			Key key = null;
+			Policy policy = this.cache.policy;
+			if (shareable(policy, this.headers, this.callOptions)) {
+				key = new Key(this.method.getFullMethodName(), serialize(this.method.getRequestMarshaller(), message),
+						vary(policy, this.headers));
+				if (!noCache(this.headers)) {
+					this.cached = this.cache.get(key, ResponseCacheInterceptor.this.clock.millis());
+					if (this.cached != null) {
+						return;
+					}
+				}
+			}
+			this.delegate = this.next.newCall(this.method, this.callOptions);
+			this.delegate.start((key != null) ? new CachingListener(key) : this.listener, this.headers);
+			if (this.compression != null) {
+				this.delegate.setMessageCompression(this.compression);
+			}
+			if (this.requested > 0) {
+				this.delegate.request(this.requested);
+			}
+			this.delegate.sendMessage(message);
+		}
+
+		@Override
+		public void halfClose() {
+			if (this.delegate != null) {
+				this.delegate.halfClose();
+			}
+			else if (this.cached != null) {
+				this.halfClosed = true;
+				deliver();
+			}
+		}
+
+		private void deliver() {
+			if (this.cached == null || !this.halfClosed || this.requested <= 0 || this.delivered) {
+				return;
+			}
+			this.delivered = true;
+			Listener<RespT> listener = this.listener;
+			Entry entry = this.cached;
+			this.executor.execute(() -> {
+				if (this.closed.compareAndSet(false, true)) {
+					listener.onHeaders(copy(entry.headers()));
+					listener.onMessage(response(entry));
+					listener.onClose(Status.OK, copy(entry.trailers()));
+				}
+			});
+		}
+
+		@SuppressWarnings("unchecked")
+		private RespT response(Entry entry) {
+			return (RespT) entry.response();
+		}
+
+		@Override
+		public void cancel(String message, Throwable cause) {
+			if (this.delegate != null) {
+				this.delegate.cancel(message, cause);
+			}
+			else if (this.listener != null && this.closed.compareAndSet(false, true)) {
+				Listener<RespT> listener = this.listener;
+				Status status = Status.CANCELLED;
+				status = message != null ? status.withDescription(message) : status.withDescription("Call cancelled");
+				Status cancelled = cause != null ? status.withCause(cause) : status;
+				this.executor.execute(() -> listener.onClose(cancelled, new Metadata()));
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return this.delegate != null ? this.delegate.isReady() : !this.closed.get();
+		}
+
+		@Override
+		public void setMessageCompression(boolean enabled) {
+			if (this.delegate != null) {
+				this.delegate.setMessageCompression(enabled);
+			}
+			else {
+				this.compression = enabled;
+			}
+		}
+
+		private class CachingListener extends SimpleForwardingClientCallListener<RespT> {
+
+			private final Key key;
+
+			private Metadata headers = new Metadata();
+
+			private RespT response;
+
+			CachingListener(Key key) {
+				super(CachingClientCall.this.listener);
+				this.key = key;
+			}
+
+			@Override
+			public void onHeaders(Metadata headers) {
+				this.headers = copy(headers);
+				super.onHeaders(headers);
+			}
+
+			@Override
+			public void onMessage(RespT message) {
+				this.response = message;
+				super.onMessage(message);
+			}
+
+			@Override
+			public void onClose(Status status, Metadata trailers) {
+				if (status.isOk() && this.response != null) {
+					String directives = trailers.containsKey(CACHE_CONTROL) ? trailers.get(CACHE_CONTROL)
+							: this.headers.get(CACHE_CONTROL);
+					Duration timeToLive = timeToLive(directives, CachingClientCall.this.cache.policy.timeToLive());
+					if (timeToLive != null) {
+						CachingClientCall.this.cache.put(this.key, new Entry(this.response, this.headers,
+								copy(trailers), ResponseCacheInterceptor.this.clock.millis() + timeToLive.toMillis()));
+					}
+				}
+				super.onClose(status, trailers);
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * A lease on a {@link ManagedChannel} that is shared by several clients. Shutting down
+ * the lease only releases it, and the underlying channel is shut down when the last lease
+ * is released.
+ *
+ * @author Dave Syer
+ */
+class SharedManagedChannel extends ManagedChannel {
+
+	private final Supplier<ManagedChannel> delegate;
+
+	private final Runnable release;
+
+	private final AtomicBoolean shutdown = new AtomicBoolean();
+
+	private volatile boolean released;
+
+	/**
+	 * Create a new lease on the given channel. The channel is looked up for each call, so
+	 * it can be replaced (e.g. when the channels are rebuilt after a checkpoint is
+	 * restored) without invalidating the lease.
+	 * @param delegate the shared channel
+	 * @param release a callback that releases the lease
+	 */
+	SharedManagedChannel(Supplier<ManagedChannel> delegate, Runnable release) {
+		this.delegate = delegate;
+		this.release = release;
+	}
+
+	ManagedChannel getDelegate() {
+		return this.delegate.get();
+	}
+
+	@Override
+	public ManagedChannel shutdown() {
+		release();
+		return this;
+	}
+
+	@Override
+	public ManagedChannel shutdownNow() {
+		release();
+		if (getDelegate().isShutdown()) {
+			// This was the last lease so no other clients are using the channel
+			getDelegate().shutdownNow();
+		}
+		return this;
+	}
+
+	private void release() {
+		if (this.shutdown.compareAndSet(false, true)) {
+			this.release.run();
+			this.released = true;
+		}
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return this.shutdown.get() || getDelegate().isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		// Once released, a lease is terminated unless the channel itself is still
+		// shutting down
+		return (this.released && !getDelegate().isShutdown()) || getDelegate().isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		if (this.released && !getDelegate().isShutdown()) {
+			return true;
+		}
+		return getDelegate().awaitTermination(timeout, unit);
+	}
+
+	@Override
+	public ConnectivityState getState(boolean requestConnection) {
+		return getDelegate().getState(requestConnection);
+	}
+
+	@Override
+	public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+		getDelegate().notifyWhenStateChanged(source, callback);
+	}
+
+	@Override
+	public void resetConnectBackoff() {
+		getDelegate().resetConnectBackoff();
+	}
+
+	@Override
+	public void enterIdle() {
+		getDelegate().enterIdle();
+	}
+
+	@Override
+	public <RequestT, ResponseT> ClientCall<RequestT, ResponseT> newCall(
+			MethodDescriptor<RequestT, ResponseT> methodDescriptor, CallOptions callOptions) {
+		if (this.shutdown.get()) {
+			return new FailedClientCall<>(Status.UNAVAILABLE.withDescription("Channel shutdown invoked"), callOptions);
+		}
+		return getDelegate().newCall(methodDescriptor, callOptions);
+	}
+
+	@Override
+	public String authority() {
+		return getDelegate().authority();
+	}
+
+	@Override
+	public String toString() {
+		return "SharedManagedChannel[" + getDelegate() + "]";
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.grpc.Channel;
+import io.grpc.stub.AbstractStub;
+
+/**
+ * Functions that create stubs directly from a channel, keyed by stub type. An instance is
+ * registered as a singleton by the code generated during AOT processing, with a method
+ * reference to the static factory method for each stub bean (e.g.
+ * {@code MyServiceGrpc::newBlockingStub}). When present, the {@link GrpcClientRegistry}
+ * uses these functions instead of the reflective lookup in {@link AbstractStubFactory},
+ * but only for the stub factories that Spring gRPC provides (a custom factory, even a
+ * subclass of a built-in one, is always called).
+ *
+ * @author Dave Syer
+ */
+public final class StubFunctions {
+
+	/**
+	 * The name of the singleton bean.
+	 */
+	public static final String BEAN_NAME = "org.springframework.grpc.client.stubFunctions";
+
+	/**
+	 * The name of the bean definition attribute that holds the name of the static factory
+	 * method that creates a stub bean, if it is created by one of the built-in stub
+	 * factories.
+	 */
+	public static final String METHOD_ATTRIBUTE = "org.springframework.grpc.client.stubFactoryMethod";
+
+	private final Map<Class<?>, Function<Channel, ?>> functions = new HashMap<>();
+
+	/**
+	 * Register a function that creates stubs of the given type.
+	 * @param <T> the type of the stub
+	 * @param type the stub type
+	 * @param function the function to create a stub from a channel
+	 * @return this
+	 */
+	public <T extends AbstractStub<?>> StubFunctions register(Class<T> type, Function<Channel, T> function) {
+		this.functions.put(type, function);
+		return this;
+	}
+
+	/**
+	 * Return the function for the given stub type, if there is one.
+	 * @param <T> the type of the stub
+	 * @param type the stub type
+	 * @return the function or null
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Function<Channel, T> get(Class<T> type) {
+		return (Function<Channel, T>) this.functions.get(type);
+	}
+
+}
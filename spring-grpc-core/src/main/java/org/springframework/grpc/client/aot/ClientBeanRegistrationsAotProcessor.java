@@ -15,13 +15,17 @@
  */
 package org.springframework.grpc.client.aot;
 
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
+import org.springframework.aot.generate.GeneratedMethod;
 import org.springframework.aot.generate.GenerationContext;
 import org.springframework.aot.hint.MemberCategory;
 import org.springframework.aot.hint.ReflectionHints;
@@ -31,13 +35,18 @@ import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContrib
 import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
 import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RegisteredBean;
 import org.springframework.core.MethodParameter;
+import org.springframework.grpc.client.StubFunctions;
+import org.springframework.javapoet.CodeBlock;
+import org.springframework.javapoet.MethodSpec;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 
 import com.google.protobuf.AbstractMessage;
+import io.grpc.Channel;
 import io.grpc.stub.AbstractStub;
 
 public class ClientBeanRegistrationsAotProcessor implements BeanFactoryInitializationAotProcessor {
@@ -47,23 +56,60 @@ public class ClientBeanRegistrationsAotProcessor implements BeanFactoryInitializ
 	public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
 		Set<Type> registrations = new HashSet<>();
 		Set<Class<?>> resources = new HashSet<>();
+		Map<Class<?>, Method> factories = new LinkedHashMap<>();
 
 		for (String beanName : beanFactory.getBeanDefinitionNames()) {
 			RegisteredBean registeredBean = RegisteredBean.of(beanFactory, beanName);
 			if (AbstractStub.class.isAssignableFrom(registeredBean.getBeanClass())) {
 				Class<?> type = registeredBean.getBeanClass().getEnclosingClass();
 				if (type != null) {
-					registrations.add(type);
+					// Only set for stubs that a built-in factory creates with a static
+					// method
+					Object method = registeredBean.getMergedBeanDefinition()
+						.getAttribute(StubFunctions.METHOD_ATTRIBUTE);
+					Method factory = (method instanceof String name)
+							? findFactoryMethod(type, registeredBean.getBeanClass(), name) : null;
+					if (factory != null) {
+						factories.put(registeredBean.getBeanClass(), factory);
+					}
+					else {
+						registrations.add(type);
+					}
 					resources.add(registeredBean.getBeanClass());
 				}
 				registrations.addAll(findMessageTypes(registeredBean.getBeanClass()));
 			}
 		}
 
-		if (registrations.isEmpty()) {
+		if (registrations.isEmpty() && factories.isEmpty()) {
 			return null;
 		}
-		return new ClientBeanRegistrationsAotContribution(registrations, resources);
+		return new ClientBeanRegistrationsAotContribution(registrations, resources, factories);
+	}
+
+	@Nullable
+	private Method findFactoryMethod(Class<?> type, Class<?> stub, String name) {
+		// The static method in the enclosing (generated) class that the stub factory
+		// calls, e.g. newBlockingStub(Channel). It can be called directly from generated
+		// code if it is public.
+		if (!isPublic(type) || !isPublic(stub)) {
+			return null;
+		}
+		Method method = ReflectionUtils.findMethod(type, name, Channel.class);
+		if (method != null && Modifier.isStatic(method.getModifiers()) && Modifier.isPublic(method.getModifiers())
+				&& method.getReturnType() == stub) {
+			return method;
+		}
+		return null;
+	}
+
+	private static boolean isPublic(Class<?> type) {
+		for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+			if (!Modifier.isPublic(current.getModifiers())) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	private Collection<Type> findMessageTypes(Class<?> beanClass) {
@@ -106,16 +152,26 @@ public class ClientBeanRegistrationsAotProcessor implements BeanFactoryInitializ
 
 		private Set<Class<?>> resources;
 
-		ClientBeanRegistrationsAotContribution(Set<Type> types, Set<Class<?>> resources) {
+		private Map<Class<?>, Method> factories;
+
+		ClientBeanRegistrationsAotContribution(Set<Type> types, Set<Class<?>> resources,
+				Map<Class<?>, Method> factories) {
 			this.types = types;
 			this.resources = resources;
+			this.factories = factories;
 		}
 
 		@Override
 		public void applyTo(GenerationContext generationContext,
 				BeanFactoryInitializationCode beanFactoryInitializationCode) {
+			if (!this.factories.isEmpty()) {
+				GeneratedMethod method = beanFactoryInitializationCode.getMethods()
+					.add("registerStubFunctions", this::generateStubFunctions);
+				beanFactoryInitializationCode.addInitializer(method.toMethodReference());
+			}
 			ReflectionHints hints = generationContext.getRuntimeHints().reflection();
-			// Registers all stubs and message types for reflection. Not all the message
+			// Registers the remaining stubs (the ones that cannot be created from
+			// generated code) and all message types for reflection. Not all the message
 			// types will be used but it is simpler to register them all.
 			for (Type type : this.types) {
 				hints.registerType(TypeReference.of(type.getTypeName()), MemberCategory.INVOKE_PUBLIC_METHODS);
@@ -129,6 +185,18 @@ public class ClientBeanRegistrationsAotProcessor implements BeanFactoryInitializ
 			}
 		}
 
+		private void generateStubFunctions(MethodSpec.Builder method) {
+			method.addJavadoc("Register functions that create the gRPC stubs without reflection.");
+			method.addModifiers(javax.lang.model.element.Modifier.PRIVATE);
+			method.addParameter(DefaultListableBeanFactory.class, "beanFactory");
+			CodeBlock.Builder code = CodeBlock.builder();
+			code.addStatement("$T functions = new $T()", StubFunctions.class, StubFunctions.class);
+			this.factories.forEach((stub, factory) -> code.addStatement("functions.register($T.class, $T::$L)", stub,
+					factory.getDeclaringClass(), factory.getName()));
+			code.addStatement("beanFactory.registerSingleton($S, functions)", StubFunctions.BEAN_NAME);
+			method.addCode(code.build());
+		}
+
 	}
 
 }
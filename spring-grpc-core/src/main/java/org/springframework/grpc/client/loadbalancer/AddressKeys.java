@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.grpc.EquivalentAddressGroup;
+
+/**
+ * Stable string keys for resolved addresses, so that load balancers on different client
+ * instances see the backends in the same order.
+ *
+ * @author Dave Syer
+ */
+final class AddressKeys {
+
+	private AddressKeys() {
+	}
+
+	/**
+	 * A key for an address group, made of the IP addresses and ports (not the host names,
+	 * which can vary between clients).
+	 * @param group the address group
+	 * @return a key for the group
+	 */
+	static String key(EquivalentAddressGroup group) {
+		StringBuilder key = new StringBuilder();
+		for (SocketAddress address : group.getAddresses()) {
+			if (key.length() > 0) {
+				key.append(",");
+			}
+			if (address instanceof InetSocketAddress inet && inet.getAddress() != null) {
+				key.append(inet.getAddress().getHostAddress()).append(":").append(inet.getPort());
+			}
+			else {
+				key.append(address);
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Sorts address groups by their keys.
+	 * @param groups the address groups
+	 * @return the groups sorted by key
+	 */
+	static Map<String, EquivalentAddressGroup> sorted(List<EquivalentAddressGroup> groups) {
+		Map<String, EquivalentAddressGroup> sorted = new TreeMap<>();
+		for (EquivalentAddressGroup group : groups) {
+			sorted.put(key(group), group);
+		}
+		return sorted;
+	}
+
+}
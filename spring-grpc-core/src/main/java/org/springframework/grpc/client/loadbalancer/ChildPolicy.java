@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.util.List;
+import java.util.Map;
+
+import io.grpc.LoadBalancerProvider;
+import io.grpc.LoadBalancerRegistry;
+import io.grpc.NameResolver.ConfigOrError;
+import io.grpc.Status;
+
+/**
+ * The child policy of a load balancer that delegates to another one, parsed from a
+ * {@code childPolicy} list in the service config (the first available policy in the list
+ * is used).
+ *
+ * @param provider the provider of the child policy
+ * @param config the parsed config of the child policy
+ * @author Dave Syer
+ */
+record ChildPolicy(LoadBalancerProvider provider, Object config) {
+
+	/**
+	 * Parses a {@code childPolicy} value, defaulting to {@code round_robin} if it is
+	 * null.
+	 * @param value the raw value from the service config
+	 * @return the child policy or an error
+	 */
+	static ConfigOrError parse(Object value) {
+		List<?> policies = value != null ? (value instanceof List<?> list ? list : List.of())
+				: List.of(Map.of("round_robin", Map.of()));
+		for (Object policy : policies) {
+			if (!(policy instanceof Map<?, ?> map) || map.size() != 1) {
+				return ConfigOrError.fromError(Status.UNAVAILABLE.withDescription("Invalid childPolicy: " + policy));
+			}
+			Map.Entry<?, ?> entry = map.entrySet().iterator().next();
+			LoadBalancerProvider provider = LoadBalancerRegistry.getDefaultRegistry()
+				.getProvider(entry.getKey().toString());
+			if (provider == null) {
+				continue;
+			}
+			@SuppressWarnings("unchecked")
+			Map<String, ?> raw = entry.getValue() instanceof Map<?, ?> config ? (Map<String, ?>) config : Map.of();
+			ConfigOrError parsed = provider.parseLoadBalancingPolicyConfig(raw);
+			if (parsed.getError() != null) {
+				return parsed;
+			}
+			return ConfigOrError.fromConfig(new ChildPolicy(provider, parsed.getConfig()));
+		}
+		return ConfigOrError.fromError(Status.UNAVAILABLE.withDescription("No available childPolicy in " + value));
+	}
+
+}
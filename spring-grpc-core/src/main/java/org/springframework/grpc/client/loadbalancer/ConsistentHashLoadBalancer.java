@@ -0,0 +1,210 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.grpc.client.loadbalancer.ConsistentHashLoadBalancerProvider.Algorithm;
+import org.springframework.grpc.client.loadbalancer.ConsistentHashLoadBalancerProvider.Config;
+
+import io.grpc.ConnectivityState;
+import io.grpc.ConnectivityStateInfo;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+/**
+ * A {@link LoadBalancer} that picks the backend for a call from a hash of one of its
+ * headers, so that calls with the same header value go to the same backend. The backends
+ * are arranged in a {@link HashRing} sorted by address, so that all the clients agree on
+ * the routing. If the chosen backend is not ready the next one in the table is used
+ * instead, which keeps the affinity as stable as possible while a backend is restarting.
+ *
+ * @author Dave Syer
+ */
+class ConsistentHashLoadBalancer extends LoadBalancer {
+
+	private final Helper helper;
+
+	private final Map<EquivalentAddressGroup, Subchannel> subchannels = new LinkedHashMap<>();
+
+	private final Map<Subchannel, ConnectivityStateInfo> states = new HashMap<>();
+
+	private List<Subchannel> hosts = List.of();
+
+	private HashRing ring;
+
+	private Config config;
+
+	ConsistentHashLoadBalancer(Helper helper) {
+		this.helper = helper;
+	}
+
+	@Override
+	public Status acceptResolvedAddresses(ResolvedAddresses resolvedAddresses) {
+		if (!(resolvedAddresses.getLoadBalancingPolicyConfig() instanceof Config parsed)) {
+			Status status = Status.INTERNAL.withDescription("Missing consistent_hash config");
+			handleNameResolutionError(status);
+			return status;
+		}
+		if (resolvedAddresses.getAddresses().isEmpty()) {
+			Status status = Status.UNAVAILABLE.withDescription("No addresses for consistent_hash");
+			handleNameResolutionError(status);
+			return status;
+		}
+		Map<String, EquivalentAddressGroup> sorted = AddressKeys.sorted(resolvedAddresses.getAddresses());
+		Map<EquivalentAddressGroup, Subchannel> removed = new HashMap<>(this.subchannels);
+		List<Subchannel> hosts = new ArrayList<>();
+		for (EquivalentAddressGroup resolved : sorted.values()) {
+			EquivalentAddressGroup group = new EquivalentAddressGroup(resolved.getAddresses());
+			Subchannel subchannel = removed.remove(group);
+			if (subchannel == null) {
+				subchannel = createSubchannel(group);
+			}
+			hosts.add(subchannel);
+		}
+		for (Map.Entry<EquivalentAddressGroup, Subchannel> entry : removed.entrySet()) {
+			this.subchannels.remove(entry.getKey());
+			this.states.remove(entry.getValue());
+			entry.getValue().shutdown();
+		}
+		if (!hosts.equals(this.hosts) || !parsed.equals(this.config)) {
+			List<String> keys = new ArrayList<>(sorted.keySet());
+			this.ring = parsed.algorithm() == Algorithm.MAGLEV ? HashRing.maglev(keys, parsed.tableSize())
+					: HashRing.ringHash(keys, parsed.minRingSize());
+			this.hosts = hosts;
+			this.config = parsed;
+		}
+		updateBalancingState();
+		return Status.OK;
+	}
+
+	@Override
+	public void handleNameResolutionError(Status error) {
+		if (this.subchannels.isEmpty()) {
+			this.helper.updateBalancingState(ConnectivityState.TRANSIENT_FAILURE,
+					new FixedResultPicker(PickResult.withError(error)));
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		for (Subchannel subchannel : this.subchannels.values()) {
+			subchannel.shutdown();
+		}
+		this.subchannels.clear();
+		this.states.clear();
+	}
+
+	private Subchannel createSubchannel(EquivalentAddressGroup group) {
+		Subchannel subchannel = this.helper
+			.createSubchannel(CreateSubchannelArgs.newBuilder().setAddresses(group).build());
+		this.subchannels.put(group, subchannel);
+		this.states.put(subchannel, ConnectivityStateInfo.forNonError(ConnectivityState.IDLE));
+		subchannel.start((state) -> processSubchannelState(subchannel, state));
+		subchannel.requestConnection();
+		return subchannel;
+	}
+
+	private void processSubchannelState(Subchannel subchannel, ConnectivityStateInfo state) {
+		if (!this.states.containsKey(subchannel) || state.getState() == ConnectivityState.SHUTDOWN) {
+			return;
+		}
+		this.states.put(subchannel, state);
+		if (state.getState() == ConnectivityState.IDLE) {
+			subchannel.requestConnection();
+		}
+		updateBalancingState();
+	}
+
+	private void updateBalancingState() {
+		boolean[] ready = new boolean[this.hosts.size()];
+		boolean connecting = false;
+		Status failure = null;
+		for (int i = 0; i < ready.length; i++) {
+			ConnectivityStateInfo state = this.states.get(this.hosts.get(i));
+			if (state.getState() == ConnectivityState.READY) {
+				ready[i] = true;
+			}
+			else if (state.getState() == ConnectivityState.TRANSIENT_FAILURE) {
+				failure = state.getStatus();
+			}
+			else {
+				connecting = true;
+			}
+		}
+		ConnectivityState overall = ConnectivityState.TRANSIENT_FAILURE;
+		for (boolean value : ready) {
+			if (value) {
+				overall = ConnectivityState.READY;
+				break;
+			}
+		}
+		if (overall != ConnectivityState.READY && connecting) {
+			overall = ConnectivityState.CONNECTING;
+		}
+		this.helper.updateBalancingState(overall,
+				new ConsistentHashPicker(this.config.header(), this.ring, this.hosts.toArray(new Subchannel[0]), ready,
+						overall == ConnectivityState.TRANSIENT_FAILURE ? failure : null));
+	}
+
+	static class ConsistentHashPicker extends SubchannelPicker {
+
+		private final Metadata.Key<String> header;
+
+		private final HashRing ring;
+
+		private final Subchannel[] hosts;
+
+		private final boolean[] ready;
+
+		private final Status failure;
+
+		ConsistentHashPicker(Metadata.Key<String> header, HashRing ring, Subchannel[] hosts, boolean[] ready,
+				Status failure) {
+			this.header = header;
+			this.ring = ring;
+			this.hosts = hosts;
+			this.ready = ready;
+			this.failure = failure;
+		}
+
+		@Override
+		public PickResult pickSubchannel(PickSubchannelArgs args) {
+			if (this.failure != null) {
+				return PickResult.withError(this.failure);
+			}
+			String value = args.getHeaders().get(this.header);
+			long hash = value != null ? HashRing.hash(value) : ThreadLocalRandom.current().nextLong();
+			int position = this.ring.position(hash);
+			for (int i = 0; i < this.ring.size(); i++) {
+				int host = this.ring.host(position + i);
+				if (this.ready[host]) {
+					return PickResult.withSubchannel(this.hosts[host]);
+				}
+			}
+			return PickResult.withNoResult();
+		}
+
+	}
+
+}
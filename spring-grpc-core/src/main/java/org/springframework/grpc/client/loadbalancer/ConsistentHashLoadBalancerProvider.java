@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.Map;
+
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancer.Helper;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.Metadata;
+import io.grpc.NameResolver.ConfigOrError;
+import io.grpc.Status;
+
+/**
+ * Provider for the {@code consistent_hash} load balancing policy, which sends all the
+ * calls with the same value of a request header to the same backend (as long as it is
+ * available). This gives cache affinity when the backends are a sharded cache, for
+ * instance. Example service config: <code>{"loadBalancingConfig": [{"consistent_hash":
+ * {"hashHeader": "x-cache-key", "algorithm": "maglev"}}]}</code>.
+ * <p>
+ * The options are {@code hashHeader} (required), {@code algorithm} ({@code ring_hash} or
+ * {@code maglev}, default {@code ring_hash}), {@code minRingSize} (for ring hash, default
+ * 1024) and {@code tableSize} (for maglev, a prime number, default 65537). Calls without
+ * the header are spread randomly. Use a {@link HashKeyInterceptor} to set the header from
+ * the request message.
+ *
+ * @author Dave Syer
+ */
+public class ConsistentHashLoadBalancerProvider extends LoadBalancerProvider {
+
+	/**
+	 * The name of the policy.
+	 */
+	public static final String POLICY_NAME = "consistent_hash";
+
+	static final int DEFAULT_MIN_RING_SIZE = 1024;
+
+	static final int DEFAULT_TABLE_SIZE = 65537;
+
+	private static final int MAX_RING_SIZE = 8 * 1024 * 1024;
+
+	@Override
+	public boolean isAvailable() {
+		return true;
+	}
+
+	@Override
+	public int getPriority() {
+		return 5;
+	}
+
+	@Override
+	public String getPolicyName() {
+		return POLICY_NAME;
+	}
+
+	@Override
+	public LoadBalancer newLoadBalancer(Helper helper) {
+		return new ConsistentHashLoadBalancer(helper);
+	}
+
+	@Override
+	public ConfigOrError parseLoadBalancingPolicyConfig(Map<String, ?> rawConfig) {
+		try {
+			Object header = rawConfig.get("hashHeader");
+			if (!(header instanceof String name) || name.isEmpty() || name.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+				return error("hashHeader must be the name of an ASCII header: " + header);
+			}
+			Object value = rawConfig.get("algorithm");
+			Algorithm algorithm = value == null ? Algorithm.RING_HASH
+					: Algorithm.valueOf(value.toString().toUpperCase(Locale.ROOT));
+			int minRingSize = intValue(rawConfig, "minRingSize", DEFAULT_MIN_RING_SIZE);
+			if (minRingSize < 1 || minRingSize > MAX_RING_SIZE) {
+				return error("minRingSize must be between 1 and " + MAX_RING_SIZE + ": " + minRingSize);
+			}
+			int tableSize = intValue(rawConfig, "tableSize", DEFAULT_TABLE_SIZE);
+			if (tableSize < 3 || tableSize > MAX_RING_SIZE || !BigInteger.valueOf(tableSize).isProbablePrime(20)) {
+				return error("tableSize must be a prime number less than " + MAX_RING_SIZE + ": " + tableSize);
+			}
+			return ConfigOrError.fromConfig(new Config(Metadata.Key.of(name, Metadata.ASCII_STRING_MARSHALLER),
+					algorithm, minRingSize, tableSize));
+		}
+		catch (IllegalArgumentException ex) {
+			return error("Invalid consistent_hash config: " + ex.getMessage());
+		}
+	}
+
+	private static int intValue(Map<String, ?> rawConfig, String key, int defaultValue) {
+		Object value = rawConfig.get(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		if (value instanceof Number number) {
+			return number.intValue();
+		}
+		throw new IllegalArgumentException(key + " is not a number: " + value);
+	}
+
+	private static ConfigOrError error(String message) {
+		return ConfigOrError.fromError(Status.UNAVAILABLE.withDescription(message));
+	}
+
+	/**
+	 * The algorithm used to map hashes to backends.
+	 */
+	public enum Algorithm {
+
+		/**
+		 * Each backend has several points on a ring, and a hash maps to the next point on
+		 * the ring.
+		 */
+		RING_HASH,
+
+		/**
+		 * A lookup table filled from a permutation per backend. Spreads the load more
+		 * evenly than a ring of the same size, at the cost of moving slightly more keys
+		 * when the backends change.
+		 */
+		MAGLEV
+
+	}
+
+	/**
+	 * The parsed configuration of the policy.
+	 *
+	 * @param header the header to hash
+	 * @param algorithm the algorithm
+	 * @param minRingSize the minimum number of points on the ring
+	 * @param tableSize the size of the maglev lookup table
+	 */
+	record Config(Metadata.Key<String> header, Algorithm algorithm, int minRingSize, int tableSize) {
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.grpc.client.loadbalancer.DeterministicSubsettingLoadBalancerProvider.Config;
+
+import io.grpc.ConnectivityState;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.Status;
+
+/**
+ * A {@link LoadBalancer} that passes a subset of the addresses to a child load balancer,
+ * using the "deterministic subsetting" algorithm from the Google SRE book. The clients
+ * are divided into rounds, each of which shuffles the backends (sorted by address) in a
+ * different way, and each client in a round takes a different slice of the shuffled list.
+ * So every backend gets connections from about the same number of clients.
+ *
+ * @author Dave Syer
+ */
+class DeterministicSubsettingLoadBalancer extends LoadBalancer {
+
+	private final Helper helper;
+
+	private LoadBalancerProvider childProvider;
+
+	private LoadBalancer child;
+
+	DeterministicSubsettingLoadBalancer(Helper helper) {
+		this.helper = helper;
+	}
+
+	@Override
+	public Status acceptResolvedAddresses(ResolvedAddresses resolvedAddresses) {
+		if (!(resolvedAddresses.getLoadBalancingPolicyConfig() instanceof Config config)) {
+			Status status = Status.INTERNAL.withDescription("Missing deterministic_subsetting config");
+			handleNameResolutionError(status);
+			return status;
+		}
+		if (this.child == null || this.childProvider != config.childPolicy().provider()) {
+			if (this.child != null) {
+				this.child.shutdown();
+			}
+			this.childProvider = config.childPolicy().provider();
+			this.child = this.childProvider.newLoadBalancer(this.helper);
+		}
+		List<EquivalentAddressGroup> subset = subset(resolvedAddresses.getAddresses(), config.subsetSize(),
+				config.clientIndex());
+		return this.child.acceptResolvedAddresses(resolvedAddresses.toBuilder()
+			.setAddresses(subset)
+			.setLoadBalancingPolicyConfig(config.childPolicy().config())
+			.build());
+	}
+
+	@Override
+	public void handleNameResolutionError(Status error) {
+		if (this.child != null) {
+			this.child.handleNameResolutionError(error);
+		}
+		else {
+			this.helper.updateBalancingState(ConnectivityState.TRANSIENT_FAILURE,
+					new FixedResultPicker(PickResult.withError(error)));
+		}
+	}
+
+	@Override
+	public void requestConnection() {
+		if (this.child != null) {
+			this.child.requestConnection();
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		if (this.child != null) {
+			this.child.shutdown();
+			this.child = null;
+		}
+	}
+
+	/**
+	 * The subset of the addresses for a client.
+	 * @param addresses all the addresses
+	 * @param subsetSize the number of addresses in a subset
+	 * @param clientIndex the index of the client
+	 * @return the subset
+	 */
+	static List<EquivalentAddressGroup> subset(List<EquivalentAddressGroup> addresses, int subsetSize,
+			long clientIndex) {
+		// Duplicate addresses collapse into one backend, so count the backends
+		List<EquivalentAddressGroup> backends = new ArrayList<>(AddressKeys.sorted(addresses).values());
+		int subsetCount = backends.size() / subsetSize;
+		if (subsetCount == 0) {
+			return addresses;
+		}
+		long round = clientIndex / subsetCount;
+		Collections.shuffle(backends, new Random(round));
+		int start = (int) (clientIndex % subsetCount) * subsetSize;
+		return List.copyOf(backends.subList(start, start + subsetSize));
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancer.Helper;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.NameResolver.ConfigOrError;
+import io.grpc.Status;
+
+/**
+ * Provider for the {@code deterministic_subsetting} load balancing policy, which passes
+ * only a subset of the resolved addresses to a child policy, so that each client connects
+ * to {@code subsetSize} backends instead of all of them. The subsets are chosen so that
+ * clients with consecutive indexes are spread evenly over the backends. Example service
+ * config: <code>{"loadBalancingConfig": [{"deterministic_subsetting": {"subsetSize": 10,
+ * "childPolicy": [{"round_robin": {}}]}}]}</code>.
+ * <p>
+ * The {@code clientIndex} should be unique for each client instance of the same service
+ * (e.g. the ordinal of a pod in a stateful set). If it is not set, it is computed from a
+ * hash of the host name, which spreads the clients evenly on average. The default child
+ * policy is {@code round_robin}.
+ *
+ * @author Dave Syer
+ */
+public class DeterministicSubsettingLoadBalancerProvider extends LoadBalancerProvider {
+
+	/**
+	 * The name of the policy.
+	 */
+	public static final String POLICY_NAME = "deterministic_subsetting";
+
+	@Override
+	public boolean isAvailable() {
+		return true;
+	}
+
+	@Override
+	public int getPriority() {
+		return 5;
+	}
+
+	@Override
+	public String getPolicyName() {
+		return POLICY_NAME;
+	}
+
+	@Override
+	public LoadBalancer newLoadBalancer(Helper helper) {
+		return new DeterministicSubsettingLoadBalancer(helper);
+	}
+
+	@Override
+	public ConfigOrError parseLoadBalancingPolicyConfig(Map<String, ?> rawConfig) {
+		Object size = rawConfig.get("subsetSize");
+		if (!(size instanceof Number subsetSize) || subsetSize.intValue() < 1) {
+			return error("subsetSize must be a positive number: " + size);
+		}
+		Object index = rawConfig.get("clientIndex");
+		long clientIndex;
+		if (index == null) {
+			clientIndex = defaultClientIndex();
+		}
+		else if (index instanceof Number number && number.longValue() >= 0) {
+			clientIndex = number.longValue();
+		}
+		else {
+			return error("clientIndex must be a non-negative number: " + index);
+		}
+		ConfigOrError child = ChildPolicy.parse(rawConfig.get("childPolicy"));
+		if (child.getError() != null) {
+			return child;
+		}
+		return ConfigOrError
+			.fromConfig(new Config(subsetSize.intValue(), clientIndex, (ChildPolicy) child.getConfig()));
+	}
+
+	private static long defaultClientIndex() {
+		String name;
+		try {
+			name = InetAddress.getLocalHost().getHostName();
+		}
+		catch (UnknownHostException ex) {
+			name = String.valueOf(ProcessHandle.current().pid());
+		}
+		return HashRing.hash(name) >>> 1;
+	}
+
+	private static ConfigOrError error(String message) {
+		return ConfigOrError.fromError(Status.UNAVAILABLE.withDescription(message));
+	}
+
+	/**
+	 * The parsed configuration of the policy.
+	 *
+	 * @param subsetSize the number of backends for each client
+	 * @param clientIndex the index of this client
+	 * @param childPolicy the child policy
+	 */
+	record Config(int subsetSize, long clientIndex, ChildPolicy childPolicy) {
+	}
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+
+/**
+ * A {@link ClientInterceptor} that sets the header used by the
+ * {@link ConsistentHashLoadBalancerProvider consistent_hash} load balancing policy from
+ * the request message, using a function registered for the method. The backend for a call
+ * is picked when the call starts, which is before the request is sent, so the start of
+ * the call is deferred until the first message (or the end of the request stream). Calls
+ * that already have the header, or that have no registered function, are not changed.
+ *
+ * <pre class="code">
+ * HashKeyInterceptor interceptor = new HashKeyInterceptor("x-cache-key");
+ * interceptor.addExtractor(CacheGrpc.getGetMethod(), GetRequest::getKey);
+ * </pre>
+ *
+ * @author Dave Syer
+ */
+public class HashKeyInterceptor implements ClientInterceptor {
+
+	private final Metadata.Key<String> header;
+
+	private final Map<String, Function<Object, String>> extractors = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates an interceptor that sets the given header.
+	 * @param header the name of the header (the same as the {@code hashHeader} of the
+	 * load balancing policy)
+	 */
+	public HashKeyInterceptor(String header) {
+		this.header = Metadata.Key.of(header, Metadata.ASCII_STRING_MARSHALLER);
+	}
+
+	/**
+	 * Registers a function that computes the hash key from the request of a method. If
+	 * the function returns null the header is not set.
+	 * @param <ReqT> the request type
+	 * @param method the method
+	 * @param extractor the function that computes the key
+	 * @return this interceptor
+	 */
+	@SuppressWarnings("unchecked")
+	public <ReqT> HashKeyInterceptor addExtractor(MethodDescriptor<ReqT, ?> method,
+			Function<? super ReqT, String> extractor) {
+		this.extractors.put(method.getFullMethodName(), (Function<Object, String>) extractor);
+		return this;
+	}
+
+	@Override
+	public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+			CallOptions callOptions, Channel next) {
+		Function<Object, String> extractor = this.extractors.get(method.getFullMethodName());
+		ClientCall<ReqT, RespT> call = next.newCall(method, callOptions);
+		return extractor != null ? new DeferredStartCall<>(call, extractor) : call;
+	}
+
+	private class DeferredStartCall<ReqT, RespT> extends SimpleForwardingClientCall<ReqT, RespT> {
+
+		private final Function<Object, String> extractor;
+
+		private Listener<RespT> listener;
+
+		private Metadata headers;
+
+		private int requested;
+
+		private Boolean compression;
+
+		DeferredStartCall(ClientCall<ReqT, RespT> delegate, Function<Object, String> extractor) {
+			super(delegate);
+			this.extractor = extractor;
+		}
+
+		@Override
+		public void start(Listener<RespT> listener, Metadata headers) {
+			if (headers.containsKey(HashKeyInterceptor.this.header)) {
+				super.start(listener, headers);
+			}
+			else {
+				this.listener = listener;
+				this.headers = headers;
+			}
+		}
+
+		@Override
+		public void request(int numMessages) {
+			if (this.listener != null) {
+				this.requested += numMessages;
+			}
+			else {
+				super.request(numMessages);
+			}
+		}
+
+		@Override
+		public void setMessageCompression(boolean enabled) {
+			if (this.listener != null) {
+				this.compression = enabled;
+			}
+			else {
+				super.setMessageCompression(enabled);
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			// Let the first message through (it starts the call)
+			return this.listener != null || super.isReady();
+		}
+
+		@Override
+		public void sendMessage(ReqT message) {
+			if (this.listener != null) {
+				String key = this.extractor.apply(message);
+				if (key != null) {
+					this.headers.put(HashKeyInterceptor.this.header, key);
+				}
+				startDeferred();
+			}
+			super.sendMessage(message);
+		}
+
+		@Override
+		public void halfClose() {
+			startDeferred();
+			super.halfClose();
+		}
+
+		@Override
+		public void cancel(String message, Throwable cause) {
+			startDeferred();
+			super.cancel(message, cause);
+		}
+
+		private void startDeferred() {
+			if (this.listener == null) {
+				return;
+			}
+			super.start(this.listener, this.headers);
+			this.listener = null;
+			this.headers = null;
+			if (this.compression != null) {
+				super.setMessageCompression(this.compression);
+			}
+			if (this.requested > 0) {
+				super.request(this.requested);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A table of backends (identified by their index in a list) that maps a hash to a
+ * position, and the position to a backend. Two kinds of table are supported: a ring
+ * ("ring hash", with each backend at several points on the ring) and a "maglev" lookup
+ * table. In both cases, when a backend is added or removed, most of the hashes still map
+ * to the same backend. When the backend at a position is not usable, the next positions
+ * give a deterministic sequence of alternatives.
+ *
+ * @author Dave Syer
+ */
+final class HashRing {
+
+	private final long[] hashes;
+
+	private final int[] hosts;
+
+	private HashRing(long[] hashes, int[] hosts) {
+		this.hashes = hashes;
+		this.hosts = hosts;
+	}
+
+	/**
+	 * Creates a ring with at least the given number of points, shared equally between the
+	 * hosts. The number of points per host is rounded up to a power of two, so that
+	 * adding or removing a host rarely changes the points of the others (which would move
+	 * some of their keys).
+	 * @param hosts the host identifiers
+	 * @param minRingSize the minimum number of points on the ring
+	 * @return a ring
+	 */
+	static HashRing ringHash(List<String> hosts, int minRingSize) {
+		int perHost = Math.max(1, (minRingSize + hosts.size() - 1) / hosts.size());
+		perHost = Integer.highestOneBit(perHost) == perHost ? perHost : Integer.highestOneBit(perHost) << 1;
+		List<long[]> points = new ArrayList<>(perHost * hosts.size());
+		for (int i = 0; i < hosts.size(); i++) {
+			for (int j = 0; j < perHost; j++) {
+				points.add(new long[] { hash(hosts.get(i) + "_" + j), i });
+			}
+		}
+		points.sort(Comparator.comparingLong((point) -> point[0]));
+		long[] hashes = new long[points.size()];
+		int[] indexes = new int[points.size()];
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = points.get(i)[0];
+			indexes[i] = (int) points.get(i)[1];
+		}
+		return new HashRing(hashes, indexes);
+	}
+
+	/**
+	 * Creates a maglev lookup table of the given size.
+	 * @param hosts the host identifiers
+	 * @param tableSize the size of the table (a prime number, much larger than the number
+	 * of hosts)
+	 * @return a lookup table
+	 */
+	static HashRing maglev(List<String> hosts, int tableSize) {
+		int count = hosts.size();
+		long[] offsets = new long[count];
+		long[] skips = new long[count];
+		for (int i = 0; i < count; i++) {
+			long hash = hash(hosts.get(i));
+			offsets[i] = Long.remainderUnsigned(hash, tableSize);
+			skips[i] = Long.remainderUnsigned(mix(hash ^ 0x9e3779b97f4a7c15L), tableSize - 1) + 1;
+		}
+		int[] table = new int[tableSize];
+		Arrays.fill(table, -1);
+		long[] next = new long[count];
+		int filled = 0;
+		while (filled < tableSize) {
+			for (int i = 0; i < count && filled < tableSize; i++) {
+				int slot = (int) ((offsets[i] + next[i] * skips[i]) % tableSize);
+				while (table[slot] >= 0) {
+					next[i]++;
+					slot = (int) ((offsets[i] + next[i] * skips[i]) % tableSize);
+				}
+				table[slot] = i;
+				next[i]++;
+				filled++;
+			}
+		}
+		return new HashRing(null, table);
+	}
+
+	/**
+	 * The position in the table of the given hash.
+	 * @param hash the hash
+	 * @return the position
+	 */
+	int position(long hash) {
+		if (this.hashes == null) {
+			return (int) Long.remainderUnsigned(hash, this.hosts.length);
+		}
+		int index = Arrays.binarySearch(this.hashes, hash);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		return index < this.hashes.length ? index : 0;
+	}
+
+	/**
+	 * The host at the given position, wrapping around at the end of the table.
+	 * @param position the position
+	 * @return the index of the host
+	 */
+	int host(int position) {
+		return this.hosts[position % this.hosts.length];
+	}
+
+	int size() {
+		return this.hosts.length;
+	}
+
+	/**
+	 * A 64-bit hash of the UTF-8 bytes of a string (FNV-1a with a final avalanche mix).
+	 * Stable across JVMs, so all the clients of a service agree on the routing.
+	 * @param value the value to hash
+	 * @return the hash
+	 */
+	static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= (b & 0xff);
+			hash *= 0x100000001b3L;
+		}
+		return mix(hash);
+	}
+
+	private static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return value;
+	}
+
+}
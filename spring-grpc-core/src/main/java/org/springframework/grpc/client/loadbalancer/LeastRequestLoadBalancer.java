@@ -0,0 +1,236 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.grpc.client.nameresolver.EndpointNameResolverProvider;
+
+import io.grpc.ClientStreamTracer;
+import io.grpc.ConnectivityState;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancerRegistry;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.util.ForwardingLoadBalancer;
+import io.grpc.util.ForwardingLoadBalancerHelper;
+import io.grpc.util.ForwardingSubchannel;
+
+/**
+ * A {@link LoadBalancer} that sends each call to the least loaded of a few candidate
+ * backends. The connections are managed by a {@code round_robin} balancer, the candidates
+ * are picked at random from the backends that are ready, and the one with the fewest
+ * calls in progress wins. This spreads the load better than plain round robin when the
+ * backends (or the calls) are not all alike, since slow backends accumulate calls in
+ * progress and get fewer new ones. The calls in progress are divided by the
+ * {@link EndpointNameResolverProvider#WEIGHT weight} of the backend (if it has one), so
+ * heavier backends get proportionally more calls.
+ *
+ * @author Dave Syer
+ */
+class LeastRequestLoadBalancer extends ForwardingLoadBalancer {
+
+	private final LoadBalancer delegate;
+
+	private volatile int choiceCount = LeastRequestLoadBalancerProvider.DEFAULT_CHOICE_COUNT;
+
+	LeastRequestLoadBalancer(Helper helper) {
+		this.delegate = LoadBalancerRegistry.getDefaultRegistry()
+			.getProvider("round_robin")
+			.newLoadBalancer(new CountingHelper(helper));
+	}
+
+	@Override
+	protected LoadBalancer delegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public Status acceptResolvedAddresses(ResolvedAddresses resolvedAddresses) {
+		Object config = resolvedAddresses.getLoadBalancingPolicyConfig();
+		if (config instanceof LeastRequestLoadBalancerProvider.Config leastRequest) {
+			this.choiceCount = leastRequest.choiceCount();
+		}
+		return this.delegate
+			.acceptResolvedAddresses(resolvedAddresses.toBuilder().setLoadBalancingPolicyConfig(null).build());
+	}
+
+	private static int weight(List<EquivalentAddressGroup> addresses) {
+		Integer weight = addresses.isEmpty() ? null
+				: addresses.get(0).getAttributes().get(EndpointNameResolverProvider.WEIGHT);
+		return (weight != null && weight > 0) ? weight : 1;
+	}
+
+	private class CountingHelper extends ForwardingLoadBalancerHelper {
+
+		private final Helper helper;
+
+		private final Set<CountingSubchannel> subchannels = new LinkedHashSet<>();
+
+		CountingHelper(Helper helper) {
+			this.helper = helper;
+		}
+
+		@Override
+		protected Helper delegate() {
+			return this.helper;
+		}
+
+		@Override
+		public Subchannel createSubchannel(CreateSubchannelArgs args) {
+			CountingSubchannel subchannel = new CountingSubchannel(super.createSubchannel(args),
+					weight(args.getAddresses()), this.subchannels::remove);
+			this.subchannels.add(subchannel);
+			return subchannel;
+		}
+
+		@Override
+		public void updateBalancingState(ConnectivityState newState, SubchannelPicker newPicker) {
+			// Called in the synchronization context, like the subchannel state listeners
+			List<CountingSubchannel> ready = new ArrayList<>();
+			for (CountingSubchannel subchannel : this.subchannels) {
+				if (subchannel.state == ConnectivityState.READY) {
+					ready.add(subchannel);
+				}
+			}
+			super.updateBalancingState(newState, (newState == ConnectivityState.READY && !ready.isEmpty())
+					? new LeastRequestPicker(ready, LeastRequestLoadBalancer.this.choiceCount) : newPicker);
+		}
+
+	}
+
+	static class LeastRequestPicker extends SubchannelPicker {
+
+		private final List<CountingSubchannel> subchannels;
+
+		private final int choiceCount;
+
+		LeastRequestPicker(List<CountingSubchannel> subchannels, int choiceCount) {
+			this.subchannels = List.copyOf(subchannels);
+			this.choiceCount = choiceCount;
+		}
+
+		@Override
+		public PickResult pickSubchannel(PickSubchannelArgs args) {
+			CountingSubchannel best = null;
+			int size = this.subchannels.size();
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			if (this.choiceCount >= size) {
+				// Compare them all, starting at a random one so that ties are spread out
+				int offset = random.nextInt(size);
+				for (int i = 0; i < size; i++) {
+					best = lessLoaded(best, this.subchannels.get((offset + i) % size));
+				}
+			}
+			else {
+				for (int i = 0; i < this.choiceCount; i++) {
+					best = lessLoaded(best, this.subchannels.get(random.nextInt(size)));
+				}
+			}
+			return PickResult.withSubchannel(best, best.tracerFactory);
+		}
+
+		private static CountingSubchannel lessLoaded(CountingSubchannel best, CountingSubchannel candidate) {
+			if (best == null) {
+				return candidate;
+			}
+			// Compare (active + 1) / weight, so that idle backends are still weighted
+			long load = (candidate.active.get() + 1L) * best.weight;
+			return (load < (best.active.get() + 1L) * candidate.weight) ? candidate : best;
+		}
+
+	}
+
+	static class CountingSubchannel extends ForwardingSubchannel {
+
+		private final Subchannel delegate;
+
+		private final Consumer<CountingSubchannel> onShutdown;
+
+		private final AtomicInteger active = new AtomicInteger();
+
+		private volatile ConnectivityState state = ConnectivityState.IDLE;
+
+		private volatile int weight;
+
+		private final ClientStreamTracer.Factory tracerFactory = new ClientStreamTracer.Factory() {
+			@Override
+			public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+				CountingSubchannel.this.active.incrementAndGet();
+				return new ClientStreamTracer() {
+					@Override
+					public void streamClosed(Status status) {
+						CountingSubchannel.this.active.decrementAndGet();
+					}
+				};
+			}
+		};
+
+		CountingSubchannel(Subchannel delegate) {
+			this(delegate, 1);
+		}
+
+		CountingSubchannel(Subchannel delegate, int weight) {
+			this(delegate, weight, (subchannel) -> {
+			});
+		}
+
+		CountingSubchannel(Subchannel delegate, int weight, Consumer<CountingSubchannel> onShutdown) {
+			this.delegate = delegate;
+			this.weight = weight;
+			this.onShutdown = onShutdown;
+		}
+
+		@Override
+		protected Subchannel delegate() {
+			return this.delegate;
+		}
+
+		@Override
+		public void start(SubchannelStateListener listener) {
+			super.start((info) -> {
+				this.state = info.getState();
+				listener.onSubchannelState(info);
+			});
+		}
+
+		@Override
+		public void updateAddresses(List<EquivalentAddressGroup> addresses) {
+			this.weight = weight(addresses);
+			super.updateAddresses(addresses);
+		}
+
+		@Override
+		public void shutdown() {
+			this.state = ConnectivityState.SHUTDOWN;
+			this.onShutdown.accept(this);
+			super.shutdown();
+		}
+
+		int getActiveRequests() {
+			return this.active.get();
+		}
+
+	}
+
+}
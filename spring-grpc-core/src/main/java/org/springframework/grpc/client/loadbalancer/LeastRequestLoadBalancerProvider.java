@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.util.Map;
+
+import org.springframework.util.ClassUtils;
+
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancer.Helper;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.NameResolver.ConfigOrError;
+import io.grpc.Status;
+
+/**
+ * Provider for the {@code least_request} load balancing policy, which sends each call to
+ * the backend with the fewest calls in progress out of {@code choiceCount} candidates
+ * (default 2, at most 10). Example service config:
+ * <code>{"loadBalancingConfig": [{"least_request": {"choiceCount": 2}}]}</code>.
+ * <p>
+ * Requires {@code grpc-util} on the classpath (it is a dependency of the Netty
+ * transports).
+ *
+ * @author Dave Syer
+ */
+public class LeastRequestLoadBalancerProvider extends LoadBalancerProvider {
+
+	/**
+	 * The name of the policy.
+	 */
+	public static final String POLICY_NAME = "least_request";
+
+	static final int DEFAULT_CHOICE_COUNT = 2;
+
+	private static final int MAX_CHOICE_COUNT = 10;
+
+	private static final boolean AVAILABLE = ClassUtils.isPresent("io.grpc.util.ForwardingLoadBalancer",
+			LeastRequestLoadBalancerProvider.class.getClassLoader());
+
+	@Override
+	public boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+	@Override
+	public int getPriority() {
+		return 5;
+	}
+
+	@Override
+	public String getPolicyName() {
+		return POLICY_NAME;
+	}
+
+	@Override
+	public LoadBalancer newLoadBalancer(Helper helper) {
+		return new LeastRequestLoadBalancer(helper);
+	}
+
+	@Override
+	public ConfigOrError parseLoadBalancingPolicyConfig(Map<String, ?> rawConfig) {
+		Object value = rawConfig.get("choiceCount");
+		if (value == null) {
+			return ConfigOrError.fromConfig(new Config(DEFAULT_CHOICE_COUNT));
+		}
+		if (!(value instanceof Number number) || number.intValue() < 2) {
+			return ConfigOrError.fromError(Status.UNAVAILABLE
+				.withDescription("Invalid least_request choiceCount (must be a number >= 2): " + value));
+		}
+		return ConfigOrError.fromConfig(new Config(Math.min(number.intValue(), MAX_CHOICE_COUNT)));
+	}
+
+	/**
+	 * The parsed configuration of the policy.
+	 *
+	 * @param choiceCount the number of candidates to compare for each call
+	 */
+	record Config(int choiceCount) {
+	}
+
+}
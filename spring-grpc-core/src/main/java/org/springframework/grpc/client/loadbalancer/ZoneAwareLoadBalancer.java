@@ -0,0 +1,366 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.grpc.client.loadbalancer.ZoneAwareLoadBalancerProvider.Config;
+import org.springframework.grpc.client.nameresolver.EndpointNameResolverProvider;
+
+import io.grpc.ClientStreamTracer;
+import io.grpc.ConnectivityState;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.util.ForwardingClientStreamTracer;
+import io.grpc.util.ForwardingLoadBalancerHelper;
+import io.grpc.util.ForwardingSubchannel;
+
+/**
+ * A {@link LoadBalancer} that splits the addresses into the ones in the local zone and
+ * the rest, each with its own child load balancer, and sends calls to the local ones
+ * unless they are unhealthy or overloaded. The connectivity of the local subchannels and
+ * the number of calls in progress on them are tracked, so that the picker can spill over
+ * to the other zones gradually instead of all at once.
+ *
+ * @author Dave Syer
+ */
+class ZoneAwareLoadBalancer extends LoadBalancer {
+
+	private final Helper helper;
+
+	private final ZoneBalancer local = new ZoneBalancer();
+
+	private final ZoneBalancer remote = new ZoneBalancer();
+
+	private final AtomicInteger localActive = new AtomicInteger();
+
+	private Config config;
+
+	private boolean updating;
+
+	ZoneAwareLoadBalancer(Helper helper) {
+		this.helper = helper;
+	}
+
+	@Override
+	public Status acceptResolvedAddresses(ResolvedAddresses resolvedAddresses) {
+		if (!(resolvedAddresses.getLoadBalancingPolicyConfig() instanceof Config parsed)) {
+			Status status = Status.INTERNAL.withDescription("Missing zone_aware config");
+			handleNameResolutionError(status);
+			return status;
+		}
+		if (resolvedAddresses.getAddresses().isEmpty()) {
+			Status status = Status.UNAVAILABLE.withDescription("No addresses for zone_aware policy");
+			handleNameResolutionError(status);
+			return status;
+		}
+		this.config = parsed;
+		List<EquivalentAddressGroup> localAddresses = new ArrayList<>();
+		List<EquivalentAddressGroup> remoteAddresses = new ArrayList<>();
+		for (EquivalentAddressGroup address : resolvedAddresses.getAddresses()) {
+			String zone = address.getAttributes().get(EndpointNameResolverProvider.ZONE);
+			(parsed.localZone().equals(zone) ? localAddresses : remoteAddresses).add(address);
+		}
+		Status localStatus;
+		Status remoteStatus;
+		this.updating = true;
+		try {
+			localStatus = this.local.accept(resolvedAddresses, localAddresses, parsed.childPolicy());
+			remoteStatus = this.remote.accept(resolvedAddresses, remoteAddresses, parsed.childPolicy());
+		}
+		finally {
+			this.updating = false;
+		}
+		updateBalancingState();
+		return localStatus.isOk() ? remoteStatus : localStatus;
+	}
+
+	@Override
+	public void handleNameResolutionError(Status error) {
+		if (this.local.balancer == null && this.remote.balancer == null) {
+			this.helper.updateBalancingState(ConnectivityState.TRANSIENT_FAILURE,
+					new FixedResultPicker(PickResult.withError(error)));
+			return;
+		}
+		if (this.local.balancer != null) {
+			this.local.balancer.handleNameResolutionError(error);
+		}
+		if (this.remote.balancer != null) {
+			this.remote.balancer.handleNameResolutionError(error);
+		}
+	}
+
+	@Override
+	public void requestConnection() {
+		if (this.local.balancer != null) {
+			this.local.balancer.requestConnection();
+		}
+		if (this.remote.balancer != null) {
+			this.remote.balancer.requestConnection();
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		this.local.shutdown();
+		this.remote.shutdown();
+	}
+
+	private void updateBalancingState() {
+		if (this.updating || (this.local.state == null && this.remote.state == null)) {
+			return;
+		}
+		if (this.local.state != ConnectivityState.READY && this.remote.state != ConnectivityState.READY) {
+			ZoneBalancer best = rank(this.remote.state) > rank(this.local.state) ? this.remote : this.local;
+			this.helper.updateBalancingState(best.state, best.picker);
+			return;
+		}
+		SubchannelPicker localPicker = this.local.state == ConnectivityState.READY ? this.local.picker : null;
+		SubchannelPicker remotePicker = this.remote.state == ConnectivityState.READY ? this.remote.picker : null;
+		double localWeight = 0;
+		int maxActive = 0;
+		if (localPicker != null) {
+			int ready = this.local.ready();
+			int total = Math.max(this.local.subchannels.size(), ready);
+			double healthy = total > 0 ? 100.0 * ready / total : 100;
+			localWeight = (this.config.minHealthyPercent() > 0) ? Math.min(1, healthy / this.config.minHealthyPercent())
+					: 1;
+			maxActive = this.config.maxRequestsPerBackend() * Math.max(ready, 1);
+		}
+		this.helper.updateBalancingState(ConnectivityState.READY,
+				new ZoneAwarePicker(localPicker, remotePicker, localWeight, maxActive, this.localActive));
+	}
+
+	private static int rank(ConnectivityState state) {
+		if (state == null) {
+			return -1;
+		}
+		return switch (state) {
+			case READY -> 3;
+			case CONNECTING -> 2;
+			case IDLE -> 1;
+			default -> 0;
+		};
+	}
+
+	/**
+	 * The child load balancer for the backends in one group (local or remote), and the
+	 * helper that it uses, which keeps track of its state and its subchannels.
+	 */
+	private class ZoneBalancer extends ForwardingLoadBalancerHelper {
+
+		private final Map<Subchannel, ConnectivityState> subchannels = new HashMap<>();
+
+		private LoadBalancerProvider provider;
+
+		private LoadBalancer balancer;
+
+		private ConnectivityState state;
+
+		private SubchannelPicker picker;
+
+		@Override
+		protected Helper delegate() {
+			return ZoneAwareLoadBalancer.this.helper;
+		}
+
+		Status accept(ResolvedAddresses resolvedAddresses, List<EquivalentAddressGroup> addresses, ChildPolicy policy) {
+			if (addresses.isEmpty()) {
+				shutdown();
+				return Status.OK;
+			}
+			if (this.balancer == null || this.provider != policy.provider()) {
+				shutdown();
+				this.provider = policy.provider();
+				this.balancer = this.provider.newLoadBalancer(this);
+				this.state = ConnectivityState.CONNECTING;
+				this.picker = new FixedResultPicker(PickResult.withNoResult());
+			}
+			return this.balancer.acceptResolvedAddresses(resolvedAddresses.toBuilder()
+				.setAddresses(addresses)
+				.setLoadBalancingPolicyConfig(policy.config())
+				.build());
+		}
+
+		@Override
+		public Subchannel createSubchannel(CreateSubchannelArgs args) {
+			return new ZoneSubchannel(super.createSubchannel(args), this);
+		}
+
+		@Override
+		public void updateBalancingState(ConnectivityState newState, SubchannelPicker newPicker) {
+			if (this.balancer == null) {
+				return;
+			}
+			this.state = newState;
+			this.picker = newPicker;
+			ZoneAwareLoadBalancer.this.updateBalancingState();
+		}
+
+		int ready() {
+			return (int) this.subchannels.values().stream().filter(ConnectivityState.READY::equals).count();
+		}
+
+		void shutdown() {
+			if (this.balancer != null) {
+				LoadBalancer child = this.balancer;
+				this.balancer = null;
+				child.shutdown();
+			}
+			this.provider = null;
+			this.state = null;
+			this.picker = null;
+			this.subchannels.clear();
+		}
+
+	}
+
+	/**
+	 * A subchannel that records its connectivity state in the group it belongs to.
+	 */
+	private static class ZoneSubchannel extends ForwardingSubchannel {
+
+		private final Subchannel delegate;
+
+		private final ZoneBalancer zone;
+
+		ZoneSubchannel(Subchannel delegate, ZoneBalancer zone) {
+			this.delegate = delegate;
+			this.zone = zone;
+		}
+
+		@Override
+		protected Subchannel delegate() {
+			return this.delegate;
+		}
+
+		@Override
+		public void start(SubchannelStateListener listener) {
+			this.zone.subchannels.put(this, ConnectivityState.IDLE);
+			super.start((state) -> {
+				if (state.getState() == ConnectivityState.SHUTDOWN) {
+					this.zone.subchannels.remove(this);
+				}
+				else if (this.zone.subchannels.containsKey(this)) {
+					this.zone.subchannels.put(this, state.getState());
+				}
+				listener.onSubchannelState(state);
+			});
+		}
+
+		@Override
+		public void shutdown() {
+			this.zone.subchannels.remove(this);
+			super.shutdown();
+		}
+
+	}
+
+	static class ZoneAwarePicker extends SubchannelPicker {
+
+		private final SubchannelPicker local;
+
+		private final SubchannelPicker remote;
+
+		private final double localWeight;
+
+		private final int maxActive;
+
+		private final AtomicInteger active;
+
+		ZoneAwarePicker(SubchannelPicker local, SubchannelPicker remote, double localWeight, int maxActive,
+				AtomicInteger active) {
+			this.local = local;
+			this.remote = remote;
+			this.localWeight = localWeight;
+			this.maxActive = maxActive;
+			this.active = active;
+		}
+
+		@Override
+		public PickResult pickSubchannel(PickSubchannelArgs args) {
+			if (this.local == null) {
+				return this.remote.pickSubchannel(args);
+			}
+			if (this.remote != null && !useLocal()) {
+				return this.remote.pickSubchannel(args);
+			}
+			PickResult result = this.local.pickSubchannel(args);
+			if (result.getSubchannel() == null) {
+				return result;
+			}
+			return PickResult.withSubchannel(result.getSubchannel(),
+					new CountingTracerFactory(result.getStreamTracerFactory(), this.active),
+					result.getAuthorityOverride());
+		}
+
+		private boolean useLocal() {
+			if (this.maxActive > 0 && this.active.get() >= this.maxActive) {
+				return false;
+			}
+			return this.localWeight >= 1 || ThreadLocalRandom.current().nextDouble() < this.localWeight;
+		}
+
+	}
+
+	/**
+	 * Counts the calls in progress on the local backends, wrapping the tracer from the
+	 * child policy (if there is one).
+	 */
+	private static class CountingTracerFactory extends ClientStreamTracer.Factory {
+
+		private final ClientStreamTracer.Factory delegate;
+
+		private final AtomicInteger active;
+
+		CountingTracerFactory(ClientStreamTracer.Factory delegate, AtomicInteger active) {
+			this.delegate = delegate;
+			this.active = active;
+		}
+
+		@Override
+		public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+			ClientStreamTracer tracer = (this.delegate != null) ? this.delegate.newClientStreamTracer(info, headers)
+					: new ClientStreamTracer() {
+					};
+			this.active.incrementAndGet();
+			return new ForwardingClientStreamTracer() {
+
+				@Override
+				protected ClientStreamTracer delegate() {
+					return tracer;
+				}
+
+				@Override
+				public void streamClosed(Status status) {
+					CountingTracerFactory.this.active.decrementAndGet();
+					super.streamClosed(status);
+				}
+
+			};
+		}
+
+	}
+
+}
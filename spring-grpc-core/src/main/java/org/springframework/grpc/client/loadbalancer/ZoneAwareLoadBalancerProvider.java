@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import java.util.Map;
+
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancer.Helper;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.NameResolver.ConfigOrError;
+import io.grpc.Status;
+
+/**
+ * Provider for the {@code zone_aware} load balancing policy, which prefers backends in
+ * the same zone as the client, and only sends calls to other zones when too few of the
+ * local backends are healthy, or when they are too busy. The zone of a backend comes from
+ * the
+ * {@link org.springframework.grpc.client.nameresolver.EndpointNameResolverProvider#ZONE
+ * ZONE} attribute of its address (backends without one are in another zone). Example
+ * service config: <code>{"loadBalancingConfig": [{"zone_aware": {"localZone":
+ * "us-east-1a", "minHealthyPercent": 70, "childPolicy": [{"round_robin": {}}]}}]}</code>.
+ * <p>
+ * When fewer than {@code minHealthyPercent} (default 70) of the local backends are ready,
+ * the calls spill over to the other zones in proportion to the shortfall (so with half
+ * the local backends ready and a threshold of 70%, about 2 in 7 calls go elsewhere). If
+ * {@code maxRequestsPerBackend} is positive, calls also spill over while the local
+ * backends have that many calls in progress on average. The default child policy (used
+ * for each group of backends) is {@code round_robin}.
+ *
+ * @author Dave Syer
+ */
+public class ZoneAwareLoadBalancerProvider extends LoadBalancerProvider {
+
+	/**
+	 * The name of the policy.
+	 */
+	public static final String POLICY_NAME = "zone_aware";
+
+	static final int DEFAULT_MIN_HEALTHY_PERCENT = 70;
+
+	@Override
+	public boolean isAvailable() {
+		return true;
+	}
+
+	@Override
+	public int getPriority() {
+		return 5;
+	}
+
+	@Override
+	public String getPolicyName() {
+		return POLICY_NAME;
+	}
+
+	@Override
+	public LoadBalancer newLoadBalancer(Helper helper) {
+		return new ZoneAwareLoadBalancer(helper);
+	}
+
+	@Override
+	public ConfigOrError parseLoadBalancingPolicyConfig(Map<String, ?> rawConfig) {
+		Object zone = rawConfig.get("localZone");
+		if (!(zone instanceof String localZone) || localZone.isEmpty()) {
+			return error("localZone is required: " + zone);
+		}
+		Object percent = rawConfig.get("minHealthyPercent");
+		int minHealthyPercent = DEFAULT_MIN_HEALTHY_PERCENT;
+		if (percent != null) {
+			if (!(percent instanceof Number number) || number.intValue() < 0 || number.intValue() > 100) {
+				return error("minHealthyPercent must be a number between 0 and 100: " + percent);
+			}
+			minHealthyPercent = number.intValue();
+		}
+		Object requests = rawConfig.get("maxRequestsPerBackend");
+		int maxRequestsPerBackend = 0;
+		if (requests != null) {
+			if (!(requests instanceof Number number) || number.intValue() < 0) {
+				return error("maxRequestsPerBackend must be a non-negative number: " + requests);
+			}
+			maxRequestsPerBackend = number.intValue();
+		}
+		ConfigOrError child = ChildPolicy.parse(rawConfig.get("childPolicy"));
+		if (child.getError() != null) {
+			return child;
+		}
+		return ConfigOrError.fromConfig(
+				new Config(localZone, minHealthyPercent, maxRequestsPerBackend, (ChildPolicy) child.getConfig()));
+	}
+
+	private static ConfigOrError error(String message) {
+		return ConfigOrError.fromError(Status.UNAVAILABLE.withDescription(message));
+	}
+
+	/**
+	 * The parsed configuration of the policy.
+	 *
+	 * @param localZone the zone of this client
+	 * @param minHealthyPercent the percentage of local backends that need to be ready to
+	 * keep all the calls in the zone
+	 * @param maxRequestsPerBackend the average number of calls in progress on a local
+	 * backend above which calls spill over to other zones (0 for no limit)
+	 * @param childPolicy the child policy for each group of backends
+	 */
+	record Config(String localZone, int minHealthyPercent, int maxRequestsPerBackend, ChildPolicy childPolicy) {
+	}
+
+}
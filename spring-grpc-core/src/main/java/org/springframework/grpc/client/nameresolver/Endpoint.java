@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.nameresolver;
+
+import java.net.URI;
+
+import org.springframework.util.Assert;
+
+/**
+ * A backend address for a logical target, with a weight and (optionally) the zone that it
+ * runs in. The weight and zone are passed to the load balancer as attributes of the
+ * address (see {@link EndpointNameResolverProvider#WEIGHT} and
+ * {@link EndpointNameResolverProvider#ZONE}).
+ *
+ * @param host the host name or IP address
+ * @param port the port (or -1 to use the default port of the channel)
+ * @param weight the relative weight of the endpoint (at least 1)
+ * @param zone the zone of the endpoint (may be null)
+ * @author Dave Syer
+ */
+public record Endpoint(String host, int port, int weight, String zone) {
+
+	public Endpoint {
+		Assert.hasText(host, "Host must not be empty");
+		Assert.isTrue(weight > 0, "Weight must be positive");
+	}
+
+	/**
+	 * Creates an endpoint from an address of the form {@code host:port} (or just
+	 * {@code host}, or {@code [ipv6]:port}) with weight 1 and no zone.
+	 * @param address the address
+	 * @return an endpoint
+	 */
+	public static Endpoint of(String address) {
+		return of(address, 1, null);
+	}
+
+	/**
+	 * Creates an endpoint from an address of the form {@code host:port} (or just
+	 * {@code host}, or {@code [ipv6]:port}).
+	 * @param address the address
+	 * @param weight the relative weight of the endpoint
+	 * @param zone the zone of the endpoint (may be null)
+	 * @return an endpoint
+	 */
+	public static Endpoint of(String address, int weight, String zone) {
+		URI uri = URI.create("//" + address.trim());
+		Assert.hasText(uri.getHost(), () -> "Invalid endpoint address: " + address);
+		String name = uri.getHost();
+		if (name.startsWith("[") && name.endsWith("]")) {
+			name = name.substring(1, name.length() - 1);
+		}
+		return new Endpoint(name, uri.getPort(), weight, zone);
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.nameresolver;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import io.grpc.Attributes;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.Status;
+import io.grpc.SynchronizationContext;
+
+/**
+ * A {@link NameResolver} for a target in an {@link EndpointRegistry}. It listens for
+ * changes and pushes them to the channel. Host names are resolved when the endpoints
+ * change, on the offload executor of the channel (if it has one) rather than in its
+ * synchronization context, but it is still best to register IP addresses.
+ *
+ * @author Dave Syer
+ */
+class EndpointNameResolver extends NameResolver {
+
+	private final String name;
+
+	private final EndpointRegistry registry;
+
+	private final SynchronizationContext syncContext;
+
+	private final Executor offloadExecutor;
+
+	private final int defaultPort;
+
+	private final Consumer<List<Endpoint>> callback = this::update;
+
+	private Listener2 listener;
+
+	// Only accessed in the synchronization context
+	private int generation;
+
+	EndpointNameResolver(String name, Args args) {
+		this.name = name;
+		this.registry = args.getArg(EndpointNameResolverProvider.REGISTRY);
+		this.syncContext = args.getSynchronizationContext();
+		this.offloadExecutor = (args.getOffloadExecutor() != null) ? args.getOffloadExecutor() : Runnable::run;
+		this.defaultPort = args.getDefaultPort();
+	}
+
+	@Override
+	public String getServiceAuthority() {
+		return this.name;
+	}
+
+	@Override
+	public void start(Listener2 listener) {
+		this.listener = listener;
+		if (this.registry == null) {
+			listener.onError(Status.UNAVAILABLE.withDescription("No EndpointRegistry for target '" + this.name
+					+ "' (set the " + EndpointNameResolverProvider.REGISTRY + " name resolver argument)"));
+			return;
+		}
+		this.registry.addListener(this.name, this.callback);
+		resolve(this.registry.getEndpoints(this.name));
+	}
+
+	@Override
+	public void refresh() {
+		if (this.registry != null) {
+			resolve(this.registry.getEndpoints(this.name));
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		if (this.registry != null) {
+			this.registry.removeListener(this.name, this.callback);
+		}
+		this.listener = null;
+	}
+
+	private void update(List<Endpoint> endpoints) {
+		this.syncContext.execute(() -> resolve(endpoints));
+	}
+
+	private void resolve(List<Endpoint> endpoints) {
+		if (this.listener == null) {
+			return;
+		}
+		int generation = ++this.generation;
+		if (endpoints.isEmpty()) {
+			this.listener.onError(Status.UNAVAILABLE.withDescription("No endpoints for target '" + this.name + "'"));
+			return;
+		}
+		this.offloadExecutor.execute(() -> {
+			List<EquivalentAddressGroup> groups = addresses(endpoints);
+			this.syncContext.execute(() -> {
+				// A newer update may have overtaken this one while it was being resolved
+				if (this.listener != null && generation == this.generation) {
+					this.listener.onResult(ResolutionResult.newBuilder().setAddresses(groups).build());
+				}
+			});
+		});
+	}
+
+	private List<EquivalentAddressGroup> addresses(List<Endpoint> endpoints) {
+		List<EquivalentAddressGroup> groups = new ArrayList<>(endpoints.size());
+		for (Endpoint endpoint : endpoints) {
+			Attributes.Builder attributes = Attributes.newBuilder()
+				.set(EndpointNameResolverProvider.WEIGHT, endpoint.weight());
+			if (endpoint.zone() != null) {
+				attributes.set(EndpointNameResolverProvider.ZONE, endpoint.zone());
+			}
+			int port = endpoint.port() >= 0 ? endpoint.port() : this.defaultPort;
+			groups.add(new EquivalentAddressGroup(new InetSocketAddress(endpoint.host(), port), attributes.build()));
+		}
+		return groups;
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.nameresolver;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+
+import io.grpc.Attributes;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+
+/**
+ * Provider for the {@code endpoints} name resolver, which resolves targets of the form
+ * {@code endpoints:///name} from the {@link EndpointRegistry} that is passed to the
+ * channel as a name resolver argument. For example:
+ *
+ * <pre class="code">
+ * ManagedChannelBuilder.forTarget("endpoints:///kv")
+ *     .setNameResolverArg(EndpointNameResolverProvider.REGISTRY, registry)
+ *     .build();
+ * </pre>
+ *
+ * @author Dave Syer
+ */
+public class EndpointNameResolverProvider extends NameResolverProvider {
+
+	/**
+	 * The scheme of the targets resolved by this provider.
+	 */
+	public static final String SCHEME = "endpoints";
+
+	/**
+	 * The name resolver argument for the {@link EndpointRegistry} of a channel.
+	 */
+	public static final NameResolver.Args.Key<EndpointRegistry> REGISTRY = NameResolver.Args.Key
+		.create("spring-grpc-endpoint-registry");
+
+	/**
+	 * The attribute key for the weight of a resolved address. The {@code least_request}
+	 * load balancing policy divides the calls in progress on a backend by its weight, so
+	 * a backend with weight 2 gets about twice as many calls as one with weight 1.
+	 */
+	@EquivalentAddressGroup.Attr
+	public static final Attributes.Key<Integer> WEIGHT = Attributes.Key.create("spring-grpc-endpoint-weight");
+
+	/**
+	 * The attribute key for the zone of a resolved address.
+	 */
+	@EquivalentAddressGroup.Attr
+	public static final Attributes.Key<String> ZONE = Attributes.Key.create("spring-grpc-endpoint-zone");
+
+	@Override
+	public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+		if (!SCHEME.equals(targetUri.getScheme())) {
+			return null;
+		}
+		String path = targetUri.getPath();
+		if (path == null || path.length() < 2 || path.indexOf('/', 1) >= 0) {
+			throw new IllegalArgumentException("Target should be of the form endpoints:///name: " + targetUri);
+		}
+		return new EndpointNameResolver(path.substring(1), args);
+	}
+
+	@Override
+	public String getDefaultScheme() {
+		return SCHEME;
+	}
+
+	@Override
+	protected boolean isAvailable() {
+		return true;
+	}
+
+	@Override
+	protected int priority() {
+		// Lower than DNS, so that it does not become the default scheme
+		return 4;
+	}
+
+	@Override
+	public Collection<Class<? extends SocketAddress>> getProducedSocketAddressTypes() {
+		return List.of(InetSocketAddress.class);
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.nameresolver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A registry of {@link Endpoint endpoints} by logical target name, used by the
+ * {@link EndpointNameResolverProvider endpoints} name resolver. Updates are pushed to the
+ * channels that use a target as soon as it changes, so the backends can change without
+ * rebuilding the channels.
+ *
+ * @author Dave Syer
+ */
+public class EndpointRegistry {
+
+	private final Map<String, List<Endpoint>> endpoints = new ConcurrentHashMap<>();
+
+	private final Map<String, List<Consumer<List<Endpoint>>>> listeners = new ConcurrentHashMap<>();
+
+	/**
+	 * The current endpoints for a target.
+	 * @param name the name of the target
+	 * @return the endpoints (empty if the target is not known)
+	 */
+	public List<Endpoint> getEndpoints(String name) {
+		return this.endpoints.getOrDefault(name, List.of());
+	}
+
+	/**
+	 * The names of the targets that have endpoints.
+	 * @return the target names
+	 */
+	public List<String> getNames() {
+		return List.copyOf(this.endpoints.keySet());
+	}
+
+	/**
+	 * Replaces the endpoints of a target and notifies the listeners if they changed.
+	 * @param name the name of the target
+	 * @param endpoints the new endpoints (empty to remove the target)
+	 */
+	public synchronized void setEndpoints(String name, List<Endpoint> endpoints) {
+		List<Endpoint> value = List.copyOf(endpoints);
+		List<Endpoint> previous = value.isEmpty() ? this.endpoints.remove(name) : this.endpoints.put(name, value);
+		if (value.equals(previous == null ? List.of() : previous)) {
+			return;
+		}
+		for (Consumer<List<Endpoint>> listener : this.listeners.getOrDefault(name, List.of())) {
+			listener.accept(value);
+		}
+	}
+
+	/**
+	 * Adds a listener that is called with the new endpoints whenever the endpoints of a
+	 * target change.
+	 * @param name the name of the target
+	 * @param listener the listener
+	 */
+	public void addListener(String name, Consumer<List<Endpoint>> listener) {
+		this.listeners.computeIfAbsent(name, (key) -> new CopyOnWriteArrayList<>()).add(listener);
+	}
+
+	/**
+	 * Removes a listener added with {@link #addListener(String, Consumer)}.
+	 * @param name the name of the target
+	 * @param listener the listener
+	 */
+	public void removeListener(String name, Consumer<List<Endpoint>> listener) {
+		List<Consumer<List<Endpoint>>> list = this.listeners.get(name);
+		if (list != null) {
+			list.remove(listener);
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.util.Assert;
+
+/**
+ * A token supplier for a {@link BearerTokenAuthenticationInterceptor} that caches an
+ * access token until it is about to expire. The token is refreshed in the background when
+ * it gets within the {@link #setRefreshBefore(Duration) refresh window} of its expiry (or
+ * half way through its lifetime if that is shorter), and calls keep using the old token
+ * meanwhile, so they only wait for the token endpoint when there is no valid token at
+ * all. Only one refresh is in progress at a time, however many calls need it.
+ * <p>
+ * If a background refresh fails, the error is logged and there is no further attempt
+ * until a quarter of the remaining lifetime of the token has passed (at most 10 seconds),
+ * so a failing token endpoint is not hit by every call. If there is no valid token, the
+ * error is thrown to the caller.
+ *
+ * @author Dave Syer
+ */
+public class CachingTokenSupplier implements Supplier<String> {
+
+	private static final Log logger = LogFactory.getLog(CachingTokenSupplier.class);
+
+	private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(10);
+
+	private final Supplier<OAuth2AccessToken> source;
+
+	private final AtomicReference<OAuth2AccessToken> token = new AtomicReference<>();
+
+	private final AtomicReference<CompletableFuture<OAuth2AccessToken>> refresh = new AtomicReference<>();
+
+	private volatile Instant retryAt = Instant.MIN;
+
+	private Duration refreshBefore = Duration.ofSeconds(60);
+
+	private Clock clock = Clock.systemUTC();
+
+	private Executor executor;
+
+	/**
+	 * Create a new supplier that fetches tokens from the given source.
+	 * @param source the source of new tokens (e.g. a call to a token endpoint)
+	 */
+	public CachingTokenSupplier(Supplier<OAuth2AccessToken> source) {
+		Assert.notNull(source, "source cannot be null");
+		this.source = source;
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("grpc-token-");
+		executor.setDaemon(true);
+		this.executor = executor;
+	}
+
+	/**
+	 * Set how long before the expiry of a token to start refreshing it. Defaults to 60
+	 * seconds.
+	 * @param refreshBefore the refresh window
+	 */
+	public void setRefreshBefore(Duration refreshBefore) {
+		Assert.isTrue(refreshBefore != null && !refreshBefore.isNegative(), "refreshBefore must not be negative");
+		this.refreshBefore = refreshBefore;
+	}
+
+	/**
+	 * Set the executor for background refreshes. Defaults to a new daemon thread for each
+	 * refresh.
+	 * @param executor the executor to use
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Set the clock used to check the expiry of tokens. Defaults to the system clock.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	@Override
+	public String get() {
+		OAuth2AccessToken current = this.token.get();
+		Instant now = this.clock.instant();
+		if (current == null || isExpired(current)) {
+			try {
+				return refresh(false).join().getTokenValue();
+			}
+			catch (CompletionException ex) {
+				if (ex.getCause() instanceof RuntimeException runtime) {
+					throw runtime;
+				}
+				throw ex;
+			}
+		}
+		if (!now.isBefore(refreshAt(current)) && !now.isBefore(this.retryAt)) {
+			refresh(true);
+		}
+		return current.getTokenValue();
+	}
+
+	private boolean isExpired(OAuth2AccessToken token) {
+		return token.getExpiresAt() != null && !this.clock.instant().isBefore(token.getExpiresAt());
+	}
+
+	private Instant refreshAt(OAuth2AccessToken token) {
+		Instant expiresAt = token.getExpiresAt();
+		if (expiresAt == null) {
+			return Instant.MAX;
+		}
+		Duration window = this.refreshBefore;
+		if (token.getIssuedAt() != null) {
+			Duration half = Duration.between(token.getIssuedAt(), expiresAt).dividedBy(2);
+			if (half.compareTo(window) < 0) {
+				window = half;
+			}
+		}
+		return expiresAt.minus(window);
+	}
+
+	private Instant retryAt(OAuth2AccessToken token) {
+		Instant now = this.clock.instant();
+		if (token == null || token.getExpiresAt() == null) {
+			return now.plus(MAX_RETRY_BACKOFF);
+		}
+		Duration backoff = Duration.between(now, token.getExpiresAt()).dividedBy(4);
+		return now.plus((backoff.compareTo(MAX_RETRY_BACKOFF) < 0) ? backoff : MAX_RETRY_BACKOFF);
+	}
+
+	private CompletableFuture<OAuth2AccessToken> refresh(boolean background) {
+		CompletableFuture<OAuth2AccessToken> next = new CompletableFuture<>();
+		CompletableFuture<OAuth2AccessToken> existing = this.refresh.compareAndExchange(null, next);
+		if (existing != null) {
+			return existing;
+		}
+		OAuth2AccessToken current = this.token.get();
+		if (!background && current != null && !isExpired(current)) {
+			// Another caller finished a refresh after we looked
+			this.refresh.set(null);
+			next.complete(current);
+			return next;
+		}
+		Runnable task = () -> {
+			try {
+				OAuth2AccessToken fetched = this.source.get();
+				Assert.state(fetched != null, "source returned no token");
+				this.token.set(fetched);
+				this.retryAt = Instant.MIN;
+				this.refresh.set(null);
+				next.complete(fetched);
+			}
+			catch (RuntimeException ex) {
+				if (background) {
+					this.retryAt = retryAt(current);
+				}
+				this.refresh.set(null);
+				next.completeExceptionally(ex);
+				if (background) {
+					logger.warn("Could not refresh access token (the current one is still valid)", ex);
+				}
+			}
+		};
+		if (background) {
+			this.executor.execute(task);
+		}
+		else {
+			task.run();
+		}
+		return next;
+	}
+
+}
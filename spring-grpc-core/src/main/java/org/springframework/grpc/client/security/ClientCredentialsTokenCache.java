@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.endpoint.RestClientClientCredentialsTokenResponseClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.util.Assert;
+
+/**
+ * A cache of access tokens for the client credentials grant, with a
+ * {@link CachingTokenSupplier} for each client registration. Use it to create a
+ * {@link BearerTokenAuthenticationInterceptor} for the channels that need a token from a
+ * registration, e.g. <code>channels.createChannel("backend",
+ * ChannelBuilderOptions.defaults().withInterceptors(List.of(tokens.interceptor("backend"))))</code>.
+ *
+ * @author Dave Syer
+ */
+public class ClientCredentialsTokenCache {
+
+	private final ClientRegistrationRepository registrations;
+
+	private final Map<String, CachingTokenSupplier> tokens = new ConcurrentHashMap<>();
+
+	private OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> client = new RestClientClientCredentialsTokenResponseClient();
+
+	private Duration refreshBefore = Duration.ofSeconds(60);
+
+	/**
+	 * Create a new cache for the given client registrations.
+	 * @param registrations the client registrations
+	 */
+	public ClientCredentialsTokenCache(ClientRegistrationRepository registrations) {
+		Assert.notNull(registrations, "registrations cannot be null");
+		this.registrations = registrations;
+	}
+
+	/**
+	 * Set the client used to call the token endpoint. Defaults to a
+	 * {@link RestClientClientCredentialsTokenResponseClient}.
+	 * @param client the token response client
+	 */
+	public void setTokenResponseClient(OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> client) {
+		Assert.notNull(client, "client cannot be null");
+		this.client = client;
+	}
+
+	/**
+	 * Set how long before the expiry of a token to start refreshing it. Defaults to 60
+	 * seconds.
+	 * @param refreshBefore the refresh window
+	 */
+	public void setRefreshBefore(Duration refreshBefore) {
+		this.refreshBefore = refreshBefore;
+	}
+
+	/**
+	 * Get the token supplier for a client registration.
+	 * @param registrationId the id of the client registration
+	 * @return the token supplier
+	 */
+	public Supplier<String> getToken(String registrationId) {
+		return this.tokens.computeIfAbsent(registrationId, this::supplier);
+	}
+
+	/**
+	 * Create an interceptor that adds a token from a client registration to each call.
+	 * @param registrationId the id of the client registration
+	 * @return the interceptor
+	 */
+	public BearerTokenAuthenticationInterceptor interceptor(String registrationId) {
+		return new BearerTokenAuthenticationInterceptor(getToken(registrationId));
+	}
+
+	private CachingTokenSupplier supplier(String registrationId) {
+		ClientRegistration registration = this.registrations.findByRegistrationId(registrationId);
+		Assert.notNull(registration, () -> "No client registration with id '" + registrationId + "'");
+		CachingTokenSupplier supplier = new CachingTokenSupplier(
+				() -> this.client.getTokenResponse(new OAuth2ClientCredentialsGrantRequest(registration))
+					.getAccessToken());
+		supplier.setRefreshBefore(this.refreshBefore);
+		return supplier;
+	}
+
+}
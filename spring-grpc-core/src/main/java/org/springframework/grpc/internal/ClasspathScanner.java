@@ -17,7 +17,12 @@ package org.springframework.grpc.internal;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.logging.Log;
@@ -30,6 +35,7 @@ import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.core.type.ClassMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.classreading.ClassFormatException;
 import org.springframework.core.type.classreading.MetadataReader;
@@ -42,6 +48,8 @@ public class ClasspathScanner implements ResourceLoaderAware {
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	private static final String STUB_TYPE = "io.grpc.stub.AbstractStub";
+
 	private String resourcePattern = DEFAULT_RESOURCE_PATTERN;
 
 	private ResourcePatternResolver resourcePatternResolver;
@@ -55,7 +63,18 @@ public class ClasspathScanner implements ResourceLoaderAware {
 	}
 
 	public Set<Class<?>> scan(String basePackage, Class<?> type) {
+		if (isStubType(type)) {
+			ClassLoader classLoader = getResourcePatternResolver().getClassLoader();
+			if (classLoader == null) {
+				classLoader = ClassUtils.getDefaultClassLoader();
+			}
+			StubIndex index = StubIndex.load(classLoader);
+			if (!index.isEmpty()) {
+				return scanIndex(index, basePackage, type, classLoader);
+			}
+		}
 		Set<Class<?>> candidates = new LinkedHashSet<>();
+		Map<String, Boolean> assignable = new HashMap<>();
 		boolean debugEnabled = logger.isDebugEnabled();
 		boolean traceEnabled = logger.isTraceEnabled();
 		if (debugEnabled) {
@@ -76,14 +95,15 @@ public class ClasspathScanner implements ResourceLoaderAware {
 				}
 				try {
 					MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-					if (isCandidateComponent(metadataReader, type)) {
+					if (isCandidateComponent(metadataReader, type, assignable)) {
 						Class<?> sbd = ClassUtils.forName(metadataReader.getClassMetadata().getClassName(), null);
 						logger.debug("Identified candidate component class: " + resource);
 						candidates.add(sbd);
 					}
 					else {
 						if (debugEnabled) {
-							logger.debug("Ignored because not a concrete top-level class: " + resource);
+							logger.debug(
+									"Ignored because not a concrete class of type " + type.getName() + ": " + resource);
 						}
 					}
 				}
@@ -108,20 +128,90 @@ public class ClasspathScanner implements ResourceLoaderAware {
 		return candidates;
 	}
 
-	private boolean isCandidateComponent(MetadataReader metadataReader, Class<?> type) {
-		try {
-			if (metadataReader.getClassMetadata().isConcrete()) {
-				if (type.isAssignableFrom(
-						ClassUtils.resolveClassName(metadataReader.getClassMetadata().getClassName(), null))) {
-					return true;
+	private Set<Class<?>> scanIndex(StubIndex index, String basePackage, Class<?> type, ClassLoader classLoader) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Using stub index for " + basePackage + " and type " + type.getName());
+		}
+		Set<Class<?>> candidates = new LinkedHashSet<>();
+		for (String name : index.getStubs(basePackage)) {
+			try {
+				Class<?> candidate = ClassUtils.forName(name, classLoader);
+				if (type.isAssignableFrom(candidate)) {
+					candidates.add(candidate);
+				}
+			}
+			catch (ClassNotFoundException | LinkageError ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignored stale index entry " + name + ": " + ex.getMessage());
 				}
 			}
 		}
-		catch (Exception ex) {
+		return candidates;
+	}
+
+	private static boolean isStubType(Class<?> type) {
+		for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+			if (STUB_TYPE.equals(current.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isCandidateComponent(MetadataReader metadataReader, Class<?> type,
+			Map<String, Boolean> assignable) {
+		ClassMetadata metadata = metadataReader.getClassMetadata();
+		if (!metadata.isConcrete()) {
+			return false;
+		}
+		return isAssignable(metadata, type, assignable);
+	}
+
+	private boolean isAssignable(ClassMetadata metadata, Class<?> type, Map<String, Boolean> assignable) {
+		// Walk up the hierarchy with metadata readers, so that the class itself (and any
+		// of its supertypes that can be read as resources) are not loaded. The results
+		// for supertypes are cached, since the classes in a package tend to share them
+		// (e.g. all protobuf messages).
+		List<String> supertypes = new ArrayList<>();
+		if (metadata.hasSuperClass()) {
+			supertypes.add(metadata.getSuperClassName());
+		}
+		if (type.isInterface()) {
+			supertypes.addAll(Arrays.asList(metadata.getInterfaceNames()));
+		}
+		for (String supertype : supertypes) {
+			if (isAssignable(supertype, type, assignable)) {
+				return true;
+			}
 		}
 		return false;
 	}
 
+	private boolean isAssignable(String className, Class<?> type, Map<String, Boolean> assignable) {
+		if (type.getName().equals(className)) {
+			return true;
+		}
+		if (Object.class.getName().equals(className)) {
+			return false;
+		}
+		Boolean cached = assignable.get(className);
+		if (cached != null) {
+			return cached;
+		}
+		boolean result;
+		try {
+			result = isAssignable(getMetadataReaderFactory().getMetadataReader(className).getClassMetadata(), type,
+					assignable);
+		}
+		catch (IOException ex) {
+			// Not readable as a resource (e.g. a JDK class), so fall back to loading it
+			result = ClassUtils.isPresent(className, null)
+					&& type.isAssignableFrom(ClassUtils.resolveClassName(className, null));
+		}
+		assignable.put(className, result);
+		return result;
+	}
+
 	private MetadataReaderFactory getMetadataReaderFactory() {
 		if (this.metadataReaderFactory == null) {
 			this.metadataReaderFactory = new CachingMetadataReaderFactory();
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * An index of the gRPC stubs on the classpath, written at build time by the
+ * {@code spring-grpc-indexer} annotation processor. If any index is present, it is
+ * assumed to be complete and is used instead of scanning the classpath (as with the
+ * Spring candidate components index), unless the {@value #IGNORE_INDEX} property is set.
+ *
+ * @author Dave Syer
+ */
+final class StubIndex {
+
+	/**
+	 * The location of the index files.
+	 */
+	static final String INDEX_LOCATION = "META-INF/spring-grpc.stubs";
+
+	/**
+	 * System (or Spring) property that switches off the use of the index.
+	 */
+	static final String IGNORE_INDEX = "spring.grpc.index.ignore";
+
+	private static final Log logger = LogFactory.getLog(StubIndex.class);
+
+	private static final StubIndex EMPTY = new StubIndex(Collections.emptySet());
+
+	private static final ConcurrentReferenceHashMap<ClassLoader, StubIndex> cache = new ConcurrentReferenceHashMap<>();
+
+	private final Set<String> stubs;
+
+	private StubIndex(Set<String> stubs) {
+		this.stubs = stubs;
+	}
+
+	/**
+	 * Load the index from all the jars (and directories) visible to the class loader.
+	 * @param classLoader the class loader to use
+	 * @return the index (empty if there is none, or if it is ignored)
+	 */
+	static StubIndex load(ClassLoader classLoader) {
+		if (SpringProperties.getFlag(IGNORE_INDEX)) {
+			return EMPTY;
+		}
+		return cache.computeIfAbsent(classLoader, StubIndex::doLoad);
+	}
+
+	private static StubIndex doLoad(ClassLoader classLoader) {
+		Set<String> stubs = new LinkedHashSet<>();
+		try {
+			Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				try (BufferedReader reader = new BufferedReader(
+						new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+					reader.lines().map(String::trim).filter((line) -> !line.isEmpty()).forEach(stubs::add);
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load stub index from location [" + INDEX_LOCATION + "]", ex);
+		}
+		if (stubs.isEmpty()) {
+			return EMPTY;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Loaded " + stubs.size() + " stubs from " + INDEX_LOCATION);
+		}
+		return new StubIndex(stubs);
+	}
+
+	boolean isEmpty() {
+		return this.stubs.isEmpty();
+	}
+
+	/**
+	 * Return the names of the stubs in the given package (or its subpackages).
+	 * @param basePackage the base package
+	 * @return the binary class names of the stubs
+	 */
+	Set<String> getStubs(String basePackage) {
+		String prefix = basePackage.isEmpty() ? "" : basePackage + ".";
+		return this.stubs.stream()
+			.filter((stub) -> stub.startsWith(prefix))
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+}
@@ -62,9 +62,9 @@ public class DefaultGrpcServerFactory<T extends ServerBuilder<T>> implements Grp
 
 	private final List<ServerBuilderCustomizer<T>> serverBuilderCustomizers;
 
-	private KeyManagerFactory keyManager;
+	private volatile KeyManagerFactory keyManager;
 
-	private TrustManagerFactory trustManager;
+	private volatile TrustManagerFactory trustManager;
 
 	private ClientAuth clientAuth;
 
@@ -81,6 +81,19 @@ public class DefaultGrpcServerFactory<T extends ServerBuilder<T>> implements Grp
 		this.clientAuth = clientAuth;
 	}
 
+	/**
+	 * Replace the key and trust managers used for TLS. The new managers are used by the
+	 * next server that is {@link #createServer() created}, for instance when the server
+	 * is restarted after the SSL bundle has been reloaded or after a checkpoint has been
+	 * restored.
+	 * @param keyManager the key manager factory
+	 * @param trustManager the trust manager factory (may be null)
+	 */
+	public void setSslManagers(KeyManagerFactory keyManager, TrustManagerFactory trustManager) {
+		this.keyManager = keyManager;
+		this.trustManager = trustManager;
+	}
+
 	protected String address() {
 		return this.address;
 	}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import io.grpc.Status;
+import io.grpc.StatusException;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * A {@link org.springframework.grpc.server.exception.GrpcExceptionHandler} that
+ * dispatches to {@link GrpcExceptionHandler @GrpcExceptionHandler} methods in
+ * {@link GrpcAdvice @GrpcAdvice} beans. The handler methods are discovered once, up
+ * front, and converted to method handles. The handler for a given exception type (the
+ * closest match in the first advice bean that has one) is computed the first time it is
+ * needed and then cached, so dispatch does not depend on the number of handler methods.
+ *
+ * @author Dave Syer
+ */
+public class GrpcAdviceExceptionHandler implements org.springframework.grpc.server.exception.GrpcExceptionHandler {
+
+	private static final MethodType HANDLER_TYPE = MethodType.methodType(Object.class, Throwable.class);
+
+	private final List<Map<Class<?>, MethodHandle>> advice = new ArrayList<>();
+
+	private final ClassValue<MethodHandle> handlers = new ClassValue<>() {
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			return findHandler(type);
+		}
+	};
+
+	/**
+	 * Create a new handler for the given advice beans, in order of precedence.
+	 * @param beans the advice beans
+	 */
+	public GrpcAdviceExceptionHandler(Object... beans) {
+		this(Arrays.asList(beans));
+	}
+
+	/**
+	 * Create a new handler for the given advice beans, in order of precedence.
+	 * @param beans the advice beans
+	 */
+	public GrpcAdviceExceptionHandler(List<?> beans) {
+		for (Object bean : beans) {
+			this.advice.add(handlers(bean));
+		}
+	}
+
+	@Override
+	public Status handleException(Throwable exception) {
+		MethodHandle handler = this.handlers.get(exception.getClass());
+		if (handler == null) {
+			return null;
+		}
+		Object result;
+		try {
+			result = handler.invokeExact(exception);
+		}
+		catch (RuntimeException | Error ex) {
+			throw ex;
+		}
+		catch (Throwable ex) {
+			throw new UndeclaredThrowableException(ex);
+		}
+		if (result instanceof StatusRuntimeException status) {
+			return status.getStatus();
+		}
+		if (result instanceof StatusException status) {
+			return status.getStatus();
+		}
+		return (Status) result;
+	}
+
+	@Override
+	public boolean supports(Class<? extends Throwable> type) {
+		return this.handlers.get(type) != null;
+	}
+
+	private MethodHandle findHandler(Class<?> type) {
+		for (Map<Class<?>, MethodHandle> handlers : this.advice) {
+			for (Class<?> candidate = type; candidate != null; candidate = candidate.getSuperclass()) {
+				MethodHandle handler = handlers.get(candidate);
+				if (handler != null) {
+					return handler;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static Map<Class<?>, MethodHandle> handlers(Object bean) {
+		Map<Class<?>, MethodHandle> handlers = new HashMap<>();
+		Class<?> beanType = ClassUtils.getUserClass(AopUtils.getTargetClass(bean));
+		ReflectionUtils.doWithMethods(beanType, method -> {
+			if (!method.equals(ClassUtils.getMostSpecificMethod(method, beanType))) {
+				// Overridden in a subclass, which is visited first
+				return;
+			}
+			GrpcExceptionHandler annotation = AnnotatedElementUtils.findMergedAnnotation(method,
+					GrpcExceptionHandler.class);
+			if (annotation == null) {
+				return;
+			}
+			MethodHandle handler = handler(bean, method);
+			for (Class<?> type : exceptionTypes(method, annotation)) {
+				MethodHandle existing = handlers.putIfAbsent(type, handler);
+				if (existing != null) {
+					throw new IllegalStateException(
+							"Ambiguous @GrpcExceptionHandler for " + type.getName() + " in " + beanType.getName());
+				}
+			}
+		}, ReflectionUtils.USER_DECLARED_METHODS);
+		return handlers;
+	}
+
+	private static List<Class<?>> exceptionTypes(Method method, GrpcExceptionHandler annotation) {
+		if (method.getParameterCount() != 1 || !Throwable.class.isAssignableFrom(method.getParameterTypes()[0])) {
+			throw new IllegalStateException(
+					"@GrpcExceptionHandler method must have a single exception parameter: " + method.toGenericString());
+		}
+		Class<?> returnType = method.getReturnType();
+		if (!Status.class.equals(returnType) && !StatusException.class.equals(returnType)
+				&& !StatusRuntimeException.class.equals(returnType)) {
+			throw new IllegalStateException("@GrpcExceptionHandler method must return a Status or a status exception: "
+					+ method.toGenericString());
+		}
+		Class<?> parameterType = method.getParameterTypes()[0];
+		if (annotation.value().length == 0) {
+			return List.of(parameterType);
+		}
+		List<Class<?>> types = new ArrayList<>();
+		for (Class<? extends Throwable> type : annotation.value()) {
+			if (!parameterType.isAssignableFrom(type)) {
+				throw new IllegalStateException("@GrpcExceptionHandler method cannot accept " + type.getName() + ": "
+						+ method.toGenericString());
+			}
+			types.add(type);
+		}
+		return types;
+	}
+
+	private static MethodHandle handler(Object bean, Method method) {
+		Method invocable = AopUtils.selectInvocableMethod(method, bean.getClass());
+		ReflectionUtils.makeAccessible(invocable);
+		try {
+			MethodHandle handler = MethodHandles.lookup().unreflect(invocable);
+			return handler.bindTo(bean).asType(HANDLER_TYPE);
+		}
+		catch (IllegalAccessException ex) {
+			throw new IllegalStateException("Cannot access @GrpcExceptionHandler method: " + method, ex);
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.advice;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import io.grpc.Status;
+import io.grpc.StatusException;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Marks a method in a {@link GrpcAdvice @GrpcAdvice} bean as a handler for exceptions
+ * thrown by gRPC services. The method must have a single parameter that is compatible
+ * with the exception types it handles, and must return a {@link Status} (or a
+ * {@link StatusException} or {@link StatusRuntimeException} which is converted to its
+ * status). It can return null to let other handlers have a go.
+ *
+ * @author Dave Syer
+ * @see GrpcAdviceExceptionHandler
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface GrpcExceptionHandler {
+
+	/**
+	 * The exception types handled by the annotated method. If empty, the type of the
+	 * method parameter is used.
+	 * @return the exception types
+	 */
+	Class<? extends Throwable>[] value() default {};
+
+}
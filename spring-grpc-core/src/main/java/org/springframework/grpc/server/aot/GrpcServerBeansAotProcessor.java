@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.aot;
+
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.aot.generate.GeneratedMethod;
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.grpc.server.service.GrpcServerBeans;
+import org.springframework.grpc.server.service.GrpcService;
+import org.springframework.grpc.server.service.GrpcServiceInfo;
+import org.springframework.javapoet.AnnotationSpec;
+import org.springframework.javapoet.CodeBlock;
+import org.springframework.javapoet.MethodSpec;
+import org.springframework.lang.Nullable;
+
+import io.grpc.BindableService;
+import io.grpc.ServerInterceptor;
+
+/**
+ * Precomputes the gRPC services and server interceptors (with their {@link GrpcService},
+ * {@link GlobalServerInterceptor} and {@link Order} annotations) and generates code that
+ * registers them as {@link GrpcServerBeans}, so that the server does not have to look up
+ * the annotations on all the beans when it starts.
+ *
+ * @author Dave Syer
+ */
+public class GrpcServerBeansAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+	@Override
+	@Nullable
+	public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+		Map<String, GrpcServiceInfo> services = new LinkedHashMap<>();
+		Map<String, Boolean> interceptors = new LinkedHashMap<>();
+		Map<String, Integer> orders = new LinkedHashMap<>();
+		for (String name : beanFactory.getBeanNamesForType(BindableService.class, true, false)) {
+			GrpcServiceInfo info = GrpcServiceInfo
+				.from(beanFactory.findAnnotationOnBean(name, GrpcService.class, false));
+			if (info != null) {
+				for (Class<?> interceptor : info.interceptors()) {
+					if (!isPublic(interceptor)) {
+						// Can't refer to it in generated code
+						return null;
+					}
+				}
+			}
+			services.put(name, info);
+			addOrder(beanFactory, name, orders);
+		}
+		if (services.isEmpty()) {
+			return null;
+		}
+		for (String name : beanFactory.getBeanNamesForType(ServerInterceptor.class, true, false)) {
+			interceptors.put(name,
+					beanFactory.findAnnotationOnBean(name, GlobalServerInterceptor.class, false) != null);
+			addOrder(beanFactory, name, orders);
+		}
+		return new GrpcServerBeansAotContribution(services, interceptors, orders);
+	}
+
+	private void addOrder(ConfigurableListableBeanFactory beanFactory, String name, Map<String, Integer> orders) {
+		Order order = beanFactory.findAnnotationOnBean(name, Order.class, false);
+		if (order != null) {
+			orders.put(name, order.value());
+		}
+	}
+
+	private static boolean isPublic(Class<?> type) {
+		for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+			if (!Modifier.isPublic(current.getModifiers())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static class GrpcServerBeansAotContribution implements BeanFactoryInitializationAotContribution {
+
+		private final Map<String, GrpcServiceInfo> services;
+
+		private final Map<String, Boolean> interceptors;
+
+		private final Map<String, Integer> orders;
+
+		GrpcServerBeansAotContribution(Map<String, GrpcServiceInfo> services, Map<String, Boolean> interceptors,
+				Map<String, Integer> orders) {
+			this.services = services;
+			this.interceptors = interceptors;
+			this.orders = orders;
+		}
+
+		@Override
+		public void applyTo(GenerationContext generationContext,
+				BeanFactoryInitializationCode beanFactoryInitializationCode) {
+			GeneratedMethod method = beanFactoryInitializationCode.getMethods()
+				.add("registerGrpcServerBeans", this::generateServerBeans);
+			beanFactoryInitializationCode.addInitializer(method.toMethodReference());
+		}
+
+		private void generateServerBeans(MethodSpec.Builder method) {
+			method.addJavadoc("Register the gRPC services and interceptors with their metadata.");
+			method.addModifiers(javax.lang.model.element.Modifier.PRIVATE);
+			method.addAnnotation(
+					AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build());
+			method.addParameter(DefaultListableBeanFactory.class, "beanFactory");
+			CodeBlock.Builder code = CodeBlock.builder();
+			code.addStatement("$T beans = new $T()", GrpcServerBeans.class, GrpcServerBeans.class);
+			this.services.forEach((name, info) -> {
+				if (info == null) {
+					code.addStatement("beans.service($S, null)", name);
+				}
+				else {
+					code.addStatement("beans.service($S, new $T($L, $L, $L))", name, GrpcServiceInfo.class,
+							classes(info.interceptors()), names(info.interceptorNames()),
+							info.blendWithGlobalInterceptors());
+				}
+			});
+			this.interceptors.forEach((name, global) -> code.addStatement("beans.interceptor($S, $L)", name, global));
+			this.orders.forEach((name, order) -> code.addStatement("beans.order($S, $L)", name, order));
+			code.addStatement("beanFactory.registerSingleton($S, beans)", GrpcServerBeans.BEAN_NAME);
+			method.addCode(code.build());
+		}
+
+		private CodeBlock classes(Class<?>[] types) {
+			CodeBlock.Builder code = CodeBlock.builder().add("new $T[] {", Class.class);
+			for (int i = 0; i < types.length; i++) {
+				code.add((i > 0) ? ", $T.class" : " $T.class", types[i]);
+			}
+			return code.add(types.length > 0 ? " }" : "}").build();
+		}
+
+		private CodeBlock names(String[] names) {
+			CodeBlock.Builder code = CodeBlock.builder().add("new $T[] {", String.class);
+			for (int i = 0; i < names.length; i++) {
+				code.add((i > 0) ? ", $S" : " $S", names[i]);
+			}
+			return code.add(names.length > 0 ? " }" : "}").build();
+		}
+
+	}
+
+}
@@ -15,20 +15,44 @@
  */
 package org.springframework.grpc.server.exception;
 
+import java.util.Arrays;
+
 import io.grpc.Status;
 
+/**
+ * A {@link GrpcExceptionHandler} that consults a list of delegates in order and returns
+ * the first non-null status.
+ * <p>
+ * The delegates that {@link GrpcExceptionHandler#supports(Class) support} an exception
+ * type are computed the first time that type is seen and then cached, so exceptions are
+ * only offered to the delegates that might classify them. All of those candidates are
+ * still consulted in order for every exception, so a delegate can return null to let the
+ * later ones have a go.
+ *
+ * @author Dave Syer
+ */
 public class CompositeGrpcExceptionHandler implements GrpcExceptionHandler {
 
 	private final GrpcExceptionHandler[] exceptionHandlers;
 
+	private final ClassValue<GrpcExceptionHandler[]> candidates = new ClassValue<>() {
+		@Override
+		@SuppressWarnings("unchecked")
+		protected GrpcExceptionHandler[] computeValue(Class<?> type) {
+			return Arrays.stream(CompositeGrpcExceptionHandler.this.exceptionHandlers)
+				.filter((handler) -> handler.supports((Class<? extends Throwable>) type))
+				.toArray(GrpcExceptionHandler[]::new);
+		}
+	};
+
 	public CompositeGrpcExceptionHandler(GrpcExceptionHandler... exceptionHandlers) {
 		this.exceptionHandlers = exceptionHandlers;
 	}
 
 	@Override
 	public Status handleException(Throwable exception) {
-		for (GrpcExceptionHandler exceptionHandler : this.exceptionHandlers) {
-			Status status = exceptionHandler.handleException(exception);
+		for (GrpcExceptionHandler handler : this.candidates.get(exception.getClass())) {
+			Status status = handler.handleException(exception);
 			if (status != null) {
 				return status;
 			}
@@ -36,4 +60,9 @@ public class CompositeGrpcExceptionHandler implements GrpcExceptionHandler {
 		return null;
 	}
 
+	@Override
+	public boolean supports(Class<? extends Throwable> type) {
+		return this.candidates.get(type).length > 0;
+	}
+
 }
@@ -34,4 +34,17 @@ public interface GrpcExceptionHandler {
 	 */
 	Status handleException(Throwable exception);
 
+	/**
+	 * Whether this handler might classify exceptions of the given type. Handlers that
+	 * decide by the type of the exception alone can return false for the types they never
+	 * classify, so that a {@link CompositeGrpcExceptionHandler} does not offer them those
+	 * exceptions. Handlers that look at anything else (e.g. the message or the cause)
+	 * should return true. The default is true.
+	 * @param type the exception type
+	 * @return true if exceptions of this type might be classified by this handler
+	 */
+	default boolean supports(Class<? extends Throwable> type) {
+		return true;
+	}
+
 }
@@ -25,6 +25,8 @@ import io.grpc.ServerCall.Listener;
 import io.grpc.ServerCallHandler;
 import io.grpc.ServerInterceptor;
 import io.grpc.Status;
+import io.grpc.StatusException;
+import io.grpc.StatusRuntimeException;
 
 /**
  * A gRPC {@link ServerInterceptor} that handles exceptions thrown during the processing
@@ -46,8 +48,11 @@ public class GrpcExceptionHandlerInterceptor implements ServerInterceptor {
 
 	private final GrpcExceptionHandler exceptionHandler;
 
+	private final GrpcExceptionHandler fallbackHandler;
+
 	public GrpcExceptionHandlerInterceptor(GrpcExceptionHandler exceptionHandler) {
 		this.exceptionHandler = exceptionHandler;
+		this.fallbackHandler = new FallbackHandler(exceptionHandler);
 	}
 
 	/**
@@ -67,15 +72,19 @@ public class GrpcExceptionHandlerInterceptor implements ServerInterceptor {
 			listener = next.startCall(call, headers);
 		}
 		catch (Throwable t) {
-			call.close(this.exceptionHandler.handleException(t), headers(t));
+			call.close(this.fallbackHandler.handleException(t), headers(t));
 			listener = new Listener<ReqT>() {
 			};
 			return listener;
 		}
-		return new ExceptionHandlerListener<>(listener, call, new FallbackHandler(this.exceptionHandler));
+		return new ExceptionHandlerListener<>(listener, call, this.fallbackHandler);
 	}
 
 	private static Metadata headers(Throwable t) {
+		if (t.getCause() == null && !(t instanceof StatusRuntimeException) && !(t instanceof StatusException)) {
+			// Nothing to find in the cause chain
+			return new Metadata();
+		}
 		Metadata result = Status.trailersFromThrowable(t);
 		return result != null ? result : new Metadata();
 	}
@@ -136,11 +145,12 @@ public class GrpcExceptionHandlerInterceptor implements ServerInterceptor {
 
 		private void handle(Throwable t) {
 			this.exception = t;
-			Status status = Status.fromThrowable(t);
+			Status status;
 			try {
 				status = this.exceptionHandler.handleException(t);
 			}
 			catch (Throwable e) {
+				status = Status.fromThrowable(t);
 			}
 			try {
 				this.call.close(status, headers(t));
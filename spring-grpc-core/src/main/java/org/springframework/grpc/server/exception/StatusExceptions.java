@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.exception;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Factory methods for {@link StatusRuntimeException StatusRuntimeExceptions} that do not
+ * capture a stack trace. They are cheap to create and throw, so they are a good fit for
+ * expected domain errors (e.g. a lookup that finds nothing) that are only ever converted
+ * into a status for the client. Each call creates a new exception, so they are safe to
+ * throw from concurrent calls (exceptions are mutable, e.g. through
+ * {@link Throwable#addSuppressed(Throwable)}, so they are never shared).
+ *
+ * @author Dave Syer
+ */
+public final class StatusExceptions {
+
+	private StatusExceptions() {
+	}
+
+	/**
+	 * Create a stackless exception with the given status.
+	 * @param status the status
+	 * @return a new exception
+	 */
+	public static StatusRuntimeException stackless(Status status) {
+		return new StacklessStatusRuntimeException(status, null);
+	}
+
+	/**
+	 * Create a stackless exception with the given status and trailers.
+	 * @param status the status
+	 * @param trailers the trailers to send to the client (may be null)
+	 * @return a new exception
+	 */
+	public static StatusRuntimeException stackless(Status status, Metadata trailers) {
+		return new StacklessStatusRuntimeException(status, trailers);
+	}
+
+	/**
+	 * Create a stackless {@link Status#NOT_FOUND} exception.
+	 * @param description the description of the error
+	 * @return a new exception
+	 */
+	public static StatusRuntimeException notFound(String description) {
+		return stackless(Status.NOT_FOUND.withDescription(description));
+	}
+
+	/**
+	 * Create a stackless {@link Status#ALREADY_EXISTS} exception.
+	 * @param description the description of the error
+	 * @return a new exception
+	 */
+	public static StatusRuntimeException alreadyExists(String description) {
+		return stackless(Status.ALREADY_EXISTS.withDescription(description));
+	}
+
+	/**
+	 * Create a stackless {@link Status#INVALID_ARGUMENT} exception.
+	 * @param description the description of the error
+	 * @return a new exception
+	 */
+	public static StatusRuntimeException invalidArgument(String description) {
+		return stackless(Status.INVALID_ARGUMENT.withDescription(description));
+	}
+
+	/**
+	 * Create a stackless {@link Status#FAILED_PRECONDITION} exception.
+	 * @param description the description of the error
+	 * @return a new exception
+	 */
+	public static StatusRuntimeException failedPrecondition(String description) {
+		return stackless(Status.FAILED_PRECONDITION.withDescription(description));
+	}
+
+	/**
+	 * Create a stackless {@link Status#PERMISSION_DENIED} exception.
+	 * @param description the description of the error
+	 * @return a new exception
+	 */
+	public static StatusRuntimeException permissionDenied(String description) {
+		return stackless(Status.PERMISSION_DENIED.withDescription(description));
+	}
+
+	private static class StacklessStatusRuntimeException extends StatusRuntimeException {
+
+		StacklessStatusRuntimeException(Status status, Metadata trailers) {
+			super(status, trailers);
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.security;
+
+import java.util.function.Supplier;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.util.Assert;
+
+import io.grpc.Context;
+
+/**
+ * A {@link SecurityContextHolderStrategy} that reads the {@link SecurityContext} from the
+ * current gRPC {@link Context} (where it is put by
+ * {@link GrpcContextSecurityContextServerInterceptor}). Nothing is copied into a
+ * {@link ThreadLocal} when a call is dispatched, so the context is only looked up when
+ * application code asks for it.
+ * <p>
+ * A context that is set explicitly (e.g. via
+ * {@link org.springframework.security.core.context.SecurityContextHolder#setContext(SecurityContext)})
+ * is stored in a {@link ThreadLocal} and takes precedence, but only while the same gRPC
+ * {@link Context} is current, so it cannot leak into another call that happens to run on
+ * the same thread. A context that is set outside of any gRPC call (e.g. by a servlet
+ * filter) is also visible to the calls that are started on the same thread, until it is
+ * cleared. That is how it reaches {@link GrpcContextSecurityContextServerInterceptor},
+ * which then puts it in the gRPC {@link Context} of the call. An empty context that is
+ * returned because nothing was set is not stored, so callers that change it have to set
+ * it explicitly, as Spring Security does.
+ * <p>
+ * All instances share the same state, so to install the strategy globally you can set the
+ * {@code spring.security.strategy} system property to the name of this class.
+ *
+ * @author Dave Syer
+ * @see GrpcContextSecurityContextServerInterceptor
+ */
+public class GrpcContextSecurityContextHolderStrategy implements SecurityContextHolderStrategy {
+
+	/**
+	 * The key used to carry the {@link SecurityContext} in the gRPC {@link Context}.
+	 */
+	public static final Context.Key<SecurityContext> SECURITY_CONTEXT_KEY = Context.key("spring-security-context");
+
+	private static final ThreadLocal<ScopedContext> contextHolder = new ThreadLocal<>();
+
+	@Override
+	public void clearContext() {
+		contextHolder.remove();
+	}
+
+	@Override
+	public SecurityContext getContext() {
+		return getDeferredContext().get();
+	}
+
+	@Override
+	public Supplier<SecurityContext> getDeferredContext() {
+		Context current = Context.current();
+		ScopedContext scoped = contextHolder.get();
+		if (scoped != null && scoped.owner() == current) {
+			return scoped.context();
+		}
+		SecurityContext context = SECURITY_CONTEXT_KEY.get(current);
+		if (context != null) {
+			return () -> context;
+		}
+		if (scoped != null && scoped.owner() == Context.ROOT) {
+			// Set outside of a gRPC call, and every call context descends from the root
+			return scoped.context();
+		}
+		// Not stored, so nothing is left behind on a pooled thread
+		return new SupplierDeferredSecurityContext(this::createEmptyContext);
+	}
+
+	@Override
+	public void setContext(SecurityContext context) {
+		Assert.notNull(context, "Only non-null SecurityContext instances are permitted");
+		contextHolder.set(new ScopedContext(Context.current(), () -> context));
+	}
+
+	@Override
+	public void setDeferredContext(Supplier<SecurityContext> deferredContext) {
+		Assert.notNull(deferredContext, "Only non-null Supplier instances are permitted");
+		Supplier<SecurityContext> notNullDeferredContext = () -> {
+			SecurityContext result = deferredContext.get();
+			Assert.notNull(result, "A Supplier<SecurityContext> returned null and is not allowed.");
+			return result;
+		};
+		contextHolder.set(new ScopedContext(Context.current(), notNullDeferredContext));
+	}
+
+	@Override
+	public SecurityContext createEmptyContext() {
+		return new SecurityContextImpl();
+	}
+
+	private record ScopedContext(Context owner, Supplier<SecurityContext> context) {
+	}
+
+	private static final class SupplierDeferredSecurityContext implements Supplier<SecurityContext> {
+
+		private final Supplier<SecurityContext> supplier;
+
+		private SecurityContext context;
+
+		SupplierDeferredSecurityContext(Supplier<SecurityContext> supplier) {
+			this.supplier = supplier;
+		}
+
+		@Override
+		public SecurityContext get() {
+			if (this.context == null) {
+				this.context = this.supplier.get();
+			}
+			return this.context;
+		}
+
+	}
+
+}
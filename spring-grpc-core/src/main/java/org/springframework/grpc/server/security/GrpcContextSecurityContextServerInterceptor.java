@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.security;
+
+import org.springframework.core.Ordered;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.util.Assert;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCall.Listener;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+/**
+ * An alternative to {@link SecurityContextServerInterceptor} that carries the
+ * {@link SecurityContext} of the call in the gRPC {@link Context} instead of setting and
+ * clearing the {@link SecurityContextHolder} around every listener callback. Use it
+ * together with a {@link GrpcContextSecurityContextHolderStrategy} so that application
+ * code can still access the context through the {@link SecurityContextHolder}.
+ *
+ * @author Dave Syer
+ */
+public class GrpcContextSecurityContextServerInterceptor implements ServerInterceptor, Ordered {
+
+	private final SecurityContextHolderStrategy securityContextHolderStrategy;
+
+	public GrpcContextSecurityContextServerInterceptor() {
+		this(SecurityContextHolder.getContextHolderStrategy());
+	}
+
+	public GrpcContextSecurityContextServerInterceptor(SecurityContextHolderStrategy securityContextHolderStrategy) {
+		Assert.notNull(securityContextHolderStrategy, "securityContextHolderStrategy cannot be null");
+		this.securityContextHolderStrategy = securityContextHolderStrategy;
+	}
+
+	@Override
+	public int getOrder() {
+		return GrpcSecurity.CONTEXT_FILTER_ORDER;
+	}
+
+	@Override
+	public <ReqT, RespT> Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+			ServerCallHandler<ReqT, RespT> next) {
+		SecurityContext securityContext = this.securityContextHolderStrategy.getContext();
+		Context context = Context.current()
+			.withValue(GrpcContextSecurityContextHolderStrategy.SECURITY_CONTEXT_KEY, securityContext);
+		return Contexts.interceptCall(context, call, headers, next);
+	}
+
+}
@@ -45,4 +45,10 @@ public class SecurityGrpcExceptionHandler implements GrpcExceptionHandler {
 		return null;
 	}
 
+	@Override
+	public boolean supports(Class<? extends Throwable> type) {
+		return AuthenticationException.class.isAssignableFrom(type)
+				|| AccessDeniedException.class.isAssignableFrom(type);
+	}
+
 }
@@ -42,12 +42,16 @@ public class DefaultGrpcServiceConfigurer implements GrpcServiceConfigurer, Init
 
 	private List<ServerInterceptor> globalInterceptors;
 
+	@Nullable
+	private GrpcServerBeans beans;
+
 	public DefaultGrpcServiceConfigurer(ApplicationContext applicationContext) {
 		this.applicationContext = applicationContext;
 	}
 
 	@Override
 	public void afterPropertiesSet() {
+		this.beans = GrpcServerBeans.find(this.applicationContext);
 		this.globalInterceptors = findGlobalInterceptors();
 	}
 
@@ -57,6 +61,9 @@ public class DefaultGrpcServiceConfigurer implements GrpcServiceConfigurer, Init
 	}
 
 	private List<ServerInterceptor> findGlobalInterceptors() {
+		if (this.beans != null) {
+			return this.beans.getGlobalInterceptors(this.applicationContext);
+		}
 		return ApplicationContextBeanLookupUtils.getBeansWithAnnotation(this.applicationContext,
 				ServerInterceptor.class, GlobalServerInterceptor.class);
 	}
@@ -77,7 +84,10 @@ public class DefaultGrpcServiceConfigurer implements GrpcServiceConfigurer, Init
 		Arrays.stream(serviceInfo.interceptorNames())
 			.forEachOrdered((interceptorBeanName) -> allInterceptors
 				.add(this.applicationContext.getBean(interceptorBeanName, ServerInterceptor.class)));
-		if (serviceInfo.blendWithGlobalInterceptors()) {
+		if (serviceInfo.blendWithGlobalInterceptors() && this.beans != null) {
+			this.beans.sortInterceptors(this.applicationContext, allInterceptors);
+		}
+		else if (serviceInfo.blendWithGlobalInterceptors()) {
 			ApplicationContextBeanLookupUtils.sortBeansIncludingOrderAnnotation(this.applicationContext,
 					ServerInterceptor.class, allInterceptors);
 		}
@@ -45,6 +45,15 @@ public class DefaultGrpcServiceDiscoverer implements GrpcServiceDiscoverer {
 
 	@Override
 	public List<ServerServiceDefinition> findServices() {
+		GrpcServerBeans beans = GrpcServerBeans.find(this.applicationContext);
+		if (beans != null) {
+			// Precomputed during AOT processing
+			return beans.getOrderedServices(this.applicationContext)
+				.entrySet()
+				.stream()
+				.map((e) -> this.serviceConfigurer.configure(e.getKey(), e.getValue()))
+				.toList();
+		}
 		return ApplicationContextBeanLookupUtils
 			.getOrderedBeansWithAnnotation(this.applicationContext, BindableService.class, GrpcService.class)
 			.entrySet()
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.OrderComparator;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.lang.Nullable;
+
+import io.grpc.BindableService;
+import io.grpc.ServerInterceptor;
+
+/**
+ * The gRPC services and server interceptors in an application context, with the
+ * annotation metadata that is otherwise looked up when the server starts:
+ * {@link GrpcService} on the services, {@link GrpcServerBeans#interceptor global} flags
+ * on the interceptors and {@link org.springframework.core.annotation.Order} values on
+ * both. An instance is registered as a singleton by the code generated during AOT
+ * processing, and is only used if the bean names still match the ones in the context.
+ *
+ * @author Dave Syer
+ */
+public final class GrpcServerBeans {
+
+	/**
+	 * The name of the singleton bean.
+	 */
+	public static final String BEAN_NAME = "org.springframework.grpc.server.service.grpcServerBeans";
+
+	private static final Log logger = LogFactory.getLog(GrpcServerBeans.class);
+
+	private final Map<String, GrpcServiceInfo> services = new LinkedHashMap<>();
+
+	private final Map<String, Boolean> interceptors = new LinkedHashMap<>();
+
+	private final Map<String, Integer> orders = new HashMap<>();
+
+	/**
+	 * Add a service bean.
+	 * @param beanName the bean name
+	 * @param serviceInfo the service info (or null if the bean has no {@link GrpcService}
+	 * annotation)
+	 * @return this
+	 */
+	public GrpcServerBeans service(String beanName, @Nullable GrpcServiceInfo serviceInfo) {
+		this.services.put(beanName, serviceInfo);
+		return this;
+	}
+
+	/**
+	 * Add a server interceptor bean.
+	 * @param beanName the bean name
+	 * @param global whether the bean is a global interceptor
+	 * @return this
+	 */
+	public GrpcServerBeans interceptor(String beanName, boolean global) {
+		this.interceptors.put(beanName, global);
+		return this;
+	}
+
+	/**
+	 * Set the order of a bean from its {@link org.springframework.core.annotation.Order}
+	 * annotation (on the class or the bean factory method).
+	 * @param beanName the bean name
+	 * @param order the order
+	 * @return this
+	 */
+	public GrpcServerBeans order(String beanName, int order) {
+		this.orders.put(beanName, order);
+		return this;
+	}
+
+	/**
+	 * Find the precomputed beans in the application context, if there are any and they
+	 * match the bean names in the context.
+	 * @param context the application context
+	 * @return the beans or null
+	 */
+	@Nullable
+	public static GrpcServerBeans find(ApplicationContext context) {
+		if (!context.containsBean(BEAN_NAME)) {
+			return null;
+		}
+		GrpcServerBeans beans = context.getBean(BEAN_NAME, GrpcServerBeans.class);
+		if (!beans.services.keySet().equals(names(context, BindableService.class))
+				|| !beans.interceptors.keySet().equals(names(context, ServerInterceptor.class))) {
+			logger.debug("Ignoring precomputed gRPC server beans because the bean names have changed");
+			return null;
+		}
+		return beans;
+	}
+
+	private static Set<String> names(ApplicationContext context, Class<?> type) {
+		return new HashSet<>(Arrays.asList(context.getBeanNamesForType(type)));
+	}
+
+	LinkedHashMap<BindableService, GrpcServiceInfo> getOrderedServices(ApplicationContext context) {
+		Map<Object, String> names = new IdentityHashMap<>();
+		List<BindableService> beans = new ArrayList<>();
+		this.services.keySet().forEach((name) -> {
+			BindableService bean = context.getBean(name, BindableService.class);
+			names.put(bean, name);
+			beans.add(bean);
+		});
+		beans.sort(comparator(names));
+		LinkedHashMap<BindableService, GrpcServiceInfo> result = new LinkedHashMap<>();
+		beans.forEach((bean) -> result.put(bean, this.services.get(names.get(bean))));
+		return result;
+	}
+
+	List<ServerInterceptor> getGlobalInterceptors(ApplicationContext context) {
+		Map<Object, String> names = new IdentityHashMap<>();
+		List<ServerInterceptor> beans = new ArrayList<>();
+		this.interceptors.forEach((name, global) -> {
+			if (global) {
+				ServerInterceptor bean = context.getBean(name, ServerInterceptor.class);
+				names.put(bean, name);
+				beans.add(bean);
+			}
+		});
+		beans.sort(comparator(names));
+		return beans;
+	}
+
+	void sortInterceptors(ApplicationContext context, List<ServerInterceptor> interceptors) {
+		Map<Object, String> names = new IdentityHashMap<>();
+		this.interceptors.keySet().forEach((name) -> names.put(context.getBean(name), name));
+		// Same as ApplicationContextBeanLookupUtils.sortBeansIncludingOrderAnnotation()
+		interceptors.sort(OrderComparator.INSTANCE.withSourceProvider((bean) -> {
+			Integer priority = AnnotationAwareOrderComparator.INSTANCE.getPriority(bean);
+			if (priority != null) {
+				return (Ordered) () -> priority;
+			}
+			return orderSource(names.get(bean));
+		}));
+	}
+
+	private Comparator<Object> comparator(Map<Object, String> names) {
+		return AnnotationAwareOrderComparator.INSTANCE.withSourceProvider((bean) -> orderSource(names.get(bean)));
+	}
+
+	@Nullable
+	private Ordered orderSource(@Nullable String beanName) {
+		Integer order = (beanName != null) ? this.orders.get(beanName) : null;
+		return (order != null) ? () -> order : null;
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status;
+
+/**
+ * Tests for {@link AdaptiveThrottlingInterceptor}.
+ */
+class AdaptiveThrottlingInterceptorTests {
+
+	private final MethodDescriptor<Object, Object> method = MethodDescriptor.newBuilder(marshaller(), marshaller())
+		.setType(MethodType.UNARY)
+		.setFullMethodName("my.Service/Get")
+		.build();
+
+	private final StatusChannel server = new StatusChannel();
+
+	private Clock clock = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
+	@Test
+	void healthyBackendIsNotThrottled() {
+		AdaptiveThrottlingInterceptor interceptor = interceptor();
+		for (int i = 0; i < 100; i++) {
+			assertThat(call(interceptor)).isEqualTo(Status.Code.OK);
+		}
+		assertThat(interceptor.getRejectionProbability()).isZero();
+		assertThat(this.server.calls).hasValue(100);
+	}
+
+	@Test
+	void failingBackendIsThrottled() {
+		AdaptiveThrottlingInterceptor interceptor = interceptor();
+		for (int i = 0; i < 100; i++) {
+			call(interceptor);
+		}
+		this.server.status = Status.UNAVAILABLE;
+		for (int i = 0; i < 1000; i++) {
+			call(interceptor);
+		}
+		// 1100 requests and 100 accepts
+		assertThat(interceptor.getRejectionProbability()).isCloseTo(900.0 / 1101, within(0.001));
+		assertThat(this.server.calls.get()).isLessThan(1000);
+	}
+
+	@Test
+	void otherErrorsCountAsAccepted() {
+		AdaptiveThrottlingInterceptor interceptor = interceptor();
+		this.server.status = Status.NOT_FOUND;
+		for (int i = 0; i < 100; i++) {
+			assertThat(call(interceptor)).isEqualTo(Status.Code.NOT_FOUND);
+		}
+		assertThat(interceptor.getRejectionProbability()).isZero();
+	}
+
+	@Test
+	void throttlingStopsWhenWindowMoves() {
+		AdaptiveThrottlingInterceptor interceptor = interceptor();
+		this.server.status = Status.RESOURCE_EXHAUSTED;
+		for (int i = 0; i < 100; i++) {
+			call(interceptor);
+		}
+		assertThat(interceptor.getRejectionProbability()).isGreaterThan(0.9);
+		this.clock = Clock.offset(this.clock, Duration.ofSeconds(10));
+		interceptor.setClock(this.clock);
+		assertThat(interceptor.getRejectionProbability()).isZero();
+	}
+
+	private AdaptiveThrottlingInterceptor interceptor() {
+		AdaptiveThrottlingInterceptor interceptor = new AdaptiveThrottlingInterceptor(2.0, Duration.ofSeconds(10));
+		interceptor.setClock(this.clock);
+		return interceptor;
+	}
+
+	private Status.Code call(AdaptiveThrottlingInterceptor interceptor) {
+		AtomicReference<Status> result = new AtomicReference<>();
+		ClientCall<Object, Object> call = interceptor.interceptCall(this.method, CallOptions.DEFAULT, this.server);
+		call.start(new ClientCall.Listener<>() {
+			@Override
+			public void onClose(Status status, Metadata trailers) {
+				result.set(status);
+			}
+		}, new Metadata());
+		return result.get().getCode();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MethodDescriptor.Marshaller<Object> marshaller() {
+		return mock(MethodDescriptor.Marshaller.class);
+	}
+
+	static class StatusChannel extends Channel {
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private Status status = Status.OK;
+
+		@Override
+		public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method,
+				CallOptions callOptions) {
+			return new ClientCall<>() {
+
+				@Override
+				public void start(Listener<RespT> listener, Metadata headers) {
+					StatusChannel.this.calls.incrementAndGet();
+					listener.onClose(StatusChannel.this.status, new Metadata());
+				}
+
+				@Override
+				public void request(int numMessages) {
+				}
+
+				@Override
+				public void cancel(String message, Throwable cause) {
+				}
+
+				@Override
+				public void halfClose() {
+				}
+
+				@Override
+				public void sendMessage(ReqT message) {
+				}
+
+			};
+		}
+
+		@Override
+		public String authority() {
+			return "localhost";
+		}
+
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.grpc.client.CircuitBreakerInterceptorTests.MutableClock;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status;
+
+/**
+ * Tests for {@link ChannelMonitor}.
+ */
+class ChannelMonitorTests {
+
+	private final MutableClock clock = new MutableClock();
+
+	private final ChannelMonitor monitor = new ChannelMonitor("test");
+
+	private final Map<ManagedChannel, Runnable> callbacks = new HashMap<>();
+
+	private final List<String> events = new ArrayList<>();
+
+	@Test
+	void tracksStateOfChannels() {
+		this.monitor.setClock(this.clock);
+		this.monitor.addListener(new ChannelMonitor.Listener() {
+			@Override
+			public void stateChanged(ChannelMonitor monitor, ConnectivityState previous, ConnectivityState current) {
+				ChannelMonitorTests.this.events.add(previous + "->" + current);
+			}
+		});
+		ManagedChannel first = channel(ConnectivityState.IDLE, ConnectivityState.CONNECTING, ConnectivityState.READY,
+				ConnectivityState.SHUTDOWN);
+		ManagedChannel second = channel(ConnectivityState.IDLE, ConnectivityState.TRANSIENT_FAILURE);
+		this.monitor.watch(first);
+		this.monitor.watch(second);
+		assertThat(this.monitor.getChannelCount(ConnectivityState.IDLE)).isEqualTo(2);
+		this.callbacks.get(first).run();
+		this.callbacks.get(first).run();
+		this.clock.advance(Duration.ofSeconds(30));
+		assertThat(this.monitor.getChannelCount(ConnectivityState.READY)).isEqualTo(1);
+		assertThat(this.monitor.getConnectionAge()).isEqualTo(Duration.ofSeconds(30));
+		this.callbacks.get(second).run();
+		assertThat(this.monitor.getChannelCount(ConnectivityState.TRANSIENT_FAILURE)).isEqualTo(1);
+		assertThat(this.monitor.getTransitions()).isEqualTo(3);
+		this.callbacks.get(first).run();
+		assertThat(this.monitor.getChannelCount(ConnectivityState.READY)).isZero();
+		assertThat(this.monitor.getConnectionAge()).isZero();
+		assertThat(this.events).containsExactly("IDLE->CONNECTING", "CONNECTING->READY", "IDLE->TRANSIENT_FAILURE",
+				"READY->SHUTDOWN");
+	}
+
+	@Test
+	void countsCalls() {
+		List<ClientCall.Listener<Object>> listeners = new ArrayList<>();
+		Channel next = mock(Channel.class);
+		when(next.newCall(any(), any())).thenAnswer((invocation) -> new NoopClientCall() {
+			@Override
+			public void start(Listener<Object> listener, Metadata headers) {
+				listeners.add(listener);
+			}
+		});
+		ClientCall<Object, Object> first = this.monitor.interceptCall(method(), CallOptions.DEFAULT, next);
+		ClientCall<Object, Object> second = this.monitor.interceptCall(method(), CallOptions.DEFAULT, next);
+		this.monitor.interceptCall(method(), CallOptions.DEFAULT, next);
+		first.start(new ClientCall.Listener<>() {
+		}, new Metadata());
+		second.start(new ClientCall.Listener<>() {
+		}, new Metadata());
+		assertThat(this.monitor.getStartedCalls()).isEqualTo(2);
+		assertThat(this.monitor.getActiveCalls()).isEqualTo(2);
+		listeners.get(0).onClose(Status.OK, new Metadata());
+		listeners.get(1).onClose(Status.UNAVAILABLE, new Metadata());
+		assertThat(this.monitor.getActiveCalls()).isZero();
+		assertThat(this.monitor.getSucceededCalls()).isEqualTo(1);
+		assertThat(this.monitor.getFailedCalls()).isEqualTo(1);
+	}
+
+	private ManagedChannel channel(ConnectivityState first, ConnectivityState... rest) {
+		ManagedChannel channel = mock(ManagedChannel.class);
+		when(channel.getState(false)).thenReturn(first, rest);
+		doAnswer((invocation) -> this.callbacks.put(channel, invocation.getArgument(1))).when(channel)
+			.notifyWhenStateChanged(any(), any());
+		return channel;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MethodDescriptor<Object, Object> method() {
+		return MethodDescriptor
+			.newBuilder(mock(MethodDescriptor.Marshaller.class), mock(MethodDescriptor.Marshaller.class))
+			.setType(MethodType.UNARY)
+			.setFullMethodName("my.Service/Get")
+			.build();
+	}
+
+	static class NoopClientCall extends ClientCall<Object, Object> {
+
+		@Override
+		public void start(Listener<Object> listener, Metadata headers) {
+		}
+
+		@Override
+		public void request(int numMessages) {
+		}
+
+		@Override
+		public void cancel(String message, Throwable cause) {
+		}
+
+		@Override
+		public void halfClose() {
+		}
+
+		@Override
+		public void sendMessage(Object message) {
+		}
+
+	}
+
+}
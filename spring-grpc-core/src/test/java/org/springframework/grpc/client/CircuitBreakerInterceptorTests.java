@@ -0,0 +1,314 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.grpc.client.CircuitBreakerInterceptor.CircuitBreaker;
+import org.springframework.grpc.client.CircuitBreakerInterceptor.State;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status;
+
+/**
+ * Tests for {@link CircuitBreakerInterceptor}.
+ */
+class CircuitBreakerInterceptorTests {
+
+	private final MutableClock clock = new MutableClock();
+
+	private final FakeChannel server = new FakeChannel();
+
+	private final CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor("test");
+
+	private final List<String> events = new ArrayList<>();
+
+	@BeforeEach
+	void init() {
+		this.interceptor.setClock(this.clock);
+		this.interceptor.setSlidingWindowSize(10);
+		this.interceptor.setMinimumNumberOfCalls(5);
+		this.interceptor.setWaitDurationInOpenState(Duration.ofSeconds(10));
+		this.interceptor.setPermittedCallsInHalfOpenState(2);
+		this.interceptor.setSlowCallDuration(Duration.ofSeconds(1));
+		this.interceptor.setSlowCallRateThreshold(0.5);
+		this.interceptor.addListener(new CircuitBreakerInterceptor.Listener() {
+			@Override
+			public void created(CircuitBreaker breaker) {
+				CircuitBreakerInterceptorTests.this.events.add("created:" + breaker.getMethod());
+			}
+
+			@Override
+			public void stateChanged(CircuitBreaker breaker, State previous) {
+				CircuitBreakerInterceptorTests.this.events.add(previous + "->" + breaker.getState());
+			}
+		});
+	}
+
+	@Test
+	void opensOnFailureRate() {
+		for (int i = 0; i < 5; i++) {
+			assertThat(call("Get")).isEqualTo(Status.Code.OK);
+		}
+		this.server.status = Status.UNAVAILABLE;
+		for (int i = 0; i < 5; i++) {
+			call("Get");
+		}
+		assertThat(breaker("Get").getState()).isEqualTo(State.OPEN);
+		int calls = this.server.calls;
+		assertThat(call("Get")).isEqualTo(Status.Code.UNAVAILABLE);
+		assertThat(this.server.calls).isEqualTo(calls);
+		assertThat(breaker("Get").getNotPermittedCalls()).isEqualTo(1);
+		assertThat(this.events).containsExactly("created:my.Service/Get", "CLOSED->OPEN");
+	}
+
+	@Test
+	void breakersArePerMethod() {
+		this.server.status = Status.INTERNAL;
+		for (int i = 0; i < 5; i++) {
+			call("Get");
+		}
+		this.server.status = Status.OK;
+		assertThat(call("Get")).isEqualTo(Status.Code.UNAVAILABLE);
+		assertThat(call("Put")).isEqualTo(Status.Code.OK);
+		assertThat(this.interceptor.getCircuitBreakers()).hasSize(2);
+	}
+
+	@Test
+	void otherErrorsDoNotOpen() {
+		this.server.status = Status.NOT_FOUND;
+		for (int i = 0; i < 20; i++) {
+			assertThat(call("Get")).isEqualTo(Status.Code.NOT_FOUND);
+		}
+		assertThat(breaker("Get").getState()).isEqualTo(State.CLOSED);
+		assertThat(breaker("Get").getFailureRate()).isZero();
+	}
+
+	@Test
+	void opensOnSlowCallRate() {
+		this.server.latency = Duration.ofSeconds(2);
+		for (int i = 0; i < 5; i++) {
+			assertThat(call("Get")).isEqualTo(Status.Code.OK);
+		}
+		assertThat(breaker("Get").getSlowCallRate()).isEqualTo(1.0);
+		assertThat(breaker("Get").getState()).isEqualTo(State.OPEN);
+	}
+
+	@Test
+	void closesAfterSuccessfulTrials() {
+		this.server.status = Status.UNAVAILABLE;
+		for (int i = 0; i < 5; i++) {
+			call("Get");
+		}
+		this.server.status = Status.OK;
+		this.clock.advance(Duration.ofSeconds(10));
+		assertThat(call("Get")).isEqualTo(Status.Code.OK);
+		assertThat(breaker("Get").getState()).isEqualTo(State.HALF_OPEN);
+		assertThat(call("Get")).isEqualTo(Status.Code.OK);
+		assertThat(breaker("Get").getState()).isEqualTo(State.CLOSED);
+		assertThat(breaker("Get").getFailureRate()).isZero();
+		assertThat(this.events).containsExactly("created:my.Service/Get", "CLOSED->OPEN", "OPEN->HALF_OPEN",
+				"HALF_OPEN->CLOSED");
+	}
+
+	@Test
+	void reopensAfterFailedTrial() {
+		this.server.status = Status.UNAVAILABLE;
+		for (int i = 0; i < 5; i++) {
+			call("Get");
+		}
+		this.clock.advance(Duration.ofSeconds(10));
+		call("Get");
+		assertThat(breaker("Get").getState()).isEqualTo(State.OPEN);
+		assertThat(call("Get")).isEqualTo(Status.Code.UNAVAILABLE);
+		assertThat(this.server.calls).isEqualTo(6);
+	}
+
+	@Test
+	void trialCallsThatAreNeverStartedDoNotTakePermits() {
+		this.server.status = Status.UNAVAILABLE;
+		for (int i = 0; i < 5; i++) {
+			call("Get");
+		}
+		this.server.status = Status.OK;
+		this.clock.advance(Duration.ofSeconds(10));
+		for (int i = 0; i < 5; i++) {
+			this.interceptor.interceptCall(method("Get"), CallOptions.DEFAULT, this.server);
+		}
+		assertThat(call("Get")).isEqualTo(Status.Code.OK);
+		assertThat(call("Get")).isEqualTo(Status.Code.OK);
+		assertThat(breaker("Get").getState()).isEqualTo(State.CLOSED);
+	}
+
+	@Test
+	void cancelledTrialCallsReleasePermits() {
+		this.server.status = Status.UNAVAILABLE;
+		for (int i = 0; i < 5; i++) {
+			call("Get");
+		}
+		this.server.status = Status.OK;
+		this.clock.advance(Duration.ofSeconds(10));
+		this.server.hang = true;
+		List<ClientCall<Object, Object>> trials = List.of(start("Get", new AtomicReference<>()),
+				start("Get", new AtomicReference<>()));
+		assertThat(call("Get")).isEqualTo(Status.Code.UNAVAILABLE);
+		trials.forEach((trial) -> trial.cancel("Cancelled", null));
+		assertThat(breaker("Get").getState()).isEqualTo(State.HALF_OPEN);
+		this.server.hang = false;
+		assertThat(call("Get")).isEqualTo(Status.Code.OK);
+		assertThat(call("Get")).isEqualTo(Status.Code.OK);
+		assertThat(breaker("Get").getState()).isEqualTo(State.CLOSED);
+	}
+
+	private CircuitBreaker breaker(String name) {
+		return this.interceptor.getCircuitBreakers()
+			.stream()
+			.filter((breaker) -> breaker.getMethod().equals("my.Service/" + name))
+			.findFirst()
+			.get();
+	}
+
+	private Status.Code call(String name) {
+		AtomicReference<Status> result = new AtomicReference<>();
+		start(name, result);
+		return result.get().getCode();
+	}
+
+	private ClientCall<Object, Object> start(String name, AtomicReference<Status> result) {
+		ClientCall<Object, Object> call = this.interceptor.interceptCall(method(name), CallOptions.DEFAULT,
+				this.server);
+		call.start(new ClientCall.Listener<>() {
+			@Override
+			public void onClose(Status status, Metadata trailers) {
+				result.set(status);
+			}
+		}, new Metadata());
+		return call;
+	}
+
+	private static MethodDescriptor<Object, Object> method(String name) {
+		return MethodDescriptor.newBuilder(marshaller(), marshaller())
+			.setType(MethodType.UNARY)
+			.setFullMethodName("my.Service/" + name)
+			.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MethodDescriptor.Marshaller<Object> marshaller() {
+		return mock(MethodDescriptor.Marshaller.class);
+	}
+
+	class FakeChannel extends Channel {
+
+		private int calls;
+
+		private Status status = Status.OK;
+
+		private Duration latency = Duration.ZERO;
+
+		private boolean hang;
+
+		@Override
+		public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method,
+				CallOptions callOptions) {
+			return new ClientCall<>() {
+
+				private Listener<RespT> listener;
+
+				@Override
+				public void start(Listener<RespT> listener, Metadata headers) {
+					FakeChannel.this.calls++;
+					if (FakeChannel.this.hang) {
+						this.listener = listener;
+						return;
+					}
+					CircuitBreakerInterceptorTests.this.clock.advance(FakeChannel.this.latency);
+					listener.onClose(FakeChannel.this.status, new Metadata());
+				}
+
+				@Override
+				public void request(int numMessages) {
+				}
+
+				@Override
+				public void cancel(String message, Throwable cause) {
+					if (this.listener != null) {
+						this.listener.onClose(Status.CANCELLED.withDescription(message), new Metadata());
+					}
+				}
+
+				@Override
+				public void halfClose() {
+				}
+
+				@Override
+				public void sendMessage(ReqT message) {
+				}
+
+			};
+		}
+
+		@Override
+		public String authority() {
+			return "localhost";
+		}
+
+	}
+
+	static class MutableClock extends Clock {
+
+		private Instant now = Instant.EPOCH;
+
+		void advance(Duration duration) {
+			this.now = this.now.plus(duration);
+		}
+
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return this.now;
+		}
+
+	}
+
+}
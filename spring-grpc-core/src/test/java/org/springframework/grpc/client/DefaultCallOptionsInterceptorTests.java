@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.Deadline;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+
+/**
+ * Tests for {@link DefaultCallOptionsInterceptor}.
+ */
+class DefaultCallOptionsInterceptorTests {
+
+	private final DefaultCallOptionsInterceptor interceptor = new DefaultCallOptionsInterceptor(
+			Map.of("*", new DefaultCallOptionsInterceptor.Defaults(Duration.ofSeconds(10), null, null, null),
+					"my.Service", new DefaultCallOptionsInterceptor.Defaults(Duration.ofSeconds(5), true, null, null),
+					"my.Service/Slow", new DefaultCallOptionsInterceptor.Defaults(null, null, 1024, "gzip")));
+
+	@Test
+	void mostSpecificPatternWinsForEachOption() {
+		CallOptions options = intercept("my.Service/Slow", CallOptions.DEFAULT);
+		// Inherited from the service
+		assertThat(options.getDeadline().timeRemaining(TimeUnit.SECONDS)).isBetween(3L, 5L);
+		assertThat(options.isWaitForReady()).isTrue();
+		assertThat(options.getMaxOutboundMessageSize()).isEqualTo(1024);
+		assertThat(options.getCompressor()).isEqualTo("gzip");
+		options = intercept("my.Service/Fast", CallOptions.DEFAULT);
+		assertThat(options.isWaitForReady()).isTrue();
+		assertThat(options.getDeadline().timeRemaining(TimeUnit.SECONDS)).isBetween(3L, 5L);
+		options = intercept("other.Service/Fast", CallOptions.DEFAULT);
+		assertThat(options.isWaitForReady()).isFalse();
+		assertThat(options.getDeadline().timeRemaining(TimeUnit.SECONDS)).isBetween(8L, 10L);
+	}
+
+	@Test
+	void existingDeadlineIsNotOverridden() {
+		Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+		CallOptions options = intercept("my.Service/Fast", CallOptions.DEFAULT.withDeadline(deadline));
+		assertThat(options.getDeadline()).isSameAs(deadline);
+	}
+
+	private CallOptions intercept(String name, CallOptions options) {
+		MethodDescriptor<Object, Object> method = MethodDescriptor.newBuilder(marshaller(), marshaller())
+			.setType(MethodType.UNARY)
+			.setFullMethodName(name)
+			.build();
+		Channel next = mock(Channel.class);
+		this.interceptor.interceptCall(method, options, next);
+		ArgumentCaptor<CallOptions> captor = ArgumentCaptor.forClass(CallOptions.class);
+		verify(next).newCall(any(), captor.capture());
+		return captor.getValue();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MethodDescriptor.Marshaller<Object> marshaller() {
+		return mock(MethodDescriptor.Marshaller.class);
+	}
+
+}
@@ -22,8 +22,11 @@ import static org.mockito.ArgumentMatchers.assertArg;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
@@ -31,9 +34,17 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
 import io.grpc.ClientInterceptor;
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.Marshaller;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status.Code;
 import io.grpc.netty.NettyChannelBuilder;
 
 /**
@@ -130,6 +141,158 @@ class GrpcChannelFactoryTests {
 
 	}
 
+	@Nested
+	class CreateChannelApiWithSharing {
+
+		@Test
+		void channelsWithSameTargetAndOptionsAreShared() {
+			var customizer = mock(GrpcChannelBuilderCustomizer.class);
+			var channelFactory = new DefaultGrpcChannelFactory(List.of(customizer), mock());
+			channelFactory.setVirtualTargets(path -> path);
+			channel = channelFactory.createChannel("localhost");
+			var other = channelFactory.createChannel("localhost");
+			assertThat(other).isNotSameAs(channel);
+			assertThat(((SharedManagedChannel) other).getDelegate())
+				.isSameAs(((SharedManagedChannel) channel).getDelegate());
+			verify(customizer, times(1)).customize(anyString(), any(ManagedChannelBuilder.class));
+		}
+
+		@Test
+		void channelsWithDifferentOptionsAreNotShared() {
+			var channelFactory = new DefaultGrpcChannelFactory(List.of(), mock());
+			channelFactory.setVirtualTargets(path -> path);
+			channel = channelFactory.createChannel("localhost");
+			var other = channelFactory.createChannel("localhost",
+					ChannelBuilderOptions.defaults().withInterceptors(List.of(mock(ClientInterceptor.class))));
+			assertThat(((SharedManagedChannel) other).getDelegate())
+				.isNotSameAs(((SharedManagedChannel) channel).getDelegate());
+			other.shutdownNow();
+		}
+
+		@Test
+		void sharedChannelIsShutdownWithLastLease() {
+			var channelFactory = new DefaultGrpcChannelFactory(List.of(), mock());
+			channelFactory.setVirtualTargets(path -> path);
+			channel = channelFactory.createChannel("localhost");
+			var other = channelFactory.createChannel("localhost");
+			var delegate = ((SharedManagedChannel) channel).getDelegate();
+			other.shutdown();
+			assertThat(other.isShutdown()).isTrue();
+			assertThat(delegate.isShutdown()).isFalse();
+			channel.shutdown();
+			assertThat(delegate.isShutdown()).isTrue();
+			var next = channelFactory.createChannel("localhost");
+			assertThat(((SharedManagedChannel) next).getDelegate()).isNotSameAs(delegate);
+			next.shutdownNow();
+		}
+
+	}
+
+	@Nested
+	class SuspendAndResume {
+
+		@Test
+		void leasedChannelsUseNewDelegateAfterResume() {
+			var customizer = mock(GrpcChannelBuilderCustomizer.class);
+			var channelFactory = new DefaultGrpcChannelFactory(List.of(customizer), mock());
+			channelFactory.setVirtualTargets(path -> path);
+			channel = channelFactory.createChannel("localhost");
+			var delegate = ((SharedManagedChannel) channel).getDelegate();
+			channelFactory.suspend();
+			assertThat(channelFactory.isSuspended()).isTrue();
+			assertThat(delegate.isShutdown()).isTrue();
+			channelFactory.resume();
+			assertThat(channelFactory.isSuspended()).isFalse();
+			assertThat(channel.isShutdown()).isFalse();
+			var resumed = ((SharedManagedChannel) channel).getDelegate();
+			assertThat(resumed).isNotSameAs(delegate);
+			assertThat(resumed.isShutdown()).isFalse();
+			verify(customizer, times(2)).customize(anyString(), any(ManagedChannelBuilder.class));
+		}
+
+		@Test
+		void channelsCreatedWhileSuspendedAreSharedAfterResume() {
+			var channelFactory = new DefaultGrpcChannelFactory(List.of(), mock());
+			channelFactory.setVirtualTargets(path -> path);
+			channel = channelFactory.createChannel("localhost");
+			channelFactory.suspend();
+			var other = channelFactory.createChannel("localhost");
+			channelFactory.resume();
+			assertThat(((SharedManagedChannel) other).getDelegate())
+				.isSameAs(((SharedManagedChannel) channel).getDelegate());
+			other.shutdown();
+		}
+
+		@Test
+		void newTargetsAreNotBuiltUntilResume() {
+			var customizer = mock(GrpcChannelBuilderCustomizer.class);
+			var channelFactory = new DefaultGrpcChannelFactory(List.of(customizer), mock());
+			channelFactory.setVirtualTargets(path -> path);
+			channelFactory.suspend();
+			channel = channelFactory.createChannel("localhost");
+			verify(customizer, never()).customize(anyString(), any(ManagedChannelBuilder.class));
+			assertThat(channel.isShutdown()).isTrue();
+			var placeholder = ((SharedManagedChannel) channel).getDelegate();
+			channelFactory.resume();
+			verify(customizer).customize(anyString(), any(ManagedChannelBuilder.class));
+			assertThat(((SharedManagedChannel) channel).getDelegate()).isNotSameAs(placeholder);
+			assertThat(channel.isShutdown()).isFalse();
+		}
+
+		@Test
+		@SuppressWarnings("unchecked")
+		void callsWhileSuspendedAreClosedOnCallExecutor() {
+			var channelFactory = new DefaultGrpcChannelFactory(List.of(), mock());
+			channelFactory.setVirtualTargets(path -> path);
+			channelFactory.suspend();
+			channel = channelFactory.createChannel("localhost");
+			List<Runnable> tasks = new ArrayList<>();
+			MethodDescriptor<Object, Object> method = MethodDescriptor
+				.newBuilder(mock(Marshaller.class), mock(Marshaller.class))
+				.setType(MethodType.UNARY)
+				.setFullMethodName("my.Service/Method")
+				.build();
+			ClientCall.Listener<Object> listener = mock();
+			channel.newCall(method, CallOptions.DEFAULT.withExecutor(tasks::add)).start(listener, new Metadata());
+			verify(listener, never()).onClose(any(), any());
+			assertThat(tasks).hasSize(1);
+			tasks.get(0).run();
+			verify(listener).onClose(assertArg((status) -> assertThat(status.getCode()).isEqualTo(Code.UNAVAILABLE)),
+					any());
+		}
+
+	}
+
+	@Nested
+	class CreateChannelApiWithMonitors {
+
+		@Test
+		void channelsForSameTargetShareMonitor() {
+			var listener = mock(ChannelMonitor.Listener.class);
+			DefaultGrpcChannelFactory<?> channelFactory = new DefaultGrpcChannelFactory(List.of(), mock());
+			channelFactory.setVirtualTargets(path -> path);
+			channelFactory.addChannelListener(listener);
+			channel = channelFactory.createChannel("localhost");
+			var other = channelFactory.createChannel("localhost",
+					ChannelBuilderOptions.defaults().withInterceptors(List.of(mock(ClientInterceptor.class))));
+			assertThat(channelFactory.getChannelMonitors()).singleElement().satisfies((monitor) -> {
+				assertThat(monitor.getTarget()).isEqualTo("localhost");
+				assertThat(monitor.getChannelCount(ConnectivityState.IDLE)).isEqualTo(2);
+				verify(listener).created(monitor);
+			});
+			other.shutdownNow();
+		}
+
+		@Test
+		void noMonitorsWithoutListeners() {
+			var channelFactory = new DefaultGrpcChannelFactory(List.of(), mock());
+			channelFactory.setVirtualTargets(path -> path);
+			channel = channelFactory.createChannel("localhost");
+			assertThat(channelFactory.getChannelMonitors()).isEmpty();
+		}
+
+	}
+
 	@Nested
 	class SpecificGrpcChannelFactoryTests {
 
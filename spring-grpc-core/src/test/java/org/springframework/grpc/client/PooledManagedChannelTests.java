@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * Tests for {@link PooledManagedChannel}.
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+class PooledManagedChannelTests {
+
+	private final List<List<ClientCall.Listener>> listeners = new ArrayList<>();
+
+	private final List<ManagedChannel> channels = List.of(mockChannel(), mockChannel(), mockChannel());
+
+	private final PooledManagedChannel pool = new PooledManagedChannel(this.channels);
+
+	@Test
+	void callsAreSpreadOverChannels() {
+		for (int i = 0; i < 3; i++) {
+			start();
+		}
+		for (ManagedChannel channel : this.channels) {
+			verify(channel).newCall(any(), any());
+		}
+	}
+
+	@Test
+	void channelWithFewestOutstandingCallsIsPreferred() {
+		for (int i = 0; i < 3; i++) {
+			start();
+		}
+		// Complete the call on the second channel so it has no outstanding calls
+		this.listeners.get(1).get(0).onClose(Status.OK, new Metadata());
+		start();
+		verify(this.channels.get(1), times(2)).newCall(any(), any());
+		assertThat(this.listeners.get(1)).hasSize(2);
+	}
+
+	@Test
+	void stateIsBestOfChannels() {
+		given(this.channels.get(0).getState(false)).willReturn(ConnectivityState.TRANSIENT_FAILURE);
+		given(this.channels.get(1).getState(false)).willReturn(ConnectivityState.READY);
+		given(this.channels.get(2).getState(false)).willReturn(ConnectivityState.IDLE);
+		assertThat(this.pool.getState(false)).isEqualTo(ConnectivityState.READY);
+	}
+
+	@Test
+	void shutdownAppliesToAllChannels() {
+		this.pool.shutdown();
+		for (ManagedChannel channel : this.channels) {
+			verify(channel).shutdown();
+		}
+	}
+
+	private void start() {
+		ClientCall call = this.pool.newCall(mock(MethodDescriptor.class), CallOptions.DEFAULT);
+		call.start(mock(ClientCall.Listener.class), new Metadata());
+	}
+
+	private ManagedChannel mockChannel() {
+		List<ClientCall.Listener> started = new ArrayList<>();
+		this.listeners.add(started);
+		ManagedChannel channel = mock(ManagedChannel.class);
+		ClientCall call = mock(ClientCall.class);
+		willAnswer((invocation) -> started.add(invocation.getArgument(0))).given(call).start(any(), any());
+		given(channel.newCall(any(), any())).willReturn(call);
+		return channel;
+	}
+
+}
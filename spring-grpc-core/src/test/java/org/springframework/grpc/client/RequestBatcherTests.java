@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Tests for {@link RequestBatcher}.
+ */
+class RequestBatcherTests {
+
+	private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+	private final RequestBatcher<String, Integer> batcher = new RequestBatcher<>((requests) -> {
+		this.batches.add(requests);
+		return CompletableFuture.completedFuture(requests.stream().map(String::length).toList());
+	});
+
+	@AfterEach
+	void close() {
+		this.batcher.close();
+	}
+
+	@Test
+	void batchIsSentWhenFull() throws Exception {
+		this.batcher.setMaxBatchSize(2);
+		this.batcher.setMaxDelay(Duration.ofMinutes(1));
+		CompletableFuture<Integer> foo = this.batcher.submit("foo");
+		CompletableFuture<Integer> ab = this.batcher.submit("ab");
+		assertThat(foo.get(1, TimeUnit.SECONDS)).isEqualTo(3);
+		assertThat(ab.get(1, TimeUnit.SECONDS)).isEqualTo(2);
+		assertThat(this.batches).containsExactly(List.of("foo", "ab"));
+	}
+
+	@Test
+	void partialBatchIsSentAfterDelay() throws Exception {
+		this.batcher.setMaxDelay(Duration.ofMillis(10));
+		CompletableFuture<Integer> foo = this.batcher.submit("foo");
+		assertThat(foo.get(1, TimeUnit.SECONDS)).isEqualTo(3);
+		assertThat(this.batches).containsExactly(List.of("foo"));
+	}
+
+	@Test
+	void failedBatchFailsAllRequests() {
+		RequestBatcher<String, Integer> failing = new RequestBatcher<>(
+				(requests) -> CompletableFuture.failedFuture(Status.UNAVAILABLE.asRuntimeException()));
+		failing.setMaxBatchSize(2);
+		CompletableFuture<Integer> foo = failing.submit("foo");
+		CompletableFuture<Integer> bar = failing.submit("bar");
+		assertThat(foo).failsWithin(Duration.ofSeconds(1)).withThrowableOfType(ExecutionException.class);
+		assertThat(bar).failsWithin(Duration.ofSeconds(1)).withThrowableOfType(ExecutionException.class);
+		failing.close();
+	}
+
+	@Test
+	void nullFutureFailsAllRequests() {
+		RequestBatcher<String, Integer> failing = new RequestBatcher<>((requests) -> null);
+		failing.setMaxBatchSize(2);
+		CompletableFuture<Integer> foo = failing.submit("foo");
+		CompletableFuture<Integer> bar = failing.submit("bar");
+		assertThat(foo).failsWithin(Duration.ofSeconds(1))
+			.withThrowableOfType(ExecutionException.class)
+			.withCauseInstanceOf(IllegalStateException.class);
+		assertThat(bar).failsWithin(Duration.ofSeconds(1)).withThrowableOfType(ExecutionException.class);
+		failing.close();
+	}
+
+	@Test
+	void nullResultsFailAllRequests() {
+		RequestBatcher<String, Integer> failing = new RequestBatcher<>(
+				(requests) -> CompletableFuture.completedFuture(null));
+		failing.setMaxBatchSize(2);
+		CompletableFuture<Integer> foo = failing.submit("foo");
+		CompletableFuture<Integer> bar = failing.submit("bar");
+		assertThat(foo).failsWithin(Duration.ofSeconds(1))
+			.withThrowableOfType(ExecutionException.class)
+			.withCauseInstanceOf(IllegalStateException.class);
+		assertThat(bar).failsWithin(Duration.ofSeconds(1)).withThrowableOfType(ExecutionException.class);
+		failing.close();
+	}
+
+	@Test
+	void clientStreamingSendsEachRequest() throws Exception {
+		List<String> received = new ArrayList<>();
+		RequestBatcher<String, Integer> streaming = new RequestBatcher<>(
+				RequestBatcher.<String, List<Integer>, Integer>clientStreaming((responses) -> new StreamObserver<>() {
+
+					@Override
+					public void onNext(String value) {
+						received.add(value);
+					}
+
+					@Override
+					public void onError(Throwable t) {
+					}
+
+					@Override
+					public void onCompleted() {
+						responses.onNext(received.stream().map(String::length).toList());
+						responses.onCompleted();
+					}
+
+				}, (response) -> response));
+		CompletableFuture<Integer> foo = streaming.submit("foo");
+		streaming.close();
+		assertThat(foo.get(1, TimeUnit.SECONDS)).isEqualTo(3);
+		assertThat(received).containsExactly("foo");
+	}
+
+}
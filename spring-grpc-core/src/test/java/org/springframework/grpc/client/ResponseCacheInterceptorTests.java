@@ -0,0 +1,357 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptors;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.MetadataUtils;
+
+/**
+ * Tests for {@link ResponseCacheInterceptor}.
+ */
+class ResponseCacheInterceptorTests {
+
+	private static final MethodDescriptor<String, String> METHOD = method("my.Service/Get");
+
+	private final CountingChannel server = new CountingChannel();
+
+	@Test
+	void repeatedRequestIsServedFromCache() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(
+				Map.of("my.Service", new ResponseCacheInterceptor.Policy(Duration.ofMinutes(1), 10)));
+		Channel channel = ClientInterceptors.intercept(this.server, interceptor);
+		assertThat(call(channel, METHOD, "foo")).isEqualTo("foo:1");
+		assertThat(call(channel, METHOD, "foo")).isEqualTo("foo:1");
+		assertThat(call(channel, METHOD, "bar")).isEqualTo("bar:2");
+		assertThat(this.server.calls).hasValue(2);
+	}
+
+	@Test
+	void otherMethodsAreNotCached() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(
+				Map.of("my.Service/Get", new ResponseCacheInterceptor.Policy(Duration.ofMinutes(1), 10)));
+		Channel channel = ClientInterceptors.intercept(this.server, interceptor);
+		MethodDescriptor<String, String> other = method("my.Service/Put");
+		call(channel, other, "foo");
+		call(channel, other, "foo");
+		assertThat(this.server.calls).hasValue(2);
+	}
+
+	@Test
+	void entriesExpire() {
+		MutableClock clock = new MutableClock();
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(
+				Map.of("*", new ResponseCacheInterceptor.Policy(Duration.ofSeconds(10), 10)));
+		interceptor.setClock(clock);
+		Channel channel = ClientInterceptors.intercept(this.server, interceptor);
+		call(channel, METHOD, "foo");
+		clock.advance(Duration.ofSeconds(5));
+		call(channel, METHOD, "foo");
+		assertThat(this.server.calls).hasValue(1);
+		clock.advance(Duration.ofSeconds(5));
+		assertThat(call(channel, METHOD, "foo")).isEqualTo("foo:2");
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(
+				Map.of("*", new ResponseCacheInterceptor.Policy(Duration.ofMinutes(1), 2)));
+		Channel channel = ClientInterceptors.intercept(this.server, interceptor);
+		call(channel, METHOD, "a");
+		call(channel, METHOD, "b");
+		call(channel, METHOD, "a");
+		call(channel, METHOD, "c");
+		assertThat(this.server.calls).hasValue(3);
+		call(channel, METHOD, "a");
+		assertThat(this.server.calls).hasValue(3);
+		call(channel, METHOD, "b");
+		assertThat(this.server.calls).hasValue(4);
+	}
+
+	@Test
+	void serverDirectivesOverrideDefaults() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(
+				Map.of("*", new ResponseCacheInterceptor.Policy(null, 10)));
+		Channel channel = ClientInterceptors.intercept(this.server, interceptor);
+		call(channel, METHOD, "foo");
+		call(channel, METHOD, "foo");
+		assertThat(this.server.calls).hasValue(2);
+		this.server.directives = "public, max-age=60";
+		call(channel, METHOD, "foo");
+		call(channel, METHOD, "foo");
+		assertThat(this.server.calls).hasValue(3);
+	}
+
+	@Test
+	void clientCanSkipLookup() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(
+				Map.of("*", new ResponseCacheInterceptor.Policy(Duration.ofMinutes(1), 10)));
+		Metadata headers = new Metadata();
+		headers.put(ResponseCacheInterceptor.CACHE_CONTROL, "no-cache");
+		Channel channel = ClientInterceptors.intercept(this.server, interceptor);
+		Channel noCache = ClientInterceptors.intercept(channel, MetadataUtils.newAttachHeadersInterceptor(headers));
+		call(channel, METHOD, "foo");
+		assertThat(call(noCache, METHOD, "foo")).isEqualTo("foo:2");
+		assertThat(call(channel, METHOD, "foo")).isEqualTo("foo:2");
+	}
+
+	@Test
+	void cachedResponseIsDeliveredWithCallExecutorWhenRequested() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(
+				Map.of("*", new ResponseCacheInterceptor.Policy(Duration.ofMinutes(1), 10)));
+		Channel channel = ClientInterceptors.intercept(this.server, interceptor);
+		call(channel, METHOD, "foo");
+		Queue<Runnable> tasks = new ArrayDeque<>();
+		ClientCall<String, String> call = channel.newCall(METHOD, CallOptions.DEFAULT.withExecutor(tasks::add));
+		List<String> events = new ArrayList<>();
+		call.start(new ClientCall.Listener<>() {
+			@Override
+			public void onMessage(String message) {
+				events.add(message);
+			}
+
+			@Override
+			public void onClose(Status status, Metadata trailers) {
+				events.add(status.getCode().name());
+			}
+		}, new Metadata());
+		call.sendMessage("foo");
+		call.halfClose();
+		assertThat(tasks).isEmpty();
+		call.request(1);
+		assertThat(events).isEmpty();
+		assertThat(tasks).hasSize(1);
+		tasks.remove().run();
+		assertThat(events).containsExactly("foo:1", "OK");
+		assertThat(this.server.calls).hasValue(1);
+	}
+
+	@Test
+	void cachedResponseHasOriginalHeadersAndTrailersAndIsDeliveredDirectlyWithoutExecutor() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(
+				Map.of("*", new ResponseCacheInterceptor.Policy(Duration.ofMinutes(1), 10)));
+		this.server.directives = "max-age=60";
+		Channel channel = ClientInterceptors.intercept(this.server, interceptor);
+		call(channel, METHOD, "foo");
+		ClientCall<String, String> call = channel.newCall(METHOD, CallOptions.DEFAULT);
+		List<String> events = new ArrayList<>();
+		call.start(new ClientCall.Listener<>() {
+			@Override
+			public void onHeaders(Metadata headers) {
+				events.add(headers.get(ResponseCacheInterceptor.CACHE_CONTROL));
+			}
+
+			@Override
+			public void onMessage(String message) {
+				events.add(message);
+			}
+
+			@Override
+			public void onClose(Status status, Metadata trailers) {
+				events.add(trailers.get(CountingChannel.COUNT));
+			}
+		}, new Metadata());
+		call.sendMessage("foo");
+		call.halfClose();
+		call.request(1);
+		assertThat(events).containsExactly("max-age=60", "foo:1", "1");
+	}
+
+	@Test
+	void callsWithCredentialsAreNotCached() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(
+				Map.of("*", new ResponseCacheInterceptor.Policy(Duration.ofMinutes(1), 10)));
+		Channel channel = ClientInterceptors.intercept(ClientInterceptors.intercept(this.server, interceptor),
+				MetadataUtils.newAttachHeadersInterceptor(authorization("alice")));
+		call(channel, METHOD, "foo");
+		assertThat(call(channel, METHOD, "foo")).isEqualTo("foo:2");
+	}
+
+	@Test
+	void varyHeadersArePartOfTheKey() {
+		ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(
+				Map.of("*", new ResponseCacheInterceptor.Policy(Duration.ofMinutes(1), 10, List.of("Authorization"))));
+		Channel channel = ClientInterceptors.intercept(this.server, interceptor);
+		Channel alice = ClientInterceptors.intercept(channel,
+				MetadataUtils.newAttachHeadersInterceptor(authorization("alice")));
+		Channel bob = ClientInterceptors.intercept(channel,
+				MetadataUtils.newAttachHeadersInterceptor(authorization("bob")));
+		assertThat(call(alice, METHOD, "foo")).isEqualTo("foo:1");
+		assertThat(call(bob, METHOD, "foo")).isEqualTo("foo:2");
+		assertThat(call(alice, METHOD, "foo")).isEqualTo("foo:1");
+		assertThat(call(bob, METHOD, "foo")).isEqualTo("foo:2");
+	}
+
+	@Test
+	void timeToLiveFromDirectives() {
+		Duration ttl = Duration.ofSeconds(30);
+		assertThat(ResponseCacheInterceptor.timeToLive(null, ttl)).isEqualTo(ttl);
+		assertThat(ResponseCacheInterceptor.timeToLive("max-age=5", ttl)).isEqualTo(Duration.ofSeconds(5));
+		assertThat(ResponseCacheInterceptor.timeToLive("no-store", ttl)).isNull();
+		assertThat(ResponseCacheInterceptor.timeToLive("max-age=0", ttl)).isNull();
+		assertThat(ResponseCacheInterceptor.timeToLive("max-age=oops", ttl)).isNull();
+	}
+
+	private static Metadata authorization(String user) {
+		Metadata headers = new Metadata();
+		headers.put(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER), "Bearer " + user);
+		return headers;
+	}
+
+	private static String call(Channel channel, MethodDescriptor<String, String> method, String request) {
+		return ClientCalls.blockingUnaryCall(channel, method, CallOptions.DEFAULT, request);
+	}
+
+	private static MethodDescriptor<String, String> method(String name) {
+		return MethodDescriptor.newBuilder(new StringMarshaller(), new StringMarshaller())
+			.setType(MethodType.UNARY)
+			.setFullMethodName(name)
+			.build();
+	}
+
+	static class CountingChannel extends Channel {
+
+		static final Metadata.Key<String> COUNT = Metadata.Key.of("x-count", Metadata.ASCII_STRING_MARSHALLER);
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private volatile String directives;
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method,
+				CallOptions callOptions) {
+			return (ClientCall<ReqT, RespT>) new ClientCall<String, String>() {
+
+				private Listener<String> listener;
+
+				private String request;
+
+				@Override
+				public void start(Listener<String> listener, Metadata headers) {
+					this.listener = listener;
+				}
+
+				@Override
+				public void request(int numMessages) {
+				}
+
+				@Override
+				public void sendMessage(String message) {
+					this.request = message;
+				}
+
+				@Override
+				public void halfClose() {
+					Metadata headers = new Metadata();
+					if (CountingChannel.this.directives != null) {
+						headers.put(ResponseCacheInterceptor.CACHE_CONTROL, CountingChannel.this.directives);
+					}
+					this.listener.onHeaders(headers);
+					int count = CountingChannel.this.calls.incrementAndGet();
+					this.listener.onMessage(this.request + ":" + count);
+					Metadata trailers = new Metadata();
+					trailers.put(COUNT, String.valueOf(count));
+					this.listener.onClose(Status.OK, trailers);
+				}
+
+				@Override
+				public void cancel(String message, Throwable cause) {
+				}
+
+			};
+		}
+
+		@Override
+		public String authority() {
+			return "localhost";
+		}
+
+	}
+
+	static class StringMarshaller implements MethodDescriptor.Marshaller<String> {
+
+		@Override
+		public InputStream stream(String value) {
+			return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String parse(InputStream stream) {
+			try {
+				return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+	}
+
+	static class MutableClock extends Clock {
+
+		private Instant now = Instant.EPOCH;
+
+		void advance(Duration duration) {
+			this.now = this.now.plus(duration);
+		}
+
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return this.now;
+		}
+
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.aot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.aot.test.generate.TestGenerationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.aot.ApplicationContextAotGenerator;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.test.tools.TestCompiler;
+import org.springframework.grpc.client.BlockingStubFactory;
+import org.springframework.grpc.client.GrpcClientRegistry;
+import org.springframework.grpc.client.GrpcClientRegistryCustomizer;
+import org.springframework.grpc.client.GrpcClientRegistryPostProcessor;
+import org.springframework.grpc.client.StubFunctions;
+import org.springframework.grpc.client.aot.FooGrpc.FooBlockingStub;
+import org.springframework.javapoet.ClassName;
+
+import io.grpc.ManagedChannel;
+
+/**
+ * Tests for {@link ClientBeanRegistrationsAotProcessor}.
+ */
+class ClientBeanRegistrationsAotProcessorTests {
+
+	@Test
+	void generatesStubFunctions() {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean(GrpcClientRegistryPostProcessor.class);
+		context.registerBean(TestCustomizer.class);
+		TestGenerationContext generationContext = new TestGenerationContext();
+		ClassName className = new ApplicationContextAotGenerator().processAheadOfTime(context, generationContext);
+		generationContext.writeGeneratedContent();
+		assertThat(RuntimeHintsPredicates.reflection().onType(FooGrpc.class))
+			.rejects(generationContext.getRuntimeHints());
+		TestCompiler.forSystem().with(generationContext).compile((compiled) -> {
+			assertThat(compiled.getSourceFiles().stream().map((file) -> file.getContent()))
+				.anyMatch((content) -> content.contains("FooGrpc::newBlockingStub"));
+			GenericApplicationContext fresh = new GenericApplicationContext();
+			@SuppressWarnings("unchecked")
+			ApplicationContextInitializer<GenericApplicationContext> initializer = compiled
+				.getInstance(ApplicationContextInitializer.class, className.toString());
+			initializer.initialize(fresh);
+			fresh.refresh();
+			assertThat(fresh.getBean(StubFunctions.BEAN_NAME, StubFunctions.class).get(FooBlockingStub.class))
+				.isNotNull();
+			assertThat(fresh.getBean(FooBlockingStub.class)).isNotNull();
+			fresh.close();
+		});
+	}
+
+	@Test
+	void keepsReflectionForCustomStubFactory() {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean(GrpcClientRegistryPostProcessor.class);
+		context.registerBean(CustomFactoryCustomizer.class);
+		TestGenerationContext generationContext = new TestGenerationContext();
+		ClassName className = new ApplicationContextAotGenerator().processAheadOfTime(context, generationContext);
+		generationContext.writeGeneratedContent();
+		assertThat(RuntimeHintsPredicates.reflection().onType(FooGrpc.class))
+			.accepts(generationContext.getRuntimeHints());
+		TestCompiler.forSystem().with(generationContext).compile((compiled) -> {
+			GenericApplicationContext fresh = new GenericApplicationContext();
+			@SuppressWarnings("unchecked")
+			ApplicationContextInitializer<GenericApplicationContext> initializer = compiled
+				.getInstance(ApplicationContextInitializer.class, className.toString());
+			initializer.initialize(fresh);
+			fresh.refresh();
+			assertThat(fresh.containsBean(StubFunctions.BEAN_NAME)).isFalse();
+			assertThat(fresh.getBean(FooBlockingStub.class).getCallOptions().getCompressor()).isEqualTo("gzip");
+			fresh.close();
+		});
+	}
+
+	public static class TestCustomizer implements GrpcClientRegistryCustomizer {
+
+		@Override
+		public void customize(GrpcClientRegistry registry) {
+			registry.channel(() -> mock(ManagedChannel.class)).register(FooBlockingStub.class);
+		}
+
+	}
+
+	public static class CustomFactoryCustomizer implements GrpcClientRegistryCustomizer {
+
+		@Override
+		public void customize(GrpcClientRegistry registry) {
+			registry.stubs(new CompressedStubFactory())
+				.channel(() -> mock(ManagedChannel.class))
+				.scan(CompressedStubFactory.class)
+				.register(FooBlockingStub.class);
+		}
+
+	}
+
+	public static class CompressedStubFactory extends BlockingStubFactory {
+
+		@Override
+		protected String methodName() {
+			return "newCompressedStub";
+		}
+
+	}
+
+}
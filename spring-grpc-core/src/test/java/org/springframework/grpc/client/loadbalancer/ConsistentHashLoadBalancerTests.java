@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.grpc.client.loadbalancer.ConsistentHashLoadBalancerProvider.Algorithm;
+import org.springframework.grpc.client.loadbalancer.ConsistentHashLoadBalancerProvider.Config;
+
+import io.grpc.ConnectivityState;
+import io.grpc.ConnectivityStateInfo;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer.CreateSubchannelArgs;
+import io.grpc.LoadBalancer.Helper;
+import io.grpc.LoadBalancer.PickSubchannelArgs;
+import io.grpc.LoadBalancer.ResolvedAddresses;
+import io.grpc.LoadBalancer.Subchannel;
+import io.grpc.LoadBalancer.SubchannelPicker;
+import io.grpc.LoadBalancer.SubchannelStateListener;
+import io.grpc.LoadBalancerRegistry;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+/**
+ * Tests for {@link ConsistentHashLoadBalancer}.
+ */
+class ConsistentHashLoadBalancerTests {
+
+	private static final Metadata.Key<String> KEY = Metadata.Key.of("x-key", Metadata.ASCII_STRING_MARSHALLER);
+
+	private final Helper helper = mock(Helper.class);
+
+	private final Map<String, Subchannel> subchannels = new HashMap<>();
+
+	private final Map<Subchannel, SubchannelStateListener> listeners = new HashMap<>();
+
+	@Test
+	void providerIsRegistered() {
+		ConsistentHashLoadBalancerProvider provider = (ConsistentHashLoadBalancerProvider) LoadBalancerRegistry
+			.getDefaultRegistry()
+			.getProvider("consistent_hash");
+		assertThat(provider.parseLoadBalancingPolicyConfig(Map.of("hashHeader", "x-key", "algorithm", "maglev"))
+			.getConfig()).isEqualTo(new Config(KEY, Algorithm.MAGLEV, 1024, 65537));
+		assertThat(provider.parseLoadBalancingPolicyConfig(Map.of()).getError()).isNotNull();
+		assertThat(
+				provider.parseLoadBalancingPolicyConfig(Map.of("hashHeader", "x-key", "tableSize", 1000.0)).getError())
+			.isNotNull();
+	}
+
+	@Test
+	void ringHashMovesOnlyKeysOfRemovedHost() {
+		assertMinimalDisruption(HashRing.ringHash(hosts(5), 1024), HashRing.ringHash(hosts(4), 1024), 1.0);
+	}
+
+	@Test
+	void maglevMovesFewKeysOfOtherHosts() {
+		assertMinimalDisruption(HashRing.maglev(hosts(5), 65537), HashRing.maglev(hosts(4), 65537), 0.95);
+	}
+
+	@Test
+	void maglevSpreadsKeysEvenly() {
+		HashRing table = HashRing.maglev(hosts(5), 65537);
+		int[] counts = new int[5];
+		for (int i = 0; i < table.size(); i++) {
+			counts[table.host(i)]++;
+		}
+		for (int count : counts) {
+			assertThat(count).isBetween(13000, 13300);
+		}
+	}
+
+	@Test
+	void sameKeyGoesToSameBackend() {
+		start(Algorithm.RING_HASH, "10.0.0.1", "10.0.0.2", "10.0.0.3");
+		ready("10.0.0.1", "10.0.0.2", "10.0.0.3");
+		SubchannelPicker picker = lastPicker(ConnectivityState.READY);
+		Map<String, Subchannel> picks = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			picks.put("key" + i, pick(picker, "key" + i));
+		}
+		assertThat(picks.values()).containsAll(this.subchannels.values());
+		for (int i = 0; i < 100; i++) {
+			assertThat(pick(picker, "key" + i)).isSameAs(picks.get("key" + i));
+		}
+	}
+
+	@Test
+	void skipsBackendsThatAreNotReady() {
+		start(Algorithm.MAGLEV, "10.0.0.1", "10.0.0.2", "10.0.0.3");
+		ready("10.0.0.1", "10.0.0.2", "10.0.0.3");
+		SubchannelPicker picker = lastPicker(ConnectivityState.READY);
+		Subchannel first = pick(picker, "key");
+		this.listeners.get(first).onSubchannelState(ConnectivityStateInfo.forTransientFailure(Status.UNAVAILABLE));
+		picker = lastPicker(ConnectivityState.READY);
+		Subchannel second = pick(picker, "key");
+		assertThat(second).isNotSameAs(first);
+		this.listeners.get(first).onSubchannelState(ConnectivityStateInfo.forNonError(ConnectivityState.READY));
+		assertThat(pick(lastPicker(ConnectivityState.READY), "key")).isSameAs(first);
+	}
+
+	@Test
+	void failsWhenAllBackendsFail() {
+		start(Algorithm.RING_HASH, "10.0.0.1");
+		this.listeners.get(this.subchannels.get("10.0.0.1"))
+			.onSubchannelState(ConnectivityStateInfo.forTransientFailure(Status.UNAVAILABLE));
+		SubchannelPicker picker = lastPicker(ConnectivityState.TRANSIENT_FAILURE);
+		PickSubchannelArgs args = mock(PickSubchannelArgs.class);
+		when(args.getHeaders()).thenReturn(new Metadata());
+		assertThat(picker.pickSubchannel(args).getStatus().getCode()).isEqualTo(Status.Code.UNAVAILABLE);
+	}
+
+	private void assertMinimalDisruption(HashRing before, HashRing after, double expected) {
+		int stayed = 0;
+		int total = 0;
+		for (int i = 0; i < 10000; i++) {
+			long hash = HashRing.hash("key" + i);
+			int host = before.host(before.position(hash));
+			if (host < 4) {
+				total++;
+				if (after.host(after.position(hash)) == host) {
+					stayed++;
+				}
+			}
+		}
+		assertThat((double) stayed / total).isGreaterThanOrEqualTo(expected);
+	}
+
+	private static List<String> hosts(int count) {
+		List<String> hosts = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			hosts.add("10.0.0." + i + ":9090");
+		}
+		return hosts;
+	}
+
+	private SubchannelPicker start(Algorithm algorithm, String... hosts) {
+		when(this.helper.createSubchannel(any(CreateSubchannelArgs.class))).thenAnswer((invocation) -> {
+			CreateSubchannelArgs args = invocation.getArgument(0);
+			InetSocketAddress address = (InetSocketAddress) args.getAddresses().get(0).getAddresses().get(0);
+			Subchannel subchannel = mock(Subchannel.class);
+			this.subchannels.put(address.getHostString(), subchannel);
+			doAnswer((start) -> this.listeners.put(subchannel, start.getArgument(0))).when(subchannel).start(any());
+			return subchannel;
+		});
+		List<EquivalentAddressGroup> addresses = new ArrayList<>();
+		for (String host : hosts) {
+			addresses.add(new EquivalentAddressGroup(new InetSocketAddress(host, 9090)));
+		}
+		ConsistentHashLoadBalancer balancer = new ConsistentHashLoadBalancer(this.helper);
+		Status status = balancer.acceptResolvedAddresses(ResolvedAddresses.newBuilder()
+			.setAddresses(addresses)
+			.setLoadBalancingPolicyConfig(new Config(KEY, algorithm, 1024, 65537))
+			.build());
+		assertThat(status.isOk()).isTrue();
+		return lastPicker(ConnectivityState.CONNECTING);
+	}
+
+	private void ready(String... hosts) {
+		for (String host : hosts) {
+			this.listeners.get(this.subchannels.get(host))
+				.onSubchannelState(ConnectivityStateInfo.forNonError(ConnectivityState.READY));
+		}
+	}
+
+	private SubchannelPicker lastPicker(ConnectivityState state) {
+		ArgumentCaptor<SubchannelPicker> captor = ArgumentCaptor.forClass(SubchannelPicker.class);
+		verify(this.helper, atLeastOnce()).updateBalancingState(eq(state), captor.capture());
+		return captor.getValue();
+	}
+
+	private static Subchannel pick(SubchannelPicker picker, String key) {
+		Metadata headers = new Metadata();
+		headers.put(KEY, key);
+		PickSubchannelArgs args = mock(PickSubchannelArgs.class);
+		when(args.getHeaders()).thenReturn(headers);
+		return picker.pickSubchannel(args).getSubchannel();
+	}
+
+}
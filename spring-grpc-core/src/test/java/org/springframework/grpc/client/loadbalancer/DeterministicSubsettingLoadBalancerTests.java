@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.grpc.client.loadbalancer.DeterministicSubsettingLoadBalancerProvider.Config;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancer.Helper;
+import io.grpc.LoadBalancer.ResolvedAddresses;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.LoadBalancerRegistry;
+import io.grpc.Status;
+
+/**
+ * Tests for {@link DeterministicSubsettingLoadBalancer}.
+ */
+class DeterministicSubsettingLoadBalancerTests {
+
+	@Test
+	void providerIsRegistered() {
+		LoadBalancerProvider provider = LoadBalancerRegistry.getDefaultRegistry()
+			.getProvider("deterministic_subsetting");
+		Config config = (Config) provider.parseLoadBalancingPolicyConfig(Map.of("subsetSize", 10.0, "clientIndex", 3.0))
+			.getConfig();
+		assertThat(config.subsetSize()).isEqualTo(10);
+		assertThat(config.clientIndex()).isEqualTo(3);
+		assertThat(config.childPolicy().provider().getPolicyName()).isEqualTo("round_robin");
+		config = (Config) provider
+			.parseLoadBalancingPolicyConfig(Map.of("subsetSize", 10.0, "childPolicy",
+					List.of(Map.of("unknown", Map.of()), Map.of("least_request", Map.of("choiceCount", 3.0)))))
+			.getConfig();
+		assertThat(config.clientIndex()).isNotNegative();
+		assertThat(config.childPolicy().config()).isEqualTo(new LeastRequestLoadBalancerProvider.Config(3));
+		assertThat(provider.parseLoadBalancingPolicyConfig(Map.of()).getError()).isNotNull();
+	}
+
+	@Test
+	void subsetsAreStableAndBalanced() {
+		List<EquivalentAddressGroup> addresses = addresses(40);
+		List<EquivalentAddressGroup> reversed = new ArrayList<>(addresses);
+		Collections.reverse(reversed);
+		Map<EquivalentAddressGroup, Integer> connections = new HashMap<>();
+		for (int client = 0; client < 40; client++) {
+			List<EquivalentAddressGroup> subset = DeterministicSubsettingLoadBalancer.subset(addresses, 10, client);
+			assertThat(subset).hasSize(10).doesNotHaveDuplicates();
+			// The order of the resolved addresses does not matter
+			assertThat(DeterministicSubsettingLoadBalancer.subset(reversed, 10, client)).isEqualTo(subset);
+			subset.forEach((address) -> connections.merge(address, 1, Integer::sum));
+		}
+		assertThat(connections).hasSize(40);
+		assertThat(connections.values()).containsOnly(10);
+	}
+
+	@Test
+	void countsDuplicateAddressesOnce() {
+		List<EquivalentAddressGroup> addresses = new ArrayList<>(addresses(15));
+		addresses.addAll(addresses(5));
+		for (int client = 0; client < 10; client++) {
+			assertThat(DeterministicSubsettingLoadBalancer.subset(addresses, 10, client)).hasSize(10)
+				.doesNotHaveDuplicates();
+		}
+	}
+
+	@Test
+	void usesAllAddressesIfFewerThanSubsetSize() {
+		List<EquivalentAddressGroup> addresses = addresses(5);
+		assertThat(DeterministicSubsettingLoadBalancer.subset(addresses, 10, 7)).isEqualTo(addresses);
+	}
+
+	@Test
+	void passesSubsetToChild() {
+		LoadBalancer child = mock(LoadBalancer.class);
+		when(child.acceptResolvedAddresses(any())).thenReturn(Status.OK);
+		LoadBalancerProvider childProvider = mock(LoadBalancerProvider.class);
+		when(childProvider.newLoadBalancer(any())).thenReturn(child);
+		DeterministicSubsettingLoadBalancer balancer = new DeterministicSubsettingLoadBalancer(mock(Helper.class));
+		Status status = balancer.acceptResolvedAddresses(ResolvedAddresses.newBuilder()
+			.setAddresses(addresses(20))
+			.setLoadBalancingPolicyConfig(new Config(5, 2, new ChildPolicy(childProvider, "child")))
+			.build());
+		assertThat(status.isOk()).isTrue();
+		ArgumentCaptor<ResolvedAddresses> captor = ArgumentCaptor.forClass(ResolvedAddresses.class);
+		verify(child).acceptResolvedAddresses(captor.capture());
+		assertThat(captor.getValue().getAddresses()).hasSize(5);
+		assertThat(captor.getValue().getLoadBalancingPolicyConfig()).isEqualTo("child");
+		balancer.shutdown();
+		verify(child).shutdown();
+	}
+
+	private static List<EquivalentAddressGroup> addresses(int count) {
+		List<EquivalentAddressGroup> addresses = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			addresses.add(new EquivalentAddressGroup(new InetSocketAddress("10.0.0." + i, 9090)));
+		}
+		return addresses;
+	}
+
+}
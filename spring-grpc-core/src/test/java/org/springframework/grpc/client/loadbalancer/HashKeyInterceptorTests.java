@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+
+/**
+ * Tests for {@link HashKeyInterceptor}.
+ */
+class HashKeyInterceptorTests {
+
+	private static final Metadata.Key<String> KEY = Metadata.Key.of("x-key", Metadata.ASCII_STRING_MARSHALLER);
+
+	private final List<String> events = new ArrayList<>();
+
+	private final MethodDescriptor<String, String> method = method("Get");
+
+	private final HashKeyInterceptor interceptor = new HashKeyInterceptor("x-key").addExtractor(this.method,
+			(request) -> request.split(":")[0]);
+
+	@Test
+	void startsCallWithKeyFromRequest() {
+		ClientCall<String, String> call = this.interceptor.interceptCall(this.method, CallOptions.DEFAULT,
+				new RecordingChannel());
+		call.start(new ClientCall.Listener<>() {
+		}, new Metadata());
+		call.request(2);
+		assertThat(this.events).isEmpty();
+		call.sendMessage("foo:bar");
+		call.halfClose();
+		assertThat(this.events).containsExactly("start:foo", "request:2", "send:foo:bar", "halfClose");
+	}
+
+	@Test
+	void keepsExistingHeader() {
+		ClientCall<String, String> call = this.interceptor.interceptCall(this.method, CallOptions.DEFAULT,
+				new RecordingChannel());
+		Metadata headers = new Metadata();
+		headers.put(KEY, "spam");
+		call.start(new ClientCall.Listener<>() {
+		}, headers);
+		call.sendMessage("foo:bar");
+		assertThat(this.events).containsExactly("start:spam", "send:foo:bar");
+	}
+
+	@Test
+	void otherMethodsAreNotDeferred() {
+		MethodDescriptor<String, String> other = method("Put");
+		ClientCall<String, String> call = this.interceptor.interceptCall(other, CallOptions.DEFAULT,
+				new RecordingChannel());
+		call.start(new ClientCall.Listener<>() {
+		}, new Metadata());
+		assertThat(this.events).containsExactly("start:null");
+	}
+
+	@Test
+	void cancelStartsCall() {
+		ClientCall<String, String> call = this.interceptor.interceptCall(this.method, CallOptions.DEFAULT,
+				new RecordingChannel());
+		call.start(new ClientCall.Listener<>() {
+		}, new Metadata());
+		call.cancel("No thanks", null);
+		assertThat(this.events).containsExactly("start:null", "cancel");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MethodDescriptor<String, String> method(String name) {
+		return MethodDescriptor.<String, String>newBuilder()
+			.setRequestMarshaller(mock(MethodDescriptor.Marshaller.class))
+			.setResponseMarshaller(mock(MethodDescriptor.Marshaller.class))
+			.setType(MethodType.UNARY)
+			.setFullMethodName("my.Service/" + name)
+			.build();
+	}
+
+	class RecordingChannel extends Channel {
+
+		@Override
+		public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method,
+				CallOptions callOptions) {
+			return new ClientCall<>() {
+
+				@Override
+				public void start(Listener<RespT> listener, Metadata headers) {
+					HashKeyInterceptorTests.this.events.add("start:" + headers.get(KEY));
+				}
+
+				@Override
+				public void request(int numMessages) {
+					HashKeyInterceptorTests.this.events.add("request:" + numMessages);
+				}
+
+				@Override
+				public void cancel(String message, Throwable cause) {
+					HashKeyInterceptorTests.this.events.add("cancel");
+				}
+
+				@Override
+				public void halfClose() {
+					HashKeyInterceptorTests.this.events.add("halfClose");
+				}
+
+				@Override
+				public void sendMessage(ReqT message) {
+					HashKeyInterceptorTests.this.events.add("send:" + message);
+				}
+
+			};
+		}
+
+		@Override
+		public String authority() {
+			return "localhost";
+		}
+
+	}
+
+}
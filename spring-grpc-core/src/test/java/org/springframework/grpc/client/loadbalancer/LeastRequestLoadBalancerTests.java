@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.grpc.client.loadbalancer.LeastRequestLoadBalancer.CountingSubchannel;
+import org.springframework.grpc.client.loadbalancer.LeastRequestLoadBalancer.LeastRequestPicker;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientStreamTracer;
+import io.grpc.ConnectivityState;
+import io.grpc.ConnectivityStateInfo;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer.CreateSubchannelArgs;
+import io.grpc.LoadBalancer.Helper;
+import io.grpc.LoadBalancer.PickResult;
+import io.grpc.LoadBalancer.PickSubchannelArgs;
+import io.grpc.LoadBalancer.ResolvedAddresses;
+import io.grpc.LoadBalancer.Subchannel;
+import io.grpc.LoadBalancer.SubchannelPicker;
+import io.grpc.LoadBalancer.SubchannelStateListener;
+import io.grpc.LoadBalancerRegistry;
+import io.grpc.Metadata;
+import io.grpc.NameResolver.ConfigOrError;
+import io.grpc.Status;
+
+/**
+ * Tests for {@link LeastRequestLoadBalancer}.
+ */
+class LeastRequestLoadBalancerTests {
+
+	private final PickSubchannelArgs args = mock(PickSubchannelArgs.class);
+
+	@Test
+	void providerIsRegistered() {
+		assertThat(LoadBalancerRegistry.getDefaultRegistry().getProvider("least_request"))
+			.isInstanceOf(LeastRequestLoadBalancerProvider.class);
+	}
+
+	@Test
+	void parsesChoiceCount() {
+		LeastRequestLoadBalancerProvider provider = new LeastRequestLoadBalancerProvider();
+		assertThat(provider.parseLoadBalancingPolicyConfig(Map.of()).getConfig())
+			.isEqualTo(new LeastRequestLoadBalancerProvider.Config(2));
+		assertThat(provider.parseLoadBalancingPolicyConfig(Map.of("choiceCount", 3.0)).getConfig())
+			.isEqualTo(new LeastRequestLoadBalancerProvider.Config(3));
+		assertThat(provider.parseLoadBalancingPolicyConfig(Map.of("choiceCount", 100.0)).getConfig())
+			.isEqualTo(new LeastRequestLoadBalancerProvider.Config(10));
+		ConfigOrError error = provider.parseLoadBalancingPolicyConfig(Map.of("choiceCount", 1.0));
+		assertThat(error.getError().getCode()).isEqualTo(Status.Code.UNAVAILABLE);
+	}
+
+	@Test
+	void picksLeastLoadedCandidate() {
+		CountingSubchannel first = new CountingSubchannel(mock(Subchannel.class));
+		CountingSubchannel second = new CountingSubchannel(mock(Subchannel.class));
+		SubchannelPicker picker = new LeastRequestPicker(List.of(first, second), 2);
+		PickResult result = picker.pickSubchannel(this.args);
+		start(result);
+		CountingSubchannel busy = (CountingSubchannel) result.getSubchannel();
+		CountingSubchannel idle = (busy == first) ? second : first;
+		assertThat(busy.getActiveRequests()).isEqualTo(1);
+		// All the candidates are compared when there are no more than choiceCount
+		for (int i = 0; i < 4; i++) {
+			assertThat(picker.pickSubchannel(this.args).getSubchannel()).isSameAs(idle);
+		}
+	}
+
+	@Test
+	void weightScalesCallsInProgress() {
+		CountingSubchannel light = new CountingSubchannel(mock(Subchannel.class), 1);
+		CountingSubchannel heavy = new CountingSubchannel(mock(Subchannel.class), 3);
+		SubchannelPicker picker = new LeastRequestPicker(List.of(light, heavy), 2);
+		for (int i = 0; i < 8; i++) {
+			start(picker.pickSubchannel(this.args));
+		}
+		assertThat(heavy.getActiveRequests()).isEqualTo(6);
+		assertThat(light.getActiveRequests()).isEqualTo(2);
+	}
+
+	@Test
+	void countsActiveStreams() {
+		CountingSubchannel subchannel = new CountingSubchannel(mock(Subchannel.class));
+		SubchannelPicker picker = new LeastRequestPicker(List.of(subchannel), 2);
+		ClientStreamTracer first = start(picker.pickSubchannel(this.args));
+		ClientStreamTracer second = start(picker.pickSubchannel(this.args));
+		assertThat(subchannel.getActiveRequests()).isEqualTo(2);
+		first.streamClosed(Status.OK);
+		second.streamClosed(Status.CANCELLED);
+		assertThat(subchannel.getActiveRequests()).isZero();
+	}
+
+	@Test
+	void picksRandomCandidates() {
+		List<CountingSubchannel> subchannels = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			subchannels.add(new CountingSubchannel(mock(Subchannel.class)));
+		}
+		SubchannelPicker picker = new LeastRequestPicker(subchannels, 2);
+		Set<Subchannel> picked = new HashSet<>();
+		for (int i = 0; i < 200; i++) {
+			picked.add(picker.pickSubchannel(this.args).getSubchannel());
+		}
+		assertThat(picked).containsExactlyInAnyOrderElementsOf(subchannels);
+	}
+
+	@Test
+	void picksOnlyReadySubchannels() {
+		Helper helper = mock(Helper.class);
+		Map<EquivalentAddressGroup, SubchannelStateListener> listeners = new LinkedHashMap<>();
+		when(helper.createSubchannel(any())).thenAnswer((invocation) -> {
+			CreateSubchannelArgs args = invocation.getArgument(0);
+			Subchannel subchannel = mock(Subchannel.class);
+			when(subchannel.getAddresses()).thenReturn(args.getAddresses().get(0));
+			when(subchannel.getAllAddresses()).thenReturn(args.getAddresses());
+			when(subchannel.getAttributes()).thenReturn(args.getAttributes());
+			doAnswer((start) -> listeners.put(args.getAddresses().get(0), start.getArgument(0))).when(subchannel)
+				.start(any());
+			return subchannel;
+		});
+		LeastRequestLoadBalancer balancer = new LeastRequestLoadBalancer(helper);
+		List<EquivalentAddressGroup> addresses = List.of(address(9091), address(9092), address(9093));
+		balancer.acceptResolvedAddresses(ResolvedAddresses.newBuilder()
+			.setAddresses(addresses)
+			.setLoadBalancingPolicyConfig(new LeastRequestLoadBalancerProvider.Config(2))
+			.build());
+		listeners.get(addresses.get(0)).onSubchannelState(ConnectivityStateInfo.forNonError(ConnectivityState.READY));
+		listeners.get(addresses.get(2)).onSubchannelState(ConnectivityStateInfo.forNonError(ConnectivityState.READY));
+		ArgumentCaptor<SubchannelPicker> picker = ArgumentCaptor.forClass(SubchannelPicker.class);
+		verify(helper, atLeastOnce()).updateBalancingState(eq(ConnectivityState.READY), picker.capture());
+		Set<EquivalentAddressGroup> picked = new HashSet<>();
+		for (int i = 0; i < 100; i++) {
+			picked.add(picker.getValue().pickSubchannel(this.args).getSubchannel().getAddresses());
+		}
+		assertThat(picked).containsExactlyInAnyOrder(addresses.get(0), addresses.get(2));
+	}
+
+	private static EquivalentAddressGroup address(int port) {
+		return new EquivalentAddressGroup(new InetSocketAddress("localhost", port));
+	}
+
+	private static ClientStreamTracer start(PickResult result) {
+		return result.getStreamTracerFactory()
+			.newClientStreamTracer(
+					ClientStreamTracer.StreamInfo.newBuilder().setCallOptions(CallOptions.DEFAULT).build(),
+					new Metadata());
+	}
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.grpc.client.loadbalancer.ZoneAwareLoadBalancerProvider.Config;
+import org.springframework.grpc.client.nameresolver.EndpointNameResolverProvider;
+
+import io.grpc.Attributes;
+import io.grpc.ClientStreamTracer;
+import io.grpc.ConnectivityState;
+import io.grpc.ConnectivityStateInfo;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer.CreateSubchannelArgs;
+import io.grpc.LoadBalancer.Helper;
+import io.grpc.LoadBalancer.PickResult;
+import io.grpc.LoadBalancer.PickSubchannelArgs;
+import io.grpc.LoadBalancer.ResolvedAddresses;
+import io.grpc.LoadBalancer.Subchannel;
+import io.grpc.LoadBalancer.SubchannelPicker;
+import io.grpc.LoadBalancer.SubchannelStateListener;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.LoadBalancerRegistry;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.SynchronizationContext;
+
+/**
+ * Tests for {@link ZoneAwareLoadBalancer}.
+ */
+class ZoneAwareLoadBalancerTests {
+
+	private final Helper helper = mock(Helper.class);
+
+	private final Map<String, Subchannel> subchannels = new HashMap<>();
+
+	private final Map<String, SubchannelStateListener> listeners = new HashMap<>();
+
+	@Test
+	void providerIsRegistered() {
+		LoadBalancerProvider provider = LoadBalancerRegistry.getDefaultRegistry().getProvider("zone_aware");
+		Config config = (Config) provider.parseLoadBalancingPolicyConfig(Map.of("localZone", "a")).getConfig();
+		assertThat(config.localZone()).isEqualTo("a");
+		assertThat(config.minHealthyPercent()).isEqualTo(70);
+		assertThat(config.maxRequestsPerBackend()).isZero();
+		assertThat(config.childPolicy().provider().getPolicyName()).isEqualTo("round_robin");
+		assertThat(provider.parseLoadBalancingPolicyConfig(Map.of()).getError()).isNotNull();
+		assertThat(provider.parseLoadBalancingPolicyConfig(Map.of("localZone", "a", "minHealthyPercent", 120.0))
+			.getError()).isNotNull();
+	}
+
+	@Test
+	void prefersLocalZone() {
+		start(new Config("a", 70, 0, roundRobin()), "10.0.0.1:a", "10.0.0.2:a", "10.0.1.1:b", "10.0.2.1");
+		ready("10.0.0.1", "10.0.0.2", "10.0.1.1", "10.0.2.1");
+		SubchannelPicker picker = lastPicker();
+		for (int i = 0; i < 100; i++) {
+			assertThat(host(picker)).startsWith("10.0.0.");
+		}
+	}
+
+	@Test
+	void spillsOverInProportionWhenLocalIsUnhealthy() {
+		start(new Config("a", 70, 0, roundRobin()), "10.0.0.1:a", "10.0.0.2:a", "10.0.1.1:b");
+		ready("10.0.0.1", "10.0.0.2", "10.0.1.1");
+		this.listeners.get("10.0.0.2").onSubchannelState(ConnectivityStateInfo.forTransientFailure(Status.UNAVAILABLE));
+		SubchannelPicker picker = lastPicker();
+		int remote = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (host(picker).equals("10.0.1.1")) {
+				remote++;
+			}
+		}
+		// 50% healthy is 5/7 of the threshold so about 2/7 of the calls go elsewhere
+		assertThat(remote).isBetween(200, 380);
+		this.listeners.get("10.0.0.1").onSubchannelState(ConnectivityStateInfo.forTransientFailure(Status.UNAVAILABLE));
+		picker = lastPicker();
+		for (int i = 0; i < 100; i++) {
+			assertThat(host(picker)).isEqualTo("10.0.1.1");
+		}
+	}
+
+	@Test
+	void spillsOverWhenLocalIsBusy() {
+		start(new Config("a", 70, 1, roundRobin()), "10.0.0.1:a", "10.0.1.1:b");
+		ready("10.0.0.1", "10.0.1.1");
+		SubchannelPicker picker = lastPicker();
+		PickResult result = picker.pickSubchannel(mock(PickSubchannelArgs.class));
+		assertThat(address(result)).isEqualTo("10.0.0.1");
+		ClientStreamTracer tracer = result.getStreamTracerFactory()
+			.newClientStreamTracer(ClientStreamTracer.StreamInfo.newBuilder().build(), new Metadata());
+		assertThat(host(picker)).isEqualTo("10.0.1.1");
+		tracer.streamClosed(Status.OK);
+		assertThat(host(picker)).isEqualTo("10.0.0.1");
+	}
+
+	private static ChildPolicy roundRobin() {
+		return new ChildPolicy(LoadBalancerRegistry.getDefaultRegistry().getProvider("round_robin"), null);
+	}
+
+	private void start(Config config, String... hosts) {
+		when(this.helper.getSynchronizationContext()).thenReturn(new SynchronizationContext((thread, ex) -> {
+			throw new IllegalStateException(ex);
+		}));
+		when(this.helper.createSubchannel(any(CreateSubchannelArgs.class))).thenAnswer((invocation) -> {
+			CreateSubchannelArgs args = invocation.getArgument(0);
+			InetSocketAddress address = (InetSocketAddress) args.getAddresses().get(0).getAddresses().get(0);
+			Subchannel subchannel = mock(Subchannel.class);
+			when(subchannel.getAllAddresses()).thenReturn(args.getAddresses());
+			when(subchannel.getAttributes()).thenReturn(args.getAttributes());
+			this.subchannels.put(address.getHostString(), subchannel);
+			doAnswer((started) -> this.listeners.put(address.getHostString(), started.getArgument(0))).when(subchannel)
+				.start(any());
+			return subchannel;
+		});
+		List<EquivalentAddressGroup> addresses = new ArrayList<>();
+		for (String host : hosts) {
+			String[] parts = host.split(":");
+			Attributes attributes = (parts.length > 1)
+					? Attributes.newBuilder().set(EndpointNameResolverProvider.ZONE, parts[1]).build()
+					: Attributes.EMPTY;
+			addresses.add(new EquivalentAddressGroup(new InetSocketAddress(parts[0], 9090), attributes));
+		}
+		ZoneAwareLoadBalancer balancer = new ZoneAwareLoadBalancer(this.helper);
+		Status status = balancer.acceptResolvedAddresses(
+				ResolvedAddresses.newBuilder().setAddresses(addresses).setLoadBalancingPolicyConfig(config).build());
+		assertThat(status.isOk()).isTrue();
+	}
+
+	private void ready(String... hosts) {
+		for (String host : hosts) {
+			this.listeners.get(host).onSubchannelState(ConnectivityStateInfo.forNonError(ConnectivityState.READY));
+		}
+	}
+
+	private SubchannelPicker lastPicker() {
+		ArgumentCaptor<SubchannelPicker> captor = ArgumentCaptor.forClass(SubchannelPicker.class);
+		verify(this.helper, atLeastOnce()).updateBalancingState(eq(ConnectivityState.READY), captor.capture());
+		return captor.getValue();
+	}
+
+	private static String host(SubchannelPicker picker) {
+		return address(picker.pickSubchannel(mock(PickSubchannelArgs.class)));
+	}
+
+	private static String address(PickResult result) {
+		EquivalentAddressGroup group = result.getSubchannel().getAllAddresses().get(0);
+		return ((InetSocketAddress) group.getAddresses().get(0)).getHostString();
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.nameresolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolver.ResolutionResult;
+import io.grpc.NameResolverRegistry;
+import io.grpc.ProxyDetector;
+import io.grpc.Status;
+import io.grpc.SynchronizationContext;
+
+/**
+ * Tests for {@link EndpointNameResolver}.
+ */
+class EndpointNameResolverTests {
+
+	private final EndpointRegistry registry = new EndpointRegistry();
+
+	private final NameResolver.Listener2 listener = mock(NameResolver.Listener2.class);
+
+	@Test
+	void providerIsRegistered() {
+		assertThat(NameResolverRegistry.getDefaultRegistry().getProviderForScheme("endpoints"))
+			.isInstanceOf(EndpointNameResolverProvider.class);
+		assertThat(NameResolverRegistry.getDefaultRegistry().getDefaultScheme()).isEqualTo("dns");
+	}
+
+	@Test
+	void parsesEndpoints() {
+		assertThat(Endpoint.of("10.0.0.1:9090")).isEqualTo(new Endpoint("10.0.0.1", 9090, 1, null));
+		assertThat(Endpoint.of("[::1]:9090", 2, "a")).isEqualTo(new Endpoint("::1", 9090, 2, "a"));
+		assertThat(Endpoint.of("localhost")).isEqualTo(new Endpoint("localhost", -1, 1, null));
+		assertThatIllegalArgumentException().isThrownBy(() -> Endpoint.of(":9090"));
+	}
+
+	@Test
+	void resolvesAndPushesUpdates() {
+		this.registry.setEndpoints("kv", List.of(new Endpoint("10.0.0.1", 9090, 3, "zone-a")));
+		NameResolver resolver = resolver("endpoints:///kv");
+		assertThat(resolver.getServiceAuthority()).isEqualTo("kv");
+		resolver.start(this.listener);
+		this.registry.setEndpoints("kv", List.of(Endpoint.of("10.0.0.1:9090"), Endpoint.of("10.0.0.2")));
+		// No change, no update
+		this.registry.setEndpoints("kv", List.of(Endpoint.of("10.0.0.1:9090"), Endpoint.of("10.0.0.2")));
+		ArgumentCaptor<ResolutionResult> captor = ArgumentCaptor.forClass(ResolutionResult.class);
+		verify(this.listener, times(2)).onResult(captor.capture());
+		EquivalentAddressGroup first = captor.getAllValues().get(0).getAddresses().get(0);
+		assertThat(first.getAttributes().get(EndpointNameResolverProvider.WEIGHT)).isEqualTo(3);
+		assertThat(first.getAttributes().get(EndpointNameResolverProvider.ZONE)).isEqualTo("zone-a");
+		assertThat(captor.getValue().getAddresses()).extracting((group) -> group.getAddresses().get(0))
+			.containsExactly(new InetSocketAddress("10.0.0.1", 9090), new InetSocketAddress("10.0.0.2", 443));
+		resolver.shutdown();
+		this.registry.setEndpoints("kv", List.of(Endpoint.of("10.0.0.3:9090")));
+		verify(this.listener, times(2)).onResult(any());
+	}
+
+	@Test
+	void resolvesOnOffloadExecutorAndDropsStaleResults() {
+		List<Runnable> tasks = new ArrayList<>();
+		this.registry.setEndpoints("kv", List.of(Endpoint.of("10.0.0.1:9090")));
+		NameResolver resolver = new EndpointNameResolverProvider().newNameResolver(URI.create("endpoints:///kv"),
+				args(tasks::add));
+		resolver.start(this.listener);
+		this.registry.setEndpoints("kv", List.of(Endpoint.of("10.0.0.2:9090")));
+		verify(this.listener, never()).onResult(any());
+		assertThat(tasks).hasSize(2);
+		tasks.get(1).run();
+		tasks.get(0).run();
+		ArgumentCaptor<ResolutionResult> captor = ArgumentCaptor.forClass(ResolutionResult.class);
+		verify(this.listener).onResult(captor.capture());
+		assertThat(captor.getValue().getAddresses()).extracting((group) -> group.getAddresses().get(0))
+			.containsExactly(new InetSocketAddress("10.0.0.2", 9090));
+	}
+
+	@Test
+	void reportsErrorWhenNoEndpoints() {
+		NameResolver resolver = resolver("endpoints:///kv");
+		resolver.start(this.listener);
+		ArgumentCaptor<Status> captor = ArgumentCaptor.forClass(Status.class);
+		verify(this.listener).onError(captor.capture());
+		assertThat(captor.getValue().getDescription()).contains("kv");
+	}
+
+	@Test
+	void rejectsInvalidTarget() {
+		assertThatIllegalArgumentException().isThrownBy(() -> resolver("endpoints:///kv/other"));
+		assertThat(new EndpointNameResolverProvider().newNameResolver(URI.create("dns:///kv"), args())).isNull();
+	}
+
+	private NameResolver resolver(String target) {
+		return new EndpointNameResolverProvider().newNameResolver(URI.create(target), args());
+	}
+
+	private NameResolver.Args args() {
+		return args(null);
+	}
+
+	private NameResolver.Args args(Executor offloadExecutor) {
+		return NameResolver.Args.newBuilder()
+			.setOffloadExecutor(offloadExecutor)
+			.setDefaultPort(443)
+			.setProxyDetector(mock(ProxyDetector.class))
+			.setSynchronizationContext(new SynchronizationContext((thread, ex) -> {
+				throw new IllegalStateException(ex);
+			}))
+			.setServiceConfigParser(mock(NameResolver.ServiceConfigParser.class))
+			.setArg(EndpointNameResolverProvider.REGISTRY, this.registry)
+			.build();
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AccessToken.TokenType;
+
+/**
+ * Tests for {@link CachingTokenSupplier}.
+ */
+class CachingTokenSupplierTests {
+
+	private final AtomicInteger fetches = new AtomicInteger();
+
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	private RuntimeException failure;
+
+	private final CachingTokenSupplier supplier = new CachingTokenSupplier(this::fetch);
+
+	private Instant now = Instant.EPOCH;
+
+	CachingTokenSupplierTests() {
+		this.supplier.setExecutor(this.tasks::add);
+		this.supplier.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+	}
+
+	@Test
+	void cachesTokenUntilRefreshWindow() {
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		advance(Duration.ofSeconds(3500));
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		assertThat(this.fetches).hasValue(1);
+		assertThat(this.tasks).isEmpty();
+	}
+
+	@Test
+	void refreshesInBackgroundBeforeExpiry() {
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		advance(Duration.ofSeconds(3550));
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		assertThat(this.tasks).hasSize(1);
+		this.tasks.remove(0).run();
+		assertThat(this.supplier.get()).isEqualTo("token2");
+		assertThat(this.fetches).hasValue(2);
+	}
+
+	@Test
+	void fetchesInlineWhenExpired() {
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		advance(Duration.ofHours(2));
+		assertThat(this.supplier.get()).isEqualTo("token2");
+		assertThat(this.tasks).isEmpty();
+	}
+
+	@Test
+	void keepsTokenWhenBackgroundRefreshFails() {
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		advance(Duration.ofSeconds(3550));
+		this.failure = new IllegalStateException("Planned");
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		this.tasks.remove(0).run();
+		// Backs off for a quarter of the remaining lifetime (at most 10 seconds)
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		assertThat(this.tasks).isEmpty();
+		advance(Duration.ofSeconds(9));
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		assertThat(this.tasks).isEmpty();
+		advance(Duration.ofSeconds(1));
+		assertThat(this.supplier.get()).isEqualTo("token1");
+		assertThat(this.tasks).hasSize(1);
+		this.failure = null;
+		this.tasks.remove(0).run();
+		assertThat(this.supplier.get()).isEqualTo("token3");
+	}
+
+	@Test
+	void throwsWhenNoValidToken() {
+		this.failure = new IllegalStateException("Planned");
+		assertThatIllegalStateException().isThrownBy(this.supplier::get).withMessage("Planned");
+		this.failure = null;
+		assertThat(this.supplier.get()).isEqualTo("token2");
+	}
+
+	@Test
+	void concurrentCallsShareOneFetch() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CachingTokenSupplier slow = new CachingTokenSupplier(() -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return fetch();
+		});
+		slow.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(slow);
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(slow);
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("token1");
+		assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("token1");
+		assertThat(this.fetches).hasValue(1);
+	}
+
+	private void advance(Duration duration) {
+		this.now = this.now.plus(duration);
+		this.supplier.setClock(Clock.fixed(this.now, ZoneOffset.UTC));
+	}
+
+	private OAuth2AccessToken fetch() {
+		int count = this.fetches.incrementAndGet();
+		if (this.failure != null) {
+			throw this.failure;
+		}
+		return new OAuth2AccessToken(TokenType.BEARER, "token" + count, this.now, this.now.plusSeconds(3600));
+	}
+
+}
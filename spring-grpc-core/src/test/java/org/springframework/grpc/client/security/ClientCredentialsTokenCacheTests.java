@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.client.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken.TokenType;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+
+/**
+ * Tests for {@link ClientCredentialsTokenCache}.
+ */
+class ClientCredentialsTokenCacheTests {
+
+	@SuppressWarnings("unchecked")
+	private final OAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> client = mock(
+			OAuth2AccessTokenResponseClient.class);
+
+	private final ClientCredentialsTokenCache cache = new ClientCredentialsTokenCache(
+			new InMemoryClientRegistrationRepository(ClientRegistration.withRegistrationId("spring")
+				.clientId("client")
+				.clientSecret("secret")
+				.authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+				.tokenUri("http://localhost:9000/oauth2/token")
+				.build()));
+
+	@Test
+	void cachesTokenForRegistration() {
+		when(this.client.getTokenResponse(any())).thenReturn(
+				OAuth2AccessTokenResponse.withToken("token").tokenType(TokenType.BEARER).expiresIn(3600).build());
+		this.cache.setTokenResponseClient(this.client);
+		assertThat(this.cache.getToken("spring")).isSameAs(this.cache.getToken("spring"));
+		assertThat(this.cache.getToken("spring").get()).isEqualTo("token");
+		assertThat(this.cache.getToken("spring").get()).isEqualTo("token");
+		verify(this.client, times(1)).getTokenResponse(any());
+	}
+
+	@Test
+	void unknownRegistration() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.cache.getToken("other"))
+			.withMessageContaining("other");
+	}
+
+}
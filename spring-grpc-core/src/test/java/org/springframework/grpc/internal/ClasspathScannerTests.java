@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.grpc.internal.scan.FooStub;
+
+import io.grpc.stub.AbstractStub;
+
+/**
+ * Tests for {@link ClasspathScanner}.
+ */
+class ClasspathScannerTests {
+
+	@Test
+	void findsStubsWithoutLoadingOtherClasses() {
+		RecordingClassLoader loader = new RecordingClassLoader(getClass().getClassLoader());
+		ClasspathScanner scanner = new ClasspathScanner();
+		scanner.setResourceLoader(new DefaultResourceLoader(loader));
+		ClassLoader original = Thread.currentThread().getContextClassLoader();
+		Thread.currentThread().setContextClassLoader(loader);
+		try {
+			assertThat(scanner.scan(FooStub.class.getPackageName(), AbstractStub.class)).containsExactly(FooStub.class);
+		}
+		finally {
+			Thread.currentThread().setContextClassLoader(original);
+		}
+		assertThat(loader.requested).contains(FooStub.class.getName()).noneMatch((name) -> name.endsWith("Message"));
+	}
+
+	@Test
+	void findsImplementationsOfInterfaces() {
+		ClasspathScanner scanner = new ClasspathScanner();
+		assertThat(scanner.scan(FooStub.class.getPackageName(), Comparable.class)).singleElement()
+			.satisfies((type) -> assertThat(type.getSimpleName()).isEqualTo("FooMessage"));
+	}
+
+	@Test
+	void usesStubIndexIfPresent(@TempDir Path temp) throws IOException {
+		ClasspathScanner scanner = scanner(temp, FooStub.class.getName(),
+				"org.springframework.grpc.internal.scan.Missing", "com.example.BarStub");
+		assertThat(scanner.scan(FooStub.class.getPackageName(), AbstractStub.class)).containsExactly(FooStub.class);
+		assertThat(scanner.scan("com.other", AbstractStub.class)).isEmpty();
+	}
+
+	@Test
+	void stubIndexReplacesScanning(@TempDir Path temp) throws IOException {
+		ClasspathScanner scanner = scanner(temp, "com.example.BarStub");
+		assertThat(scanner.scan(FooStub.class.getPackageName(), AbstractStub.class)).isEmpty();
+	}
+
+	@Test
+	void stubIndexCanBeIgnored(@TempDir Path temp) throws IOException {
+		ClasspathScanner scanner = scanner(temp, "com.example.BarStub");
+		SpringProperties.setFlag(StubIndex.IGNORE_INDEX);
+		try {
+			assertThat(scanner.scan(FooStub.class.getPackageName(), AbstractStub.class)).containsExactly(FooStub.class);
+		}
+		finally {
+			SpringProperties.setProperty(StubIndex.IGNORE_INDEX, null);
+		}
+	}
+
+	private ClasspathScanner scanner(Path temp, String... stubs) throws IOException {
+		Path index = temp.resolve(StubIndex.INDEX_LOCATION);
+		Files.createDirectories(index.getParent());
+		Files.write(index, List.of(stubs));
+		ClassLoader loader = new URLClassLoader(new URL[] { temp.toUri().toURL() }, getClass().getClassLoader());
+		ClasspathScanner scanner = new ClasspathScanner();
+		scanner.setResourceLoader(new DefaultResourceLoader(loader));
+		return scanner;
+	}
+
+	static class RecordingClassLoader extends ClassLoader {
+
+		private final List<String> requested = new ArrayList<>();
+
+		RecordingClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			this.requested.add(name);
+			return super.loadClass(name, resolve);
+		}
+
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.advice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import org.junit.jupiter.api.Test;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Tests for {@link GrpcAdviceExceptionHandler}.
+ */
+class GrpcAdviceExceptionHandlerTests {
+
+	@Test
+	void closestMatchInAdviceIsUsed() {
+		GrpcAdviceExceptionHandler handler = new GrpcAdviceExceptionHandler(new MyAdvice());
+		assertThat(handler.handleException(new IllegalArgumentException())).isEqualTo(Status.INVALID_ARGUMENT);
+		assertThat(handler.handleException(new NumberFormatException())).isEqualTo(Status.INVALID_ARGUMENT);
+		assertThat(handler.handleException(new IllegalStateException()).getCode())
+			.isEqualTo(Status.Code.FAILED_PRECONDITION);
+		assertThat(handler.handleException(new UnsupportedOperationException()).getCode())
+			.isEqualTo(Status.Code.FAILED_PRECONDITION);
+		assertThat(handler.handleException(new RuntimeException())).isEqualTo(Status.INTERNAL);
+		assertThat(handler.handleException(new Exception())).isNull();
+	}
+
+	@Test
+	void firstAdviceWithMatchWins() {
+		GrpcAdviceExceptionHandler handler = new GrpcAdviceExceptionHandler(new OtherAdvice(), new MyAdvice());
+		assertThat(handler.handleException(new IllegalArgumentException())).isEqualTo(Status.UNAVAILABLE);
+		assertThat(handler.handleException(new IllegalStateException()).getCode())
+			.isEqualTo(Status.Code.FAILED_PRECONDITION);
+	}
+
+	@Test
+	void overriddenHandlerInSubclassIsUsed() {
+		GrpcAdviceExceptionHandler handler = new GrpcAdviceExceptionHandler(new MyCustomAdvice());
+		assertThat(handler.handleException(new IllegalArgumentException())).isEqualTo(Status.OUT_OF_RANGE);
+		assertThat(handler.handleException(new RuntimeException())).isEqualTo(Status.INTERNAL);
+	}
+
+	@Test
+	void invalidSignatureIsRejected() {
+		assertThatIllegalStateException().isThrownBy(() -> new GrpcAdviceExceptionHandler(new InvalidAdvice()))
+			.withMessageContaining("must return a Status");
+	}
+
+	@GrpcAdvice
+	static class MyAdvice {
+
+		@GrpcExceptionHandler
+		Status illegalArgument(IllegalArgumentException exception) {
+			return Status.INVALID_ARGUMENT;
+		}
+
+		@GrpcExceptionHandler({ IllegalStateException.class, UnsupportedOperationException.class })
+		StatusRuntimeException illegalState(RuntimeException exception) {
+			return Status.FAILED_PRECONDITION.withDescription(exception.getClass().getSimpleName())
+				.asRuntimeException();
+		}
+
+		@GrpcExceptionHandler
+		Status runtime(RuntimeException exception) {
+			return Status.INTERNAL;
+		}
+
+	}
+
+	@GrpcAdvice
+	static class MyCustomAdvice extends MyAdvice {
+
+		@Override
+		@GrpcExceptionHandler
+		Status illegalArgument(IllegalArgumentException exception) {
+			return Status.OUT_OF_RANGE;
+		}
+
+	}
+
+	@GrpcAdvice
+	static class OtherAdvice {
+
+		@GrpcExceptionHandler
+		Status illegalArgument(IllegalArgumentException exception) {
+			return Status.UNAVAILABLE;
+		}
+
+	}
+
+	@GrpcAdvice
+	static class InvalidAdvice {
+
+		@GrpcExceptionHandler
+		String illegalArgument(IllegalArgumentException exception) {
+			return "foo";
+		}
+
+	}
+
+}
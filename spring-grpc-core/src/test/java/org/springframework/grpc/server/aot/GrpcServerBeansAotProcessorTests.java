@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.aot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aot.test.generate.TestGenerationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.aot.ApplicationContextAotGenerator;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.test.tools.TestCompiler;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+import org.springframework.grpc.server.service.DefaultGrpcServiceDiscoverer;
+import org.springframework.grpc.server.service.GrpcServerBeans;
+import org.springframework.grpc.server.service.GrpcService;
+import org.springframework.grpc.server.service.GrpcServiceConfigurer;
+import org.springframework.grpc.server.service.GrpcServiceInfo;
+import org.springframework.javapoet.ClassName;
+
+import io.grpc.BindableService;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerServiceDefinition;
+
+/**
+ * Tests for {@link GrpcServerBeansAotProcessor}.
+ */
+class GrpcServerBeansAotProcessorTests {
+
+	@Test
+	void servicesArePrecomputed() {
+		compile((context) -> {
+			context.refresh();
+			assertThat(GrpcServerBeans.find(context)).isNotNull();
+			assertThat(context.getBean(DefaultGrpcServiceDiscoverer.class).findServices())
+				.extracting((service) -> service.getServiceDescriptor().getName())
+				.containsExactly("b.Service", "a.Service");
+			RecordingConfigurer configurer = context.getBean(RecordingConfigurer.class);
+			assertThat(configurer.invocations).containsEntry("b.Service", null);
+			assertThat(configurer.invocations.get("a.Service")).satisfies((info) -> {
+				assertThat(info.interceptors()).containsExactly(LocalInterceptor.class);
+				assertThat(info.interceptorNames()).containsExactly("globalInterceptor");
+				assertThat(info.blendWithGlobalInterceptors()).isTrue();
+			});
+		});
+	}
+
+	@Test
+	void precomputedBeansIgnoredIfServicesChange() {
+		compile((context) -> {
+			context.registerBean("serviceC", ServiceC.class);
+			context.refresh();
+			assertThat(GrpcServerBeans.find(context)).isNull();
+			assertThat(context.getBean(DefaultGrpcServiceDiscoverer.class).findServices())
+				.extracting((service) -> service.getServiceDescriptor().getName())
+				.containsExactly("b.Service", "a.Service", "c.Service");
+		});
+	}
+
+	private void compile(Consumer<GenericApplicationContext> assertions) {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean("serviceA", ServiceA.class);
+		context.registerBean("serviceB", ServiceB.class);
+		context.registerBean("globalInterceptor", GlobalInterceptor.class);
+		context.registerBean("localInterceptor", LocalInterceptor.class);
+		context.registerBean(RecordingConfigurer.class);
+		context.registerBean(DefaultGrpcServiceDiscoverer.class);
+		TestGenerationContext generationContext = new TestGenerationContext();
+		ClassName className = new ApplicationContextAotGenerator().processAheadOfTime(context, generationContext);
+		generationContext.writeGeneratedContent();
+		TestCompiler.forSystem().with(generationContext).compile((compiled) -> {
+			GenericApplicationContext fresh = new GenericApplicationContext();
+			@SuppressWarnings("unchecked")
+			ApplicationContextInitializer<GenericApplicationContext> initializer = compiled
+				.getInstance(ApplicationContextInitializer.class, className.toString());
+			initializer.initialize(fresh);
+			try {
+				assertions.accept(fresh);
+			}
+			finally {
+				fresh.close();
+			}
+		});
+	}
+
+	@GrpcService(interceptors = LocalInterceptor.class, interceptorNames = "globalInterceptor",
+			blendWithGlobalInterceptors = true)
+	@Order(200)
+	public static class ServiceA implements BindableService {
+
+		@Override
+		public ServerServiceDefinition bindService() {
+			return ServerServiceDefinition.builder("a.Service").build();
+		}
+
+	}
+
+	@Order(100)
+	public static class ServiceB implements BindableService {
+
+		@Override
+		public ServerServiceDefinition bindService() {
+			return ServerServiceDefinition.builder("b.Service").build();
+		}
+
+	}
+
+	public static class ServiceC implements BindableService {
+
+		@Override
+		public ServerServiceDefinition bindService() {
+			return ServerServiceDefinition.builder("c.Service").build();
+		}
+
+	}
+
+	@GlobalServerInterceptor
+	public static class GlobalInterceptor implements ServerInterceptor {
+
+		@Override
+		public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+				ServerCallHandler<ReqT, RespT> next) {
+			return next.startCall(call, headers);
+		}
+
+	}
+
+	public static class RecordingConfigurer implements GrpcServiceConfigurer {
+
+		private final Map<String, GrpcServiceInfo> invocations = new LinkedHashMap<>();
+
+		@Override
+		public ServerServiceDefinition configure(BindableService bindableService, GrpcServiceInfo serviceInfo) {
+			ServerServiceDefinition definition = bindableService.bindService();
+			this.invocations.put(definition.getServiceDescriptor().getName(), serviceInfo);
+			return definition;
+		}
+
+	}
+
+}
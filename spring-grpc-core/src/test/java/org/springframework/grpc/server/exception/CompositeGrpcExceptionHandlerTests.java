@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.grpc.Status;
+
+/**
+ * Tests for {@link CompositeGrpcExceptionHandler}.
+ */
+class CompositeGrpcExceptionHandlerTests {
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private final GrpcExceptionHandler illegalArgument = exception -> {
+		this.calls.incrementAndGet();
+		return exception instanceof IllegalArgumentException ? Status.INVALID_ARGUMENT : null;
+	};
+
+	private final GrpcExceptionHandler illegalState = exception -> {
+		this.calls.incrementAndGet();
+		return exception instanceof IllegalStateException ? Status.FAILED_PRECONDITION : null;
+	};
+
+	private final CompositeGrpcExceptionHandler handler = new CompositeGrpcExceptionHandler(this.illegalArgument,
+			this.illegalState);
+
+	@Test
+	void firstMatchingHandlerWins() {
+		assertThat(this.handler.handleException(new IllegalArgumentException())).isEqualTo(Status.INVALID_ARGUMENT);
+		assertThat(this.handler.handleException(new IllegalStateException())).isEqualTo(Status.FAILED_PRECONDITION);
+	}
+
+	@Test
+	void handlersAreConsultedForEveryException() {
+		GrpcExceptionHandler byMessage = (exception) -> "special".equals(exception.getMessage()) ? Status.UNAVAILABLE
+				: null;
+		CompositeGrpcExceptionHandler handler = new CompositeGrpcExceptionHandler(byMessage, this.illegalState);
+		assertThat(handler.handleException(new RuntimeException())).isNull();
+		assertThat(handler.handleException(new RuntimeException("special"))).isEqualTo(Status.UNAVAILABLE);
+		assertThat(handler.handleException(new IllegalStateException())).isEqualTo(Status.FAILED_PRECONDITION);
+		assertThat(handler.handleException(new IllegalStateException("special"))).isEqualTo(Status.UNAVAILABLE);
+	}
+
+	@Test
+	void handlersThatDoNotSupportTypeAreSkipped() {
+		GrpcExceptionHandler typed = new GrpcExceptionHandler() {
+			@Override
+			public Status handleException(Throwable exception) {
+				CompositeGrpcExceptionHandlerTests.this.calls.incrementAndGet();
+				return Status.INVALID_ARGUMENT;
+			}
+
+			@Override
+			public boolean supports(Class<? extends Throwable> type) {
+				return IllegalArgumentException.class.isAssignableFrom(type);
+			}
+		};
+		CompositeGrpcExceptionHandler handler = new CompositeGrpcExceptionHandler(typed);
+		assertThat(handler.handleException(new IllegalStateException())).isNull();
+		assertThat(this.calls.get()).isEqualTo(0);
+		assertThat(handler.handleException(new IllegalArgumentException())).isEqualTo(Status.INVALID_ARGUMENT);
+		assertThat(this.calls.get()).isEqualTo(1);
+		assertThat(handler.supports(IllegalStateException.class)).isFalse();
+	}
+
+}
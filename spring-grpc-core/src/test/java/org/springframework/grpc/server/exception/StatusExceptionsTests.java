@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Tests for {@link StatusExceptions}.
+ */
+class StatusExceptionsTests {
+
+	@Test
+	void stacklessExceptionHasNoStackTrace() {
+		StatusRuntimeException exception = StatusExceptions.notFound("Nothing here");
+		assertThat(exception.getStackTrace()).isEmpty();
+		assertThat(exception.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND);
+		assertThat(exception.getStatus().getDescription()).isEqualTo("Nothing here");
+	}
+
+	@Test
+	void stacklessExceptionKeepsTrailers() {
+		Metadata trailers = new Metadata();
+		StatusRuntimeException exception = StatusExceptions.stackless(Status.UNAVAILABLE, trailers);
+		assertThat(exception.getStackTrace()).isEmpty();
+		assertThat(exception.getTrailers()).isSameAs(trailers);
+	}
+
+	@Test
+	void eachCallCreatesNewException() {
+		StatusRuntimeException first = StatusExceptions.stackless(Status.NOT_FOUND);
+		first.addSuppressed(new IllegalStateException("Expected"));
+		StatusRuntimeException second = StatusExceptions.stackless(Status.NOT_FOUND);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getSuppressed()).isEmpty();
+	}
+
+}
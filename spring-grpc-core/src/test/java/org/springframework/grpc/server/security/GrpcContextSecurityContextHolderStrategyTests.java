@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.server.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import io.grpc.Context;
+
+/**
+ * Tests for {@link GrpcContextSecurityContextHolderStrategy}.
+ */
+class GrpcContextSecurityContextHolderStrategyTests {
+
+	private final GrpcContextSecurityContextHolderStrategy strategy = new GrpcContextSecurityContextHolderStrategy();
+
+	@AfterEach
+	void clear() {
+		this.strategy.clearContext();
+	}
+
+	@Test
+	void outsideOfCallBehavesLikeThreadLocal() {
+		SecurityContext context = new SecurityContextImpl(new TestingAuthenticationToken("user", "password"));
+		this.strategy.setContext(context);
+		assertThat(this.strategy.getContext()).isSameAs(context);
+		this.strategy.clearContext();
+		assertThat(this.strategy.getContext().getAuthentication()).isNull();
+	}
+
+	@Test
+	void emptyContextIsNotStored() {
+		Context call = Context.current().withCancellation();
+		call.run(() -> {
+			SecurityContext context = this.strategy.getContext();
+			assertThat(this.strategy.getContext()).isNotSameAs(context);
+		});
+		assertThat(this.strategy.getContext()).isNotSameAs(this.strategy.getContext());
+	}
+
+	@Test
+	void contextIsReadFromGrpcContext() {
+		SecurityContext context = new SecurityContextImpl(new TestingAuthenticationToken("user", "password"));
+		Context.current()
+			.withValue(GrpcContextSecurityContextHolderStrategy.SECURITY_CONTEXT_KEY, context)
+			.run(() -> assertThat(this.strategy.getContext()).isSameAs(context));
+		assertThat(this.strategy.getContext()).isNotSameAs(context);
+	}
+
+	@Test
+	void explicitContextTakesPrecedenceOnlyInSameGrpcContext() {
+		SecurityContext context = new SecurityContextImpl(new TestingAuthenticationToken("user", "password"));
+		SecurityContext explicit = new SecurityContextImpl(new TestingAuthenticationToken("admin", "password"));
+		Context call = Context.current()
+			.withValue(GrpcContextSecurityContextHolderStrategy.SECURITY_CONTEXT_KEY, context);
+		call.run(() -> {
+			this.strategy.setContext(explicit);
+			assertThat(this.strategy.getContext()).isSameAs(explicit);
+		});
+		// Another call on the same thread does not see the explicit context
+		Context other = Context.current()
+			.withValue(GrpcContextSecurityContextHolderStrategy.SECURITY_CONTEXT_KEY, context);
+		other.run(() -> assertThat(this.strategy.getContext()).isSameAs(context));
+	}
+
+	@Test
+	void contextSetOutsideOfCallIsVisibleInCall() {
+		SecurityContext explicit = new SecurityContextImpl(new TestingAuthenticationToken("user", "password"));
+		this.strategy.setContext(explicit);
+		Context.current().withCancellation().run(() -> assertThat(this.strategy.getContext()).isSameAs(explicit));
+		Context call = Context.current()
+			.withValue(GrpcContextSecurityContextHolderStrategy.SECURITY_CONTEXT_KEY, new SecurityContextImpl());
+		call.run(() -> assertThat(this.strategy.getContext()).isNotSameAs(explicit));
+	}
+
+	@Test
+	void emptyContextCreatedOutsideOfCallIsNotVisibleInCall() {
+		SecurityContext context = this.strategy.getContext();
+		Context.current().withCancellation().run(() -> assertThat(this.strategy.getContext()).isNotSameAs(context));
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.index.processor;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes an index of the gRPC stubs (concrete subclasses of
+ * {@code io.grpc.stub.AbstractStub}) in the compiled sources to {@value #INDEX_LOCATION}.
+ * At runtime the index is used instead of scanning the classpath for stubs. Stubs are
+ * generated code without annotations of their own, so the processor looks at all root
+ * types (and their nested types) in each round.
+ *
+ * @author Dave Syer
+ */
+@SupportedAnnotationTypes("*")
+public class StubIndexer extends AbstractProcessor {
+
+	/**
+	 * The location of the index in the compiled output.
+	 */
+	public static final String INDEX_LOCATION = "META-INF/spring-grpc.stubs";
+
+	private static final String STUB_TYPE = "io.grpc.stub.AbstractStub";
+
+	private final Set<String> stubs = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getRootElements()) {
+			collect(element);
+		}
+		if (roundEnv.processingOver()) {
+			writeIndex();
+		}
+		return false;
+	}
+
+	private void collect(Element element) {
+		if (!(element instanceof TypeElement type)) {
+			return;
+		}
+		if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT) && isStub(type)) {
+			this.stubs.add(this.processingEnv.getElementUtils().getBinaryName(type).toString());
+		}
+		for (Element enclosed : type.getEnclosedElements()) {
+			collect(enclosed);
+		}
+	}
+
+	private boolean isStub(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		while (superclass.getKind() == TypeKind.DECLARED) {
+			TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+			if (element.getQualifiedName().contentEquals(STUB_TYPE)) {
+				return true;
+			}
+			superclass = element.getSuperclass();
+		}
+		return false;
+	}
+
+	private void writeIndex() {
+		readExistingIndex();
+		if (this.stubs.isEmpty()) {
+			return;
+		}
+		try {
+			FileObject file = this.processingEnv.getFiler()
+				.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			try (Writer writer = file.openWriter()) {
+				for (String stub : this.stubs) {
+					writer.write(stub);
+					writer.write('\n');
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write stub index", ex);
+		}
+	}
+
+	private void readExistingIndex() {
+		// An incremental build only compiles some of the sources, so keep the stubs from
+		// a previous build as long as they still exist
+		try {
+			FileObject file = this.processingEnv.getFiler()
+				.getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+				reader.lines()
+					.map(String::trim)
+					.filter((name) -> !name.isEmpty())
+					.filter((name) -> this.processingEnv.getElementUtils()
+						.getTypeElement(name.replace('$', '.')) != null)
+					.forEach(this.stubs::add);
+			}
+		}
+		catch (FileNotFoundException | NoSuchFileException ex) {
+			// No previous index
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to read existing stub index", ex);
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.index.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link StubIndexer}.
+ */
+class StubIndexerTests {
+
+	@TempDir
+	Path temp;
+
+	@Test
+	void indexesNestedStubs() throws IOException {
+		source("com/example/FooGrpc.java", """
+				package com.example;
+				public final class FooGrpc {
+					public static final class FooStub extends io.grpc.stub.AbstractStub<FooStub> {
+						private FooStub(io.grpc.Channel channel, io.grpc.CallOptions options) {
+							super(channel, options);
+						}
+						@Override
+						protected FooStub build(io.grpc.Channel channel, io.grpc.CallOptions options) {
+							return new FooStub(channel, options);
+						}
+					}
+					public abstract static class AbstractFooStub<S extends AbstractFooStub<S>>
+							extends io.grpc.stub.AbstractStub<S> {
+						protected AbstractFooStub(io.grpc.Channel channel, io.grpc.CallOptions options) {
+							super(channel, options);
+						}
+					}
+					public static final class FooRequest {
+					}
+				}
+				""");
+		assertThat(compile()).isTrue();
+		assertThat(index()).containsExactly("com.example.FooGrpc$FooStub");
+	}
+
+	@Test
+	void noIndexWithoutStubs() throws IOException {
+		source("com/example/Foo.java", """
+				package com.example;
+				public class Foo {
+				}
+				""");
+		assertThat(compile()).isTrue();
+		assertThat(this.temp.resolve("classes").resolve(StubIndexer.INDEX_LOCATION)).doesNotExist();
+	}
+
+	private void source(String path, String content) throws IOException {
+		Path file = this.temp.resolve("src").resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, content);
+	}
+
+	private boolean compile() throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		Path classes = Files.createDirectories(this.temp.resolve("classes"));
+		try (StandardJavaFileManager files = compiler.getStandardFileManager(null, null, null)) {
+			List<File> sources;
+			try (var paths = Files.walk(this.temp.resolve("src"))) {
+				sources = paths.filter(Files::isRegularFile).map(Path::toFile).toList();
+			}
+			Iterable<? extends JavaFileObject> units = files.getJavaFileObjectsFromFiles(sources);
+			JavaCompiler.CompilationTask task = compiler.getTask(null, files, null,
+					List.of("-classpath", System.getProperty("java.class.path"), "-d", classes.toString()), null,
+					units);
+			task.setProcessors(List.of(new StubIndexer()));
+			return task.call();
+		}
+	}
+
+	private List<String> index() throws IOException {
+		return Files.readAllLines(this.temp.resolve("classes").resolve(StubIndexer.INDEX_LOCATION));
+	}
+
+}
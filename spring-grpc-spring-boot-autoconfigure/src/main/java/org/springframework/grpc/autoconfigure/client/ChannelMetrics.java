@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.grpc.client.ChannelMonitor;
+
+import io.grpc.ConnectivityState;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * A {@link ChannelMonitor.Listener} that registers meters for the channels of each
+ * target, so that it is possible to see which targets are not connected and how busy they
+ * are.
+ *
+ * @author Dave Syer
+ */
+class ChannelMetrics implements ChannelMonitor.Listener {
+
+	private final MeterRegistry registry;
+
+	ChannelMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void created(ChannelMonitor monitor) {
+		Tags tags = Tags.of("target", monitor.getTarget());
+		for (ConnectivityState state : ConnectivityState.values()) {
+			if (state != ConnectivityState.SHUTDOWN) {
+				Gauge.builder("grpc.client.channel.state", monitor, (value) -> value.getChannelCount(state))
+					.tags(tags)
+					.tag("state", state.name().toLowerCase(Locale.ROOT))
+					.description("The number of channels for the target in the state")
+					.register(this.registry);
+			}
+		}
+		FunctionCounter.builder("grpc.client.channel.state.transitions", monitor, ChannelMonitor::getTransitions)
+			.tags(tags)
+			.description("The number of times a channel for the target changed state")
+			.register(this.registry);
+		TimeGauge
+			.builder("grpc.client.channel.connection.age", monitor, TimeUnit.MILLISECONDS,
+					(value) -> value.getConnectionAge().toMillis())
+			.tags(tags)
+			.description("The time since the oldest ready channel for the target connected")
+			.register(this.registry);
+		Gauge.builder("grpc.client.channel.calls.active", monitor, ChannelMonitor::getActiveCalls)
+			.tags(tags)
+			.description("The number of calls in progress")
+			.register(this.registry);
+		FunctionCounter.builder("grpc.client.channel.calls.started", monitor, ChannelMonitor::getStartedCalls)
+			.tags(tags)
+			.description("The number of calls started")
+			.register(this.registry);
+		FunctionCounter.builder("grpc.client.channel.calls.completed", monitor, ChannelMonitor::getSucceededCalls)
+			.tags(tags)
+			.tag("outcome", "success")
+			.description("The number of calls completed")
+			.register(this.registry);
+		FunctionCounter.builder("grpc.client.channel.calls.completed", monitor, ChannelMonitor::getFailedCalls)
+			.tags(tags)
+			.tag("outcome", "failure")
+			.description("The number of calls completed")
+			.register(this.registry);
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import java.util.Locale;
+
+import org.springframework.grpc.client.CircuitBreakerInterceptor;
+import org.springframework.grpc.client.CircuitBreakerInterceptor.CircuitBreaker;
+import org.springframework.grpc.client.CircuitBreakerInterceptor.State;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * A {@link CircuitBreakerInterceptor.Listener} that registers meters for each circuit
+ * breaker, tagged with the target of the channel and the method.
+ *
+ * @author Dave Syer
+ */
+class CircuitBreakerMetrics implements CircuitBreakerInterceptor.Listener {
+
+	private final MeterRegistry registry;
+
+	CircuitBreakerMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void created(CircuitBreaker breaker) {
+		Tags tags = Tags.of("target", breaker.getTarget(), "method", breaker.getMethod());
+		for (State state : State.values()) {
+			Gauge.builder("grpc.client.circuit.breaker.state", breaker, (value) -> value.getState() == state ? 1 : 0)
+				.tags(tags)
+				.tag("state", state.name().toLowerCase(Locale.ROOT))
+				.description("The state of the circuit breaker (1 if it is in the state)")
+				.register(this.registry);
+		}
+		Gauge.builder("grpc.client.circuit.breaker.failure.rate", breaker, CircuitBreaker::getFailureRate)
+			.tags(tags)
+			.description("The rate of failed calls in the sliding window")
+			.register(this.registry);
+		Gauge.builder("grpc.client.circuit.breaker.slow.call.rate", breaker, CircuitBreaker::getSlowCallRate)
+			.tags(tags)
+			.description("The rate of slow calls in the sliding window")
+			.register(this.registry);
+		FunctionCounter
+			.builder("grpc.client.circuit.breaker.not.permitted.calls", breaker, CircuitBreaker::getNotPermittedCalls)
+			.tags(tags)
+			.description("The number of calls that failed fast because the circuit was open")
+			.register(this.registry);
+	}
+
+}
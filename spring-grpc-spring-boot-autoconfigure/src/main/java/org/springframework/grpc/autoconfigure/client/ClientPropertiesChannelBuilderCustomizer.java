@@ -15,18 +15,54 @@
  */
 package org.springframework.grpc.autoconfigure.client;
 
+import java.math.BigDecimal;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.Cache;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.CircuitBreaker;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.ExecutorConfig;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.Hedging;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.LoadBalancing;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.LoadBalancing.ConsistentHash;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.LoadBalancing.OutlierDetection;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.LoadBalancing.OutlierDetection.FailurePercentage;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.LoadBalancing.OutlierDetection.SuccessRate;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.LoadBalancing.Subsetting;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.LoadBalancing.WeightedRoundRobin;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.LoadBalancing.ZoneAware;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.MethodConfig;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig.Retry;
+import org.springframework.grpc.client.AdaptiveThrottlingInterceptor;
+import org.springframework.grpc.client.CircuitBreakerInterceptor;
+import org.springframework.grpc.client.DefaultCallOptionsInterceptor;
 import org.springframework.grpc.client.GrpcChannelBuilderCustomizer;
+import org.springframework.grpc.client.ResponseCacheInterceptor;
+import org.springframework.grpc.client.loadbalancer.ConsistentHashLoadBalancerProvider;
+import org.springframework.grpc.client.loadbalancer.DeterministicSubsettingLoadBalancerProvider;
+import org.springframework.grpc.client.loadbalancer.LeastRequestLoadBalancerProvider;
+import org.springframework.grpc.client.loadbalancer.ZoneAwareLoadBalancerProvider;
+import org.springframework.util.StringUtils;
 import org.springframework.util.unit.DataSize;
 
+import io.grpc.LoadBalancerRegistry;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
 
 /**
  * A {@link GrpcChannelBuilderCustomizer} that maps {@link GrpcClientProperties client
@@ -39,10 +75,27 @@ import io.grpc.ManagedChannelBuilder;
 class ClientPropertiesChannelBuilderCustomizer<T extends ManagedChannelBuilder<T>>
 		implements GrpcChannelBuilderCustomizer<T> {
 
+	private static final String WEIGHTED_ROUND_ROBIN = "weighted_round_robin";
+
+	private static final String OUTLIER_DETECTION = "outlier_detection_experimental";
+
 	private final GrpcClientProperties properties;
 
-	ClientPropertiesChannelBuilderCustomizer(GrpcClientProperties properties) {
+	private final ObjectProvider<CircuitBreakerInterceptor.Listener> circuitBreakerListeners;
+
+	private final BeanFactory beanFactory;
+
+	private final Map<String, CircuitBreakerInterceptor> circuitBreakers = new ConcurrentHashMap<>();
+
+	private final Map<String, AdaptiveThrottlingInterceptor> throttles = new ConcurrentHashMap<>();
+
+	private final Map<String, ResponseCacheInterceptor> responseCaches = new ConcurrentHashMap<>();
+
+	ClientPropertiesChannelBuilderCustomizer(GrpcClientProperties properties,
+			ObjectProvider<CircuitBreakerInterceptor.Listener> circuitBreakerListeners, BeanFactory beanFactory) {
 		this.properties = properties;
+		this.circuitBreakerListeners = circuitBreakerListeners;
+		this.beanFactory = beanFactory;
 	}
 
 	@Override
@@ -50,8 +103,11 @@ class ClientPropertiesChannelBuilderCustomizer<T extends ManagedChannelBuilder<T
 		ChannelConfig channel = this.properties.getChannel(authority);
 		PropertyMapper mapper = PropertyMapper.get().alwaysApplyingWhenNonNull();
 		mapper.from(channel.getUserAgent()).to(builder::userAgent);
+		Map<String, Object> loadBalancingConfig = null;
 		if (!authority.startsWith("unix:")) {
 			mapper.from(channel.getDefaultLoadBalancingPolicy()).to(builder::defaultLoadBalancingPolicy);
+			loadBalancingConfig = loadBalancingConfig(channel.getDefaultLoadBalancingPolicy(),
+					channel.getLoadBalancing());
 		}
 		mapper.from(channel.getMaxInboundMessageSize()).asInt(DataSize::toBytes).to(builder::maxInboundMessageSize);
 		mapper.from(channel.getMaxInboundMetadataSize()).asInt(DataSize::toBytes).to(builder::maxInboundMessageSize);
@@ -59,12 +115,300 @@ class ClientPropertiesChannelBuilderCustomizer<T extends ManagedChannelBuilder<T
 		mapper.from(channel.getKeepAliveTimeout()).to(durationProperty(builder::keepAliveTimeout));
 		mapper.from(channel.getIdleTimeout()).to(durationProperty(builder::idleTimeout));
 		mapper.from(channel.isKeepAliveWithoutCalls()).to(builder::keepAliveWithoutCalls);
+		if (channel.getExecutor().getType() == ExecutorConfig.Type.DIRECT) {
+			builder.directExecutor();
+		}
+		else {
+			mapper.from(executor(authority, channel.getExecutor())).to(builder::executor);
+		}
+		if (channel.getOffloadExecutor().getType() == ExecutorConfig.Type.DIRECT) {
+			throw new IllegalStateException(
+					"The offload executor of channel '" + authority + "' cannot be direct (it runs blocking tasks)");
+		}
+		mapper.from(executor(authority, channel.getOffloadExecutor())).to(builder::offloadExecutor);
+		Map<String, Object> serviceConfig = new LinkedHashMap<>();
 		if (channel.getHealth().isEnabled()) {
 			String serviceNameToCheck = channel.getHealth().getServiceName() != null
 					? channel.getHealth().getServiceName() : "";
-			Map<String, ?> healthCheckConfig = Map.of("healthCheckConfig", Map.of("serviceName", serviceNameToCheck));
-			builder.defaultServiceConfig(healthCheckConfig);
+			serviceConfig.put("healthCheckConfig", Map.of("serviceName", serviceNameToCheck));
+		}
+		if (loadBalancingConfig != null) {
+			serviceConfig.put("loadBalancingConfig", List.of(loadBalancingConfig));
+		}
+		List<Map<String, Object>> methodConfigs = methodConfigs(channel);
+		if (!methodConfigs.isEmpty()) {
+			serviceConfig.put("methodConfig", methodConfigs);
+			int maxAttempts = methodConfigs.stream()
+				.map((config) -> config.getOrDefault("retryPolicy", config.get("hedgingPolicy")))
+				.filter(Objects::nonNull)
+				.mapToInt((policy) -> ((Double) ((Map<?, ?>) policy).get("maxAttempts")).intValue())
+				.max()
+				.orElse(0);
+			if (maxAttempts > 5) {
+				// The builder caps the attempts at 5 by default
+				builder.maxRetryAttempts(maxAttempts);
+			}
+		}
+		if (channel.getRetryThrottling().isEnabled()) {
+			serviceConfig.put("retryThrottling",
+					Map.of("maxTokens", (double) channel.getRetryThrottling().getMaxTokens(), "tokenRatio",
+							channel.getRetryThrottling().getTokenRatio()));
+		}
+		if (!serviceConfig.isEmpty()) {
+			builder.defaultServiceConfig(serviceConfig);
+		}
+		if (channel.getCircuitBreaker().isEnabled()) {
+			// Shared by all the channels for the same target (e.g. in a pool)
+			builder.intercept(this.circuitBreakers.computeIfAbsent(authority,
+					(target) -> circuitBreaker(target, channel.getCircuitBreaker())));
+		}
+		if (channel.getThrottling().isEnabled()) {
+			// Added before the cache so it only counts calls that are sent, and shared by
+			// all the channels for the same target so it sees all their traffic
+			builder.intercept(this.throttles.computeIfAbsent(authority,
+					(target) -> new AdaptiveThrottlingInterceptor(channel.getThrottling().getMultiplier(),
+							channel.getThrottling().getWindow())));
+		}
+		Map<String, ResponseCacheInterceptor.Policy> caches = caches(channel);
+		if (!caches.isEmpty()) {
+			// Shared by all the channels for the same target, so they share the entries
+			builder.intercept(this.responseCaches.computeIfAbsent(authority, (target) -> {
+				ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(caches);
+				// Calls without their own executor get cached responses on the channel's
+				mapper.from(executor(target, channel.getExecutor())).to(interceptor::setExecutor);
+				return interceptor;
+			}));
+		}
+		Map<String, DefaultCallOptionsInterceptor.Defaults> callOptions = callOptions(channel);
+		if (!callOptions.isEmpty()) {
+			// Added last so it runs first and other interceptors see the call options
+			builder.intercept(new DefaultCallOptionsInterceptor(callOptions));
+		}
+	}
+
+	private Executor executor(String authority, ExecutorConfig config) {
+		return switch (config.getType()) {
+			case VIRTUAL -> new VirtualThreadTaskExecutor("grpc-" + authority + "-");
+			case BEAN -> this.beanFactory.getBean(config.getBeanName(), Executor.class);
+			default -> null;
+		};
+	}
+
+	private Map<String, DefaultCallOptionsInterceptor.Defaults> callOptions(ChannelConfig channel) {
+		Map<String, DefaultCallOptionsInterceptor.Defaults> result = new LinkedHashMap<>();
+		for (Map.Entry<String, MethodConfig> entry : channel.getMethods().entrySet()) {
+			MethodConfig method = entry.getValue();
+			if (method.getTimeout() != null || method.getWaitForReady() != null
+					|| method.getMaxOutboundMessageSize() != null || method.getCompression() != null) {
+				Integer maxOutboundMessageSize = method.getMaxOutboundMessageSize() != null
+						? (int) method.getMaxOutboundMessageSize().toBytes() : null;
+				result.put(entry.getKey(), new DefaultCallOptionsInterceptor.Defaults(method.getTimeout(),
+						method.getWaitForReady(), maxOutboundMessageSize, method.getCompression()));
+			}
+		}
+		return result;
+	}
+
+	private Map<String, Object> loadBalancingConfig(String policy, LoadBalancing properties) {
+		if (policy == null) {
+			return null;
+		}
+		Map<String, Object> config = new LinkedHashMap<>();
+		if (LeastRequestLoadBalancerProvider.POLICY_NAME.equals(policy)) {
+			config.put("choiceCount", (double) properties.getLeastRequest().getChoiceCount());
+		}
+		else if (ConsistentHashLoadBalancerProvider.POLICY_NAME.equals(policy)) {
+			ConsistentHash consistentHash = properties.getConsistentHash();
+			if (!StringUtils.hasText(consistentHash.getHashHeader())) {
+				throw new IllegalStateException("The consistent_hash load balancing policy needs a hash-header");
+			}
+			config.put("hashHeader", consistentHash.getHashHeader());
+			config.put("algorithm", consistentHash.getAlgorithm().name().toLowerCase(Locale.ROOT));
+			config.put("minRingSize", (double) consistentHash.getMinRingSize());
+			config.put("tableSize", (double) consistentHash.getTableSize());
+		}
+		else if (WEIGHTED_ROUND_ROBIN.equals(policy)) {
+			WeightedRoundRobin weighted = properties.getWeightedRoundRobin();
+			config.put("enableOobLoadReport", weighted.isEnableOobLoadReport());
+			config.put("oobReportingPeriod", durationString(weighted.getOobReportingPeriod()));
+			config.put("blackoutPeriod", durationString(weighted.getBlackoutPeriod()));
+			config.put("weightExpirationPeriod", durationString(weighted.getWeightExpirationPeriod()));
+			config.put("weightUpdatePeriod", durationString(weighted.getWeightUpdatePeriod()));
+			config.put("errorUtilizationPenalty", weighted.getErrorUtilizationPenalty());
+		}
+		OutlierDetection outlierDetection = properties.getOutlierDetection();
+		Subsetting subsetting = properties.getSubsetting();
+		ZoneAware zoneAware = properties.getZoneAware();
+		if (config.isEmpty() && !outlierDetection.isEnabled() && subsetting.getSubsetSize() <= 0
+				&& !StringUtils.hasText(zoneAware.getLocalZone())) {
+			// Plain policy name, already set on the builder
+			return null;
+		}
+		assertAvailable(policy);
+		Map<String, Object> result = Map.of(policy, config);
+		if (subsetting.getSubsetSize() > 0) {
+			Map<String, Object> subset = new LinkedHashMap<>();
+			subset.put("subsetSize", (double) subsetting.getSubsetSize());
+			if (subsetting.getClientIndex() != null) {
+				subset.put("clientIndex", (double) subsetting.getClientIndex());
+			}
+			subset.put("childPolicy", List.of(result));
+			result = Map.of(DeterministicSubsettingLoadBalancerProvider.POLICY_NAME, subset);
+		}
+		if (StringUtils.hasText(zoneAware.getLocalZone())) {
+			Map<String, Object> zones = new LinkedHashMap<>();
+			zones.put("localZone", zoneAware.getLocalZone());
+			zones.put("minHealthyPercent", (double) zoneAware.getMinHealthyPercent());
+			zones.put("maxRequestsPerBackend", (double) zoneAware.getMaxRequestsPerBackend());
+			zones.put("childPolicy", List.of(result));
+			result = Map.of(ZoneAwareLoadBalancerProvider.POLICY_NAME, zones);
 		}
+		if (outlierDetection.isEnabled()) {
+			assertAvailable(OUTLIER_DETECTION);
+			Map<String, Object> detection = new LinkedHashMap<>();
+			detection.put("interval", durationString(outlierDetection.getInterval()));
+			detection.put("baseEjectionTime", durationString(outlierDetection.getBaseEjectionTime()));
+			detection.put("maxEjectionTime", durationString(outlierDetection.getMaxEjectionTime()));
+			detection.put("maxEjectionPercentage", (double) outlierDetection.getMaxEjectionPercent());
+			SuccessRate successRate = outlierDetection.getSuccessRate();
+			if (successRate.isEnabled()) {
+				detection.put("successRateEjection",
+						Map.of("stdevFactor", (double) successRate.getStdevFactor(), "enforcementPercentage",
+								(double) successRate.getEnforcementPercentage(), "minimumHosts",
+								(double) successRate.getMinimumHosts(), "requestVolume",
+								(double) successRate.getRequestVolume()));
+			}
+			FailurePercentage failurePercentage = outlierDetection.getFailurePercentage();
+			if (failurePercentage.isEnabled()) {
+				detection.put("failurePercentageEjection",
+						Map.of("threshold", (double) failurePercentage.getThreshold(), "enforcementPercentage",
+								(double) failurePercentage.getEnforcementPercentage(), "minimumHosts",
+								(double) failurePercentage.getMinimumHosts(), "requestVolume",
+								(double) failurePercentage.getRequestVolume()));
+			}
+			detection.put("childPolicy", List.of(result));
+			result = Map.of(OUTLIER_DETECTION, detection);
+		}
+		return result;
+	}
+
+	private static void assertAvailable(String policy) {
+		if (LoadBalancerRegistry.getDefaultRegistry().getProvider(policy) == null) {
+			String hint = WEIGHTED_ROUND_ROBIN.equals(policy) ? " (it is provided by grpc-xds)"
+					: OUTLIER_DETECTION.equals(policy) ? " (it is provided by grpc-util)" : "";
+			throw new IllegalStateException("Load balancing policy '" + policy + "' is not available" + hint);
+		}
+	}
+
+	private CircuitBreakerInterceptor circuitBreaker(String target, CircuitBreaker properties) {
+		CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor(target);
+		interceptor.setFailureRateThreshold(properties.getFailureRateThreshold());
+		interceptor.setSlowCallRateThreshold(properties.getSlowCallRateThreshold());
+		interceptor.setSlowCallDuration(properties.getSlowCallDuration());
+		interceptor.setSlidingWindowSize(properties.getSlidingWindowSize());
+		interceptor.setMinimumNumberOfCalls(properties.getMinimumNumberOfCalls());
+		interceptor.setWaitDurationInOpenState(properties.getWaitDurationInOpenState());
+		interceptor.setPermittedCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState());
+		this.circuitBreakerListeners.orderedStream().forEach(interceptor::addListener);
+		return interceptor;
+	}
+
+	private Map<String, ResponseCacheInterceptor.Policy> caches(ChannelConfig channel) {
+		Map<String, ResponseCacheInterceptor.Policy> result = new LinkedHashMap<>();
+		for (Map.Entry<String, MethodConfig> entry : channel.getMethods().entrySet()) {
+			Cache cache = entry.getValue().getCache();
+			if (cache.isEnabled()) {
+				result.put(entry.getKey(), new ResponseCacheInterceptor.Policy(cache.getTimeToLive(),
+						cache.getMaxSize(), cache.getVary()));
+			}
+		}
+		return result;
+	}
+
+	private List<Map<String, Object>> methodConfigs(ChannelConfig channel) {
+		List<Map<String, Object>> result = new ArrayList<>();
+		// The "*" pattern has the same name as the channel defaults, so it replaces them
+		MethodConfig all = channel.getMethods().get("*");
+		Map<String, Object> defaults = (all != null && isSet(all.getRetry(), all.getHedging()))
+				? methodConfig("*", all.getRetry(), all.getHedging())
+				: methodConfig("*", channel.getRetry(), channel.getHedging());
+		if (defaults != null) {
+			result.add(defaults);
+		}
+		for (Map.Entry<String, MethodConfig> entry : channel.getMethods().entrySet()) {
+			if ("*".equals(entry.getKey())) {
+				continue;
+			}
+			MethodConfig method = entry.getValue();
+			Map<String, Object> config = methodConfig(entry.getKey(), method.getRetry(), method.getHedging());
+			if (config != null) {
+				result.add(config);
+			}
+		}
+		return result;
+	}
+
+	private static boolean isSet(Retry retry, Hedging hedging) {
+		return retry.isEnabledSet() || hedging.isEnabledSet();
+	}
+
+	private Map<String, Object> methodConfig(String pattern, Retry retry, Hedging hedging) {
+		if (!retry.isEnabled() && !hedging.isEnabled() && !isSet(retry, hedging)) {
+			return null;
+		}
+		if (retry.isEnabled() && hedging.isEnabled()) {
+			throw new IllegalStateException("Retry and hedging cannot both be enabled for '" + pattern + "'");
+		}
+		Map<String, Object> config = new LinkedHashMap<>();
+		config.put("name", List.of(methodName(pattern)));
+		if (!retry.isEnabled() && !hedging.isEnabled()) {
+			// Explicitly disabled, so the method has no policy even if the channel has
+			// one
+			return config;
+		}
+		if (retry.isEnabled()) {
+			Map<String, Object> policy = new LinkedHashMap<>();
+			policy.put("maxAttempts", (double) retry.getMaxAttempts());
+			policy.put("initialBackoff", durationString(retry.getInitialBackoff()));
+			policy.put("maxBackoff", durationString(retry.getMaxBackoff()));
+			policy.put("backoffMultiplier", retry.getBackoffMultiplier());
+			policy.put("retryableStatusCodes", statusCodes(retry.getRetryableStatusCodes()));
+			config.put("retryPolicy", policy);
+		}
+		else {
+			Map<String, Object> policy = new LinkedHashMap<>();
+			policy.put("maxAttempts", (double) hedging.getMaxAttempts());
+			if (hedging.getHedgingDelay() != null) {
+				policy.put("hedgingDelay", durationString(hedging.getHedgingDelay()));
+			}
+			policy.put("nonFatalStatusCodes", statusCodes(hedging.getNonFatalStatusCodes()));
+			config.put("hedgingPolicy", policy);
+		}
+		return config;
+	}
+
+	static Map<String, Object> methodName(String pattern) {
+		if ("*".equals(pattern)) {
+			return Map.of();
+		}
+		int index = pattern.indexOf('/');
+		if (index < 0) {
+			return Map.of("service", pattern);
+		}
+		String service = pattern.substring(0, index);
+		String method = pattern.substring(index + 1);
+		if (method.isEmpty() || "*".equals(method)) {
+			return Map.of("service", service);
+		}
+		return Map.of("service", service, "method", method);
+	}
+
+	private static List<String> statusCodes(List<Status.Code> codes) {
+		return codes.stream().map(Status.Code::name).toList();
+	}
+
+	private static String durationString(Duration duration) {
+		return BigDecimal.valueOf(duration.toNanos(), 9).stripTrailingZeros().toPlainString() + "s";
 	}
 
 	Consumer<Duration> durationProperty(BiConsumer<Long, TimeUnit> setter) {
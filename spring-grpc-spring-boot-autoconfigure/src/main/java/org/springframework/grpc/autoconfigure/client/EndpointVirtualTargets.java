@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import org.springframework.grpc.client.VirtualTargets;
+import org.springframework.grpc.client.nameresolver.EndpointNameResolverProvider;
+import org.springframework.grpc.client.nameresolver.EndpointRegistry;
+
+/**
+ * The {@link VirtualTargets} of the channels: the targets from the
+ * {@link GrpcClientProperties}, except for a channel that is not configured but has
+ * endpoints in the {@link EndpointRegistry} (e.g. from the endpoints file), which
+ * connects to those endpoints.
+ *
+ * @author Dave Syer
+ */
+class EndpointVirtualTargets implements VirtualTargets {
+
+	private final GrpcClientProperties properties;
+
+	private final EndpointRegistry registry;
+
+	EndpointVirtualTargets(GrpcClientProperties properties, EndpointRegistry registry) {
+		this.properties = properties;
+		this.registry = registry;
+	}
+
+	@Override
+	public String getTarget(String authority) {
+		if (!"default".equals(authority) && !this.properties.getChannels().containsKey(authority)
+				&& !this.registry.getEndpoints(authority).isEmpty()) {
+			return EndpointNameResolverProvider.SCHEME + ":///" + authority;
+		}
+		return this.properties.getTarget(authority);
+	}
+
+}
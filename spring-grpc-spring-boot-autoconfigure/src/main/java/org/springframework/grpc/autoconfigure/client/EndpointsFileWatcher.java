@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.EndpointConfig;
+import org.springframework.grpc.client.nameresolver.Endpoint;
+import org.springframework.grpc.client.nameresolver.EndpointRegistry;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Loads endpoints from a file into an {@link EndpointRegistry}, and reloads them when the
+ * file changes. The file has the same structure as the
+ * {@code spring.grpc.client.endpoints} properties, e.g.
+ * {@code kv[0].address=10.0.0.1:9090}. Targets in the file replace the ones with the same
+ * name from the properties, and revert to them if they are removed from the file.
+ *
+ * @author Dave Syer
+ */
+class EndpointsFileWatcher implements InitializingBean, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(EndpointsFileWatcher.class);
+
+	private static final Bindable<Map<String, List<EndpointConfig>>> ENDPOINTS = Bindable
+		.of(ResolvableType.forClassWithGenerics(Map.class, ResolvableType.forClass(String.class),
+				ResolvableType.forClassWithGenerics(List.class, EndpointConfig.class)));
+
+	private final EndpointRegistry registry;
+
+	private final GrpcClientProperties properties;
+
+	private final Resource resource;
+
+	private Set<String> names = Set.of();
+
+	private long lastModified = -1;
+
+	private ScheduledExecutorService executor;
+
+	EndpointsFileWatcher(EndpointRegistry registry, GrpcClientProperties properties) {
+		this.registry = registry;
+		this.properties = properties;
+		this.resource = new DefaultResourceLoader().getResource(properties.getEndpointsFile().getLocation());
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		refresh();
+		CustomizableThreadFactory threads = new CustomizableThreadFactory("grpc-endpoints-file-");
+		threads.setDaemon(true);
+		this.executor = Executors.newSingleThreadScheduledExecutor(threads);
+		long interval = this.properties.getEndpointsFile().getRefreshInterval().toMillis();
+		this.executor.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+		}
+	}
+
+	synchronized void refresh() {
+		try {
+			long modified = this.resource.exists() ? this.resource.lastModified() : 0;
+			if (modified == this.lastModified) {
+				return;
+			}
+			Map<String, List<Endpoint>> loaded = modified > 0 ? load() : Map.of();
+			this.lastModified = modified;
+			Set<String> all = new HashSet<>(this.names);
+			all.addAll(loaded.keySet());
+			for (String name : all) {
+				List<Endpoint> endpoints = loaded.get(name);
+				if (endpoints == null) {
+					endpoints = this.properties.getEndpoints()
+						.getOrDefault(name, List.of())
+						.stream()
+						.map(EndpointConfig::toEndpoint)
+						.toList();
+				}
+				this.registry.setEndpoints(name, endpoints);
+			}
+			this.names = loaded.keySet();
+		}
+		catch (Exception ex) {
+			logger.warn("Could not load endpoints from " + this.resource, ex);
+		}
+	}
+
+	private Map<String, List<Endpoint>> load() throws IOException {
+		String filename = this.resource.getFilename();
+		PropertySourceLoader loader = (filename != null && (filename.endsWith(".yml") || filename.endsWith(".yaml")))
+				? new YamlPropertySourceLoader() : new PropertiesPropertySourceLoader();
+		List<PropertySource<?>> sources = loader.load("grpc-endpoints", this.resource);
+		Map<String, List<EndpointConfig>> bound = new Binder(ConfigurationPropertySources.from(sources))
+			.bind("", ENDPOINTS)
+			.orElse(Map.of());
+		Map<String, List<Endpoint>> result = new HashMap<>();
+		bound.forEach((name, list) -> result.put(name, list.stream().map(EndpointConfig::toEndpoint).toList()));
+		return result;
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.grpc.client.DefaultGrpcChannelFactory;
+import org.springframework.grpc.client.GrpcChannelFactory;
+
+/**
+ * Closes the connections of the client channels before a checkpoint is taken (with CRaC)
+ * and opens them again when it is restored. Spring stops the lifecycle beans before the
+ * checkpoint and starts them again on restore, so this only has to
+ * {@link DefaultGrpcChannelFactory#suspend() suspend} and
+ * {@link DefaultGrpcChannelFactory#resume() resume} the channel factories. The channels
+ * that have already been injected into clients keep working after the restore.
+ *
+ * @author Dave Syer
+ */
+class GrpcChannelCheckpointRestore implements SmartLifecycle {
+
+	private static final Log logger = LogFactory.getLog(GrpcChannelCheckpointRestore.class);
+
+	private final ObjectProvider<GrpcChannelFactory> channelFactories;
+
+	private volatile boolean running;
+
+	GrpcChannelCheckpointRestore(ObjectProvider<GrpcChannelFactory> channelFactories) {
+		this.channelFactories = channelFactories;
+	}
+
+	@Override
+	public void start() {
+		this.channelFactories.orderedStream().forEach((factory) -> {
+			if (factory instanceof DefaultGrpcChannelFactory<?> channels && channels.isSuspended()) {
+				logger.debug("Resuming gRPC channels");
+				channels.resume();
+			}
+		});
+		this.running = true;
+	}
+
+	@Override
+	public void stop() {
+		this.running = false;
+		this.channelFactories.orderedStream().forEach((factory) -> {
+			if (factory instanceof DefaultGrpcChannelFactory<?> channels) {
+				logger.debug("Suspending gRPC channels");
+				channels.suspend();
+			}
+		});
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	@Override
+	public int getPhase() {
+		// Stop after (and start before) the gRPC and web servers, which might use clients
+		return SmartLifecycle.DEFAULT_PHASE - 4096;
+	}
+
+}
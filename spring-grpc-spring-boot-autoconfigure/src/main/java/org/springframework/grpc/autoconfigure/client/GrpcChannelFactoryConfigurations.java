@@ -18,17 +18,20 @@ package org.springframework.grpc.autoconfigure.client;
 
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.grpc.client.ChannelCredentialsProvider;
+import org.springframework.grpc.client.ChannelMonitor;
 import org.springframework.grpc.client.ClientInterceptorsConfigurer;
 import org.springframework.grpc.client.GrpcChannelBuilderCustomizer;
 import org.springframework.grpc.client.GrpcChannelFactory;
 import org.springframework.grpc.client.NettyGrpcChannelFactory;
 import org.springframework.grpc.client.ShadedNettyGrpcChannelFactory;
+import org.springframework.grpc.client.nameresolver.EndpointRegistry;
 
 import io.grpc.netty.NettyChannelBuilder;
 
@@ -48,12 +51,15 @@ class GrpcChannelFactoryConfigurations {
 		@Bean
 		ShadedNettyGrpcChannelFactory shadedNettyGrpcChannelFactory(GrpcClientProperties properties,
 				ChannelBuilderCustomizers channelBuilderCustomizers,
-				ClientInterceptorsConfigurer interceptorsConfigurer, ChannelCredentialsProvider credentials) {
+				ClientInterceptorsConfigurer interceptorsConfigurer, ChannelCredentialsProvider credentials,
+				ObjectProvider<ChannelMonitor.Listener> channelListeners, EndpointRegistry endpointRegistry) {
 			List<GrpcChannelBuilderCustomizer<io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder>> builderCustomizers = List
 				.of(channelBuilderCustomizers::customize);
 			var factory = new ShadedNettyGrpcChannelFactory(builderCustomizers, interceptorsConfigurer);
 			factory.setCredentialsProvider(credentials);
-			factory.setVirtualTargets(properties);
+			factory.setVirtualTargets(new EndpointVirtualTargets(properties, endpointRegistry));
+			factory.setPoolSizes((target) -> properties.getChannel(target).getPoolSize());
+			channelListeners.orderedStream().forEach(factory::addChannelListener);
 			return factory;
 		}
 
@@ -68,12 +74,15 @@ class GrpcChannelFactoryConfigurations {
 		@Bean
 		NettyGrpcChannelFactory nettyGrpcChannelFactory(GrpcClientProperties properties,
 				ChannelBuilderCustomizers channelBuilderCustomizers,
-				ClientInterceptorsConfigurer interceptorsConfigurer, ChannelCredentialsProvider credentials) {
+				ClientInterceptorsConfigurer interceptorsConfigurer, ChannelCredentialsProvider credentials,
+				ObjectProvider<ChannelMonitor.Listener> channelListeners, EndpointRegistry endpointRegistry) {
 			List<GrpcChannelBuilderCustomizer<NettyChannelBuilder>> builderCustomizers = List
 				.of(channelBuilderCustomizers::customize);
 			var factory = new NettyGrpcChannelFactory(builderCustomizers, interceptorsConfigurer);
 			factory.setCredentialsProvider(credentials);
-			factory.setVirtualTargets(properties);
+			factory.setVirtualTargets(new EndpointVirtualTargets(properties, endpointRegistry));
+			factory.setPoolSizes((target) -> properties.getChannel(target).getPoolSize());
+			channelListeners.orderedStream().forEach(factory::addChannelListener);
 			return factory;
 		}
 
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig;
+import org.springframework.grpc.client.GrpcChannelFactory;
+
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+
+/**
+ * Connects the channels that have warm-up enabled when the application has started,
+ * without blocking startup. If Spring Boot marks the application as ready to accept
+ * traffic before the channels are ready (or have timed out), the readiness state is set
+ * back to {@link ReadinessState#REFUSING_TRAFFIC} and only switched to
+ * {@link ReadinessState#ACCEPTING_TRAFFIC} when the warm-up is over, so a readiness probe
+ * does not pass until the channels are connected (unless something else has changed the
+ * readiness state in the meantime). The channels are kept open so that clients created
+ * from the same factory share the connections.
+ *
+ * @author Dave Syer
+ */
+class GrpcChannelWarmup implements SmartApplicationListener {
+
+	private static final Log logger = LogFactory.getLog(GrpcChannelWarmup.class);
+
+	private final GrpcClientProperties properties;
+
+	private final ObjectProvider<GrpcChannelFactory> channelFactory;
+
+	private final ObjectProvider<ApplicationAvailability> availability;
+
+	private final List<ManagedChannel> channels = new ArrayList<>();
+
+	private final Object monitor = new Object();
+
+	private ConfigurableApplicationContext context;
+
+	private CompletableFuture<Void> warmup = CompletableFuture.completedFuture(null);
+
+	private boolean warmedUp = true;
+
+	private boolean refusing;
+
+	GrpcChannelWarmup(GrpcClientProperties properties, ObjectProvider<GrpcChannelFactory> channelFactory,
+			ObjectProvider<ApplicationAvailability> availability) {
+		this.properties = properties;
+		this.channelFactory = channelFactory;
+		this.availability = availability;
+	}
+
+	@Override
+	public int getOrder() {
+		// Run after the ApplicationAvailabilityBean (which has no order of its own and is
+		// registered first, since the auto-configuration runs after it), so that the
+		// state it records is overridden straight away
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+	@Override
+	public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+		return ApplicationStartedEvent.class.isAssignableFrom(eventType)
+				|| AvailabilityChangeEvent.class.isAssignableFrom(eventType);
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if (event instanceof ApplicationStartedEvent started) {
+			onStarted(started.getApplicationContext());
+		}
+		else if (event instanceof AvailabilityChangeEvent<?> change) {
+			onAvailabilityChange(change);
+		}
+	}
+
+	private void onStarted(ConfigurableApplicationContext context) {
+		GrpcChannelFactory factory = this.channelFactory.getIfAvailable();
+		if (factory == null) {
+			return;
+		}
+		List<CompletableFuture<Void>> ready = new ArrayList<>();
+		for (Map.Entry<String, ChannelConfig> entry : this.properties.getChannels().entrySet()) {
+			if (entry.getValue().getWarmup().isEnabled()) {
+				String name = entry.getKey();
+				ManagedChannel channel = factory.createChannel(name);
+				this.channels.add(channel);
+				long timeout = entry.getValue().getWarmup().getTimeout().toNanos();
+				ready.add(awaitReady(channel).orTimeout(timeout, TimeUnit.NANOSECONDS).handle((result, ex) -> {
+					log(name, entry.getValue(), ex);
+					return null;
+				}));
+			}
+		}
+		if (ready.isEmpty()) {
+			return;
+		}
+		synchronized (this.monitor) {
+			this.context = context;
+			this.warmedUp = false;
+		}
+		this.warmup = CompletableFuture.allOf(ready.toArray(new CompletableFuture<?>[0]))
+			.whenComplete((result, ex) -> warmedUp());
+	}
+
+	private void onAvailabilityChange(AvailabilityChangeEvent<?> event) {
+		if (event.getSource() == this || event.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+			return;
+		}
+		synchronized (this.monitor) {
+			if (this.warmedUp) {
+				return;
+			}
+			this.refusing = true;
+		}
+		// The ApplicationAvailabilityBean has already seen the original event (see
+		// getOrder()), so this one overrides it
+		logger.info("Refusing traffic until gRPC channels are warmed up");
+		AvailabilityChangeEvent.publish(this.context, this, ReadinessState.REFUSING_TRAFFIC);
+	}
+
+	private void warmedUp() {
+		boolean accept;
+		synchronized (this.monitor) {
+			this.warmedUp = true;
+			accept = this.refusing;
+			this.refusing = false;
+		}
+		if (!accept || !this.context.isActive()) {
+			return;
+		}
+		ApplicationAvailability availability = this.availability.getIfAvailable();
+		AvailabilityChangeEvent<ReadinessState> last = (availability != null)
+				? availability.getLastChangeEvent(ReadinessState.class) : null;
+		if (last != null && last.getSource() != this) {
+			// Something else has changed the state since the warm-up refused traffic
+			return;
+		}
+		AvailabilityChangeEvent.publish(this.context, this, ReadinessState.ACCEPTING_TRAFFIC);
+	}
+
+	private static void log(String name, ChannelConfig config, Throwable ex) {
+		if (ex == null) {
+			logger.debug("Channel '" + name + "' is ready");
+		}
+		else if (ex instanceof TimeoutException) {
+			logger.warn("Channel '" + name + "' was not ready after " + config.getWarmup().getTimeout());
+		}
+		else {
+			logger.warn("Channel '" + name + "' could not be warmed up", ex);
+		}
+	}
+
+	List<ManagedChannel> getChannels() {
+		return this.channels;
+	}
+
+	CompletableFuture<Void> getWarmup() {
+		return this.warmup;
+	}
+
+	static CompletableFuture<Void> awaitReady(ManagedChannel channel) {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		check(channel, result);
+		return result;
+	}
+
+	private static void check(ManagedChannel channel, CompletableFuture<Void> result) {
+		ConnectivityState state = channel.getState(true);
+		if (state == ConnectivityState.READY) {
+			result.complete(null);
+		}
+		else if (state == ConnectivityState.SHUTDOWN) {
+			result.completeExceptionally(new IllegalStateException("Channel was shut down"));
+		}
+		else {
+			channel.notifyWhenStateChanged(state, () -> check(channel, result));
+		}
+	}
+
+}
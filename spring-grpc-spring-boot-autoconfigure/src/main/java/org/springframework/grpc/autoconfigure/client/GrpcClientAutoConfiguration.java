@@ -15,23 +15,34 @@
  */
 package org.springframework.grpc.autoconfigure.client;
 
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.availability.ApplicationAvailabilityAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnCheckpointRestore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.ApplicationAvailability;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.EndpointConfig;
 import org.springframework.grpc.autoconfigure.common.codec.GrpcCodecConfiguration;
 import org.springframework.grpc.client.ChannelCredentialsProvider;
+import org.springframework.grpc.client.CircuitBreakerInterceptor;
 import org.springframework.grpc.client.GrpcChannelBuilderCustomizer;
+import org.springframework.grpc.client.GrpcChannelFactory;
+import org.springframework.grpc.client.nameresolver.EndpointNameResolverProvider;
+import org.springframework.grpc.client.nameresolver.EndpointRegistry;
+import org.springframework.lang.Nullable;
 
 import io.grpc.CompressorRegistry;
 import io.grpc.DecompressorRegistry;
 import io.grpc.ManagedChannelBuilder;
 
-@AutoConfiguration
+@AutoConfiguration(after = ApplicationAvailabilityAutoConfiguration.class)
 @ConditionalOnGrpcClientEnabled
 @EnableConfigurationProperties(GrpcClientProperties.class)
 @Import({ GrpcCodecConfiguration.class, ClientInterceptorsConfiguration.class,
@@ -47,8 +58,51 @@ public class GrpcClientAutoConfiguration {
 
 	@Bean
 	<T extends ManagedChannelBuilder<T>> GrpcChannelBuilderCustomizer<T> clientPropertiesChannelCustomizer(
-			GrpcClientProperties properties) {
-		return new ClientPropertiesChannelBuilderCustomizer<>(properties);
+			GrpcClientProperties properties, ObjectProvider<CircuitBreakerInterceptor.Listener> circuitBreakerListeners,
+			BeanFactory beanFactory) {
+		return new ClientPropertiesChannelBuilderCustomizer<>(properties, circuitBreakerListeners, beanFactory);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	EndpointRegistry grpcEndpointRegistry(GrpcClientProperties properties) {
+		EndpointRegistry registry = new EndpointRegistry();
+		properties.getEndpoints()
+			.forEach((name, endpoints) -> registry.setEndpoints(name,
+					endpoints.stream().map(EndpointConfig::toEndpoint).toList()));
+		return registry;
+	}
+
+	@Bean
+	@ConditionalOnProperty("spring.grpc.client.endpoints-file.location")
+	EndpointsFileWatcher grpcEndpointsFileWatcher(EndpointRegistry registry, GrpcClientProperties properties) {
+		return new EndpointsFileWatcher(registry, properties);
+	}
+
+	@Bean
+	<T extends ManagedChannelBuilder<T>> GrpcChannelBuilderCustomizer<T> endpointsChannelCustomizer(
+			GrpcClientProperties properties, EndpointRegistry registry, @Nullable EndpointsFileWatcher fileWatcher) {
+		// The file watcher (if there is one) is injected so that the file is loaded
+		// before any channels are created, and unconfigured channels can use the
+		// target names from the file
+		EndpointVirtualTargets targets = new EndpointVirtualTargets(properties, registry);
+		return (name, builder) -> {
+			if (targets.getTarget(name).startsWith(EndpointNameResolverProvider.SCHEME + ":")) {
+				builder.setNameResolverArg(EndpointNameResolverProvider.REGISTRY, registry);
+			}
+		};
+	}
+
+	@Bean
+	GrpcChannelWarmup grpcChannelWarmup(GrpcClientProperties properties,
+			ObjectProvider<GrpcChannelFactory> channelFactory, ObjectProvider<ApplicationAvailability> availability) {
+		return new GrpcChannelWarmup(properties, channelFactory, availability);
+	}
+
+	@Bean
+	@ConditionalOnCheckpointRestore
+	GrpcChannelCheckpointRestore grpcChannelCheckpointRestore(ObjectProvider<GrpcChannelFactory> channelFactories) {
+		return new GrpcChannelCheckpointRestore(channelFactories);
 	}
 
 	@ConditionalOnBean(CompressorRegistry.class)
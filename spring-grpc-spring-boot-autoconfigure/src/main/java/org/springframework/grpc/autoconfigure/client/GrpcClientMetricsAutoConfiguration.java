@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link AutoConfiguration Auto-configuration} for metrics of gRPC clients.
+ *
+ * @author Dave Syer
+ */
+@AutoConfiguration(afterName = { "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+		"org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration" })
+@ConditionalOnGrpcClientEnabled
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(name = "spring.grpc.client.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcClientMetricsAutoConfiguration {
+
+	@Bean
+	CircuitBreakerMetrics grpcClientCircuitBreakerMetrics(MeterRegistry registry) {
+		return new CircuitBreakerMetrics(registry);
+	}
+
+	@Bean
+	ChannelMetrics grpcClientChannelMetrics(MeterRegistry registry) {
+		return new ChannelMetrics(registry);
+	}
+
+}
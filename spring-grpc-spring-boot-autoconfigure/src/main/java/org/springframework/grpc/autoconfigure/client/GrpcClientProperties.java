@@ -17,7 +17,10 @@ package org.springframework.grpc.autoconfigure.client;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -28,9 +31,13 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.grpc.client.NegotiationType;
 import org.springframework.grpc.client.VirtualTargets;
+import org.springframework.grpc.client.loadbalancer.ConsistentHashLoadBalancerProvider.Algorithm;
+import org.springframework.grpc.client.nameresolver.Endpoint;
+import org.springframework.grpc.client.nameresolver.EndpointNameResolverProvider;
 import org.springframework.util.unit.DataSize;
 
 import io.grpc.ManagedChannel;
+import io.grpc.Status;
 
 @ConfigurationProperties(prefix = "spring.grpc.client")
 public class GrpcClientProperties implements EnvironmentAware, VirtualTargets {
@@ -45,6 +52,14 @@ public class GrpcClientProperties implements EnvironmentAware, VirtualTargets {
 	 */
 	private final Map<String, ChannelConfig> channels = new HashMap<>();
 
+	/**
+	 * Map of endpoints by logical target name. A channel with address 'endpoints:///name'
+	 * (or an unconfigured channel with the same name) connects to these endpoints.
+	 */
+	private final Map<String, List<EndpointConfig>> endpoints = new HashMap<>();
+
+	private final EndpointsFile endpointsFile = new EndpointsFile();
+
 	private Environment environment;
 
 	GrpcClientProperties() {
@@ -60,6 +75,14 @@ public class GrpcClientProperties implements EnvironmentAware, VirtualTargets {
 		return this.channels;
 	}
 
+	public Map<String, List<EndpointConfig>> getEndpoints() {
+		return this.endpoints;
+	}
+
+	public EndpointsFile getEndpointsFile() {
+		return this.endpointsFile;
+	}
+
 	@Override
 	public void setEnvironment(Environment environment) {
 		this.environment = environment;
@@ -67,7 +90,9 @@ public class GrpcClientProperties implements EnvironmentAware, VirtualTargets {
 
 	/**
 	 * Gets the configured channel with the given name. If no channel is configured for
-	 * the specified name then one is created using the default channel as a template.
+	 * the specified name then one is created using the default channel as a template,
+	 * connecting to the endpoints with that name if there are any (in the properties or
+	 * in the endpoint registry).
 	 * @param name the name of the channel
 	 * @return the configured channel if found, or a newly created channel using the
 	 * default channel as a template
@@ -82,7 +107,10 @@ public class GrpcClientProperties implements EnvironmentAware, VirtualTargets {
 		}
 		channel = this.defaultChannel.copy();
 		String address = name;
-		if (!name.contains(":/") && !name.startsWith("unix:")) {
+		if (this.endpoints.containsKey(name)) {
+			address = EndpointNameResolverProvider.SCHEME + ":///" + name;
+		}
+		else if (!name.contains(":/") && !name.startsWith("unix:")) {
 			if (name.contains(":")) {
 				address = "static://" + name;
 			}
@@ -107,6 +135,95 @@ public class GrpcClientProperties implements EnvironmentAware, VirtualTargets {
 		return this.environment.resolvePlaceholders(address);
 	}
 
+	/**
+	 * An endpoint (backend address) of a logical target.
+	 */
+	public static class EndpointConfig {
+
+		/**
+		 * The address of the endpoint, as host:port.
+		 */
+		private String address;
+
+		/**
+		 * The relative weight of the endpoint.
+		 */
+		private int weight = 1;
+
+		/**
+		 * The zone that the endpoint runs in.
+		 */
+		private String zone;
+
+		public String getAddress() {
+			return this.address;
+		}
+
+		public void setAddress(String address) {
+			this.address = address;
+		}
+
+		public int getWeight() {
+			return this.weight;
+		}
+
+		public void setWeight(int weight) {
+			this.weight = weight;
+		}
+
+		public String getZone() {
+			return this.zone;
+		}
+
+		public void setZone(String zone) {
+			this.zone = zone;
+		}
+
+		/**
+		 * Converts to an {@link Endpoint}.
+		 * @return the endpoint
+		 */
+		public Endpoint toEndpoint() {
+			return Endpoint.of(this.address, this.weight, this.zone);
+		}
+
+	}
+
+	/**
+	 * A file with endpoints by logical target name, reloaded when it changes.
+	 */
+	public static class EndpointsFile {
+
+		/**
+		 * Location of a properties or YAML file with endpoints by target name (the same
+		 * structure as 'spring.grpc.client.endpoints'). Targets in the file replace the
+		 * ones with the same name in the application properties.
+		 */
+		private String location;
+
+		/**
+		 * How often to check the file for changes.
+		 */
+		private Duration refreshInterval = Duration.ofSeconds(5);
+
+		public String getLocation() {
+			return this.location;
+		}
+
+		public void setLocation(String location) {
+			this.location = location;
+		}
+
+		public Duration getRefreshInterval() {
+			return this.refreshInterval;
+		}
+
+		public void setRefreshInterval(Duration refreshInterval) {
+			this.refreshInterval = refreshInterval;
+		}
+
+	}
+
 	/**
 	 * Represents the configuration for a {@link ManagedChannel gRPC channel}.
 	 */
@@ -144,12 +261,100 @@ public class GrpcClientProperties implements EnvironmentAware, VirtualTargets {
 
 		// --------------------------------------------------
 
+		/**
+		 * The number of connections to open to the target. Calls are sent to the
+		 * connection with the fewest outstanding calls.
+		 */
+		private int poolSize = 1;
+
+		public int getPoolSize() {
+			return this.poolSize;
+		}
+
+		public void setPoolSize(int poolSize) {
+			if (poolSize < 1) {
+				throw new IllegalArgumentException("Unsupported poolSize: %s".formatted(poolSize));
+			}
+			this.poolSize = poolSize;
+		}
+
+		// --------------------------------------------------
+
 		private final Health health = new Health();
 
 		public Health getHealth() {
 			return this.health;
 		}
 
+		private final LoadBalancing loadBalancing = new LoadBalancing();
+
+		public LoadBalancing getLoadBalancing() {
+			return this.loadBalancing;
+		}
+
+		private final Warmup warmup = new Warmup();
+
+		public Warmup getWarmup() {
+			return this.warmup;
+		}
+
+		private final ExecutorConfig executor = new ExecutorConfig();
+
+		public ExecutorConfig getExecutor() {
+			return this.executor;
+		}
+
+		private final ExecutorConfig offloadExecutor = new ExecutorConfig();
+
+		public ExecutorConfig getOffloadExecutor() {
+			return this.offloadExecutor;
+		}
+
+		// --------------------------------------------------
+		// Retry and Hedging
+		// --------------------------------------------------
+
+		private final Retry retry = new Retry();
+
+		public Retry getRetry() {
+			return this.retry;
+		}
+
+		private final Hedging hedging = new Hedging();
+
+		public Hedging getHedging() {
+			return this.hedging;
+		}
+
+		private final RetryThrottling retryThrottling = new RetryThrottling();
+
+		public RetryThrottling getRetryThrottling() {
+			return this.retryThrottling;
+		}
+
+		private final Throttling throttling = new Throttling();
+
+		public Throttling getThrottling() {
+			return this.throttling;
+		}
+
+		private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+		public CircuitBreaker getCircuitBreaker() {
+			return this.circuitBreaker;
+		}
+
+		/**
+		 * Map of per-method settings keyed by method pattern. The pattern is a fully
+		 * qualified service name (e.g. 'my.package.MyService'), optionally followed by
+		 * '/' and a method name, or '*' for all methods.
+		 */
+		private final Map<String, MethodConfig> methods = new LinkedHashMap<>();
+
+		public Map<String, MethodConfig> getMethods() {
+			return this.methods;
+		}
+
 		/**
 		 * The negotiation type for the channel.
 		 */
@@ -315,6 +520,7 @@ public class GrpcClientProperties implements EnvironmentAware, VirtualTargets {
 			ChannelConfig copy = new ChannelConfig();
 			copy.address = this.address;
 			copy.defaultLoadBalancingPolicy = this.defaultLoadBalancingPolicy;
+			copy.poolSize = this.poolSize;
 			copy.negotiationType = this.negotiationType;
 			copy.enableKeepAlive = this.enableKeepAlive;
 			copy.idleTimeout = this.idleTimeout;
@@ -325,6 +531,16 @@ public class GrpcClientProperties implements EnvironmentAware, VirtualTargets {
 			copy.maxInboundMetadataSize = this.maxInboundMetadataSize;
 			copy.userAgent = this.userAgent;
 			copy.health.copyValuesFrom(this.getHealth());
+			copy.warmup.copyValuesFrom(this.getWarmup());
+			copy.executor.copyValuesFrom(this.getExecutor());
+			copy.offloadExecutor.copyValuesFrom(this.getOffloadExecutor());
+			copy.loadBalancing.copyValuesFrom(this.getLoadBalancing());
+			copy.retry.copyValuesFrom(this.getRetry());
+			copy.hedging.copyValuesFrom(this.getHedging());
+			copy.retryThrottling.copyValuesFrom(this.getRetryThrottling());
+			copy.throttling.copyValuesFrom(this.getThrottling());
+			copy.circuitBreaker.copyValuesFrom(this.getCircuitBreaker());
+			this.methods.forEach((pattern, method) -> copy.methods.put(pattern, method.copy()));
 			copy.ssl.copyValuesFrom(this.getSsl());
 			return copy;
 		}
@@ -432,6 +648,1300 @@ public class GrpcClientProperties implements EnvironmentAware, VirtualTargets {
 
 		}
 
+		public static class LoadBalancing {
+
+			private final LeastRequest leastRequest = new LeastRequest();
+
+			public LeastRequest getLeastRequest() {
+				return this.leastRequest;
+			}
+
+			private final WeightedRoundRobin weightedRoundRobin = new WeightedRoundRobin();
+
+			public WeightedRoundRobin getWeightedRoundRobin() {
+				return this.weightedRoundRobin;
+			}
+
+			private final OutlierDetection outlierDetection = new OutlierDetection();
+
+			public OutlierDetection getOutlierDetection() {
+				return this.outlierDetection;
+			}
+
+			private final ConsistentHash consistentHash = new ConsistentHash();
+
+			public ConsistentHash getConsistentHash() {
+				return this.consistentHash;
+			}
+
+			private final Subsetting subsetting = new Subsetting();
+
+			public Subsetting getSubsetting() {
+				return this.subsetting;
+			}
+
+			private final ZoneAware zoneAware = new ZoneAware();
+
+			public ZoneAware getZoneAware() {
+				return this.zoneAware;
+			}
+
+			/**
+			 * Copies the values from another instance.
+			 * @param other instance to copy values from
+			 */
+			public void copyValuesFrom(LoadBalancing other) {
+				this.leastRequest.copyValuesFrom(other.leastRequest);
+				this.weightedRoundRobin.copyValuesFrom(other.weightedRoundRobin);
+				this.outlierDetection.copyValuesFrom(other.outlierDetection);
+				this.consistentHash.copyValuesFrom(other.consistentHash);
+				this.subsetting.copyValuesFrom(other.subsetting);
+				this.zoneAware.copyValuesFrom(other.zoneAware);
+			}
+
+			public static class LeastRequest {
+
+				/**
+				 * Number of backends to compare for each call (between 2 and 10).
+				 */
+				private int choiceCount = 2;
+
+				public int getChoiceCount() {
+					return this.choiceCount;
+				}
+
+				public void setChoiceCount(int choiceCount) {
+					this.choiceCount = choiceCount;
+				}
+
+				/**
+				 * Copies the values from another instance.
+				 * @param other instance to copy values from
+				 */
+				public void copyValuesFrom(LeastRequest other) {
+					this.choiceCount = other.choiceCount;
+				}
+
+			}
+
+			public static class Subsetting {
+
+				/**
+				 * Number of backends that each client connects to (0 to connect to all of
+				 * them). The subsets are chosen so that each backend gets connections
+				 * from about the same number of clients.
+				 */
+				private int subsetSize = 0;
+
+				/**
+				 * Index of this client instance among the clients of the same service
+				 * (e.g. the ordinal of a pod in a stateful set). Defaults to a hash of
+				 * the host name.
+				 */
+				private Long clientIndex;
+
+				public int getSubsetSize() {
+					return this.subsetSize;
+				}
+
+				public void setSubsetSize(int subsetSize) {
+					this.subsetSize = subsetSize;
+				}
+
+				public Long getClientIndex() {
+					return this.clientIndex;
+				}
+
+				public void setClientIndex(Long clientIndex) {
+					this.clientIndex = clientIndex;
+				}
+
+				/**
+				 * Copies the values from another instance.
+				 * @param other instance to copy values from
+				 */
+				public void copyValuesFrom(Subsetting other) {
+					this.subsetSize = other.subsetSize;
+					this.clientIndex = other.clientIndex;
+				}
+
+			}
+
+			public static class ZoneAware {
+
+				/**
+				 * Zone of this client. If set, calls go to backends in the same zone
+				 * (according to the zone of their endpoint) in preference to the others.
+				 */
+				private String localZone;
+
+				/**
+				 * Percentage of the backends in the local zone that need to be ready to
+				 * keep all the calls in the zone. Below that calls spill over to other
+				 * zones in proportion.
+				 */
+				private int minHealthyPercent = 70;
+
+				/**
+				 * Average number of calls in progress on each ready backend in the local
+				 * zone above which calls spill over to other zones (0 for no limit).
+				 */
+				private int maxRequestsPerBackend = 0;
+
+				public String getLocalZone() {
+					return this.localZone;
+				}
+
+				public void setLocalZone(String localZone) {
+					this.localZone = localZone;
+				}
+
+				public int getMinHealthyPercent() {
+					return this.minHealthyPercent;
+				}
+
+				public void setMinHealthyPercent(int minHealthyPercent) {
+					this.minHealthyPercent = minHealthyPercent;
+				}
+
+				public int getMaxRequestsPerBackend() {
+					return this.maxRequestsPerBackend;
+				}
+
+				public void setMaxRequestsPerBackend(int maxRequestsPerBackend) {
+					this.maxRequestsPerBackend = maxRequestsPerBackend;
+				}
+
+				/**
+				 * Copies the values from another instance.
+				 * @param other instance to copy values from
+				 */
+				public void copyValuesFrom(ZoneAware other) {
+					this.localZone = other.localZone;
+					this.minHealthyPercent = other.minHealthyPercent;
+					this.maxRequestsPerBackend = other.maxRequestsPerBackend;
+				}
+
+			}
+
+			public static class ConsistentHash {
+
+				/**
+				 * Name of the request header to hash (required by the consistent_hash
+				 * policy).
+				 */
+				private String hashHeader;
+
+				/**
+				 * Algorithm used to map hashes to backends.
+				 */
+				private Algorithm algorithm = Algorithm.RING_HASH;
+
+				/**
+				 * Minimum number of points on the ring (for ring hash).
+				 */
+				private int minRingSize = 1024;
+
+				/**
+				 * Size of the lookup table (for maglev). Must be a prime number.
+				 */
+				private int tableSize = 65537;
+
+				public String getHashHeader() {
+					return this.hashHeader;
+				}
+
+				public void setHashHeader(String hashHeader) {
+					this.hashHeader = hashHeader;
+				}
+
+				public Algorithm getAlgorithm() {
+					return this.algorithm;
+				}
+
+				public void setAlgorithm(Algorithm algorithm) {
+					this.algorithm = algorithm;
+				}
+
+				public int getMinRingSize() {
+					return this.minRingSize;
+				}
+
+				public void setMinRingSize(int minRingSize) {
+					this.minRingSize = minRingSize;
+				}
+
+				public int getTableSize() {
+					return this.tableSize;
+				}
+
+				public void setTableSize(int tableSize) {
+					this.tableSize = tableSize;
+				}
+
+				/**
+				 * Copies the values from another instance.
+				 * @param other instance to copy values from
+				 */
+				public void copyValuesFrom(ConsistentHash other) {
+					this.hashHeader = other.hashHeader;
+					this.algorithm = other.algorithm;
+					this.minRingSize = other.minRingSize;
+					this.tableSize = other.tableSize;
+				}
+
+			}
+
+			public static class WeightedRoundRobin {
+
+				/**
+				 * Whether to request out-of-band load reports from the backends instead
+				 * of reading them from the responses.
+				 */
+				private boolean enableOobLoadReport = false;
+
+				/**
+				 * Period of out-of-band load reports.
+				 */
+				private Duration oobReportingPeriod = Duration.ofSeconds(10);
+
+				/**
+				 * Time a backend has to report load before its weight is used.
+				 */
+				private Duration blackoutPeriod = Duration.ofSeconds(10);
+
+				/**
+				 * Time after which the weight of a backend that has not reported load is
+				 * discarded.
+				 */
+				private Duration weightExpirationPeriod = Duration.ofMinutes(3);
+
+				/**
+				 * Period of weight updates.
+				 */
+				private Duration weightUpdatePeriod = Duration.ofSeconds(1);
+
+				/**
+				 * Multiplier for the error rate of a backend when computing its weight.
+				 */
+				private double errorUtilizationPenalty = 1.0;
+
+				public boolean isEnableOobLoadReport() {
+					return this.enableOobLoadReport;
+				}
+
+				public void setEnableOobLoadReport(boolean enableOobLoadReport) {
+					this.enableOobLoadReport = enableOobLoadReport;
+				}
+
+				public Duration getOobReportingPeriod() {
+					return this.oobReportingPeriod;
+				}
+
+				public void setOobReportingPeriod(Duration oobReportingPeriod) {
+					this.oobReportingPeriod = oobReportingPeriod;
+				}
+
+				public Duration getBlackoutPeriod() {
+					return this.blackoutPeriod;
+				}
+
+				public void setBlackoutPeriod(Duration blackoutPeriod) {
+					this.blackoutPeriod = blackoutPeriod;
+				}
+
+				public Duration getWeightExpirationPeriod() {
+					return this.weightExpirationPeriod;
+				}
+
+				public void setWeightExpirationPeriod(Duration weightExpirationPeriod) {
+					this.weightExpirationPeriod = weightExpirationPeriod;
+				}
+
+				public Duration getWeightUpdatePeriod() {
+					return this.weightUpdatePeriod;
+				}
+
+				public void setWeightUpdatePeriod(Duration weightUpdatePeriod) {
+					this.weightUpdatePeriod = weightUpdatePeriod;
+				}
+
+				public double getErrorUtilizationPenalty() {
+					return this.errorUtilizationPenalty;
+				}
+
+				public void setErrorUtilizationPenalty(double errorUtilizationPenalty) {
+					this.errorUtilizationPenalty = errorUtilizationPenalty;
+				}
+
+				/**
+				 * Copies the values from another instance.
+				 * @param other instance to copy values from
+				 */
+				public void copyValuesFrom(WeightedRoundRobin other) {
+					this.enableOobLoadReport = other.enableOobLoadReport;
+					this.oobReportingPeriod = other.oobReportingPeriod;
+					this.blackoutPeriod = other.blackoutPeriod;
+					this.weightExpirationPeriod = other.weightExpirationPeriod;
+					this.weightUpdatePeriod = other.weightUpdatePeriod;
+					this.errorUtilizationPenalty = other.errorUtilizationPenalty;
+				}
+
+			}
+
+			public static class OutlierDetection {
+
+				private final SuccessRate successRate = new SuccessRate();
+
+				public SuccessRate getSuccessRate() {
+					return this.successRate;
+				}
+
+				private final FailurePercentage failurePercentage = new FailurePercentage();
+
+				public FailurePercentage getFailurePercentage() {
+					return this.failurePercentage;
+				}
+
+				/**
+				 * Whether to temporarily eject backends that fail more than the others.
+				 */
+				private boolean enabled = false;
+
+				/**
+				 * Interval between outlier detection runs.
+				 */
+				private Duration interval = Duration.ofSeconds(10);
+
+				/**
+				 * Base time a backend is ejected for, multiplied by the number of times
+				 * it has been ejected.
+				 */
+				private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+				/**
+				 * Maximum time a backend is ejected for.
+				 */
+				private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+				/**
+				 * Maximum percentage of backends that can be ejected at the same time.
+				 */
+				private int maxEjectionPercent = 10;
+
+				public boolean isEnabled() {
+					return this.enabled;
+				}
+
+				public void setEnabled(boolean enabled) {
+					this.enabled = enabled;
+				}
+
+				public Duration getInterval() {
+					return this.interval;
+				}
+
+				public void setInterval(Duration interval) {
+					this.interval = interval;
+				}
+
+				public Duration getBaseEjectionTime() {
+					return this.baseEjectionTime;
+				}
+
+				public void setBaseEjectionTime(Duration baseEjectionTime) {
+					this.baseEjectionTime = baseEjectionTime;
+				}
+
+				public Duration getMaxEjectionTime() {
+					return this.maxEjectionTime;
+				}
+
+				public void setMaxEjectionTime(Duration maxEjectionTime) {
+					this.maxEjectionTime = maxEjectionTime;
+				}
+
+				public int getMaxEjectionPercent() {
+					return this.maxEjectionPercent;
+				}
+
+				public void setMaxEjectionPercent(int maxEjectionPercent) {
+					this.maxEjectionPercent = maxEjectionPercent;
+				}
+
+				/**
+				 * Copies the values from another instance.
+				 * @param other instance to copy values from
+				 */
+				public void copyValuesFrom(OutlierDetection other) {
+					this.enabled = other.enabled;
+					this.interval = other.interval;
+					this.baseEjectionTime = other.baseEjectionTime;
+					this.maxEjectionTime = other.maxEjectionTime;
+					this.maxEjectionPercent = other.maxEjectionPercent;
+					this.successRate.copyValuesFrom(other.successRate);
+					this.failurePercentage.copyValuesFrom(other.failurePercentage);
+				}
+
+				public static class SuccessRate {
+
+					/**
+					 * Whether to eject backends with a success rate far below the
+					 * average.
+					 */
+					private boolean enabled = true;
+
+					/**
+					 * Number of standard deviations (times 1000) below the mean success
+					 * rate at which a backend is ejected.
+					 */
+					private int stdevFactor = 1900;
+
+					/**
+					 * Probability (in percent) that a backend found to be an outlier is
+					 * ejected.
+					 */
+					private int enforcementPercentage = 100;
+
+					/**
+					 * Number of backends with enough calls needed to detect outliers.
+					 */
+					private int minimumHosts = 5;
+
+					/**
+					 * Number of calls a backend needs in an interval to be included.
+					 */
+					private int requestVolume = 100;
+
+					public boolean isEnabled() {
+						return this.enabled;
+					}
+
+					public void setEnabled(boolean enabled) {
+						this.enabled = enabled;
+					}
+
+					public int getStdevFactor() {
+						return this.stdevFactor;
+					}
+
+					public void setStdevFactor(int stdevFactor) {
+						this.stdevFactor = stdevFactor;
+					}
+
+					public int getEnforcementPercentage() {
+						return this.enforcementPercentage;
+					}
+
+					public void setEnforcementPercentage(int enforcementPercentage) {
+						this.enforcementPercentage = enforcementPercentage;
+					}
+
+					public int getMinimumHosts() {
+						return this.minimumHosts;
+					}
+
+					public void setMinimumHosts(int minimumHosts) {
+						this.minimumHosts = minimumHosts;
+					}
+
+					public int getRequestVolume() {
+						return this.requestVolume;
+					}
+
+					public void setRequestVolume(int requestVolume) {
+						this.requestVolume = requestVolume;
+					}
+
+					/**
+					 * Copies the values from another instance.
+					 * @param other instance to copy values from
+					 */
+					public void copyValuesFrom(SuccessRate other) {
+						this.enabled = other.enabled;
+						this.stdevFactor = other.stdevFactor;
+						this.enforcementPercentage = other.enforcementPercentage;
+						this.minimumHosts = other.minimumHosts;
+						this.requestVolume = other.requestVolume;
+					}
+
+				}
+
+				public static class FailurePercentage {
+
+					/**
+					 * Whether to eject backends with a failure percentage above the
+					 * threshold.
+					 */
+					private boolean enabled = false;
+
+					/**
+					 * Failure percentage at which a backend is ejected.
+					 */
+					private int threshold = 85;
+
+					/**
+					 * Probability (in percent) that a backend found to be an outlier is
+					 * ejected.
+					 */
+					private int enforcementPercentage = 100;
+
+					/**
+					 * Number of backends with enough calls needed to detect outliers.
+					 */
+					private int minimumHosts = 5;
+
+					/**
+					 * Number of calls a backend needs in an interval to be included.
+					 */
+					private int requestVolume = 50;
+
+					public boolean isEnabled() {
+						return this.enabled;
+					}
+
+					public void setEnabled(boolean enabled) {
+						this.enabled = enabled;
+					}
+
+					public int getThreshold() {
+						return this.threshold;
+					}
+
+					public void setThreshold(int threshold) {
+						this.threshold = threshold;
+					}
+
+					public int getEnforcementPercentage() {
+						return this.enforcementPercentage;
+					}
+
+					public void setEnforcementPercentage(int enforcementPercentage) {
+						this.enforcementPercentage = enforcementPercentage;
+					}
+
+					public int getMinimumHosts() {
+						return this.minimumHosts;
+					}
+
+					public void setMinimumHosts(int minimumHosts) {
+						this.minimumHosts = minimumHosts;
+					}
+
+					public int getRequestVolume() {
+						return this.requestVolume;
+					}
+
+					public void setRequestVolume(int requestVolume) {
+						this.requestVolume = requestVolume;
+					}
+
+					/**
+					 * Copies the values from another instance.
+					 * @param other instance to copy values from
+					 */
+					public void copyValuesFrom(FailurePercentage other) {
+						this.enabled = other.enabled;
+						this.threshold = other.threshold;
+						this.enforcementPercentage = other.enforcementPercentage;
+						this.minimumHosts = other.minimumHosts;
+						this.requestVolume = other.requestVolume;
+					}
+
+				}
+
+			}
+
+		}
+
+		public static class Warmup {
+
+			/**
+			 * Whether to connect the channel at startup, and refuse traffic until it is
+			 * ready.
+			 */
+			private boolean enabled = false;
+
+			/**
+			 * Maximum time to wait for the channel to be ready. The application accepts
+			 * traffic anyway if the channel is not ready in time.
+			 */
+			private Duration timeout = Duration.ofSeconds(10);
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public Duration getTimeout() {
+				return this.timeout;
+			}
+
+			public void setTimeout(Duration timeout) {
+				this.timeout = timeout;
+			}
+
+			/**
+			 * Copies the values from another instance.
+			 * @param other instance to copy values from
+			 */
+			public void copyValuesFrom(Warmup other) {
+				this.enabled = other.enabled;
+				this.timeout = other.timeout;
+			}
+
+		}
+
+		public static class ExecutorConfig {
+
+			/**
+			 * Type of executor. The default is a cached thread pool for each channel,
+			 * created by gRPC when it is first needed.
+			 */
+			private Type type = Type.DEFAULT;
+
+			/**
+			 * Name of the executor bean to use when the type is 'bean'.
+			 */
+			private String beanName = "applicationTaskExecutor";
+
+			public Type getType() {
+				return this.type;
+			}
+
+			public void setType(Type type) {
+				this.type = type;
+			}
+
+			public String getBeanName() {
+				return this.beanName;
+			}
+
+			public void setBeanName(String beanName) {
+				this.beanName = beanName;
+			}
+
+			/**
+			 * Copies the values from another instance.
+			 * @param other instance to copy values from
+			 */
+			public void copyValuesFrom(ExecutorConfig other) {
+				this.type = other.type;
+				this.beanName = other.beanName;
+			}
+
+			public enum Type {
+
+				/**
+				 * A thread pool created by gRPC for each channel.
+				 */
+				DEFAULT,
+
+				/**
+				 * Run callbacks directly on the transport threads (only for callbacks
+				 * that never block).
+				 */
+				DIRECT,
+
+				/**
+				 * A new virtual thread for each task (needs Java 21).
+				 */
+				VIRTUAL,
+
+				/**
+				 * An executor bean from the application context, shared by the channels
+				 * that use it.
+				 */
+				BEAN
+
+			}
+
+		}
+
+		public static class Retry {
+
+			/**
+			 * Whether to retry failed calls.
+			 */
+			private boolean enabled = false;
+
+			/**
+			 * Maximum number of attempts, including the original call.
+			 */
+			private int maxAttempts = 3;
+
+			/**
+			 * Initial delay before the first retry.
+			 */
+			private Duration initialBackoff = Duration.ofMillis(100);
+
+			/**
+			 * Upper limit for the delay between retries.
+			 */
+			private Duration maxBackoff = Duration.ofSeconds(1);
+
+			/**
+			 * Factor to multiply the delay by after each retry.
+			 */
+			private double backoffMultiplier = 2;
+
+			/**
+			 * Status codes that are retried.
+			 */
+			private List<Status.Code> retryableStatusCodes = new ArrayList<>(List.of(Status.Code.UNAVAILABLE));
+
+			// Whether enabled was set explicitly (e.g. to switch it off for one method)
+			private boolean enabledSet;
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+				this.enabledSet = true;
+			}
+
+			boolean isEnabledSet() {
+				return this.enabledSet;
+			}
+
+			public int getMaxAttempts() {
+				return this.maxAttempts;
+			}
+
+			public void setMaxAttempts(int maxAttempts) {
+				this.maxAttempts = maxAttempts;
+			}
+
+			public Duration getInitialBackoff() {
+				return this.initialBackoff;
+			}
+
+			public void setInitialBackoff(Duration initialBackoff) {
+				this.initialBackoff = initialBackoff;
+			}
+
+			public Duration getMaxBackoff() {
+				return this.maxBackoff;
+			}
+
+			public void setMaxBackoff(Duration maxBackoff) {
+				this.maxBackoff = maxBackoff;
+			}
+
+			public double getBackoffMultiplier() {
+				return this.backoffMultiplier;
+			}
+
+			public void setBackoffMultiplier(double backoffMultiplier) {
+				this.backoffMultiplier = backoffMultiplier;
+			}
+
+			public List<Status.Code> getRetryableStatusCodes() {
+				return this.retryableStatusCodes;
+			}
+
+			public void setRetryableStatusCodes(List<Status.Code> retryableStatusCodes) {
+				this.retryableStatusCodes = retryableStatusCodes;
+			}
+
+			/**
+			 * Copies the values from another instance.
+			 * @param other instance to copy values from
+			 */
+			public void copyValuesFrom(Retry other) {
+				this.enabled = other.enabled;
+				this.enabledSet = other.enabledSet;
+				this.maxAttempts = other.maxAttempts;
+				this.initialBackoff = other.initialBackoff;
+				this.maxBackoff = other.maxBackoff;
+				this.backoffMultiplier = other.backoffMultiplier;
+				this.retryableStatusCodes = new ArrayList<>(other.retryableStatusCodes);
+			}
+
+		}
+
+		public static class Hedging {
+
+			/**
+			 * Whether to send hedged copies of calls. Cannot be combined with retry for
+			 * the same method.
+			 */
+			private boolean enabled = false;
+
+			/**
+			 * Maximum number of copies of a call to send, including the original.
+			 */
+			private int maxAttempts = 2;
+
+			/**
+			 * Delay before sending each additional copy of a call.
+			 */
+			private Duration hedgingDelay;
+
+			/**
+			 * Status codes that do not cancel the outstanding copies of a call.
+			 */
+			private List<Status.Code> nonFatalStatusCodes = new ArrayList<>();
+
+			// Whether enabled was set explicitly (e.g. to switch it off for one method)
+			private boolean enabledSet;
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+				this.enabledSet = true;
+			}
+
+			boolean isEnabledSet() {
+				return this.enabledSet;
+			}
+
+			public int getMaxAttempts() {
+				return this.maxAttempts;
+			}
+
+			public void setMaxAttempts(int maxAttempts) {
+				this.maxAttempts = maxAttempts;
+			}
+
+			public Duration getHedgingDelay() {
+				return this.hedgingDelay;
+			}
+
+			public void setHedgingDelay(Duration hedgingDelay) {
+				this.hedgingDelay = hedgingDelay;
+			}
+
+			public List<Status.Code> getNonFatalStatusCodes() {
+				return this.nonFatalStatusCodes;
+			}
+
+			public void setNonFatalStatusCodes(List<Status.Code> nonFatalStatusCodes) {
+				this.nonFatalStatusCodes = nonFatalStatusCodes;
+			}
+
+			/**
+			 * Copies the values from another instance.
+			 * @param other instance to copy values from
+			 */
+			public void copyValuesFrom(Hedging other) {
+				this.enabled = other.enabled;
+				this.enabledSet = other.enabledSet;
+				this.maxAttempts = other.maxAttempts;
+				this.hedgingDelay = other.hedgingDelay;
+				this.nonFatalStatusCodes = new ArrayList<>(other.nonFatalStatusCodes);
+			}
+
+		}
+
+		public static class RetryThrottling {
+
+			/**
+			 * Whether to throttle retries and hedged calls when the server is failing.
+			 */
+			private boolean enabled = false;
+
+			/**
+			 * Size of the token bucket (between 1 and 1000). Retries are throttled when
+			 * the bucket is less than half full.
+			 */
+			private int maxTokens = 10;
+
+			/**
+			 * Number of tokens added to the bucket for each successful call.
+			 */
+			private double tokenRatio = 0.1;
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public int getMaxTokens() {
+				return this.maxTokens;
+			}
+
+			public void setMaxTokens(int maxTokens) {
+				this.maxTokens = maxTokens;
+			}
+
+			public double getTokenRatio() {
+				return this.tokenRatio;
+			}
+
+			public void setTokenRatio(double tokenRatio) {
+				this.tokenRatio = tokenRatio;
+			}
+
+			/**
+			 * Copies the values from another instance.
+			 * @param other instance to copy values from
+			 */
+			public void copyValuesFrom(RetryThrottling other) {
+				this.enabled = other.enabled;
+				this.maxTokens = other.maxTokens;
+				this.tokenRatio = other.tokenRatio;
+			}
+
+		}
+
+		public static class Throttling {
+
+			/**
+			 * Whether to reject calls locally when the server has been rejecting calls
+			 * (with 'RESOURCE_EXHAUSTED' or 'UNAVAILABLE').
+			 */
+			private boolean enabled = false;
+
+			/**
+			 * Ratio of calls to calls accepted by the server above which calls are
+			 * rejected locally. Lower values throttle more aggressively.
+			 */
+			private double multiplier = 2.0;
+
+			/**
+			 * Period over which calls and accepted calls are counted.
+			 */
+			private Duration window = Duration.ofMinutes(2);
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public double getMultiplier() {
+				return this.multiplier;
+			}
+
+			public void setMultiplier(double multiplier) {
+				this.multiplier = multiplier;
+			}
+
+			public Duration getWindow() {
+				return this.window;
+			}
+
+			public void setWindow(Duration window) {
+				this.window = window;
+			}
+
+			/**
+			 * Copies the values from another instance.
+			 * @param other instance to copy values from
+			 */
+			public void copyValuesFrom(Throttling other) {
+				this.enabled = other.enabled;
+				this.multiplier = other.multiplier;
+				this.window = other.window;
+			}
+
+		}
+
+		public static class CircuitBreaker {
+
+			/**
+			 * Whether to fail calls fast when the failure or slow call rate of a method
+			 * is too high.
+			 */
+			private boolean enabled = false;
+
+			/**
+			 * Rate of failed calls (between 0 and 1) at which the circuit opens.
+			 */
+			private double failureRateThreshold = 0.5;
+
+			/**
+			 * Rate of slow calls (between 0 and 1) at which the circuit opens.
+			 */
+			private double slowCallRateThreshold = 1.0;
+
+			/**
+			 * Duration above which a call counts as slow.
+			 */
+			private Duration slowCallDuration = Duration.ofSeconds(60);
+
+			/**
+			 * Number of calls recorded in the sliding window.
+			 */
+			private int slidingWindowSize = 100;
+
+			/**
+			 * Number of calls to record before the failure and slow call rates are
+			 * checked.
+			 */
+			private int minimumNumberOfCalls = 20;
+
+			/**
+			 * Time the circuit stays open before trial calls are let through.
+			 */
+			private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+			/**
+			 * Number of trial calls let through when the circuit is half open.
+			 */
+			private int permittedCallsInHalfOpenState = 5;
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public double getFailureRateThreshold() {
+				return this.failureRateThreshold;
+			}
+
+			public void setFailureRateThreshold(double failureRateThreshold) {
+				this.failureRateThreshold = failureRateThreshold;
+			}
+
+			public double getSlowCallRateThreshold() {
+				return this.slowCallRateThreshold;
+			}
+
+			public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+				this.slowCallRateThreshold = slowCallRateThreshold;
+			}
+
+			public Duration getSlowCallDuration() {
+				return this.slowCallDuration;
+			}
+
+			public void setSlowCallDuration(Duration slowCallDuration) {
+				this.slowCallDuration = slowCallDuration;
+			}
+
+			public int getSlidingWindowSize() {
+				return this.slidingWindowSize;
+			}
+
+			public void setSlidingWindowSize(int slidingWindowSize) {
+				this.slidingWindowSize = slidingWindowSize;
+			}
+
+			public int getMinimumNumberOfCalls() {
+				return this.minimumNumberOfCalls;
+			}
+
+			public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+				this.minimumNumberOfCalls = minimumNumberOfCalls;
+			}
+
+			public Duration getWaitDurationInOpenState() {
+				return this.waitDurationInOpenState;
+			}
+
+			public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+				this.waitDurationInOpenState = waitDurationInOpenState;
+			}
+
+			public int getPermittedCallsInHalfOpenState() {
+				return this.permittedCallsInHalfOpenState;
+			}
+
+			public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+				this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+			}
+
+			/**
+			 * Copies the values from another instance.
+			 * @param other instance to copy values from
+			 */
+			public void copyValuesFrom(CircuitBreaker other) {
+				this.enabled = other.enabled;
+				this.failureRateThreshold = other.failureRateThreshold;
+				this.slowCallRateThreshold = other.slowCallRateThreshold;
+				this.slowCallDuration = other.slowCallDuration;
+				this.slidingWindowSize = other.slidingWindowSize;
+				this.minimumNumberOfCalls = other.minimumNumberOfCalls;
+				this.waitDurationInOpenState = other.waitDurationInOpenState;
+				this.permittedCallsInHalfOpenState = other.permittedCallsInHalfOpenState;
+			}
+
+		}
+
+		/**
+		 * Settings that apply to the methods matching a pattern.
+		 */
+		public static class MethodConfig {
+
+			private final Retry retry = new Retry();
+
+			public Retry getRetry() {
+				return this.retry;
+			}
+
+			private final Hedging hedging = new Hedging();
+
+			public Hedging getHedging() {
+				return this.hedging;
+			}
+
+			private final Cache cache = new Cache();
+
+			public Cache getCache() {
+				return this.cache;
+			}
+
+			/**
+			 * Default deadline for calls, relative to the start of the call. Not applied
+			 * if the caller sets a deadline.
+			 */
+			private Duration timeout;
+
+			/**
+			 * Whether calls should wait for the channel to be ready instead of failing
+			 * fast when it is not.
+			 */
+			private Boolean waitForReady;
+
+			/**
+			 * Maximum size of a request message.
+			 */
+			private DataSize maxOutboundMessageSize;
+
+			/**
+			 * Name of the compressor to use for requests (e.g. 'gzip').
+			 */
+			private String compression;
+
+			public Duration getTimeout() {
+				return this.timeout;
+			}
+
+			public void setTimeout(Duration timeout) {
+				this.timeout = timeout;
+			}
+
+			public Boolean getWaitForReady() {
+				return this.waitForReady;
+			}
+
+			public void setWaitForReady(Boolean waitForReady) {
+				this.waitForReady = waitForReady;
+			}
+
+			public DataSize getMaxOutboundMessageSize() {
+				return this.maxOutboundMessageSize;
+			}
+
+			public void setMaxOutboundMessageSize(DataSize maxOutboundMessageSize) {
+				this.maxOutboundMessageSize = maxOutboundMessageSize;
+			}
+
+			public String getCompression() {
+				return this.compression;
+			}
+
+			public void setCompression(String compression) {
+				this.compression = compression;
+			}
+
+			/**
+			 * Provide a copy of the method config instance.
+			 * @return a copy of the method config instance.
+			 */
+			public MethodConfig copy() {
+				MethodConfig copy = new MethodConfig();
+				copy.timeout = this.timeout;
+				copy.waitForReady = this.waitForReady;
+				copy.maxOutboundMessageSize = this.maxOutboundMessageSize;
+				copy.compression = this.compression;
+				copy.retry.copyValuesFrom(this.retry);
+				copy.hedging.copyValuesFrom(this.hedging);
+				copy.cache.copyValuesFrom(this.cache);
+				return copy;
+			}
+
+		}
+
+		public static class Cache {
+
+			/**
+			 * Whether to cache the responses of the unary methods matching the pattern.
+			 * Only enable it for idempotent methods.
+			 */
+			private boolean enabled = false;
+
+			/**
+			 * Time to live of responses that have no 'cache-control' header. If not set,
+			 * only responses with a 'max-age' directive are cached.
+			 */
+			private Duration timeToLive;
+
+			/**
+			 * Maximum number of responses to keep.
+			 */
+			private int maxSize = 1000;
+
+			/**
+			 * Names of the request headers whose values are part of the cache key. Calls
+			 * with an 'authorization' or 'cookie' header are only cached if the header is
+			 * listed here.
+			 */
+			private List<String> vary = new ArrayList<>();
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public Duration getTimeToLive() {
+				return this.timeToLive;
+			}
+
+			public void setTimeToLive(Duration timeToLive) {
+				this.timeToLive = timeToLive;
+			}
+
+			public int getMaxSize() {
+				return this.maxSize;
+			}
+
+			public void setMaxSize(int maxSize) {
+				this.maxSize = maxSize;
+			}
+
+			public List<String> getVary() {
+				return this.vary;
+			}
+
+			public void setVary(List<String> vary) {
+				this.vary = vary;
+			}
+
+			/**
+			 * Copies the values from another instance.
+			 * @param other instance to copy values from
+			 */
+			public void copyValuesFrom(Cache other) {
+				this.enabled = other.enabled;
+				this.timeToLive = other.timeToLive;
+				this.maxSize = other.maxSize;
+				this.vary = new ArrayList<>(other.vary);
+			}
+
+		}
+
 	}
 
 }
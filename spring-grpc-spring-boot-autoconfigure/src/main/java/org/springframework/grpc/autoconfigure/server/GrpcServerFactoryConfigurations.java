@@ -64,10 +64,15 @@ class GrpcServerFactoryConfigurations {
 				keyManager = bundle.getManagers().getKeyManagerFactory();
 				trustManager = properties.getSsl().isSecure() ? bundle.getManagers().getTrustManagerFactory()
 						: io.grpc.netty.shaded.io.netty.handler.ssl.util.InsecureTrustManagerFactory.INSTANCE;
-				trustManager = bundle.getManagers().getTrustManagerFactory();
 			}
 			ShadedNettyGrpcServerFactory factory = new ShadedNettyGrpcServerFactory(properties.getAddress(),
 					builderCustomizers, keyManager, trustManager, properties.getSsl().getClientAuth());
+			if (properties.getSsl().isEnabled()) {
+				bundles.addBundleUpdateHandler(properties.getSsl().getBundle(), (bundle) -> factory.setSslManagers(
+						bundle.getManagers().getKeyManagerFactory(),
+						properties.getSsl().isSecure() ? bundle.getManagers().getTrustManagerFactory()
+								: io.grpc.netty.shaded.io.netty.handler.ssl.util.InsecureTrustManagerFactory.INSTANCE));
+			}
 			grpcServicesDiscoverer.findServices().forEach(factory::addService);
 			return factory;
 		}
@@ -97,6 +102,12 @@ class GrpcServerFactoryConfigurations {
 			}
 			NettyGrpcServerFactory factory = new NettyGrpcServerFactory(properties.getAddress(), builderCustomizers,
 					keyManager, trustManager, properties.getSsl().getClientAuth());
+			if (properties.getSsl().isEnabled()) {
+				bundles.addBundleUpdateHandler(properties.getSsl().getBundle(),
+						(bundle) -> factory.setSslManagers(bundle.getManagers().getKeyManagerFactory(),
+								properties.getSsl().isSecure() ? bundle.getManagers().getTrustManagerFactory()
+										: InsecureTrustManagerFactory.INSTANCE));
+			}
 			grpcServicesDiscoverer.findServices().forEach(factory::addService);
 			return factory;
 		}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.server.exception;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.grpc.autoconfigure.server.ConditionalOnGrpcServerEnabled;
+import org.springframework.grpc.server.advice.GrpcAdvice;
+import org.springframework.grpc.server.advice.GrpcAdviceExceptionHandler;
+
+import io.grpc.Grpc;
+
+/**
+ * {@link org.springframework.boot.autoconfigure.EnableAutoConfiguration
+ * Auto-configuration} for {@link GrpcAdvice @GrpcAdvice} beans. Their handler methods are
+ * exposed as a single {@link GrpcAdviceExceptionHandler} that is picked up by
+ * {@link GrpcExceptionHandlerAutoConfiguration}.
+ *
+ * @author Dave Syer
+ */
+@AutoConfiguration(before = GrpcExceptionHandlerAutoConfiguration.class)
+@ConditionalOnGrpcServerEnabled
+@ConditionalOnClass(Grpc.class)
+@ConditionalOnBean(annotation = GrpcAdvice.class)
+@ConditionalOnProperty(prefix = "spring.grpc.server.exception-handler", name = "enabled", havingValue = "true",
+		matchIfMissing = true)
+public class GrpcAdviceAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public GrpcAdviceExceptionHandler grpcAdviceExceptionHandler(ListableBeanFactory beanFactory) {
+		List<Object> advice = new ArrayList<>(beanFactory.getBeansWithAnnotation(GrpcAdvice.class).values());
+		AnnotationAwareOrderComparator.sort(advice);
+		return new GrpcAdviceExceptionHandler(advice);
+	}
+
+}
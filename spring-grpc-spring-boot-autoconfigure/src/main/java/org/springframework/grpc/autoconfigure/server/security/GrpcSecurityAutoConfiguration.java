@@ -18,6 +18,8 @@ package org.springframework.grpc.autoconfigure.server.security;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -30,6 +32,8 @@ import org.springframework.grpc.autoconfigure.server.exception.GrpcExceptionHand
 import org.springframework.grpc.server.GlobalServerInterceptor;
 import org.springframework.grpc.server.ServerBuilderCustomizer;
 import org.springframework.grpc.server.exception.GrpcExceptionHandler;
+import org.springframework.grpc.server.security.GrpcContextSecurityContextHolderStrategy;
+import org.springframework.grpc.server.security.GrpcContextSecurityContextServerInterceptor;
 import org.springframework.grpc.server.security.GrpcSecurity;
 import org.springframework.grpc.server.security.SecurityContextServerInterceptor;
 import org.springframework.grpc.server.security.SecurityGrpcExceptionHandler;
@@ -37,9 +41,13 @@ import org.springframework.security.concurrent.DelegatingSecurityContextExecutor
 import org.springframework.security.config.ObjectPostProcessor;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.web.SecurityFilterChain;
 
+import io.grpc.Context;
+import io.grpc.Metadata;
 import io.grpc.ServerBuilder;
+import io.grpc.ServerStreamTracer;
 import io.grpc.internal.GrpcUtil;
 
 @ConditionalOnClass(ObjectPostProcessor.class)
@@ -85,16 +93,75 @@ class GrpcNativeSecurityConfigurerAutoConfiguration {
 @Configuration(proxyBeanMethods = false)
 class GrpcServletSecurityConfigurerAutoConfiguration {
 
-	@Bean
-	@GlobalServerInterceptor
-	public SecurityContextServerInterceptor securityContextInterceptor() {
-		return new SecurityContextServerInterceptor();
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(prefix = "spring.grpc.server.security.grpc-context", name = "enabled", havingValue = "false",
+			matchIfMissing = true)
+	static class ThreadLocalSecurityContextConfiguration {
+
+		@Bean
+		@GlobalServerInterceptor
+		public SecurityContextServerInterceptor securityContextInterceptor() {
+			return new SecurityContextServerInterceptor();
+		}
+
+		@Bean
+		public <T extends ServerBuilder<T>> ServerBuilderCustomizer<T> securityContextExecutorCustomizer() {
+			return (serverBuilder) -> serverBuilder
+				.executor(new DelegatingSecurityContextExecutor(GrpcUtil.SHARED_CHANNEL_EXECUTOR.create()));
+		}
+
 	}
 
-	@Bean
-	public <T extends ServerBuilder<T>> ServerBuilderCustomizer<T> securityContextExecutorCustomizer() {
-		return (serverBuilder) -> serverBuilder
-			.executor(new DelegatingSecurityContextExecutor(GrpcUtil.SHARED_CHANNEL_EXECUTOR.create()));
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(prefix = "spring.grpc.server.security.grpc-context", name = "enabled", havingValue = "true")
+	static class GrpcContextSecurityContextConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public GrpcContextSecurityContextHolderStrategy grpcContextSecurityContextHolderStrategy() {
+			// Spring Security (filters and method security) picks up the strategy bean
+			return new GrpcContextSecurityContextHolderStrategy();
+		}
+
+		@Bean
+		@GlobalServerInterceptor
+		public GrpcContextSecurityContextServerInterceptor securityContextInterceptor(
+				GrpcContextSecurityContextHolderStrategy strategy) {
+			return new GrpcContextSecurityContextServerInterceptor(strategy);
+		}
+
+		@Bean
+		public <T extends ServerBuilder<T>> ServerBuilderCustomizer<T> securityContextStreamTracerCustomizer(
+				GrpcContextSecurityContextHolderStrategy strategy) {
+			// The executor is left alone: the context is captured once per call, on the
+			// servlet thread that creates the stream, and the interceptor finds it there
+			return (serverBuilder) -> serverBuilder.addStreamTracerFactory(new SecurityContextTracerFactory(strategy));
+		}
+
+		private static final class SecurityContextTracerFactory extends ServerStreamTracer.Factory {
+
+			private final GrpcContextSecurityContextHolderStrategy strategy;
+
+			SecurityContextTracerFactory(GrpcContextSecurityContextHolderStrategy strategy) {
+				this.strategy = strategy;
+			}
+
+			@Override
+			public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+				SecurityContext securityContext = this.strategy.getContext();
+				return new ServerStreamTracer() {
+
+					@Override
+					public Context filterContext(Context context) {
+						return context.withValue(GrpcContextSecurityContextHolderStrategy.SECURITY_CONTEXT_KEY,
+								securityContext);
+					}
+
+				};
+			}
+
+		}
+
 	}
 
 }
@@ -27,6 +27,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.grpc.client.security.ClientCredentialsTokenCache;
 import org.springframework.security.oauth2.client.registration.ClientRegistration;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
@@ -48,4 +49,10 @@ public class OAuth2ClientAutoConfiguration {
 		return new InMemoryClientRegistrationRepository(registrations);
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	ClientCredentialsTokenCache grpcClientCredentialsTokenCache(ClientRegistrationRepository registrations) {
+		return new ClientCredentialsTokenCache(registrations);
+	}
+
 }
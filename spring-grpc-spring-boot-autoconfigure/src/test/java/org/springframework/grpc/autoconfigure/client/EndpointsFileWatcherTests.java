@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.grpc.client.nameresolver.Endpoint;
+import org.springframework.grpc.client.nameresolver.EndpointRegistry;
+
+/**
+ * Tests for {@link EndpointsFileWatcher}.
+ */
+class EndpointsFileWatcherTests {
+
+	@TempDir
+	Path dir;
+
+	private final EndpointRegistry registry = new EndpointRegistry();
+
+	@Test
+	void loadsPropertiesFileAndRevertsToProperties() throws IOException {
+		Path file = this.dir.resolve("endpoints.properties");
+		write(file, "kv[0].address=10.0.0.1:9090\nkv[0].zone=a\nkv[1].address=10.0.0.2:9090\nkv[1].weight=2\n", 1);
+		EndpointsFileWatcher watcher = watcher(file, Map.of("spring.grpc.client.endpoints.kv[0].address",
+				"10.0.0.9:9090", "spring.grpc.client.endpoints.other[0].address", "10.0.0.8:9090"));
+		watcher.refresh();
+		assertThat(this.registry.getEndpoints("kv")).containsExactly(new Endpoint("10.0.0.1", 9090, 1, "a"),
+				new Endpoint("10.0.0.2", 9090, 2, null));
+		write(file, "cache[0].address=10.0.0.3:9090\n", 2);
+		watcher.refresh();
+		assertThat(this.registry.getEndpoints("cache")).containsExactly(Endpoint.of("10.0.0.3:9090"));
+		assertThat(this.registry.getEndpoints("kv")).containsExactly(Endpoint.of("10.0.0.9:9090"));
+		Files.delete(file);
+		watcher.refresh();
+		assertThat(this.registry.getEndpoints("cache")).isEmpty();
+	}
+
+	@Test
+	void loadsYamlFile() throws IOException {
+		Path file = this.dir.resolve("endpoints.yaml");
+		write(file, "kv:\n- address: 10.0.0.1:9090\n  zone: a\n", 1);
+		watcher(file, Map.of()).refresh();
+		assertThat(this.registry.getEndpoints("kv")).containsExactly(new Endpoint("10.0.0.1", 9090, 1, "a"));
+	}
+
+	@Test
+	void keepsEndpointsIfFileIsInvalid() throws IOException {
+		Path file = this.dir.resolve("endpoints.properties");
+		write(file, "kv[0].address=10.0.0.1:9090\n", 1);
+		EndpointsFileWatcher watcher = watcher(file, Map.of());
+		watcher.refresh();
+		write(file, "kv[0].address=:9090\n", 2);
+		watcher.refresh();
+		assertThat(this.registry.getEndpoints("kv")).containsExactly(Endpoint.of("10.0.0.1:9090"));
+	}
+
+	private EndpointsFileWatcher watcher(Path file, Map<String, String> map) {
+		Map<String, String> values = new HashMap<>(map);
+		values.put("spring.grpc.client.endpoints-file.location", file.toUri().toString());
+		GrpcClientProperties properties = new Binder(new MapConfigurationPropertySource(values))
+			.bind("spring.grpc.client", GrpcClientProperties.class)
+			.get();
+		properties.getEndpoints()
+			.forEach((name, endpoints) -> this.registry.setEndpoints(name,
+					endpoints.stream().map(GrpcClientProperties.EndpointConfig::toEndpoint).toList()));
+		return new EndpointsFileWatcher(this.registry, properties);
+	}
+
+	private static void write(Path file, String content, int version) throws IOException {
+		Files.writeString(file, content);
+		// Make sure the modification time changes even on a coarse-grained file system
+		Files.setLastModifiedTime(file, FileTime.from(Instant.ofEpochSecond(1_000_000L * version)));
+	}
+
+}
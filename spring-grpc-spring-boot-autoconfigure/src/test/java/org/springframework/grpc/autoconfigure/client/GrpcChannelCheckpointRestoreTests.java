@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.grpc.client.DefaultGrpcChannelFactory;
+import org.springframework.grpc.client.GrpcChannelFactory;
+
+/**
+ * Tests for {@link GrpcChannelCheckpointRestore}.
+ */
+class GrpcChannelCheckpointRestoreTests {
+
+	private final DefaultGrpcChannelFactory<?> factory = mock(DefaultGrpcChannelFactory.class);
+
+	private final GrpcChannelCheckpointRestore lifecycle = new GrpcChannelCheckpointRestore(provider());
+
+	@Test
+	void startDoesNotResumeRunningChannels() {
+		this.lifecycle.start();
+		assertThat(this.lifecycle.isRunning()).isTrue();
+		verify(this.factory, never()).resume();
+	}
+
+	@Test
+	void stopSuspendsAndStartResumesChannels() {
+		this.lifecycle.start();
+		this.lifecycle.stop();
+		assertThat(this.lifecycle.isRunning()).isFalse();
+		verify(this.factory).suspend();
+		when(this.factory.isSuspended()).thenReturn(true);
+		this.lifecycle.start();
+		verify(this.factory).resume();
+	}
+
+	private ObjectProvider<GrpcChannelFactory> provider() {
+		@SuppressWarnings("unchecked")
+		ObjectProvider<GrpcChannelFactory> provider = mock(ObjectProvider.class);
+		when(provider.orderedStream()).thenAnswer((invocation) -> Stream.of(this.factory));
+		return provider;
+	}
+
+}
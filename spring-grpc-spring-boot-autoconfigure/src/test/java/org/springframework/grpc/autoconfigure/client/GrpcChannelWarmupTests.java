@@ -0,0 +1,206 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.grpc.client.GrpcChannelFactory;
+
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+
+/**
+ * Tests for {@link GrpcChannelWarmup}.
+ */
+class GrpcChannelWarmupTests {
+
+	private final GrpcChannelFactory factory = mock(GrpcChannelFactory.class);
+
+	private final ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+
+	private final ApplicationAvailabilityBean availability = new ApplicationAvailabilityBean();
+
+	private GrpcChannelWarmup warmup;
+
+	@BeforeEach
+	void init() {
+		doAnswer((invocation) -> {
+			publish(invocation.getArgument(0));
+			return null;
+		}).when(this.context).publishEvent(any(ApplicationEvent.class));
+		when(this.context.isActive()).thenReturn(true);
+	}
+
+	@Test
+	void warmsUpOnlyEnabledChannels() {
+		ManagedChannel channel = mock(ManagedChannel.class);
+		when(channel.getState(true)).thenReturn(ConnectivityState.IDLE, ConnectivityState.CONNECTING,
+				ConnectivityState.READY);
+		doAnswer((invocation) -> {
+			invocation.getArgument(1, Runnable.class).run();
+			return null;
+		}).when(channel).notifyWhenStateChanged(any(), any());
+		when(this.factory.createChannel("test")).thenReturn(channel);
+		this.warmup = warmup(Map.of("spring.grpc.client.channels.test.warmup.enabled", "true",
+				"spring.grpc.client.channels.other.address", "static://localhost:9091"));
+		start();
+		assertThat(this.warmup.getWarmup()).isDone();
+		assertThat(this.warmup.getChannels()).containsExactly(channel);
+		verify(this.factory, never()).createChannel(eq("other"));
+		verify(channel, times(3)).getState(true);
+		ready();
+		assertThat(this.availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+	}
+
+	@Test
+	void timesOutIfChannelIsNotReady() throws Exception {
+		ManagedChannel channel = mock(ManagedChannel.class);
+		when(channel.getState(anyBoolean())).thenReturn(ConnectivityState.TRANSIENT_FAILURE);
+		when(this.factory.createChannel("test")).thenReturn(channel);
+		this.warmup = warmup(Map.of("spring.grpc.client.channels.test.warmup.enabled", "true",
+				"spring.grpc.client.channels.test.warmup.timeout", "200ms"));
+		long start = System.nanoTime();
+		start();
+		ready();
+		assertThat(this.availability.getReadinessState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+		this.warmup.getWarmup().get(5, TimeUnit.SECONDS);
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+		assertThat(this.availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+		assertThat(GrpcChannelWarmup.awaitReady(channel)).isNotDone();
+	}
+
+	@Test
+	void refusesTrafficUntilChannelIsReady() {
+		ManagedChannel channel = mock(ManagedChannel.class);
+		AtomicReference<ConnectivityState> state = new AtomicReference<>(ConnectivityState.CONNECTING);
+		AtomicReference<Runnable> callback = new AtomicReference<>();
+		when(channel.getState(true)).thenAnswer((invocation) -> state.get());
+		doAnswer((invocation) -> {
+			callback.set(invocation.getArgument(1, Runnable.class));
+			return null;
+		}).when(channel).notifyWhenStateChanged(any(), any());
+		when(this.factory.createChannel("test")).thenReturn(channel);
+		this.warmup = warmup(Map.of("spring.grpc.client.channels.test.warmup.enabled", "true"));
+		start();
+		assertThat(this.warmup.getWarmup()).isNotDone();
+		ready();
+		assertThat(this.availability.getReadinessState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+		state.set(ConnectivityState.READY);
+		callback.get().run();
+		assertThat(this.warmup.getWarmup()).isDone();
+		assertThat(this.availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+	}
+
+	@Test
+	void doesNotAcceptTrafficIfStateChangedDuringWarmup() {
+		AtomicReference<Runnable> callback = warmingUpChannel();
+		start();
+		ready();
+		AvailabilityChangeEvent.publish(this.context, new Object(), ReadinessState.REFUSING_TRAFFIC);
+		callback.get().run();
+		assertThat(this.warmup.getWarmup()).isDone();
+		verify(this.context, never())
+			.publishEvent(argThat((AvailabilityChangeEvent<?> event) -> event.getSource() == this.warmup
+					&& event.getState() == ReadinessState.ACCEPTING_TRAFFIC));
+	}
+
+	@Test
+	void doesNotAcceptTrafficIfContextIsClosed() {
+		AtomicReference<Runnable> callback = warmingUpChannel();
+		start();
+		ready();
+		assertThat(this.availability.getReadinessState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+		when(this.context.isActive()).thenReturn(false);
+		callback.get().run();
+		assertThat(this.warmup.getWarmup()).isDone();
+		assertThat(this.availability.getReadinessState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+	}
+
+	private AtomicReference<Runnable> warmingUpChannel() {
+		ManagedChannel channel = mock(ManagedChannel.class);
+		AtomicReference<ConnectivityState> state = new AtomicReference<>(ConnectivityState.CONNECTING);
+		AtomicReference<Runnable> callback = new AtomicReference<>();
+		when(channel.getState(true)).thenAnswer((invocation) -> state.get());
+		doAnswer((invocation) -> {
+			callback.set(() -> {
+				state.set(ConnectivityState.READY);
+				invocation.getArgument(1, Runnable.class).run();
+			});
+			return null;
+		}).when(channel).notifyWhenStateChanged(any(), any());
+		when(this.factory.createChannel("test")).thenReturn(channel);
+		this.warmup = warmup(Map.of("spring.grpc.client.channels.test.warmup.enabled", "true"));
+		return callback;
+	}
+
+	private void start() {
+		publish(new ApplicationStartedEvent(new SpringApplication(), new String[0], this.context, Duration.ZERO));
+	}
+
+	private void ready() {
+		AvailabilityChangeEvent.publish(this.context, ReadinessState.ACCEPTING_TRAFFIC);
+	}
+
+	private void publish(ApplicationEvent event) {
+		if (event instanceof AvailabilityChangeEvent<?> change) {
+			this.availability.onApplicationEvent(change);
+		}
+		this.warmup.onApplicationEvent(event);
+	}
+
+	private GrpcChannelWarmup warmup(Map<String, String> map) {
+		GrpcClientProperties properties = new Binder(new MapConfigurationPropertySource(map))
+			.bind("spring.grpc.client", GrpcClientProperties.class)
+			.get();
+		@SuppressWarnings("unchecked")
+		ObjectProvider<GrpcChannelFactory> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(this.factory);
+		@SuppressWarnings("unchecked")
+		ObjectProvider<ApplicationAvailability> availability = mock(ObjectProvider.class);
+		when(availability.getIfAvailable()).thenReturn(this.availability);
+		return new GrpcChannelWarmup(properties, provider, availability);
+	}
+
+}
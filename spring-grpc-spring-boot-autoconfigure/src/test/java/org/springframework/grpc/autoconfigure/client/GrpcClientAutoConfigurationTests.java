@@ -17,18 +17,31 @@
 package org.springframework.grpc.autoconfigure.client;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 
 import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
@@ -40,15 +53,26 @@ import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.grpc.client.AdaptiveThrottlingInterceptor;
 import org.springframework.grpc.client.ChannelCredentialsProvider;
+import org.springframework.grpc.client.CircuitBreakerInterceptor;
+import org.springframework.grpc.client.DefaultCallOptionsInterceptor;
 import org.springframework.grpc.client.GrpcChannelBuilderCustomizer;
 import org.springframework.grpc.client.GrpcChannelFactory;
 import org.springframework.grpc.client.NettyGrpcChannelFactory;
+import org.springframework.grpc.client.ResponseCacheInterceptor;
 import org.springframework.grpc.client.ShadedNettyGrpcChannelFactory;
+import org.springframework.grpc.client.VirtualTargets;
+import org.springframework.grpc.client.nameresolver.Endpoint;
+import org.springframework.grpc.client.nameresolver.EndpointNameResolverProvider;
+import org.springframework.grpc.client.nameresolver.EndpointRegistry;
 
+import io.grpc.ClientInterceptor;
 import io.grpc.Codec;
 import io.grpc.CompressorRegistry;
 import io.grpc.DecompressorRegistry;
+import io.grpc.LoadBalancerRegistry;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.netty.NettyChannelBuilder;
 import io.grpc.stub.AbstractStub;
@@ -136,6 +160,410 @@ class GrpcClientAutoConfigurationTests {
 			});
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	void clientPropertiesChannelCustomizerAutoConfiguredWithRetryAndHedging() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.health.enabled=true",
+					"spring.grpc.client.channels.test.retry.enabled=true",
+					"spring.grpc.client.channels.test.retry.max-attempts=6",
+					"spring.grpc.client.channels.test.retry.initial-backoff=250ms",
+					"spring.grpc.client.channels.test.retry.retryable-status-codes=unavailable,aborted",
+					"spring.grpc.client.channels.test.methods[kv.Store/Get].hedging.enabled=true",
+					"spring.grpc.client.channels.test.methods[kv.Store/Get].hedging.hedging-delay=20ms",
+					"spring.grpc.client.channels.test.retry-throttling.enabled=true")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				ArgumentCaptor<Map<String, ?>> captor = ArgumentCaptor.forClass(Map.class);
+				verify(builder).defaultServiceConfig(captor.capture());
+				verify(builder).maxRetryAttempts(6);
+				Map<String, Object> serviceConfig = (Map<String, Object>) captor.getValue();
+				assertThat(serviceConfig).containsEntry("healthCheckConfig", Map.of("serviceName", ""))
+					.containsEntry("retryThrottling", Map.of("maxTokens", 10.0, "tokenRatio", 0.1));
+				assertThat((List<Map<String, Object>>) serviceConfig.get("methodConfig")).containsExactly(
+						Map.of("name", List.of(Map.of()), "retryPolicy",
+								Map.of("maxAttempts", 6.0, "initialBackoff", "0.25s", "maxBackoff", "1s",
+										"backoffMultiplier", 2.0, "retryableStatusCodes",
+										List.of("UNAVAILABLE", "ABORTED"))),
+						Map.of("name", List.of(Map.of("service", "kv.Store", "method", "Get")), "hedgingPolicy",
+								Map.of("maxAttempts", 2.0, "hedgingDelay", "0.02s", "nonFatalStatusCodes", List.of())));
+			});
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void clientPropertiesChannelCustomizerAutoConfiguredWithRetryDisabledForMethod() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.retry.enabled=true",
+					"spring.grpc.client.channels.test.methods[*].hedging.enabled=true",
+					"spring.grpc.client.channels.test.methods[*].timeout=5s",
+					"spring.grpc.client.channels.test.methods[kv.Store/Put].retry.enabled=false",
+					"spring.grpc.client.channels.test.methods[kv.Store/Get].timeout=1s")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				ArgumentCaptor<Map<String, ?>> captor = ArgumentCaptor.forClass(Map.class);
+				verify(builder).defaultServiceConfig(captor.capture());
+				Map<String, Object> serviceConfig = (Map<String, Object>) captor.getValue();
+				assertThat((List<Map<String, Object>>) serviceConfig.get("methodConfig")).containsExactly(
+						Map.of("name", List.of(Map.of()), "hedgingPolicy",
+								Map.of("maxAttempts", 2.0, "nonFatalStatusCodes", List.of())),
+						Map.of("name", List.of(Map.of("service", "kv.Store", "method", "Put"))));
+			});
+	}
+
+	@Test
+	void clientPropertiesChannelCustomizerAutoConfiguredWithMethodCallOptions() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.methods[*].timeout=5s",
+					"spring.grpc.client.channels.test.methods[kv.Store].wait-for-ready=true")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				ArgumentCaptor<ClientInterceptor> captor = ArgumentCaptor.forClass(ClientInterceptor.class);
+				verify(builder).intercept(captor.capture());
+				assertThat(captor.getValue()).isInstanceOf(DefaultCallOptionsInterceptor.class)
+					.extracting("defaults", InstanceOfAssertFactories.MAP)
+					.containsOnlyKeys("*", "kv.Store");
+			});
+	}
+
+	@Test
+	void clientPropertiesChannelCustomizerAutoConfiguredWithResponseCache() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.methods[kv.Store/Get].cache.enabled=true",
+					"spring.grpc.client.channels.test.methods[kv.Store/Get].cache.time-to-live=1m",
+					"spring.grpc.client.channels.test.methods[kv.Store/Put].timeout=5s")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				customizer.customize("test", builder);
+				ArgumentCaptor<ClientInterceptor> captor = ArgumentCaptor.forClass(ClientInterceptor.class);
+				verify(builder, Mockito.times(4)).intercept(captor.capture());
+				assertThat(captor.getAllValues().get(0)).isInstanceOf(ResponseCacheInterceptor.class)
+					.extracting("caches", InstanceOfAssertFactories.MAP)
+					.containsOnlyKeys("kv.Store/Get");
+				assertThat(captor.getAllValues().get(1)).isInstanceOf(DefaultCallOptionsInterceptor.class);
+				// The same cache is shared by all channels for a target
+				assertThat(captor.getAllValues().get(2)).isSameAs(captor.getAllValues().get(0));
+			});
+	}
+
+	@Test
+	void responseCacheUsesVaryHeadersAndChannelExecutor() {
+		Executor executor = mock(Executor.class);
+		this.contextRunner()
+			.withBean("grpcExecutor", Executor.class, () -> executor)
+			.withPropertyValues("spring.grpc.client.channels.test.methods[kv.Store/Get].cache.enabled=true",
+					"spring.grpc.client.channels.test.methods[kv.Store/Get].cache.vary=authorization",
+					"spring.grpc.client.channels.test.executor.type=bean",
+					"spring.grpc.client.channels.test.executor.bean-name=grpcExecutor")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				ArgumentCaptor<ClientInterceptor> captor = ArgumentCaptor.forClass(ClientInterceptor.class);
+				verify(builder).intercept(captor.capture());
+				assertThat(captor.getValue()).hasFieldOrPropertyWithValue("executor", executor)
+					.extracting("caches", InstanceOfAssertFactories.map(String.class, Object.class))
+					.extractingByKey("kv.Store/Get")
+					.extracting("policy.vary")
+					.isEqualTo(Set.of("authorization"));
+			});
+	}
+
+	@Test
+	void clientPropertiesChannelCustomizerAutoConfiguredWithExecutors() {
+		Executor executor = mock(Executor.class);
+		this.contextRunner()
+			.withBean("grpcExecutor", Executor.class, () -> executor)
+			.withPropertyValues("spring.grpc.client.default-channel.executor.type=direct",
+					"spring.grpc.client.channels.test.executor.type=bean",
+					"spring.grpc.client.channels.test.executor.bean-name=grpcExecutor",
+					"spring.grpc.client.channels.test.offload-executor.type=bean",
+					"spring.grpc.client.channels.test.offload-executor.bean-name=grpcExecutor")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				verify(builder).executor(executor);
+				verify(builder).offloadExecutor(executor);
+				verify(builder, never()).directExecutor();
+				ManagedChannelBuilder<?> other = Mockito.mock();
+				customizer.customize("other", other);
+				verify(other).directExecutor();
+				verify(other, never()).executor(any());
+			});
+	}
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21)
+	void clientPropertiesChannelCustomizerAutoConfiguredWithVirtualThreads() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.executor.type=virtual")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				verify(builder).executor(any(VirtualThreadTaskExecutor.class));
+			});
+	}
+
+	@Test
+	void clientPropertiesChannelCustomizerRejectsDirectOffloadExecutor() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.offload-executor.type=direct")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				assertThatIllegalStateException().isThrownBy(() -> customizer.customize("test", Mockito.mock()))
+					.withMessageContaining("offload executor");
+			});
+	}
+
+	@Test
+	void clientPropertiesChannelCustomizerAutoConfiguredWithThrottling() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.throttling.enabled=true",
+					"spring.grpc.client.channels.test.throttling.multiplier=1.5")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				customizer.customize("test", builder);
+				ArgumentCaptor<ClientInterceptor> captor = ArgumentCaptor.forClass(ClientInterceptor.class);
+				verify(builder, Mockito.times(2)).intercept(captor.capture());
+				assertThat(captor.getValue()).isInstanceOf(AdaptiveThrottlingInterceptor.class)
+					.hasFieldOrPropertyWithValue("multiplier", 1.5);
+				// The same throttle is shared by all channels for a target
+				assertThat(captor.getAllValues().get(0)).isSameAs(captor.getAllValues().get(1));
+			});
+	}
+
+	@Test
+	void clientPropertiesChannelCustomizerAutoConfiguredWithCircuitBreaker() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.circuit-breaker.enabled=true",
+					"spring.grpc.client.channels.test.circuit-breaker.minimum-number-of-calls=10")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				customizer.customize("test", builder);
+				ArgumentCaptor<ClientInterceptor> captor = ArgumentCaptor.forClass(ClientInterceptor.class);
+				verify(builder, Mockito.times(2)).intercept(captor.capture());
+				assertThat(captor.getValue()).isInstanceOf(CircuitBreakerInterceptor.class)
+					.hasFieldOrPropertyWithValue("target", "test")
+					.hasFieldOrPropertyWithValue("minimumNumberOfCalls", 10);
+				// The same breakers are shared by all channels for a target
+				assertThat(captor.getAllValues().get(0)).isSameAs(captor.getAllValues().get(1));
+			});
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void clientPropertiesChannelCustomizerAutoConfiguredWithLoadBalancingConfig() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.default-load-balancing-policy=least_request",
+					"spring.grpc.client.channels.test.load-balancing.least-request.choice-count=3",
+					"spring.grpc.client.channels.test.load-balancing.outlier-detection.enabled=true",
+					"spring.grpc.client.channels.test.load-balancing.outlier-detection.success-rate.enabled=false",
+					"spring.grpc.client.channels.test.load-balancing.outlier-detection.failure-percentage.enabled=true")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				ArgumentCaptor<Map<String, ?>> captor = ArgumentCaptor.forClass(Map.class);
+				verify(builder).defaultServiceConfig(captor.capture());
+				Map<String, Object> serviceConfig = (Map<String, Object>) captor.getValue();
+				assertThat((List<Map<String, Object>>) serviceConfig.get("loadBalancingConfig"))
+					.containsExactly(Map.of("outlier_detection_experimental",
+							Map.of("interval", "10s", "baseEjectionTime", "30s", "maxEjectionTime", "300s",
+									"maxEjectionPercentage", 10.0, "failurePercentageEjection",
+									Map.of("threshold", 85.0, "enforcementPercentage", 100.0, "minimumHosts", 5.0,
+											"requestVolume", 50.0),
+									"childPolicy", List.of(Map.of("least_request", Map.of("choiceCount", 3.0))))));
+				Map<String, ?> config = (Map<String, ?>) ((List<Map<String, ?>>) serviceConfig
+					.get("loadBalancingConfig")).get(0).get("outlier_detection_experimental");
+				assertThat(LoadBalancerRegistry.getDefaultRegistry()
+					.getProvider("outlier_detection_experimental")
+					.parseLoadBalancingPolicyConfig(config)
+					.getError()).isNull();
+			});
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void clientPropertiesChannelCustomizerAutoConfiguredWithConsistentHash() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.default-load-balancing-policy=consistent_hash",
+					"spring.grpc.client.channels.test.load-balancing.consistent-hash.hash-header=x-cache-key",
+					"spring.grpc.client.channels.test.load-balancing.consistent-hash.algorithm=maglev")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				ArgumentCaptor<Map<String, ?>> captor = ArgumentCaptor.forClass(Map.class);
+				verify(builder).defaultServiceConfig(captor.capture());
+				Map<String, Object> serviceConfig = (Map<String, Object>) captor.getValue();
+				Map<String, ?> config = Map.of("hashHeader", "x-cache-key", "algorithm", "maglev", "minRingSize",
+						1024.0, "tableSize", 65537.0);
+				assertThat((List<Map<String, Object>>) serviceConfig.get("loadBalancingConfig"))
+					.containsExactly(Map.of("consistent_hash", config));
+				assertThat(LoadBalancerRegistry.getDefaultRegistry()
+					.getProvider("consistent_hash")
+					.parseLoadBalancingPolicyConfig(config)
+					.getError()).isNull();
+			});
+	}
+
+	@Test
+	void clientPropertiesChannelCustomizerRejectsConsistentHashWithoutHeader() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.default-load-balancing-policy=consistent_hash")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				assertThatIllegalStateException().isThrownBy(() -> customizer.customize("test", builder))
+					.withMessageContaining("hash-header");
+			});
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void clientPropertiesChannelCustomizerAutoConfiguredWithSubsetting() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.load-balancing.subsetting.subset-size=10",
+					"spring.grpc.client.channels.test.load-balancing.subsetting.client-index=7")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				ArgumentCaptor<Map<String, ?>> captor = ArgumentCaptor.forClass(Map.class);
+				verify(builder).defaultServiceConfig(captor.capture());
+				Map<String, Object> serviceConfig = (Map<String, Object>) captor.getValue();
+				Map<String, ?> config = Map.of("subsetSize", 10.0, "clientIndex", 7.0, "childPolicy",
+						List.of(Map.of("round_robin", Map.of())));
+				assertThat((List<Map<String, Object>>) serviceConfig.get("loadBalancingConfig"))
+					.containsExactly(Map.of("deterministic_subsetting", config));
+				assertThat(LoadBalancerRegistry.getDefaultRegistry()
+					.getProvider("deterministic_subsetting")
+					.parseLoadBalancingPolicyConfig(config)
+					.getError()).isNull();
+			});
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void clientPropertiesChannelCustomizerAutoConfiguredWithZoneAwareness() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.load-balancing.zone-aware.local-zone=us-east-1a",
+					"spring.grpc.client.channels.test.load-balancing.zone-aware.max-requests-per-backend=50",
+					"spring.grpc.client.channels.test.load-balancing.subsetting.subset-size=10")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("test", builder);
+				ArgumentCaptor<Map<String, ?>> captor = ArgumentCaptor.forClass(Map.class);
+				verify(builder).defaultServiceConfig(captor.capture());
+				Map<String, Object> serviceConfig = (Map<String, Object>) captor.getValue();
+				Map<String, ?> config = Map.of("localZone", "us-east-1a", "minHealthyPercent", 70.0,
+						"maxRequestsPerBackend", 50.0, "childPolicy", List.of(Map.of("deterministic_subsetting",
+								Map.of("subsetSize", 10.0, "childPolicy", List.of(Map.of("round_robin", Map.of()))))));
+				assertThat((List<Map<String, Object>>) serviceConfig.get("loadBalancingConfig"))
+					.containsExactly(Map.of("zone_aware", config));
+				assertThat(LoadBalancerRegistry.getDefaultRegistry()
+					.getProvider("zone_aware")
+					.parseLoadBalancingPolicyConfig(config)
+					.getError()).isNull();
+			});
+	}
+
+	@Test
+	void clientPropertiesChannelCustomizerRejectsUnavailableLoadBalancingPolicy() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.default-load-balancing-policy=weighted_round_robin")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				assertThatIllegalStateException().isThrownBy(() -> customizer.customize("test", builder))
+					.withMessageContaining("grpc-xds");
+			});
+	}
+
+	@Test
+	void endpointRegistryAutoConfiguredFromProperties() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.endpoints.kv[0].address=10.0.0.1:9090",
+					"spring.grpc.client.endpoints.kv[0].zone=a",
+					"spring.grpc.client.channels.other.address=localhost:9091")
+			.run((context) -> {
+				EndpointRegistry registry = context.getBean(EndpointRegistry.class);
+				assertThat(registry.getEndpoints("kv")).containsExactly(new Endpoint("10.0.0.1", 9090, 1, "a"));
+				assertThat(context).doesNotHaveBean(EndpointsFileWatcher.class);
+				var customizer = context.getBean("endpointsChannelCustomizer", GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("kv", builder);
+				verify(builder).setNameResolverArg(EndpointNameResolverProvider.REGISTRY, registry);
+				ManagedChannelBuilder<?> other = Mockito.mock();
+				customizer.customize("other", other);
+				verifyNoInteractions(other);
+			});
+	}
+
+	@Test
+	void endpointsFileTargetsAreUsedForUnconfiguredChannels(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("endpoints.properties");
+		Files.writeString(file, "cache[0].address=10.0.0.3:9090\n");
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.endpoints-file.location=" + file.toUri())
+			.run((context) -> {
+				assertThat(context).hasSingleBean(EndpointsFileWatcher.class);
+				var customizer = context.getBean("endpointsChannelCustomizer", GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				customizer.customize("cache", builder);
+				verify(builder).setNameResolverArg(EndpointNameResolverProvider.REGISTRY,
+						context.getBean(EndpointRegistry.class));
+				assertThat(context.getBean(GrpcChannelFactory.class)).extracting("targets")
+					.asInstanceOf(InstanceOfAssertFactories.type(VirtualTargets.class))
+					.extracting((targets) -> targets.getTarget("cache"))
+					.isEqualTo(EndpointNameResolverProvider.SCHEME + ":///cache");
+			});
+	}
+
+	@Test
+	void clientPropertiesChannelCustomizerRejectsRetryWithHedging() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.channels.test.retry.enabled=true",
+					"spring.grpc.client.channels.test.hedging.enabled=true")
+			.run((context) -> {
+				var customizer = context.getBean("clientPropertiesChannelCustomizer",
+						GrpcChannelBuilderCustomizer.class);
+				ManagedChannelBuilder<?> builder = Mockito.mock();
+				assertThatIllegalStateException().isThrownBy(() -> customizer.customize("test", builder));
+			});
+	}
+
 	@Test
 	void clientPropertiesChannelCustomizerAutoConfiguredWithoutHealthAsExpected() {
 		this.contextRunner().run((context) -> {
@@ -263,7 +691,20 @@ class GrpcClientAutoConfigurationTests {
 				.isInstanceOf(expectedChannelFactoryType)
 				.hasFieldOrPropertyWithValue("credentials", context.getBean(NamedChannelCredentialsProvider.class))
 				.extracting("targets")
-				.isInstanceOf(GrpcClientProperties.class));
+				.isInstanceOf(EndpointVirtualTargets.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void channelFactoryAutoConfiguredWithPoolSizes() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.server.port=0", "spring.grpc.client.channels.test.pool-size=4")
+			.run((context) -> assertThat(context).getBean(GrpcChannelFactory.class)
+				.extracting("poolSizes")
+				.satisfies((poolSizes) -> {
+					assertThat(((ToIntFunction<String>) poolSizes).applyAsInt("test")).isEqualTo(4);
+					assertThat(((ToIntFunction<String>) poolSizes).applyAsInt("other")).isEqualTo(1);
+				}));
 	}
 
 	@Test
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.grpc.client.ChannelMonitor;
+import org.springframework.grpc.client.CircuitBreakerInterceptor;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for the {@link GrpcClientMetricsAutoConfiguration}.
+ */
+class GrpcClientMetricsAutoConfigurationTests {
+
+	private ApplicationContextRunner contextRunner() {
+		return new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(GrpcClientMetricsAutoConfiguration.class))
+			.withBean("meterRegistry", MeterRegistry.class, SimpleMeterRegistry::new);
+	}
+
+	@Test
+	void whenMeterRegistryNotProvidedThenAutoConfigSkipped() {
+		new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(GrpcClientMetricsAutoConfiguration.class))
+			.run((context) -> assertThat(context).doesNotHaveBean(GrpcClientMetricsAutoConfiguration.class));
+	}
+
+	@Test
+	void whenMeterRegistryNotOnClasspathAutoConfigSkipped() {
+		this.contextRunner()
+			.withClassLoader(new FilteredClassLoader(MeterRegistry.class))
+			.run((context) -> assertThat(context).doesNotHaveBean(GrpcClientMetricsAutoConfiguration.class));
+	}
+
+	@Test
+	void whenMetricsPropertyDisabledThenAutoConfigSkipped() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.client.metrics.enabled=false")
+			.run((context) -> assertThat(context).doesNotHaveBean(GrpcClientMetricsAutoConfiguration.class));
+	}
+
+	@Test
+	void circuitBreakerMetricsRegistered() {
+		this.contextRunner().run((context) -> {
+			CircuitBreakerInterceptor interceptor = new CircuitBreakerInterceptor("test");
+			interceptor.addListener(context.getBean(CircuitBreakerInterceptor.Listener.class));
+			MethodDescriptor<Object, Object> method = MethodDescriptor.newBuilder(marshaller(), marshaller())
+				.setType(MethodType.UNARY)
+				.setFullMethodName("my.Service/Get")
+				.build();
+			interceptor.interceptCall(method, CallOptions.DEFAULT, Mockito.mock(Channel.class));
+			MeterRegistry registry = context.getBean(MeterRegistry.class);
+			assertThat(registry.get("grpc.client.circuit.breaker.state")
+				.tag("target", "test")
+				.tag("method", "my.Service/Get")
+				.tag("state", "closed")
+				.gauge()
+				.value()).isEqualTo(1.0);
+			assertThat(registry.get("grpc.client.circuit.breaker.not.permitted.calls").functionCounter().count())
+				.isZero();
+		});
+	}
+
+	@Test
+	void channelMetricsRegistered() {
+		this.contextRunner().run((context) -> {
+			ChannelMonitor monitor = new ChannelMonitor("test");
+			context.getBean(ChannelMonitor.Listener.class).created(monitor);
+			ManagedChannel channel = Mockito.mock(ManagedChannel.class);
+			Mockito.when(channel.getState(false)).thenReturn(ConnectivityState.IDLE);
+			monitor.watch(channel);
+			MeterRegistry registry = context.getBean(MeterRegistry.class);
+			assertThat(registry.get("grpc.client.channel.state")
+				.tag("target", "test")
+				.tag("state", "idle")
+				.gauge()
+				.value()).isEqualTo(1.0);
+			assertThat(registry.get("grpc.client.channel.state").tag("state", "ready").gauge().value()).isZero();
+			assertThat(registry.get("grpc.client.channel.calls.completed")
+				.tag("outcome", "failure")
+				.functionCounter()
+				.count()).isZero();
+			assertThat(registry.get("grpc.client.channel.connection.age").timeGauge().value()).isZero();
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MethodDescriptor.Marshaller<Object> marshaller() {
+		return Mockito.mock(MethodDescriptor.Marshaller.class);
+	}
+
+}
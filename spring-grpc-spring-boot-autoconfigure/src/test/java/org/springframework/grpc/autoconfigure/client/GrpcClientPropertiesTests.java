@@ -21,6 +21,7 @@ import static org.assertj.core.api.Assertions.entry;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -30,6 +31,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
 import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.ChannelConfig;
+import org.springframework.grpc.autoconfigure.client.GrpcClientProperties.EndpointConfig;
 import org.springframework.grpc.client.NegotiationType;
 import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -227,6 +229,14 @@ class GrpcClientPropertiesTests {
 			assertThat(properties).extracting("channels", InstanceOfAssertFactories.MAP).isEmpty();
 		}
 
+		@Test
+		void withUnknownNameAndEndpointsReturnsNewChannelWithEndpointsAddress() {
+			var properties = newProperties(new ChannelConfig(), Map.of());
+			properties.getEndpoints().put("kv", List.of(new EndpointConfig()));
+			assertThat(properties.getChannel("kv")).hasFieldOrPropertyWithValue("address", "endpoints:///kv");
+			assertThat(properties.getTarget("kv")).isEqualTo("endpoints:///kv");
+		}
+
 	}
 
 	@Nested
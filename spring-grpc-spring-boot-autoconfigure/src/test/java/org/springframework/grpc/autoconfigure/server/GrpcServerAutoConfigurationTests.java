@@ -37,6 +37,7 @@ import org.mockito.stubbing.Answer;
 
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.autoconfigure.ssl.SslAutoConfiguration;
+import org.springframework.boot.ssl.DefaultSslBundleRegistry;
 import org.springframework.boot.test.context.FilteredClassLoader;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.context.annotation.Bean;
@@ -307,6 +308,25 @@ class GrpcServerAutoConfigurationTests {
 				NettyGrpcServerFactory.class);
 	}
 
+	@Test
+	void shadedNettyServerFactoryWithInsecureSslKeepsInsecureTrustManagerWhenBundleIsUpdated() {
+		this.contextRunner()
+			.withPropertyValues("spring.grpc.server.ssl.bundle=ssltest", "spring.grpc.server.ssl.secure=false",
+					"spring.ssl.bundle.jks.ssltest.keystore.location=classpath:test.jks",
+					"spring.ssl.bundle.jks.ssltest.keystore.password=secret",
+					"spring.ssl.bundle.jks.ssltest.key.password=password")
+			.run((context) -> {
+				GrpcServerFactory factory = context.getBean(GrpcServerFactory.class);
+				assertThat(factory).isInstanceOf(ShadedNettyGrpcServerFactory.class)
+					.hasFieldOrPropertyWithValue("trustManager",
+							io.grpc.netty.shaded.io.netty.handler.ssl.util.InsecureTrustManagerFactory.INSTANCE);
+				DefaultSslBundleRegistry registry = context.getBean(DefaultSslBundleRegistry.class);
+				registry.updateBundle("ssltest", registry.getBundle("ssltest"));
+				assertThat(factory).hasFieldOrPropertyWithValue("trustManager",
+						io.grpc.netty.shaded.io.netty.handler.ssl.util.InsecureTrustManagerFactory.INSTANCE);
+			});
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class ServerBuilderCustomizersConfig {
 
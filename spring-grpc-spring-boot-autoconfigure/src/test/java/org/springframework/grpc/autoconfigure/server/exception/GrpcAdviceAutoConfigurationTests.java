@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.server.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.grpc.server.advice.GrpcAdvice;
+import org.springframework.grpc.server.advice.GrpcAdviceExceptionHandler;
+import org.springframework.grpc.server.advice.GrpcExceptionHandler;
+import org.springframework.grpc.server.exception.GrpcExceptionHandlerInterceptor;
+import org.springframework.grpc.server.lifecycle.GrpcServerLifecycle;
+
+import io.grpc.Status;
+
+/**
+ * Tests for {@link GrpcAdviceAutoConfiguration}.
+ *
+ * @author Dave Syer
+ */
+class GrpcAdviceAutoConfigurationTests {
+
+	private ApplicationContextRunner contextRunner() {
+		// NOTE: we use noop server lifecycle to avoid startup
+		return new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(GrpcAdviceAutoConfiguration.class,
+					GrpcExceptionHandlerAutoConfiguration.class))
+			.withBean("noopServerLifecycle", GrpcServerLifecycle.class, Mockito::mock);
+	}
+
+	@Test
+	void whenNoAdviceRegisteredAutoConfigurationIsSkipped() {
+		this.contextRunner()
+			.run((context) -> assertThat(context).doesNotHaveBean(GrpcAdviceAutoConfiguration.class)
+				.doesNotHaveBean(GrpcExceptionHandlerInterceptor.class));
+	}
+
+	@Test
+	void whenExceptionHandlerPropertyIsFalseAutoConfigurationIsSkipped() {
+		this.contextRunner()
+			.withBean(MyAdvice.class)
+			.withPropertyValues("spring.grpc.server.exception-handler.enabled=false")
+			.run((context) -> assertThat(context).doesNotHaveBean(GrpcAdviceAutoConfiguration.class));
+	}
+
+	@Test
+	void adviceIsUsedByExceptionHandlerInterceptor() {
+		this.contextRunner().withBean(MyAdvice.class).run((context) -> {
+			assertThat(context).hasSingleBean(GrpcAdviceExceptionHandler.class);
+			assertThat(
+					context.getBean(GrpcAdviceExceptionHandler.class).handleException(new IllegalArgumentException()))
+				.isEqualTo(Status.INVALID_ARGUMENT);
+			assertThat(context).getBean(GrpcExceptionHandlerInterceptor.class)
+				.extracting("exceptionHandler.exceptionHandlers",
+						InstanceOfAssertFactories
+							.array(org.springframework.grpc.server.exception.GrpcExceptionHandler[].class))
+				.containsExactly(context.getBean(GrpcAdviceExceptionHandler.class));
+		});
+	}
+
+	@GrpcAdvice
+	static class MyAdvice {
+
+		@GrpcExceptionHandler
+		Status illegalArgument(IllegalArgumentException exception) {
+			return Status.INVALID_ARGUMENT;
+		}
+
+	}
+
+}
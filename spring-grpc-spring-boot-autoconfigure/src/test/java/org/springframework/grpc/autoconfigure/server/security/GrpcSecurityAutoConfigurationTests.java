@@ -18,6 +18,10 @@ package org.springframework.grpc.autoconfigure.server.security;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
@@ -27,15 +31,33 @@ import org.springframework.boot.autoconfigure.logging.ConditionEvaluationReportL
 import org.springframework.boot.logging.LogLevel;
 import org.springframework.boot.test.context.FilteredClassLoader;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.grpc.autoconfigure.server.GrpcServerAutoConfiguration;
 import org.springframework.grpc.server.exception.GrpcExceptionHandler;
+import org.springframework.grpc.server.ServerBuilderCustomizer;
 import org.springframework.grpc.server.lifecycle.GrpcServerLifecycle;
 import org.springframework.grpc.server.security.AuthenticationProcessInterceptor;
+import org.springframework.grpc.server.security.GrpcContextSecurityContextHolderStrategy;
+import org.springframework.grpc.server.security.GrpcContextSecurityContextServerInterceptor;
 import org.springframework.grpc.server.security.GrpcSecurity;
 import org.springframework.grpc.server.security.SecurityGrpcExceptionHandler;
 import org.springframework.security.config.ObjectPostProcessor;
+import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.SecurityFilterChain;
+
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ServerCalls;
 
 /**
  * Tests for {@link GrpcServerAutoConfiguration}.
@@ -44,6 +66,13 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
  */
 class GrpcSecurityAutoConfigurationTests {
 
+	private static final MethodDescriptor<String, String> HELLO = MethodDescriptor.<String, String>newBuilder()
+		.setType(MethodDescriptor.MethodType.UNARY)
+		.setFullMethodName("test/Hello")
+		.setRequestMarshaller(new StringMarshaller())
+		.setResponseMarshaller(new StringMarshaller())
+		.build();
+
 	private ApplicationContextRunner contextRunner() {
 		// NOTE: we use noop server lifecycle to avoid startup
 		return new ApplicationContextRunner()
@@ -96,10 +125,67 @@ class GrpcSecurityAutoConfigurationTests {
 		});
 	}
 
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	void grpcContextModePropagatesAuthenticationFromServletThread() throws Exception {
+		new WebApplicationContextRunner().withConfiguration(AutoConfigurations.of(GrpcSecurityAutoConfiguration.class))
+			.withBean(SecurityFilterChain.class, Mockito::mock)
+			.withPropertyValues("spring.grpc.server.security.grpc-context.enabled=true")
+			.run((context) -> {
+				GrpcContextSecurityContextHolderStrategy strategy = context
+					.getBean(GrpcContextSecurityContextHolderStrategy.class);
+				String name = InProcessServerBuilder.generateName();
+				InProcessServerBuilder builder = InProcessServerBuilder.forName(name);
+				((ServerBuilderCustomizer) context.getBean("securityContextStreamTracerCustomizer")).customize(builder);
+				ServerServiceDefinition service = ServerServiceDefinition.builder("test")
+					.addMethod(HELLO, ServerCalls.asyncUnaryCall((request, responses) -> {
+						responses.onNext(strategy.getContext().getAuthentication().getName());
+						responses.onCompleted();
+					}))
+					.build();
+				Server server = builder
+					.addService(ServerInterceptors.intercept(service,
+							context.getBean(GrpcContextSecurityContextServerInterceptor.class)))
+					.build()
+					.start();
+				ManagedChannel channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+				try {
+					// Simulates the security filter chain on the servlet thread
+					strategy.setContext(new SecurityContextImpl(new TestingAuthenticationToken("user", "password")));
+					assertThat(ClientCalls.blockingUnaryCall(channel, HELLO, CallOptions.DEFAULT, "hello"))
+						.isEqualTo("user");
+				}
+				finally {
+					strategy.clearContext();
+					channel.shutdownNow();
+					server.shutdownNow();
+				}
+			});
+	}
+
 	@EnableMethodSecurity
 	@Configuration(proxyBeanMethods = false)
 	static class ExtraConfiguration {
 
 	}
 
+	static class StringMarshaller implements MethodDescriptor.Marshaller<String> {
+
+		@Override
+		public InputStream stream(String value) {
+			return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String parse(InputStream stream) {
+			try {
+				return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.grpc.autoconfigure.server.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.grpc.client.security.ClientCredentialsTokenCache;
+
+/**
+ * Tests for {@link OAuth2ClientAutoConfiguration}.
+ */
+class OAuth2ClientAutoConfigurationTests {
+
+	private ApplicationContextRunner contextRunner() {
+		return new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(OAuth2ClientAutoConfiguration.class));
+	}
+
+	@Test
+	void notConfiguredWithoutClients() {
+		this.contextRunner().run((context) -> assertThat(context).doesNotHaveBean(ClientCredentialsTokenCache.class));
+	}
+
+	@Test
+	void tokenCacheConfiguredForClients() {
+		this.contextRunner()
+			.withPropertyValues("spring.security.oauth2.client.registration.spring.client-id=client",
+					"spring.security.oauth2.client.registration.spring.client-secret=secret",
+					"spring.security.oauth2.client.registration.spring.authorization-grant-type=client_credentials",
+					"spring.security.oauth2.client.provider.spring.token-uri=http://localhost:9000/oauth2/token")
+			.run((context) -> assertThat(context).getBean(ClientCredentialsTokenCache.class)
+				.satisfies((cache) -> assertThat(cache.getToken("spring")).isNotNull()));
+	}
+
+}